@@ -0,0 +1,33 @@
+package com.ruoyi.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * 认证热路径基准测试入口
+ * 依次以单线程和多线程（默认为 CPU 核数）运行全部基准，并开启 GC 分析器统计分配速率
+ * <p>
+ * 用法：java -cp target/benchmarks.jar com.ruoyi.benchmark.AuthBenchmarkRunner [正则] [线程数]
+ *
+ * @author ruoyi
+ */
+public class AuthBenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException {
+        String include = args.length > 0 ? args[0] : "com\\.ruoyi\\.benchmark\\..*";
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+
+        for (int threadCount : new int[]{1, threads}) {
+            ChainedOptionsBuilder options = new OptionsBuilder()
+                    .include(include)
+                    .addProfiler(GCProfiler.class)
+                    .threads(threadCount)
+                    .result("jmh-result-" + threadCount + "t.json")
+                    .resultFormat(org.openjdk.jmh.results.format.ResultFormatType.JSON);
+            new Runner(options.build()).run();
+        }
+    }
+}
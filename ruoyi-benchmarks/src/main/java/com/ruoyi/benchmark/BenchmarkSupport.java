@@ -0,0 +1,38 @@
+package com.ruoyi.benchmark;
+
+import com.ruoyi.framework.utils.JwtUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * 基准测试公共工具
+ * 在没有 Spring 容器的情况下构造被测组件
+ *
+ * @author ruoyi
+ */
+final class BenchmarkSupport {
+
+    /**
+     * 访问令牌有效期（毫秒），与 application.yml 默认值一致
+     */
+    static final long EXPIRATION = 86400000L;
+
+    /**
+     * 刷新令牌有效期（毫秒），与 application.yml 默认值一致
+     */
+    static final long REFRESH_EXPIRATION = 604800000L;
+
+    private BenchmarkSupport() {
+    }
+
+    /**
+     * 创建已注入配置的 JwtUtils
+     *
+     * @return JwtUtils
+     */
+    static JwtUtils newJwtUtils() {
+        JwtUtils jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "expiration", EXPIRATION);
+        ReflectionTestUtils.setField(jwtUtils, "refreshExpiration", REFRESH_EXPIRATION);
+        return jwtUtils;
+    }
+}
@@ -0,0 +1,152 @@
+package com.ruoyi.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * HTTP 压测工具
+ * 以固定数量的并发客户端（闭环：每个客户端收到响应后立即发下一个请求）持续请求指定地址，
+ * 输出吞吐量与延迟分位数；提供管理员令牌时，结束后读取服务端 /admin/monitor/metrics 中的内存、线程、
+ * 数据库许可与虚拟线程钉住指标，用于对比平台线程模式与虚拟线程模式（--spring.profiles.active=virtual）
+ * <p>
+ * 用法：java -cp target/benchmarks.jar com.ruoyi.benchmark.HttpLoadGenerator
+ * &lt;url&gt; [客户端数=5000] [持续秒数=60] [Bearer 令牌]
+ * <p>
+ * 例如：java -cp target/benchmarks.jar com.ruoyi.benchmark.HttpLoadGenerator http://localhost:8080/user/list 5000 60 eyJ...
+ *
+ * @author ruoyi
+ */
+public class HttpLoadGenerator {
+
+    /**
+     * 每个 2 的幂区间再细分的桶数，相对误差约 6%
+     */
+    private static final int SUB_BUCKETS = 16;
+
+    private static final AtomicLongArray HISTOGRAM = new AtomicLongArray(64 * SUB_BUCKETS);
+
+    private static final LongAdder COMPLETED = new LongAdder();
+
+    private static final LongAdder FAILED = new LongAdder();
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("用法: HttpLoadGenerator <url> [客户端数] [持续秒数] [Bearer 令牌]");
+            return;
+        }
+        URI uri = URI.create(args[0]);
+        int clients = args.length > 1 ? Integer.parseInt(args[1]) : 5000;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 60;
+        String token = args.length > 3 ? args[3] : null;
+
+        ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(executor)
+                .build();
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(30)).GET();
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        HttpRequest request = builder.build();
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        CountDownLatch finished = new CountDownLatch(clients);
+        long start = System.nanoTime();
+        for (int i = 0; i < clients; i++) {
+            send(client, request, deadline, finished);
+        }
+        finished.await();
+        double elapsed = (System.nanoTime() - start) / 1e9;
+
+        long completed = COMPLETED.sum();
+        System.out.printf("客户端数: %d, 持续: %.1fs%n", clients, elapsed);
+        System.out.printf("成功: %d, 失败: %d, 吞吐量: %.1f req/s%n", completed, FAILED.sum(), completed / elapsed);
+        System.out.printf("延迟(ms) p50=%.2f p90=%.2f p99=%.2f p99.9=%.2f max=%.2f%n",
+                percentile(0.50), percentile(0.90), percentile(0.99), percentile(0.999), percentile(1.0));
+
+        if (token != null) {
+            URI metrics = uri.resolve("/admin/monitor/metrics");
+            HttpResponse<String> response = client.send(HttpRequest.newBuilder(metrics)
+                    .header("Authorization", "Bearer " + token).GET().build(), HttpResponse.BodyHandlers.ofString());
+            System.out.println("服务端指标: " + response.body());
+        }
+        executor.shutdownNow();
+    }
+
+    /**
+     * 发送一个请求，完成后在截止时间前继续发送下一个
+     */
+    private static void send(HttpClient client, HttpRequest request, long deadline, CountDownLatch finished) {
+        long sentAt = System.nanoTime();
+        if (sentAt >= deadline) {
+            finished.countDown();
+            return;
+        }
+        client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, e) -> {
+            if (e == null && response.statusCode() < 400) {
+                COMPLETED.increment();
+                record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - sentAt));
+            } else {
+                FAILED.increment();
+            }
+            send(client, request, deadline, finished);
+        });
+    }
+
+    private static void record(long micros) {
+        HISTOGRAM.incrementAndGet(bucket(Math.max(1, micros)));
+    }
+
+    /**
+     * 对数-线性分桶：最高位决定区间，其后 4 位决定区间内的桶
+     */
+    private static int bucket(long value) {
+        int magnitude = 63 - Long.numberOfLeadingZeros(value);
+        if (magnitude < 4) {
+            return (int) value;
+        }
+        return magnitude * SUB_BUCKETS + (int) ((value >>> (magnitude - 4)) & (SUB_BUCKETS - 1));
+    }
+
+    /**
+     * 桶的上界（微秒）
+     */
+    private static long upperBound(int bucket) {
+        int magnitude = bucket / SUB_BUCKETS;
+        if (magnitude < 4) {
+            return bucket;
+        }
+        long sub = bucket % SUB_BUCKETS;
+        return ((SUB_BUCKETS + sub + 1) << (magnitude - 4)) - 1;
+    }
+
+    private static double percentile(double quantile) {
+        long total = 0;
+        for (int i = 0; i < HISTOGRAM.length(); i++) {
+            total += HISTOGRAM.get(i);
+        }
+        if (total == 0) {
+            return 0.0;
+        }
+        long target = Math.max(1, (long) Math.ceil(total * quantile));
+        long seen = 0;
+        for (int i = 0; i < HISTOGRAM.length(); i++) {
+            seen += HISTOGRAM.get(i);
+            if (seen >= target) {
+                return upperBound(i) / 1000.0;
+            }
+        }
+        return upperBound(HISTOGRAM.length() - 1) / 1000.0;
+    }
+}
@@ -0,0 +1,47 @@
+package com.ruoyi.benchmark;
+
+import com.ruoyi.framework.utils.CommonResult;
+import com.ruoyi.framework.utils.JsonUtils;
+import com.ruoyi.module.user.dto.LoginResponse;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JsonUtils 基准测试
+ * 以登录接口的响应体 CommonResult&lt;LoginResponse&gt; 为样本
+ *
+ * @author ruoyi
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonUtilsBenchmark {
+
+    private CommonResult<LoginResponse> result;
+
+    private String json;
+
+    @Setup
+    public void setup() {
+        String accessToken = BenchmarkSupport.newJwtUtils().generateToken("admin", 1L, "ROLE_USER");
+        String refreshToken = BenchmarkSupport.newJwtUtils().generateRefreshToken("admin");
+        LoginResponse response = new LoginResponse(accessToken, refreshToken,
+                BenchmarkSupport.EXPIRATION / 1000, 1L, "admin", "ROLE_USER");
+        result = CommonResult.success(response, "登录成功");
+        json = JsonUtils.toJson(result);
+    }
+
+    @Benchmark
+    public String toJson() {
+        return JsonUtils.toJson(result);
+    }
+
+    @Benchmark
+    public CommonResult<?> fromJson() {
+        return JsonUtils.fromJson(json, CommonResult.class);
+    }
+}
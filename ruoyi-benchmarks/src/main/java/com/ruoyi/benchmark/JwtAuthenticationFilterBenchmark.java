@@ -0,0 +1,99 @@
+package com.ruoyi.benchmark;
+
+import com.ruoyi.framework.config.SecurityConfig;
+import com.ruoyi.framework.security.JwtAuthenticationFilter;
+import com.ruoyi.framework.security.JwtClaimsCache;
+import com.ruoyi.framework.security.PermissionDictionary;
+import com.ruoyi.framework.security.RequestPathClassifier;
+import com.ruoyi.framework.security.TokenRevocationStore;
+import com.ruoyi.framework.utils.JwtUtils;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JwtAuthenticationFilter 基准测试
+ * 使用 Mock Servlet 对象驱动完整的过滤流程，分别测量声明缓存开启与关闭、受保护路径与公开路径的开销
+ *
+ * @author ruoyi
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    /**
+     * 全部线程共享的过滤器与令牌
+     */
+    @State(Scope.Benchmark)
+    public static class FilterState {
+
+        @Param({"true", "false"})
+        public boolean cacheEnabled;
+
+        @Param({"/user/list", "/actuator/health"})
+        public String path;
+
+        JwtAuthenticationFilter filter;
+
+        TokenRevocationStore revocationStore;
+
+        String authorization;
+
+        @Setup
+        public void setup() {
+            JwtUtils jwtUtils = BenchmarkSupport.newJwtUtils();
+            filter = new JwtAuthenticationFilter();
+            revocationStore = new TokenRevocationStore(100000, 0.001, null, 30);
+            filter.setClaimsCache(new JwtClaimsCache(jwtUtils, 10000, cacheEnabled));
+            filter.setRevocationStore(revocationStore);
+            filter.setPermissionDictionary(new PermissionDictionary(2048));
+            filter.setPathClassifier(new RequestPathClassifier()
+                    .add(RequestPathClassifier.Category.PUBLIC, SecurityConfig.ANONYMOUS_PATHS));
+            authorization = "Bearer " + jwtUtils.generateToken("admin", 1L, "ROLE_USER,ROLE_ADMIN");
+        }
+
+        @TearDown
+        public void tearDown() {
+            revocationStore.close();
+        }
+    }
+
+    /**
+     * 每个线程独享的请求、响应对象
+     */
+    @State(Scope.Thread)
+    public static class RequestState {
+
+        MockHttpServletRequest request;
+
+        MockHttpServletResponse response;
+
+        @Setup
+        public void setup(FilterState state) {
+            request = new MockHttpServletRequest("GET", state.path);
+            request.addHeader("Authorization", state.authorization);
+            response = new MockHttpServletResponse();
+        }
+
+        @TearDown(Level.Invocation)
+        public void reset() {
+            // 清除 OncePerRequestFilter 的已过滤标记与安全上下文，保证每次调用走完整流程
+            request.clearAttributes();
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    @Benchmark
+    public MockFilterChain doFilter(FilterState state, RequestState requestState) throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+        state.filter.doFilter(requestState.request, requestState.response, chain);
+        return chain;
+    }
+}
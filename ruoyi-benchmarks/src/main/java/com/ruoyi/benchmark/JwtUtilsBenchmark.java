@@ -0,0 +1,61 @@
+package com.ruoyi.benchmark;
+
+import com.ruoyi.framework.utils.JwtClaims;
+import com.ruoyi.framework.utils.JwtUtils;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JwtUtils 基准测试
+ * 覆盖令牌签发与验签，并与通用 jjwt 解析路径对比
+ *
+ * @author ruoyi
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtUtilsBenchmark {
+
+    private JwtUtils jwtUtils;
+
+    private String accessToken;
+
+    @Setup
+    public void setup() {
+        jwtUtils = BenchmarkSupport.newJwtUtils();
+        accessToken = jwtUtils.generateToken("admin", 1L, "ROLE_USER,ROLE_ADMIN");
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtils.generateToken("admin", 1L, "ROLE_USER,ROLE_ADMIN");
+    }
+
+    @Benchmark
+    public String generateRefreshToken() {
+        return jwtUtils.generateRefreshToken("admin");
+    }
+
+    @Benchmark
+    public Boolean validateToken() {
+        return jwtUtils.validateToken(accessToken);
+    }
+
+    @Benchmark
+    public JwtClaims parseToken() {
+        return jwtUtils.parseToken(accessToken);
+    }
+
+    /**
+     * 通用 jjwt 解析路径，作为 parseToken 的对照
+     */
+    @Benchmark
+    public Claims parseTokenWithJjwt() {
+        return jwtUtils.getClaimFromToken(accessToken, claims -> claims);
+    }
+}
@@ -0,0 +1,92 @@
+package com.ruoyi.benchmark;
+
+import com.ruoyi.framework.utils.JwtUtils;
+import com.ruoyi.framework.utils.SigningKeyRing;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.Jwts;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 令牌签发基准测试
+ * 模拟一次登录签发访问令牌与刷新令牌，对比专用签发器与 jjwt 构建器；
+ * 分配量以 GC 分析器的 gc.alloc.rate.norm（每次调用字节数）为准，
+ * 例如：java -jar target/benchmarks.jar TokenMintingBenchmark -prof gc
+ *
+ * @author ruoyi
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenMintingBenchmark {
+
+    private static final String AUTHORITIES = "ROLE_USER,user:list,user:add,user:edit,user:remove";
+
+    private static final String FAMILY_ID = UUID.randomUUID().toString();
+
+    private static final String TOKEN_ID = UUID.randomUUID().toString();
+
+    private JwtUtils jwtUtils;
+
+    private SigningKeyRing.SigningKey signingKey;
+
+    @Setup
+    public void setup() {
+        jwtUtils = BenchmarkSupport.newJwtUtils();
+        signingKey = jwtUtils.getKeyRing().getSigningKey();
+    }
+
+    /**
+     * 专用签发器：登录时的访问令牌与刷新令牌
+     */
+    @Benchmark
+    public void mintLoginTokens(Blackhole blackhole) {
+        blackhole.consume(jwtUtils.generateToken("admin", 1L, AUTHORITIES, FAMILY_ID));
+        blackhole.consume(jwtUtils.generateRefreshToken("admin", FAMILY_ID, TOKEN_ID));
+    }
+
+    /**
+     * jjwt 构建器（改造前的实现），作为对照
+     */
+    @Benchmark
+    public void mintLoginTokensWithJjwt(Blackhole blackhole) {
+        Date now = new Date();
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("userId", 1L);
+        claims.put("username", "admin");
+        claims.put("authorities", AUTHORITIES);
+        claims.put("fid", FAMILY_ID);
+        blackhole.consume(Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, signingKey.getKeyId())
+                .setClaims(claims)
+                .setSubject("admin")
+                .setId(UUID.randomUUID().toString())
+                .setIssuedAt(now)
+                .setExpiration(new Date(now.getTime() + BenchmarkSupport.EXPIRATION))
+                .signWith(signingKey.getSigningKey(), signingKey.getAlgorithm())
+                .compact());
+
+        Date refreshNow = new Date();
+        Map<String, Object> refreshClaims = new HashMap<>();
+        refreshClaims.put("type", "refresh");
+        refreshClaims.put("fid", FAMILY_ID);
+        blackhole.consume(Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, signingKey.getKeyId())
+                .setClaims(refreshClaims)
+                .setSubject("admin")
+                .setId(TOKEN_ID)
+                .setIssuedAt(refreshNow)
+                .setExpiration(new Date(refreshNow.getTime() + BenchmarkSupport.REFRESH_EXPIRATION))
+                .signWith(signingKey.getSigningKey(), signingKey.getAlgorithm())
+                .compact());
+    }
+}
@@ -0,0 +1,116 @@
+package com.ruoyi.benchmark;
+
+import com.ruoyi.module.user.cache.UserResourceIndex;
+import com.ruoyi.module.user.domain.UserResource;
+import com.ruoyi.module.user.mapper.UserResourceMapper;
+import org.apache.ibatis.executor.result.DefaultResultContext;
+import org.apache.ibatis.session.ResultHandler;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 用户资源授权索引基准测试
+ * 从模拟的 user_resource 流式构建索引（每个用户随机分配资源），测量权限判断与计数的耗时；
+ * 索引常驻内存在准备阶段打印（估算值与已用堆的增加量），
+ * 例如：java -jar target/benchmarks.jar UserResourceIndexBenchmark -p links=10000000
+ *
+ * @author ruoyi
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+public class UserResourceIndexBenchmark {
+
+    @Param({"10000000"})
+    private int links;
+
+    @Param({"200000"})
+    private int users;
+
+    @Param({"2000"})
+    private int resources;
+
+    private UserResourceIndex index;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        UserResourceMapper mapper = (UserResourceMapper) Proxy.newProxyInstance(
+                UserResourceMapper.class.getClassLoader(), new Class<?>[]{UserResourceMapper.class},
+                (proxy, method, args) -> {
+                    if (!"selectAllUserResourceLinks".equals(method.getName())) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    @SuppressWarnings("unchecked")
+                    ResultHandler<UserResource> handler = (ResultHandler<UserResource>) args[0];
+                    streamLinks(handler);
+                    return null;
+                });
+        index = new UserResourceIndex();
+        setField("userResourceMapper", mapper);
+        setField("enabled", true);
+
+        long before = usedHeap();
+        index.verify(true);
+        System.out.printf("%n%d 条关联（%d 个用户、%d 个资源），估算 %.1f MB，已用堆增加 %.1f MB%n",
+                index.countLinks(), users, resources,
+                ((Number) index.stats().get("memoryBytes")).longValue() / 1024.0 / 1024.0,
+                (usedHeap() - before) / 1024.0 / 1024.0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        index.destroy();
+    }
+
+    @Benchmark
+    public Boolean hasResource() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return index.hasResource((long) random.nextInt(1, users + 1), (long) random.nextInt(1, resources + 1));
+    }
+
+    @Benchmark
+    public Integer countResourcesByUserId() {
+        return index.countResourcesByUserId((long) ThreadLocalRandom.current().nextInt(1, users + 1));
+    }
+
+    @Benchmark
+    public Integer countUsersByResourceId() {
+        return index.countUsersByResourceId((long) ThreadLocalRandom.current().nextInt(1, resources + 1));
+    }
+
+    private void streamLinks(ResultHandler<UserResource> handler) {
+        Random random = new Random(42);
+        DefaultResultContext<UserResource> context = new DefaultResultContext<>();
+        int perUser = links / users;
+        for (long userId = 1; userId <= users; userId++) {
+            // 每个用户从随机起点取连续的一段资源，保证关联不重复
+            int start = random.nextInt(resources);
+            for (int i = 0; i < perUser; i++) {
+                context.nextResultObject(new UserResource(userId, (long) (start + i) % resources + 1));
+                handler.handleResult(context);
+            }
+        }
+    }
+
+    private void setField(String name, Object value) throws ReflectiveOperationException {
+        Field field = UserResourceIndex.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(index, value);
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
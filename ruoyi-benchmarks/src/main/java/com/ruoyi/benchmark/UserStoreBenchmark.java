@@ -0,0 +1,88 @@
+package com.ruoyi.benchmark;
+
+import com.ruoyi.module.user.cache.OffHeapUserStore;
+import com.ruoyi.module.user.domain.User;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 用户记录存储基准测试
+ * 对比堆外存储与堆上 ConcurrentHashMap 按ID、按用户名的随机读取。堆外存储每次读取都要解码出新的 User，
+ * 分配量以 gc.alloc.rate.norm 为准；两者常驻内存的差别在准备阶段打印（堆上存储的已用堆大小），
+ * GC 停顿可加 -jvmArgsAppend -Xlog:gc 对比，
+ * 例如：java -jar target/benchmarks.jar UserStoreBenchmark -p records=5000000 -prof gc -jvmArgsAppend "-Xmx8g -XX:MaxDirectMemorySize=2g"
+ *
+ * @author ruoyi
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g", "-XX:MaxDirectMemorySize=1g"})
+public class UserStoreBenchmark {
+
+    private static final String PASSWORD = "$2a$10$N9qo8uLOickgx2ZMRZoMyeIjZAgcfl7p92ldGxad68LJZdL17lhWy";
+
+    @Param({"1000000"})
+    private int records;
+
+    @Param({"offHeap", "onHeap"})
+    private String store;
+
+    private OffHeapUserStore offHeapStore;
+
+    private ConcurrentHashMap<Long, User> byId;
+
+    private ConcurrentHashMap<String, User> byUsername;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        long before = usedHeap();
+        if ("offHeap".equals(store)) {
+            offHeapStore = new OffHeapUserStore(records, 16, 128);
+            for (long id = 1; id <= records; id++) {
+                offHeapStore.put(newUser(id), offHeapStore.epoch());
+            }
+        } else {
+            byId = new ConcurrentHashMap<>(records * 2);
+            byUsername = new ConcurrentHashMap<>(records * 2);
+            for (long id = 1; id <= records; id++) {
+                User user = newUser(id);
+                byId.put(id, user);
+                byUsername.put(user.getUsername().toLowerCase(Locale.ROOT), user);
+            }
+        }
+        System.out.printf("%n%s 存储 %d 条记录，已用堆增加 %.1f MB%n", store, records,
+                (usedHeap() - before) / 1024.0 / 1024.0);
+    }
+
+    @Benchmark
+    public User getById() {
+        long id = ThreadLocalRandom.current().nextLong(1, records + 1);
+        return offHeapStore != null ? offHeapStore.get(id) : byId.get(id);
+    }
+
+    @Benchmark
+    public User getByUsername() {
+        String username = "user" + ThreadLocalRandom.current().nextLong(1, records + 1);
+        return offHeapStore != null ? offHeapStore.getByUsername(username)
+                : byUsername.get(username.toLowerCase(Locale.ROOT));
+    }
+
+    private static User newUser(long id) {
+        return new User(id, "user" + id, (int) (id % 100), PASSWORD);
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,192 @@
+package com.ruoyi.framework.concurrent;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 数据库并发许可数据源
+ * 获取连接前先获取许可，连接关闭（归还连接池）时释放，许可数与连接池大小一致。虚拟线程模式下并发请求数不再受
+ * Tomcat 线程数限制，没有这层限制时成千上万的虚拟线程会同时排在连接池上，超时后又一起重试。
+ * 许可与连接一一对应：事务内的多条语句、游标查询（queryCursor）都只占用一个许可，
+ * 不会出现持有连接的事务再为下一条语句等待许可的情况。
+ * 等待许可超过 acquireTimeout 时抛出 {@link SQLTransientConnectionException}，与连接池获取超时的处理方式一致。
+ * 同一线程已持有连接时再次获取（例如 REQUIRES_NEW 事务）不重复获取许可，避免线程自己等待自己
+ *
+ * @author ruoyi
+ */
+public class DbPermitDataSource extends DelegatingDataSource {
+
+    /**
+     * 当前线程持有的带许可连接数
+     */
+    private static final ThreadLocal<int[]> HELD = ThreadLocal.withInitial(() -> new int[1]);
+
+    private final Semaphore permits;
+
+    private final int maxConcurrent;
+
+    private final long acquireTimeoutNanos;
+
+    private final LongAdder acquired = new LongAdder();
+
+    private final LongAdder nested = new LongAdder();
+
+    private final LongAdder timeouts = new LongAdder();
+
+    private final LongAdder contended = new LongAdder();
+
+    private final LongAdder totalWaitNanos = new LongAdder();
+
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    /**
+     * 构造函数
+     *
+     * @param targetDataSource 连接池
+     * @param maxConcurrent 最大并发连接数，应等于连接池大小
+     * @param acquireTimeoutMillis 等待许可的最长时间（毫秒）
+     */
+    public DbPermitDataSource(DataSource targetDataSource, int maxConcurrent, long acquireTimeoutMillis) {
+        super(targetDataSource);
+        if (maxConcurrent <= 0) {
+            throw new IllegalArgumentException("maxConcurrent 必须大于0");
+        }
+        this.maxConcurrent = maxConcurrent;
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.acquireTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, acquireTimeoutMillis));
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return acquireConnection(null, null);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return acquireConnection(username, password);
+    }
+
+    private Connection acquireConnection(String username, String password) throws SQLException {
+        int[] held = HELD.get();
+        if (held[0] > 0) {
+            nested.increment();
+            return connect(username, password);
+        }
+
+        acquire();
+        Connection connection;
+        try {
+            connection = connect(username, password);
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+        held[0]++;
+        return permitted(connection, held);
+    }
+
+    private Connection connect(String username, String password) throws SQLException {
+        DataSource target = obtainTargetDataSource();
+        return username == null ? target.getConnection() : target.getConnection(username, password);
+    }
+
+    private void acquire() throws SQLException {
+        if (permits.tryAcquire()) {
+            acquired.increment();
+            return;
+        }
+        contended.increment();
+        long start = System.nanoTime();
+        boolean success;
+        try {
+            success = permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("等待数据库执行许可时被中断", e);
+        }
+        long waited = System.nanoTime() - start;
+        totalWaitNanos.add(waited);
+        maxWaitNanos.accumulateAndGet(waited, Math::max);
+        if (!success) {
+            timeouts.increment();
+            throw new SQLTransientConnectionException("数据库繁忙，等待 "
+                    + TimeUnit.NANOSECONDS.toMillis(acquireTimeoutNanos) + "ms 仍未获得执行许可");
+        }
+        acquired.increment();
+    }
+
+    /**
+     * 包装连接，首次 close 时释放许可；重复 close 不重复释放
+     */
+    private Connection permitted(Connection connection, int[] held) {
+        AtomicBoolean released = new AtomicBoolean();
+        InvocationHandler handler = (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    break;
+            }
+            if ("close".equals(method.getName()) && method.getParameterCount() == 0) {
+                try {
+                    connection.close();
+                } finally {
+                    if (released.compareAndSet(false, true)) {
+                        held[0]--;
+                        permits.release();
+                    }
+                }
+                return null;
+            }
+            return invoke(connection, method, args);
+        };
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, handler);
+    }
+
+    private static Object invoke(Connection connection, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(connection, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    /**
+     * 获取统计信息
+     *
+     * @return 统计信息
+     */
+    public Map<String, Object> stats() {
+        long contendedCount = contended.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("maxConcurrent", maxConcurrent);
+        stats.put("inUse", maxConcurrent - permits.availablePermits());
+        stats.put("waiting", permits.getQueueLength());
+        stats.put("acquiredCount", acquired.sum());
+        stats.put("nestedCount", nested.sum());
+        stats.put("contendedCount", contendedCount);
+        stats.put("timeoutCount", timeouts.sum());
+        stats.put("avgContendedWaitMillis",
+                contendedCount == 0 ? 0.0 : totalWaitNanos.sum() / 1_000_000.0 / contendedCount);
+        stats.put("maxWaitMillis", maxWaitNanos.get() / 1_000_000.0);
+        return stats;
+    }
+}
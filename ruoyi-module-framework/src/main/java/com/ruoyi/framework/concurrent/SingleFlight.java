@@ -0,0 +1,145 @@
+package com.ruoyi.framework.concurrent;
+
+import org.springframework.dao.QueryTimeoutException;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 并发请求合并（single-flight）
+ * 同一个键同时只执行一次加载：第一个调用方执行加载，其余调用方等待并共享它的结果或异常，
+ * 热点缓存过期或冷启动时成百上千的相同查询只占用一个数据库连接。
+ * 等待超过超时时间时抛出 {@link QueryTimeoutException}，而不是各自再查一次数据库。
+ * 数据写入后调用 {@link #forget} 使之后的调用方不再加入写入前开始的加载
+ *
+ * @param <K> 键类型
+ * @param <V> 结果类型
+ * @author ruoyi
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    private final long defaultTimeoutMillis;
+
+    private final LongAdder loads = new LongAdder();
+
+    private final LongAdder shared = new LongAdder();
+
+    private final LongAdder failures = new LongAdder();
+
+    private final LongAdder timeouts = new LongAdder();
+
+    /**
+     * 构造函数
+     *
+     * @param defaultTimeoutMillis 等待其它调用方加载结果的默认最长时间（毫秒）
+     */
+    public SingleFlight(long defaultTimeoutMillis) {
+        if (defaultTimeoutMillis <= 0) {
+            throw new IllegalArgumentException("defaultTimeoutMillis 必须大于0");
+        }
+        this.defaultTimeoutMillis = defaultTimeoutMillis;
+    }
+
+    /**
+     * 执行加载，同一个键已有加载在进行时等待其结果
+     *
+     * @param key 键
+     * @param loader 加载函数
+     * @return 加载结果
+     */
+    public V execute(K key, Supplier<V> loader) {
+        return execute(key, defaultTimeoutMillis, loader);
+    }
+
+    /**
+     * 执行加载，同一个键已有加载在进行时最多等待 timeoutMillis
+     *
+     * @param key 键
+     * @param timeoutMillis 等待时间（毫秒），只作用于等待方
+     * @param loader 加载函数
+     * @return 加载结果
+     * @throws QueryTimeoutException 等待超时
+     */
+    public V execute(K key, long timeoutMillis, Supplier<V> loader) {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, flight);
+        if (existing == null) {
+            return load(key, flight, loader);
+        }
+
+        shared.increment();
+        try {
+            return existing.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            timeouts.increment();
+            throw new QueryTimeoutException("等待合并查询结果超过 " + timeoutMillis + "ms，键: " + key);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new QueryTimeoutException("等待合并查询结果时被中断，键: " + key, e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    private V load(K key, CompletableFuture<V> flight, Supplier<V> loader) {
+        loads.increment();
+        try {
+            V value = loader.get();
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            failures.increment();
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    /**
+     * 之后的调用方不再加入该键正在进行的加载，已在等待的调用方不受影响
+     *
+     * @param key 键
+     */
+    public void forget(K key) {
+        inFlight.remove(key);
+    }
+
+    /**
+     * 之后的调用方不再加入任何正在进行的加载
+     */
+    public void forgetAll() {
+        inFlight.clear();
+    }
+
+    /**
+     * 获取统计信息
+     *
+     * @return 统计信息
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("inFlight", inFlight.size());
+        stats.put("loadCount", loads.sum());
+        stats.put("sharedCount", shared.sum());
+        stats.put("failureCount", failures.sum());
+        stats.put("timeoutCount", timeouts.sum());
+        return stats;
+    }
+}
@@ -0,0 +1,144 @@
+package com.ruoyi.framework.concurrent;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 虚拟线程钉住（pinning）监控
+ * 通过 JFR 事件流订阅 jdk.VirtualThreadPinned：虚拟线程在 synchronized 块或本地方法中阻塞时无法让出载体线程，
+ * 典型来源是 JDBC 驱动内部的 synchronized 与业务代码中持锁执行 IO。
+ * 按调用栈顶部若干帧归类计数，每个新位置首次出现时打印告警日志，统计信息供监控接口查询。
+ * 该事件从 JDK 21 开始提供，更早的 JDK 上不会收到任何事件
+ *
+ * @author ruoyi
+ */
+public class VirtualThreadPinningMonitor implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    /**
+     * 最多记录的不同位置数，超出后归入 "other"
+     */
+    private static final int MAX_SITES = 256;
+
+    private static final int TOP_SITES = 10;
+
+    private final RecordingStream stream;
+
+    private final long thresholdMillis;
+
+    private final int stackDepth;
+
+    private final ConcurrentHashMap<String, LongAdder> sites = new ConcurrentHashMap<>();
+
+    private final LongAdder events = new LongAdder();
+
+    private final LongAdder totalPinnedNanos = new LongAdder();
+
+    private final AtomicLong maxPinnedNanos = new AtomicLong();
+
+    /**
+     * 构造函数，立即开始监听
+     *
+     * @param thresholdMillis 钉住时长超过该值才记录（毫秒）
+     * @param stackDepth 归类时使用的栈顶帧数
+     */
+    public VirtualThreadPinningMonitor(long thresholdMillis, int stackDepth) {
+        this.thresholdMillis = Math.max(0, thresholdMillis);
+        this.stackDepth = Math.max(1, stackDepth);
+        this.stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(Duration.ofMillis(this.thresholdMillis)).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::onPinned);
+        stream.startAsync();
+        log.info("虚拟线程钉住监控已启动，阈值 {}ms", this.thresholdMillis);
+    }
+
+    private void onPinned(RecordedEvent event) {
+        long nanos = event.getDuration().toNanos();
+        events.increment();
+        totalPinnedNanos.add(nanos);
+        maxPinnedNanos.accumulateAndGet(nanos, Math::max);
+
+        String site = site(event.getStackTrace());
+        LongAdder counter = sites.get(site);
+        if (counter == null) {
+            if (sites.size() >= MAX_SITES) {
+                site = "other";
+            }
+            LongAdder created = new LongAdder();
+            counter = sites.putIfAbsent(site, created);
+            if (counter == null) {
+                counter = created;
+                log.warn("虚拟线程被钉住 {}ms，位置: {}", nanos / 1_000_000, site);
+            }
+        }
+        counter.increment();
+    }
+
+    /**
+     * 栈顶若干帧组成的位置描述
+     */
+    private String site(RecordedStackTrace stackTrace) {
+        if (stackTrace == null || stackTrace.getFrames().isEmpty()) {
+            return "unknown";
+        }
+        StringBuilder site = new StringBuilder();
+        List<RecordedFrame> frames = stackTrace.getFrames();
+        for (int i = 0; i < frames.size() && i < stackDepth; i++) {
+            RecordedFrame frame = frames.get(i);
+            if (i > 0) {
+                site.append(" <- ");
+            }
+            site.append(frame.getMethod().getType().getName()).append('.').append(frame.getMethod().getName());
+            if (frame.getLineNumber() > 0) {
+                site.append(':').append(frame.getLineNumber());
+            }
+        }
+        return site.toString();
+    }
+
+    /**
+     * 获取统计信息
+     *
+     * @return 统计信息
+     */
+    public Map<String, Object> stats() {
+        long count = events.sum();
+        List<Map.Entry<String, LongAdder>> entries = new ArrayList<>(sites.entrySet());
+        entries.sort(Comparator.comparingLong((Map.Entry<String, LongAdder> e) -> e.getValue().sum()).reversed());
+        Map<String, Long> topSites = new LinkedHashMap<>();
+        for (int i = 0; i < entries.size() && i < TOP_SITES; i++) {
+            topSites.put(entries.get(i).getKey(), entries.get(i).getValue().sum());
+        }
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("thresholdMillis", thresholdMillis);
+        stats.put("pinnedCount", count);
+        stats.put("avgPinnedMillis", count == 0 ? 0.0 : totalPinnedNanos.sum() / 1_000_000.0 / count);
+        stats.put("maxPinnedMillis", maxPinnedNanos.get() / 1_000_000.0);
+        stats.put("siteCount", sites.size());
+        stats.put("topSites", topSites);
+        return stats;
+    }
+
+    @Override
+    public void close() {
+        stream.close();
+    }
+}
@@ -1,9 +1,20 @@
 package com.ruoyi.framework.config;
 
+import com.ruoyi.framework.security.AdaptiveBCryptPasswordEncoder;
 import com.ruoyi.framework.security.JwtAuthenticationFilter;
+import com.ruoyi.framework.security.JwtClaimsCache;
+import com.ruoyi.framework.security.LoginRateLimiter;
+import com.ruoyi.framework.security.PasswordVerificationExecutor;
+import com.ruoyi.framework.security.PermissionDictionary;
+import com.ruoyi.framework.security.RefreshTokenFamilyStore;
+import com.ruoyi.framework.security.RequestPathClassifier;
+import com.ruoyi.framework.security.TokenRevocationStore;
 import com.ruoyi.framework.security.JwtAuthenticationEntryPoint;
 import com.ruoyi.framework.utils.JwtUtils;
+import com.ruoyi.framework.utils.SigningKeyRing;
+import io.jsonwebtoken.SignatureAlgorithm;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -13,8 +24,6 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
@@ -33,12 +42,52 @@ import java.util.Arrays;
 @EnableMethodSecurity(prePostEnabled = true)
 public class SecurityConfig {
 
+    /**
+     * 完全不使用令牌的路径，JWT 过滤器直接跳过，同时无需认证即可访问
+     */
+    public static final String[] ANONYMOUS_PATHS = {
+            "/auth/login", "/auth/refresh", "/auth/jwks", "/login/**", "/register/**", "/public/**",
+            "/swagger-ui/**", "/v3/api-docs/**", "/swagger-resources/**", "/webjars/**",
+            "/actuator/**"
+    };
+
+    /**
+     * 无需认证即可访问、但仍经过 JWT 过滤器的路径。
+     * /auth/** 下的 /auth/me、/auth/validate、/auth/admin/** 等接口依赖过滤器建立的认证信息，不能整体跳过
+     */
+    private static final String[] TOKEN_OPTIONAL_PATHS = {"/auth/**"};
+
+    /**
+     * 无需认证即可访问的路径，由上面两组合并而成，过滤器的跳过范围始终是其子集
+     */
+    public static final String[] PERMIT_ALL_PATHS = concat(ANONYMOUS_PATHS, TOKEN_OPTIONAL_PATHS);
+
+    /**
+     * 管理员路径
+     */
+    public static final String[] ADMIN_PATHS = {"/admin/**"};
+
+    /**
+     * JWT 签名密钥环 Bean
+     * 集群内各节点加载同一份密钥库，任一节点签发的令牌都能在其他节点验证
+     */
+    @Bean
+    public SigningKeyRing signingKeyRing(
+            @Value("${jwt.algorithm:HS512}") String algorithm,
+            @Value("${jwt.keystore.path:}") String keystorePath,
+            @Value("${jwt.keystore.password:}") String keystorePassword,
+            @Value("${jwt.keystore.activation-delay-seconds:300}") long activationDelaySeconds,
+            @Value("${jwt.keystore.reload-interval-seconds:30}") long reloadIntervalSeconds) {
+        return new SigningKeyRing(SignatureAlgorithm.forName(algorithm), keystorePath, keystorePassword,
+                activationDelaySeconds, reloadIntervalSeconds);
+    }
+
     /**
      * JWT 工具类 Bean
      */
     @Bean
-    public JwtUtils jwtUtils() {
-        return new JwtUtils();
+    public JwtUtils jwtUtils(SigningKeyRing signingKeyRing) {
+        return new JwtUtils(signingKeyRing);
     }
 
     /**
@@ -49,19 +98,111 @@ public class SecurityConfig {
         return new JwtAuthenticationEntryPoint();
     }
 
+    /**
+     * JWT 声明缓存 Bean
+     */
+    @Bean
+    public JwtClaimsCache jwtClaimsCache(@Qualifier("jwtUtils") JwtUtils jwtUtils,
+                                         @Value("${jwt.claims-cache.maximum-size:10000}") int maximumSize,
+                                         @Value("${jwt.claims-cache.enabled:true}") boolean enabled) {
+        return new JwtClaimsCache(jwtUtils, maximumSize, enabled);
+    }
+
+    /**
+     * 令牌吊销存储 Bean
+     */
+    @Bean
+    public TokenRevocationStore tokenRevocationStore(
+            @Value("${jwt.revocation.expected-insertions:1000000}") long expectedInsertions,
+            @Value("${jwt.revocation.false-positive-rate:0.001}") double falsePositiveRate,
+            @Value("${jwt.revocation.snapshot-path:}") String snapshotPath,
+            @Value("${jwt.revocation.snapshot-interval-seconds:30}") long snapshotIntervalSeconds) {
+        return new TokenRevocationStore(expectedInsertions, falsePositiveRate, snapshotPath, snapshotIntervalSeconds);
+    }
+
+    /**
+     * 刷新令牌族存储 Bean
+     */
+    @Bean
+    public RefreshTokenFamilyStore refreshTokenFamilyStore(
+            @Value("${jwt.refresh-expiration:604800000}") long refreshExpiration,
+            @Value("${jwt.refresh.log-path:}") String logPath) {
+        return new RefreshTokenFamilyStore(refreshExpiration, logPath);
+    }
+
+    /**
+     * 权限位图字典 Bean
+     */
+    @Bean
+    public PermissionDictionary permissionDictionary(
+            @Value("${jwt.permission-bitmap.max-length:2048}") int maxLength,
+            @Value("${jwt.permission-bitmap.refresh-interval-seconds:300}") long refreshIntervalSeconds) {
+        return new PermissionDictionary(maxLength, refreshIntervalSeconds);
+    }
+
+    /**
+     * 请求路径分类器
+     */
+    @Bean
+    public RequestPathClassifier requestPathClassifier() {
+        return new RequestPathClassifier()
+                .add(RequestPathClassifier.Category.PUBLIC, ANONYMOUS_PATHS);
+    }
+
     @Bean
-    public JwtAuthenticationFilter jwtAuthenticationFilter(@Qualifier("jwtUtils") JwtUtils jwtUtils) {
+    public JwtAuthenticationFilter jwtAuthenticationFilter(JwtClaimsCache jwtClaimsCache,
+                                                           TokenRevocationStore tokenRevocationStore,
+                                                           PermissionDictionary permissionDictionary,
+                                                           RequestPathClassifier requestPathClassifier) {
         JwtAuthenticationFilter filter = new JwtAuthenticationFilter();
-        filter.setJwtUtils(jwtUtils);
+        filter.setPathClassifier(requestPathClassifier);
+        filter.setClaimsCache(jwtClaimsCache);
+        filter.setRevocationStore(tokenRevocationStore);
+        filter.setPermissionDictionary(permissionDictionary);
         return filter;
     }
 
     /**
      * 密码编码器
+     * 未指定强度时按延迟预算在当前主机上校准，强度过低或过高的哈希在下次登录成功后重新编码
      */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public AdaptiveBCryptPasswordEncoder passwordEncoder(
+            @Value("${login.bcrypt.strength:0}") int strength,
+            @Value("${login.bcrypt.latency-budget-millis:100}") long latencyBudgetMillis,
+            @Value("${login.bcrypt.min-strength:10}") int minStrength,
+            @Value("${login.bcrypt.max-strength:14}") int maxStrength) {
+        if (strength > 0) {
+            return AdaptiveBCryptPasswordEncoder.withStrength(strength);
+        }
+        return AdaptiveBCryptPasswordEncoder.calibrate(latencyBudgetMillis, minStrength, maxStrength);
+    }
+
+    /**
+     * 密码校验执行器，登录时的 BCrypt 校验在此执行，不占用 Tomcat 工作线程
+     */
+    @Bean
+    public PasswordVerificationExecutor passwordVerificationExecutor(
+            @Value("${login.password-verification.threads:0}") int threads,
+            @Value("${login.password-verification.queue-capacity:256}") int queueCapacity,
+            @Value("${login.password-verification.max-queue-wait-millis:5000}") long maxQueueWaitMillis) {
+        return new PasswordVerificationExecutor(threads, queueCapacity, maxQueueWaitMillis);
+    }
+
+    /**
+     * 登录限流器，按用户名和客户端 IP 限制登录频率
+     */
+    @Bean
+    public LoginRateLimiter loginRateLimiter(
+            @Value("${login.rate-limit.enabled:true}") boolean enabled,
+            @Value("${login.rate-limit.username.capacity:5}") int usernameCapacity,
+            @Value("${login.rate-limit.username.refill-per-minute:5}") int usernameRefillPerMinute,
+            @Value("${login.rate-limit.ip.capacity:20}") int ipCapacity,
+            @Value("${login.rate-limit.ip.refill-per-minute:30}") int ipRefillPerMinute,
+            @Value("${login.rate-limit.max-entries:100000}") int maxEntries,
+            @Value("${login.rate-limit.idle-seconds:600}") long idleSeconds) {
+        return new LoginRateLimiter(enabled, usernameCapacity, usernameRefillPerMinute,
+                ipCapacity, ipRefillPerMinute, maxEntries, idleSeconds);
     }
 
     /**
@@ -95,23 +236,11 @@ public class SecurityConfig {
             
             // 配置请求授权
             .authorizeHttpRequests(auth -> auth
-                // 公开接口
-                .requestMatchers("/auth/**").permitAll()
-                .requestMatchers("/login/**").permitAll()
-                .requestMatchers("/register/**").permitAll()
-                .requestMatchers("/public/**").permitAll()
-                
-                // Swagger 文档
-                .requestMatchers("/swagger-ui/**").permitAll()
-                .requestMatchers("/v3/api-docs/**").permitAll()
-                .requestMatchers("/swagger-resources/**").permitAll()
-                .requestMatchers("/webjars/**").permitAll()
-                
-                // 健康检查
-                .requestMatchers("/actuator/**").permitAll()
+                // 公开接口、Swagger 文档、健康检查
+                .requestMatchers(PERMIT_ALL_PATHS).permitAll()
                 
                 // 管理员接口
-                .requestMatchers("/admin/**").hasRole("ADMIN")
+                .requestMatchers(ADMIN_PATHS).hasRole("ADMIN")
                 
                 // 其他请求需要认证
                 .anyRequest().authenticated())
@@ -149,4 +278,10 @@ public class SecurityConfig {
         
         return source;
     }
-}
\ No newline at end of file
+
+    private static String[] concat(String[] first, String[] second) {
+        String[] result = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, result, first.length, second.length);
+        return result;
+    }
+}
@@ -0,0 +1,170 @@
+package com.ruoyi.framework.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 自适应强度的 BCrypt 密码编码器
+ * 启动时在当前主机上测量哈希耗时，在延迟预算内选取最大的强度；低于当前强度的哈希视为需要重新编码，
+ * 登录成功后由调用方异步重算。校准结果随主机负载和机型浮动，多节点部署时各节点可能相差一级，
+ * 因此只有高出当前强度超过 {@link #DOWNGRADE_SLACK} 级的哈希才降级，避免哈希在节点间来回重算；
+ * 固定强度（集群统一配置）时强度不一致即重新编码
+ *
+ * @author ruoyi
+ */
+public class AdaptiveBCryptPasswordEncoder extends BCryptPasswordEncoder {
+
+    private static final Logger log = LoggerFactory.getLogger(AdaptiveBCryptPasswordEncoder.class);
+
+    /**
+     * BCrypt 允许的强度范围
+     */
+    private static final int MIN_LOG_ROUNDS = 4;
+
+    private static final int MAX_LOG_ROUNDS = 31;
+
+    /**
+     * 每个强度的测量次数，取中位数
+     */
+    private static final int CALIBRATION_SAMPLES = 3;
+
+    private static final String CALIBRATION_PASSWORD = "calibration-password";
+
+    /**
+     * 校准强度下允许保留的高出级数，超过后才降级重算
+     */
+    static final int DOWNGRADE_SLACK = 1;
+
+    private final int strength;
+
+    /**
+     * 校准时测得的单次哈希耗时（毫秒），未校准时为 -1
+     */
+    private final double measuredMillis;
+
+    private final long latencyBudgetMillis;
+
+    private AdaptiveBCryptPasswordEncoder(int strength, double measuredMillis, long latencyBudgetMillis) {
+        super(strength);
+        this.strength = strength;
+        this.measuredMillis = measuredMillis;
+        this.latencyBudgetMillis = latencyBudgetMillis;
+    }
+
+    /**
+     * 使用固定强度创建编码器
+     *
+     * @param strength 强度
+     */
+    public static AdaptiveBCryptPasswordEncoder withStrength(int strength) {
+        return new AdaptiveBCryptPasswordEncoder(clamp(strength, MIN_LOG_ROUNDS, MAX_LOG_ROUNDS), -1, 0);
+    }
+
+    /**
+     * 在当前主机上校准强度
+     * 先测量最小强度的耗时，每增加 1 级耗时翻倍，据此推算预算内的最大强度，再实测一次修正
+     *
+     * @param latencyBudgetMillis 单次校验的延迟预算（毫秒）
+     * @param minStrength 最小强度
+     * @param maxStrength 最大强度
+     */
+    public static AdaptiveBCryptPasswordEncoder calibrate(long latencyBudgetMillis, int minStrength, int maxStrength) {
+        int min = clamp(minStrength, MIN_LOG_ROUNDS, MAX_LOG_ROUNDS);
+        int max = clamp(Math.max(min, maxStrength), MIN_LOG_ROUNDS, MAX_LOG_ROUNDS);
+
+        // 预热一次，避免把类加载和 JIT 计入测量
+        measure(MIN_LOG_ROUNDS);
+
+        double baseMillis = measure(min);
+        int strength = min;
+        while (strength < max && baseMillis * (1L << (strength + 1 - min)) <= latencyBudgetMillis) {
+            strength++;
+        }
+        double measuredMillis = strength == min ? baseMillis : measure(strength);
+        if (strength > min && measuredMillis > latencyBudgetMillis) {
+            // 推算偏乐观时退一级
+            strength--;
+            measuredMillis = measuredMillis / 2;
+        }
+
+        log.info("BCrypt 强度校准完成: strength={}, 单次耗时约 {} ms, 预算 {} ms",
+                strength, String.format("%.1f", measuredMillis), latencyBudgetMillis);
+        return new AdaptiveBCryptPasswordEncoder(strength, measuredMillis, latencyBudgetMillis);
+    }
+
+    private static double measure(int strength) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+        long[] samples = new long[CALIBRATION_SAMPLES];
+        for (int i = 0; i < samples.length; i++) {
+            long start = System.nanoTime();
+            encoder.encode(CALIBRATION_PASSWORD);
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        return samples[samples.length / 2] / 1_000_000.0;
+    }
+
+    private static int clamp(int value, int min, int max) {
+        return Math.max(min, Math.min(max, value));
+    }
+
+    /**
+     * 强度低于当前强度时升级；校准得到的强度下，高出超过 {@link #DOWNGRADE_SLACK} 级才降级，
+     * 固定强度下不一致即降级
+     */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        int cost = costOf(encodedPassword);
+        if (cost <= 0) {
+            return false;
+        }
+        if (cost < strength) {
+            return true;
+        }
+        int slack = measuredMillis >= 0 ? DOWNGRADE_SLACK : 0;
+        return cost > strength + slack;
+    }
+
+    /**
+     * 从 $2a$10$... 形式的哈希中读取强度
+     *
+     * @return 强度，格式不正确时返回 -1
+     */
+    public static int costOf(String encodedPassword) {
+        if (encodedPassword == null || encodedPassword.length() < 7 || encodedPassword.charAt(0) != '$') {
+            return -1;
+        }
+        int separator = encodedPassword.indexOf('$', 1);
+        if (separator < 0 || separator + 3 >= encodedPassword.length()
+                || encodedPassword.charAt(separator + 3) != '$') {
+            return -1;
+        }
+        char high = encodedPassword.charAt(separator + 1);
+        char low = encodedPassword.charAt(separator + 2);
+        if (high < '0' || high > '9' || low < '0' || low > '9') {
+            return -1;
+        }
+        return (high - '0') * 10 + (low - '0');
+    }
+
+    public int getStrength() {
+        return strength;
+    }
+
+    /**
+     * 获取校准信息
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("strength", strength);
+        stats.put("calibrated", measuredMillis >= 0);
+        stats.put("measuredMillis", measuredMillis);
+        stats.put("latencyBudgetMillis", latencyBudgetMillis);
+        return stats;
+    }
+}
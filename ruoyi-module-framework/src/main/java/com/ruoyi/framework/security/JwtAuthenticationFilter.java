@@ -1,22 +1,20 @@
 package com.ruoyi.framework.security;
 
-import com.ruoyi.framework.utils.JwtUtils;
+import com.ruoyi.framework.utils.JwtClaims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.Arrays;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * JWT 认证过滤器
@@ -25,7 +23,13 @@ import java.util.stream.Collectors;
  */
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
-    private JwtUtils jwtUtils;
+    private JwtClaimsCache claimsCache;
+
+    private TokenRevocationStore revocationStore;
+
+    private PermissionDictionary permissionDictionary;
+
+    private RequestPathClassifier pathClassifier;
 
     /**
      * JWT Token 请求头名称
@@ -37,8 +41,32 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
      */
     private static final String TOKEN_PREFIX = "Bearer ";
 
-    public void setJwtUtils(JwtUtils jwtUtils) {
-        this.jwtUtils = jwtUtils;
+    public void setClaimsCache(JwtClaimsCache claimsCache) {
+        this.claimsCache = claimsCache;
+    }
+
+    public void setRevocationStore(TokenRevocationStore revocationStore) {
+        this.revocationStore = revocationStore;
+    }
+
+    public void setPermissionDictionary(PermissionDictionary permissionDictionary) {
+        this.permissionDictionary = permissionDictionary;
+    }
+
+    public void setPathClassifier(RequestPathClassifier pathClassifier) {
+        this.pathClassifier = pathClassifier;
+    }
+
+    /**
+     * 公开路径不读取、不校验令牌
+     */
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (pathClassifier == null) {
+            return false;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return pathClassifier.classify(path) == RequestPathClassifier.Category.PUBLIC;
     }
 
     @Override
@@ -48,15 +76,17 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         // 从请求头中获取 JWT Token
         String token = getTokenFromRequest(request);
         
-        if (StringUtils.hasText(token) && jwtUtils.validateToken(token)) {
-            // 从 Token 中获取用户信息
-            String username = jwtUtils.getUsernameFromToken(token);
-            Long userId = jwtUtils.getUserIdFromToken(token);
-            String authorities = jwtUtils.getAuthoritiesFromToken(token);
+        if (StringUtils.hasText(token)) {
+            // 一次验签获取全部声明，重复请求直接命中缓存
+            JwtClaims claims = claimsCache.getClaims(token);
             
-            if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            // 刷新令牌只能用于换取新令牌，不能作为访问令牌
+            if (claims != null && claims.getUsername() != null && !claims.isRefreshToken()
+                    && !revocationStore.isRevoked(claims)
+                    && SecurityContextHolder.getContext().getAuthentication() == null) {
                 // 创建认证对象
-                UsernamePasswordAuthenticationToken authentication = createAuthentication(username, userId, authorities);
+                UsernamePasswordAuthenticationToken authentication =
+                        createAuthentication(claims);
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 
                 // 设置到安全上下文中
@@ -84,39 +114,20 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     /**
      * 创建认证对象
      * 
-     * @param username 用户名
-     * @param userId 用户ID
-     * @param authorities 权限字符串
+     * @param claims 已验签的声明
      * @return 认证对象
      */
-    private UsernamePasswordAuthenticationToken createAuthentication(String username, Long userId, String authorities) {
-        // 解析权限
-        List<SimpleGrantedAuthority> grantedAuthorities = parseAuthorities(authorities);
+    private UsernamePasswordAuthenticationToken createAuthentication(JwtClaims claims) {
+        // 解析权限（按声明原文缓存的不可变集合）
+        List<GrantedAuthority> grantedAuthorities =
+                permissionDictionary.resolve(claims.getAuthorities(), claims.getPermissions());
         
         // 创建用户主体对象
-        UserPrincipal userPrincipal = new UserPrincipal(userId, username);
+        UserPrincipal userPrincipal = new UserPrincipal(claims.getUserId(), claims.getUsername());
         
         return new UsernamePasswordAuthenticationToken(userPrincipal, null, grantedAuthorities);
     }
 
-    /**
-     * 解析权限字符串
-     * 
-     * @param authorities 权限字符串（逗号分隔）
-     * @return 权限列表
-     */
-    private List<SimpleGrantedAuthority> parseAuthorities(String authorities) {
-        if (!StringUtils.hasText(authorities)) {
-            return List.of();
-        }
-        
-        return Arrays.stream(authorities.split(","))
-                .map(String::trim)
-                .filter(StringUtils::hasText)
-                .map(SimpleGrantedAuthority::new)
-                .collect(Collectors.toList());
-    }
-
     /**
      * 用户主体类
      */
@@ -0,0 +1,168 @@
+package com.ruoyi.framework.security;
+
+import com.ruoyi.framework.utils.JwtClaims;
+import com.ruoyi.framework.utils.JwtUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 已验签 JWT 声明缓存
+ * 以 Token 的 SHA-256 摘要为键，同一 Token 在过期前重复访问时跳过验签与 JSON 解析
+ *
+ * @author ruoyi
+ */
+public class JwtClaimsCache {
+
+    /**
+     * 摘要算法
+     */
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+
+    /**
+     * 每线程复用的摘要实例
+     */
+    private static final ThreadLocal<MessageDigest> DIGEST = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance(DIGEST_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(DIGEST_ALGORITHM + " 不可用", e);
+        }
+    });
+
+    private final JwtUtils jwtUtils;
+
+    /**
+     * 最大缓存条目数
+     */
+    private final int maximumSize;
+
+    /**
+     * 是否启用缓存
+     */
+    private final boolean enabled;
+
+    private final ConcurrentHashMap<String, JwtClaims> entries;
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder evictions = new LongAdder();
+
+    public JwtClaimsCache(JwtUtils jwtUtils, int maximumSize, boolean enabled) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("maximumSize 必须大于0");
+        }
+        this.jwtUtils = jwtUtils;
+        this.maximumSize = maximumSize;
+        this.enabled = enabled;
+        this.entries = new ConcurrentHashMap<>(Math.min(maximumSize, 1 << 16));
+    }
+
+    /**
+     * 获取 Token 的已验签声明，未命中时解析并写入缓存
+     *
+     * @param token JWT Token
+     * @return 声明快照，Token 无效或已过期时返回 null
+     */
+    public JwtClaims getClaims(String token) {
+        if (!enabled) {
+            return jwtUtils.parseToken(token);
+        }
+
+        long now = System.currentTimeMillis();
+        String key = digest(token);
+        JwtClaims claims = entries.get(key);
+        if (claims != null) {
+            if (!claims.isExpired(now)) {
+                hits.increment();
+                return claims;
+            }
+            entries.remove(key, claims);
+        }
+
+        misses.increment();
+        claims = jwtUtils.parseToken(token);
+        if (claims != null) {
+            if (entries.size() >= maximumSize) {
+                evict(now);
+            }
+            entries.put(key, claims);
+        }
+        return claims;
+    }
+
+    /**
+     * 移除指定 Token 的缓存
+     *
+     * @param token JWT Token
+     */
+    public void invalidate(String token) {
+        entries.remove(digest(token));
+    }
+
+    /**
+     * 清空缓存
+     */
+    public void clear() {
+        entries.clear();
+    }
+
+    /**
+     * 获取缓存统计信息
+     *
+     * @return 统计信息
+     */
+    public Map<String, Object> stats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long total = hitCount + missCount;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("size", entries.size());
+        stats.put("maximumSize", maximumSize);
+        stats.put("hitCount", hitCount);
+        stats.put("missCount", missCount);
+        stats.put("hitRate", total == 0 ? 0.0 : (double) hitCount / total);
+        stats.put("evictionCount", evictions.sum());
+        return stats;
+    }
+
+    /**
+     * 腾出空间：先清理已过期条目，仍不足时按迭代顺序淘汰约十分之一
+     */
+    private void evict(long now) {
+        entries.values().removeIf(claims -> {
+            if (claims.isExpired(now)) {
+                evictions.increment();
+                return true;
+            }
+            return false;
+        });
+
+        int toRemove = entries.size() - maximumSize + Math.max(1, maximumSize / 10);
+        Iterator<String> iterator = entries.keySet().iterator();
+        while (toRemove > 0 && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+            evictions.increment();
+            toRemove--;
+        }
+    }
+
+    /**
+     * 计算 Token 摘要，以 ISO-8859-1 编码为定长字符串作为缓存键
+     */
+    private static String digest(String token) {
+        MessageDigest digest = DIGEST.get();
+        byte[] hash = digest.digest(token.getBytes(StandardCharsets.UTF_8));
+        return new String(hash, StandardCharsets.ISO_8859_1);
+    }
+}
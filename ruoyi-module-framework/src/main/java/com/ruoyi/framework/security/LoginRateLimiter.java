@@ -0,0 +1,264 @@
+package com.ruoyi.framework.security;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 登录限流器
+ * 按用户名和客户端 IP 两个维度各维护一组令牌桶，在查询数据库和校验密码之前拒绝暴力破解与洪泛请求。
+ * 每个维度的令牌桶按键分段，段内按访问顺序排列并由段自身加锁；桶数量有上限，空闲的桶定期清除，
+ * 段满时淘汰最久未访问的桶，内存不随攻击者构造的键无限增长，也不会让新键共用同一个桶而互相限流。
+ * 客户端 IP 取 {@code HttpServletRequest#getRemoteAddr()}，部署在反向代理之后时需配置
+ * {@code server.forward-headers-strategy}，否则所有请求共用代理的 IP
+ *
+ * @author ruoyi
+ */
+public class LoginRateLimiter implements AutoCloseable {
+
+    /**
+     * 限流结果
+     */
+    public enum Result {
+        ALLOWED, THROTTLED_IP, THROTTLED_USERNAME
+    }
+
+    /**
+     * 令牌精度，1 个令牌 = 1000 个单位
+     */
+    private static final long UNITS_PER_TOKEN = 1000L;
+
+    private static final int SEGMENTS = 64;
+
+    private final boolean enabled;
+
+    private final BucketGroup usernameBuckets;
+
+    private final BucketGroup ipBuckets;
+
+    private final long idleNanos;
+
+    private final ScheduledExecutorService scheduler;
+
+    private final LongAdder allowed = new LongAdder();
+
+    private final LongAdder throttledUsername = new LongAdder();
+
+    private final LongAdder throttledIp = new LongAdder();
+
+    private final LongAdder evicted = new LongAdder();
+
+    private final LongAdder evictedLru = new LongAdder();
+
+    /**
+     * 构造函数
+     *
+     * @param enabled 是否启用
+     * @param usernameCapacity 每个用户名的突发上限
+     * @param usernameRefillPerMinute 每个用户名每分钟恢复的次数
+     * @param ipCapacity 每个 IP 的突发上限
+     * @param ipRefillPerMinute 每个 IP 每分钟恢复的次数
+     * @param maxEntries 每个维度最多保留的桶数量
+     * @param idleSeconds 桶空闲多久后清除（秒）
+     */
+    public LoginRateLimiter(boolean enabled, int usernameCapacity, int usernameRefillPerMinute,
+                            int ipCapacity, int ipRefillPerMinute, int maxEntries, long idleSeconds) {
+        this.enabled = enabled;
+        this.usernameBuckets = new BucketGroup(usernameCapacity, usernameRefillPerMinute, maxEntries, evictedLru);
+        this.ipBuckets = new BucketGroup(ipCapacity, ipRefillPerMinute, maxEntries, evictedLru);
+        this.idleNanos = TimeUnit.SECONDS.toNanos(Math.max(1, idleSeconds));
+
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "login-rate-limiter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = Math.max(1, idleSeconds / 2);
+        scheduler.scheduleWithFixedDelay(this::evictIdle, interval, interval, TimeUnit.SECONDS);
+    }
+
+    /**
+     * 尝试放行一次登录
+     * 先检查 IP 再检查用户名；用户名由调用方按数据库排序规则归一化，大小写不同的同一用户名共用一个桶
+     *
+     * @param usernameKey 归一化后的用户名
+     * @param clientIp 客户端 IP
+     * @return 限流结果
+     */
+    public Result tryAcquire(String usernameKey, String clientIp) {
+        if (!enabled) {
+            return Result.ALLOWED;
+        }
+        long now = System.nanoTime();
+        if (clientIp != null && !tryConsume(ipBuckets, clientIp, now)) {
+            throttledIp.increment();
+            return Result.THROTTLED_IP;
+        }
+        if (usernameKey != null && !tryConsume(usernameBuckets, usernameKey, now)) {
+            throttledUsername.increment();
+            return Result.THROTTLED_USERNAME;
+        }
+        allowed.increment();
+        return Result.ALLOWED;
+    }
+
+    private boolean tryConsume(BucketGroup group, String key, long now) {
+        Segment segment = group.segmentFor(key);
+        synchronized (segment) {
+            Bucket bucket = segment.get(key);
+            if (bucket == null) {
+                // 段满时 put 淘汰最久未访问的桶
+                bucket = new Bucket(group.capacityUnits, now);
+                segment.put(key, bucket);
+            }
+            return bucket.tryConsume(group, now);
+        }
+    }
+
+    /**
+     * 清除空闲的令牌桶
+     */
+    public void evictIdle() {
+        long now = System.nanoTime();
+        evictIdle(usernameBuckets, now);
+        evictIdle(ipBuckets, now);
+    }
+
+    private void evictIdle(BucketGroup group, long now) {
+        // 空闲超过阈值的桶早已回满，删除后重建与保留没有区别
+        for (Segment segment : group.segments) {
+            synchronized (segment) {
+                segment.values().removeIf(bucket -> {
+                    if (now - bucket.lastAccessNanos > idleNanos) {
+                        evicted.increment();
+                        return true;
+                    }
+                    return false;
+                });
+            }
+        }
+    }
+
+    /**
+     * 获取运行指标
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("allowed", allowed.sum());
+        stats.put("throttledUsername", throttledUsername.sum());
+        stats.put("throttledIp", throttledIp.sum());
+        stats.put("usernameBuckets", usernameBuckets.size());
+        stats.put("ipBuckets", ipBuckets.size());
+        stats.put("evicted", evicted.sum());
+        stats.put("evictedLru", evictedLru.sum());
+        return stats;
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * 同一维度的令牌桶
+     */
+    private static final class BucketGroup {
+
+        private final Segment[] segments = new Segment[SEGMENTS];
+
+        private final long capacityUnits;
+
+        /**
+         * 每纳秒恢复的令牌单位数
+         */
+        private final double refillUnitsPerNano;
+
+        private BucketGroup(int capacity, int refillPerMinute, int maxEntries, LongAdder evictedLru) {
+            this.capacityUnits = Math.max(1, capacity) * UNITS_PER_TOKEN;
+            this.refillUnitsPerNano = Math.max(1, refillPerMinute) * UNITS_PER_TOKEN / (double) TimeUnit.MINUTES.toNanos(1);
+            int segmentEntries = Math.max(1, (Math.max(1, maxEntries) + SEGMENTS - 1) / SEGMENTS);
+            for (int i = 0; i < SEGMENTS; i++) {
+                segments[i] = new Segment(segmentEntries, evictedLru);
+            }
+        }
+
+        private Segment segmentFor(String key) {
+            int h = key.hashCode();
+            return segments[(h ^ (h >>> 16)) & (SEGMENTS - 1)];
+        }
+
+        private int size() {
+            int size = 0;
+            for (Segment segment : segments) {
+                synchronized (segment) {
+                    size += segment.size();
+                }
+            }
+            return size;
+        }
+    }
+
+    /**
+     * 按访问顺序排列的一段令牌桶，超过容量时淘汰最久未访问的桶；读写均需持有段自身的锁
+     */
+    private static final class Segment extends LinkedHashMap<String, Bucket> {
+
+        private final int maxEntries;
+
+        private final LongAdder evictedLru;
+
+        private Segment(int maxEntries, LongAdder evictedLru) {
+            super(16, 0.75f, true);
+            this.maxEntries = maxEntries;
+            this.evictedLru = evictedLru;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Bucket> eldest) {
+            if (size() > maxEntries) {
+                evictedLru.increment();
+                return true;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * 令牌桶，由所在段的锁保护
+     */
+    private static final class Bucket {
+
+        private long units;
+
+        private long refilledAtNanos;
+
+        private long lastAccessNanos;
+
+        private Bucket(long units, long now) {
+            this.units = units;
+            this.refilledAtNanos = now;
+            this.lastAccessNanos = now;
+        }
+
+        private boolean tryConsume(BucketGroup group, long now) {
+            long elapsed = now - refilledAtNanos;
+            if (elapsed > 0) {
+                long refill = (long) (elapsed * group.refillUnitsPerNano);
+                if (refill > 0) {
+                    units = Math.min(group.capacityUnits, units + refill);
+                    refilledAtNanos = now;
+                }
+            }
+            lastAccessNanos = now;
+            if (units < UNITS_PER_TOKEN) {
+                return false;
+            }
+            units -= UNITS_PER_TOKEN;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.ruoyi.framework.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 密码校验执行器
+ * BCrypt 校验是数十到上百毫秒的纯 CPU 计算，放在 Tomcat 工作线程上执行时登录高峰会占满所有核心。
+ * 这里用固定线程数和有界队列隔离哈希计算：队列满时立即拒绝，排队过久的任务直接放弃，
+ * 最多只有 threads 个核心用于密码哈希，其余请求不受影响。
+ * 另有单线程的后台通道，用于登录成功后重新编码密码等不影响响应的工作，繁忙时直接丢弃
+ *
+ * @author ruoyi
+ */
+public class PasswordVerificationExecutor implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordVerificationExecutor.class);
+
+    private final ThreadPoolExecutor executor;
+
+    private final ThreadPoolExecutor backgroundExecutor;
+
+    private final int threads;
+
+    private final int queueCapacity;
+
+    /**
+     * 最长排队时间（纳秒），超过后任务不再执行
+     */
+    private final long maxQueueWaitNanos;
+
+    private final LongAdder submitted = new LongAdder();
+
+    private final LongAdder completed = new LongAdder();
+
+    private final LongAdder rejected = new LongAdder();
+
+    private final LongAdder expired = new LongAdder();
+
+    private final LongAdder totalWaitNanos = new LongAdder();
+
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    private final LongAdder backgroundSubmitted = new LongAdder();
+
+    private final LongAdder backgroundDiscarded = new LongAdder();
+
+    private final LongAdder backgroundFailed = new LongAdder();
+
+    /**
+     * 构造函数
+     *
+     * @param threads 校验线程数，小于等于 0 时取可用核心数的一半
+     * @param queueCapacity 排队上限
+     * @param maxQueueWaitMillis 最长排队时间（毫秒），小于等于 0 表示不限制
+     */
+    public PasswordVerificationExecutor(int threads, int queueCapacity, long maxQueueWaitMillis) {
+        this.threads = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        this.queueCapacity = Math.max(1, queueCapacity);
+        this.maxQueueWaitNanos = maxQueueWaitMillis > 0 ? TimeUnit.MILLISECONDS.toNanos(maxQueueWaitMillis) : 0L;
+
+        AtomicInteger sequence = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(this.threads, this.threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(this.queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "password-verification-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        this.executor.prestartAllCoreThreads();
+        this.backgroundExecutor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(this.queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "password-verification-background");
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.MIN_PRIORITY);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * 提交校验任务
+     * 队列已满或任务排队超时时，返回的 Future 以 {@link RejectedExecutionException} 失败
+     *
+     * @param task 校验任务
+     * @return 任务结果
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        long enqueuedAt = System.nanoTime();
+        try {
+            executor.execute(() -> run(task, future, enqueuedAt));
+            submitted.increment();
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * 提交后台任务，后台通道繁忙时丢弃
+     *
+     * @param task 后台任务
+     * @return 是否已受理
+     */
+    public boolean executeBackground(Runnable task) {
+        try {
+            backgroundExecutor.execute(() -> {
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    backgroundFailed.increment();
+                    log.warn("密码后台任务执行失败: {}", e.getMessage());
+                }
+            });
+            backgroundSubmitted.increment();
+            return true;
+        } catch (RejectedExecutionException e) {
+            backgroundDiscarded.increment();
+            return false;
+        }
+    }
+
+    private <T> void run(Supplier<T> task, CompletableFuture<T> future, long enqueuedAt) {
+        long waitNanos = System.nanoTime() - enqueuedAt;
+        totalWaitNanos.add(waitNanos);
+        maxWaitNanos.accumulateAndGet(waitNanos, Math::max);
+
+        // 排队过久时客户端多半已经超时，不再为其计算哈希
+        if (maxQueueWaitNanos > 0 && waitNanos > maxQueueWaitNanos) {
+            expired.increment();
+            future.completeExceptionally(new RejectedExecutionException("密码校验排队超时"));
+            return;
+        }
+        try {
+            future.complete(task.get());
+        } catch (Throwable e) {
+            future.completeExceptionally(e);
+        } finally {
+            completed.increment();
+        }
+    }
+
+    /**
+     * 获取运行指标
+     */
+    public Map<String, Object> stats() {
+        long started = completed.sum() + expired.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("threads", threads);
+        stats.put("activeThreads", executor.getActiveCount());
+        stats.put("queueDepth", executor.getQueue().size());
+        stats.put("queueCapacity", queueCapacity);
+        stats.put("submitted", submitted.sum());
+        stats.put("completed", completed.sum());
+        stats.put("rejected", rejected.sum());
+        stats.put("expired", expired.sum());
+        stats.put("averageWaitMillis", started == 0 ? 0.0 : totalWaitNanos.sum() / 1_000_000.0 / started);
+        stats.put("maxWaitMillis", maxWaitNanos.get() / 1_000_000.0);
+        stats.put("backgroundQueueDepth", backgroundExecutor.getQueue().size());
+        stats.put("backgroundSubmitted", backgroundSubmitted.sum());
+        stats.put("backgroundDiscarded", backgroundDiscarded.sum());
+        stats.put("backgroundFailed", backgroundFailed.sum());
+        return stats;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+        backgroundExecutor.shutdown();
+        try {
+            if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+            if (!backgroundExecutor.awaitTermination(5, TimeUnit.SECONDS)) {
+                backgroundExecutor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            backgroundExecutor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        log.info("密码校验执行器已关闭, 已完成 {} 个任务", completed.sum());
+    }
+}
@@ -0,0 +1,428 @@
+package com.ruoyi.framework.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 权限位图字典
+ * 以资源编码作为权限名，把用户持有的资源ID编码后写入令牌（perms 声明）。编码只依赖资源ID本身，
+ * 各节点解码结果一致：资源ID较小且集中时用 base64url 位图，否则用前缀 {@code ~} 加有序ID差值的变长整数序列，
+ * 两者取较短者，令牌大小与用户持有的资源数成正比而不随资源ID增长。编码超过 {@code maxLength} 时返回 null，
+ * 调用方退回逗号分隔字符串。
+ * <p>
+ * 资源写入时由调用方登记或移除；解码遇到未登记的资源ID时（例如资源在其他节点新增）按加载器重新加载字典，
+ * 重新加载后仍未知的ID视为已删除的资源。无法重新加载时该ID不授予任何权限，且结果不缓存以便下次重试。
+ * 解析结果按声明原文缓存为不可变的驻留权限集合
+ *
+ * @author ruoyi
+ */
+public class PermissionDictionary {
+
+    private static final Logger log = LoggerFactory.getLogger(PermissionDictionary.class);
+
+    /**
+     * 已解析权限集合缓存的最大条目数
+     */
+    private static final int MAX_RESOLVED = 4096;
+
+    /**
+     * 差值编码的前缀，不属于 base64url 字符集，与位图编码无歧义
+     */
+    private static final char DELTA_PREFIX = '~';
+
+    /**
+     * 未知资源ID触发重新加载的最小间隔（毫秒）
+     */
+    private static final long MIN_RELOAD_INTERVAL_MILLIS = 1000;
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    /**
+     * perms 声明的最大长度（字符），需小于验签器的令牌长度上限并为请求头留出余量
+     */
+    private final int maxLength;
+
+    /**
+     * 定期重新加载的间隔（秒），不大于0时只在遇到未知资源ID时重新加载
+     */
+    private final long refreshIntervalSeconds;
+
+    /**
+     * 资源ID -> 权限
+     */
+    private final ConcurrentHashMap<Long, SimpleGrantedAuthority> registered = new ConcurrentHashMap<>();
+
+    /**
+     * 已确认删除的资源ID，解码时直接忽略而不再触发重新加载
+     */
+    private final Map<Long, Boolean> removed = new ConcurrentHashMap<>();
+
+    /**
+     * 权限名 -> 驻留的权限对象
+     */
+    private final ConcurrentHashMap<String, SimpleGrantedAuthority> interned = new ConcurrentHashMap<>();
+
+    /**
+     * 权限字符串 -> 已解析的不可变权限集合（令牌不含位图时）
+     */
+    private final ConcurrentHashMap<String, List<GrantedAuthority>> resolved = new ConcurrentHashMap<>();
+
+    /**
+     * "位图|权限字符串" -> 已解析的不可变权限集合（位图不含 '|'，键无歧义）
+     */
+    private final ConcurrentHashMap<String, List<GrantedAuthority>> resolvedWithPermissions = new ConcurrentHashMap<>();
+
+    /**
+     * 全量加载资源ID与编码的加载器，未设置时无法重新加载
+     */
+    private volatile Supplier<Map<Long, String>> loader;
+
+    /**
+     * 上次因未知资源ID重新加载的时间
+     */
+    private volatile long lastUnknownReloadMillis;
+
+    private volatile long reloads;
+
+    private ScheduledExecutorService scheduler;
+
+    public PermissionDictionary(int maxLength) {
+        this(maxLength, 0);
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param maxLength perms 声明的最大长度（字符）
+     * @param refreshIntervalSeconds 定期重新加载的间隔（秒），不大于0时不定期加载
+     */
+    public PermissionDictionary(int maxLength, long refreshIntervalSeconds) {
+        if (maxLength <= 0) {
+            throw new IllegalArgumentException("maxLength 必须大于0");
+        }
+        this.maxLength = maxLength;
+        this.refreshIntervalSeconds = refreshIntervalSeconds;
+    }
+
+    /**
+     * 资源ID能否编码进令牌
+     *
+     * @param resourceId 资源ID
+     * @return 是否支持
+     */
+    public boolean supports(Long resourceId) {
+        return resourceId != null && resourceId >= 0;
+    }
+
+    /**
+     * 设置全量加载器并立即加载；配置了刷新间隔时定期重新加载，使其他节点的资源改名等变更最终生效
+     *
+     * @param loader 返回全部资源ID与编码的加载器
+     */
+    public synchronized void setLoader(Supplier<Map<Long, String>> loader) {
+        this.loader = loader;
+        reload();
+        if (scheduler == null && refreshIntervalSeconds > 0) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "permission-dictionary");
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduler.scheduleWithFixedDelay(() -> {
+                try {
+                    reload();
+                } catch (RuntimeException e) {
+                    log.warn("定期重新加载权限字典失败", e);
+                }
+            }, refreshIntervalSeconds, refreshIntervalSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * 按加载器全量重新加载：登记全部资源，移除已不存在的资源
+     */
+    public synchronized void reload() {
+        Supplier<Map<Long, String>> current = loader;
+        if (current == null) {
+            return;
+        }
+        Map<Long, String> resources = current.get();
+        for (Map.Entry<Long, String> entry : resources.entrySet()) {
+            register(entry.getKey(), entry.getValue());
+        }
+        for (Long resourceId : registered.keySet()) {
+            if (!resources.containsKey(resourceId)) {
+                unregister(resourceId);
+            }
+        }
+        reloads++;
+    }
+
+    /**
+     * 登记资源ID与权限名的对应关系
+     *
+     * @param resourceId 资源ID
+     * @param authority 权限名（资源编码）
+     */
+    public void register(Long resourceId, String authority) {
+        if (!supports(resourceId) || authority == null || authority.isEmpty()) {
+            return;
+        }
+        SimpleGrantedAuthority value = intern(authority);
+        SimpleGrantedAuthority previous = registered.put(resourceId, value);
+        removed.remove(resourceId);
+        if (previous != value) {
+            // 映射变化后已解析的集合可能过时
+            resolvedWithPermissions.clear();
+        }
+    }
+
+    /**
+     * 移除资源ID的登记
+     *
+     * @param resourceId 资源ID
+     */
+    public void unregister(Long resourceId) {
+        if (!supports(resourceId)) {
+            return;
+        }
+        if (removed.size() >= MAX_RESOLVED) {
+            removed.clear();
+        }
+        removed.put(resourceId, Boolean.TRUE);
+        if (registered.remove(resourceId) != null) {
+            resolvedWithPermissions.clear();
+        }
+    }
+
+    /**
+     * 将资源ID集合编码为 perms 声明
+     *
+     * @param resourceIds 资源ID集合（均需 {@link #supports(Long)}）
+     * @return 编码结果；集合为空或编码超过 {@code maxLength} 时返回 null，后者由调用方退回字符串形式
+     */
+    public String encode(Collection<Long> resourceIds) {
+        TreeSet<Long> sorted = new TreeSet<>();
+        for (Long resourceId : resourceIds) {
+            if (supports(resourceId)) {
+                sorted.add(resourceId);
+            }
+        }
+        if (sorted.isEmpty()) {
+            return null;
+        }
+        String encoded = encodeDelta(sorted);
+        // 位图长度由最大ID决定，只在可能更短时才生成
+        long maxId = sorted.last();
+        if (maxId / 6 < encoded.length()) {
+            BitSet bitSet = new BitSet();
+            for (Long resourceId : sorted) {
+                bitSet.set(resourceId.intValue());
+            }
+            String bitmap = ENCODER.encodeToString(bitSet.toByteArray());
+            if (bitmap.length() < encoded.length()) {
+                encoded = bitmap;
+            }
+        }
+        return encoded.length() > maxLength ? null : encoded;
+    }
+
+    /**
+     * 将令牌中的权限字符串与 perms 声明解析为不可变的权限集合
+     *
+     * @param authorities 逗号分隔的权限字符串
+     * @param permissions perms 声明
+     * @return 权限集合
+     */
+    public List<GrantedAuthority> resolve(String authorities, String permissions) {
+        boolean hasAuthorities = authorities != null && !authorities.isEmpty();
+        boolean hasPermissions = permissions != null && !permissions.isEmpty();
+        if (!hasAuthorities && !hasPermissions) {
+            return Collections.emptyList();
+        }
+        Map<String, List<GrantedAuthority>> cache = hasPermissions ? resolvedWithPermissions : resolved;
+        String key = hasPermissions ? permissions + '|' + (hasAuthorities ? authorities : "") : authorities;
+        List<GrantedAuthority> result = cache.get(key);
+        if (result == null) {
+            List<Long> unknown = new ArrayList<>();
+            result = parse(authorities, permissions, unknown);
+            if (!unknown.isEmpty() && reloadForUnknown()) {
+                unknown.clear();
+                result = parse(authorities, permissions, unknown);
+                // 重新加载后仍未知的资源已被删除
+                for (Long resourceId : unknown) {
+                    unregister(resourceId);
+                }
+                unknown.clear();
+            }
+            if (!unknown.isEmpty()) {
+                // 未知资源不授予权限，且不缓存，字典更新后重新解析
+                return result;
+            }
+            if (cache.size() >= MAX_RESOLVED) {
+                cache.clear();
+            }
+            cache.putIfAbsent(key, result);
+        }
+        return result;
+    }
+
+    /**
+     * 获取驻留的权限对象
+     *
+     * @param authority 权限名
+     * @return 权限对象
+     */
+    public SimpleGrantedAuthority intern(String authority) {
+        return interned.computeIfAbsent(authority, SimpleGrantedAuthority::new);
+    }
+
+    /**
+     * 获取统计信息
+     *
+     * @return 统计信息
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("maxLength", maxLength);
+        stats.put("registered", registered.size());
+        stats.put("removed", removed.size());
+        stats.put("reloads", reloads);
+        stats.put("interned", interned.size());
+        stats.put("resolvedSets", resolved.size() + resolvedWithPermissions.size());
+        return stats;
+    }
+
+    /**
+     * 停止定期重新加载
+     */
+    public synchronized void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    /**
+     * 遇到未知资源ID时重新加载，两次之间至少间隔 {@link #MIN_RELOAD_INTERVAL_MILLIS}
+     *
+     * @return 是否完成了重新加载
+     */
+    private boolean reloadForUnknown() {
+        if (loader == null || System.currentTimeMillis() - lastUnknownReloadMillis < MIN_RELOAD_INTERVAL_MILLIS) {
+            return false;
+        }
+        synchronized (this) {
+            long now = System.currentTimeMillis();
+            if (now - lastUnknownReloadMillis < MIN_RELOAD_INTERVAL_MILLIS) {
+                return false;
+            }
+            lastUnknownReloadMillis = now;
+            try {
+                reload();
+                return true;
+            } catch (RuntimeException e) {
+                log.warn("重新加载权限字典失败，未知资源暂不授予权限", e);
+                return false;
+            }
+        }
+    }
+
+    private List<GrantedAuthority> parse(String authorities, String permissions, List<Long> unknown) {
+        List<GrantedAuthority> result = new ArrayList<>();
+        if (authorities != null) {
+            for (String authority : authorities.split(",")) {
+                String trimmed = authority.trim();
+                if (!trimmed.isEmpty()) {
+                    result.add(intern(trimmed));
+                }
+            }
+        }
+        if (permissions != null && !permissions.isEmpty()) {
+            for (Long resourceId : decode(permissions)) {
+                SimpleGrantedAuthority authority = registered.get(resourceId);
+                if (authority != null) {
+                    result.add(authority);
+                } else if (!removed.containsKey(resourceId)) {
+                    unknown.add(resourceId);
+                }
+            }
+        }
+        return List.copyOf(result);
+    }
+
+    /**
+     * 解码 perms 声明，格式错误时返回空集合
+     */
+    private static List<Long> decode(String permissions) {
+        List<Long> resourceIds = new ArrayList<>();
+        try {
+            if (permissions.charAt(0) == DELTA_PREFIX) {
+                byte[] bytes = DECODER.decode(permissions.substring(1));
+                long previous = 0;
+                int shift = 0;
+                long delta = 0;
+                for (byte b : bytes) {
+                    delta |= (long) (b & 0x7F) << shift;
+                    if ((b & 0x80) != 0) {
+                        shift += 7;
+                        if (shift > 56) {
+                            return Collections.emptyList();
+                        }
+                        continue;
+                    }
+                    previous += delta;
+                    resourceIds.add(previous);
+                    delta = 0;
+                    shift = 0;
+                }
+            } else {
+                BitSet bitSet = BitSet.valueOf(DECODER.decode(permissions));
+                for (int bit = bitSet.nextSetBit(0); bit >= 0; bit = bitSet.nextSetBit(bit + 1)) {
+                    resourceIds.add((long) bit);
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            return Collections.emptyList();
+        }
+        return resourceIds;
+    }
+
+    /**
+     * 有序ID依次写入与前一个ID的差值（首个为ID本身），每个差值为 7 位一组的变长整数
+     */
+    private static String encodeDelta(TreeSet<Long> sorted) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(sorted.size() * 2);
+        long previous = 0;
+        for (Long resourceId : sorted) {
+            long delta = resourceId - previous;
+            previous = resourceId;
+            while ((delta & ~0x7FL) != 0) {
+                out.write((int) ((delta & 0x7F) | 0x80));
+                delta >>>= 7;
+            }
+            out.write((int) delta);
+        }
+        return DELTA_PREFIX + ENCODER.encodeToString(out.toByteArray());
+    }
+}
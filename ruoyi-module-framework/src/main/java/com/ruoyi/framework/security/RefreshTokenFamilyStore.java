@@ -0,0 +1,544 @@
+package com.ruoyi.framework.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 刷新令牌族存储
+ * 每次登录创建一个令牌族，族内只有当前刷新令牌有效：刷新时轮换令牌ID，
+ * 出示旧令牌视为重放，整族吊销。族状态全部在内存中，刷新通常不需要访问数据库；
+ * 所有变更追加写入本地日志，启动时回放恢复
+ *
+ * @author ruoyi
+ */
+public class RefreshTokenFamilyStore implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(RefreshTokenFamilyStore.class);
+
+    /**
+     * 权限版本分段数
+     */
+    private static final int VERSION_STRIPES = 4096;
+
+    /**
+     * 重启后恢复的令牌族权限版本，首次刷新时强制重新加载权限
+     */
+    private static final long UNKNOWN_VERSION = -1L;
+
+    private static final byte RECORD_CREATE = 'C';
+
+    private static final byte RECORD_ROTATE = 'R';
+
+    private static final byte RECORD_AUTHORITIES = 'A';
+
+    private static final byte RECORD_REVOKE = 'X';
+
+    private final ConcurrentHashMap<String, Family> families = new ConcurrentHashMap<>();
+
+    /**
+     * 按用户ID分段的权限版本，权限变化时递增所在分段
+     */
+    private final AtomicLongArray authoritiesVersions = new AtomicLongArray(VERSION_STRIPES);
+
+    /**
+     * 刷新令牌有效期（毫秒）
+     */
+    private final long refreshExpiration;
+
+    private final Path logPath;
+
+    private final ReentrantLock logLock = new ReentrantLock();
+
+    private final ScheduledExecutorService scheduler;
+
+    private DataOutputStream logOutput;
+
+    /**
+     * 自上次压缩以来写入的日志记录数
+     */
+    private long logRecords;
+
+    private final LongAdder rotations = new LongAdder();
+
+    private final LongAdder reuseDetections = new LongAdder();
+
+    private final LongAdder revokedFamilies = new LongAdder();
+
+    /**
+     * 构造函数
+     *
+     * @param refreshExpiration 刷新令牌有效期（毫秒）
+     * @param logPath 追加日志路径，为空时不持久化
+     */
+    public RefreshTokenFamilyStore(long refreshExpiration, String logPath) {
+        this.refreshExpiration = refreshExpiration;
+        this.logPath = logPath == null || logPath.isBlank() ? null : Paths.get(logPath);
+        if (this.logPath != null) {
+            replay();
+            compact();
+        }
+
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "refresh-token-family");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::purgeExpired, 10, 10, TimeUnit.MINUTES);
+    }
+
+    /**
+     * 创建令牌族（登录时调用）
+     *
+     * @param userId 用户ID
+     * @param username 用户名
+     * @param authorities 权限信息
+     * @param permissions 权限位图，可为 null
+     * @return 令牌族
+     */
+    public Family create(Long userId, String username, String authorities, String permissions) {
+        Family family = new Family(UUID.randomUUID().toString(), userId, username, authorities, permissions,
+                currentAuthoritiesVersion(userId), UUID.randomUUID().toString(),
+                System.currentTimeMillis() + refreshExpiration);
+        families.compute(family.familyId, (key, existing) -> {
+            append(RECORD_CREATE, family);
+            return family;
+        });
+        return family;
+    }
+
+    /**
+     * 轮换刷新令牌：出示的令牌必须是族内当前令牌，否则视为重放并吊销整族
+     *
+     * @param familyId 令牌族ID
+     * @param presentedTokenId 出示的刷新令牌ID
+     * @return 轮换后的令牌族，令牌族不存在、已过期或检测到重放时返回 null
+     */
+    public Family rotate(String familyId, String presentedTokenId) {
+        if (familyId == null || presentedTokenId == null) {
+            return null;
+        }
+        long now = System.currentTimeMillis();
+        Family[] result = new Family[1];
+        families.computeIfPresent(familyId, (key, family) -> {
+            if (family.expiration <= now) {
+                append(RECORD_REVOKE, family);
+                return null;
+            }
+            if (!family.currentTokenId.equals(presentedTokenId)) {
+                reuseDetections.increment();
+                revokedFamilies.increment();
+                log.warn("检测到刷新令牌重放，吊销令牌族 {}（用户ID {}）", familyId, family.userId);
+                append(RECORD_REVOKE, family);
+                return null;
+            }
+            Family rotated = family.withToken(UUID.randomUUID().toString(), now + refreshExpiration);
+            append(RECORD_ROTATE, rotated);
+            result[0] = rotated;
+            return rotated;
+        });
+        if (result[0] != null) {
+            rotations.increment();
+        }
+        return result[0];
+    }
+
+    /**
+     * 更新令牌族的权限快照
+     *
+     * @param familyId 令牌族ID
+     * @param username 用户名
+     * @param authorities 权限信息
+     * @param permissions 权限位图，可为 null
+     * @param version 权限版本
+     * @return 更新后的令牌族，不存在时返回 null
+     */
+    public Family updateAuthorities(String familyId, String username, String authorities, String permissions,
+                                    long version) {
+        return families.computeIfPresent(familyId, (key, family) -> {
+            Family updated = family.withAuthorities(username, authorities, permissions, version);
+            append(RECORD_AUTHORITIES, updated);
+            return updated;
+        });
+    }
+
+    /**
+     * 吊销令牌族
+     *
+     * @param familyId 令牌族ID
+     */
+    public void revokeFamily(String familyId) {
+        if (familyId == null) {
+            return;
+        }
+        families.computeIfPresent(familyId, (key, family) -> {
+            revokedFamilies.increment();
+            append(RECORD_REVOKE, family);
+            return null;
+        });
+    }
+
+    /**
+     * 吊销用户的全部令牌族（用户被删除时调用）
+     *
+     * @param userId 用户ID
+     */
+    public void revokeUser(Long userId) {
+        revokeUsers(Collections.singleton(userId));
+    }
+
+    /**
+     * 批量吊销用户的全部令牌族
+     *
+     * @param userIds 用户ID集合
+     */
+    public void revokeUsers(Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        Set<Long> targets = userIds instanceof Set ? (Set<Long>) userIds : new HashSet<>(userIds);
+        for (Family family : families.values()) {
+            if (targets.contains(family.userId)) {
+                revokeFamily(family.familyId);
+            }
+        }
+        for (Long userId : targets) {
+            bumpAuthoritiesVersion(userId);
+        }
+    }
+
+    /**
+     * 标记用户权限或资料已变化，其令牌族下次刷新时重新加载
+     *
+     * @param userId 用户ID
+     */
+    public void bumpAuthoritiesVersion(Long userId) {
+        authoritiesVersions.incrementAndGet(stripe(userId));
+    }
+
+    /**
+     * 标记全部用户的权限已变化（资源编码修改或资源删除时调用），所有令牌族下次刷新时重新加载
+     */
+    public void bumpAllAuthoritiesVersions() {
+        for (int i = 0; i < authoritiesVersions.length(); i++) {
+            authoritiesVersions.incrementAndGet(i);
+        }
+    }
+
+    /**
+     * 获取用户当前权限版本
+     *
+     * @param userId 用户ID
+     * @return 权限版本
+     */
+    public long currentAuthoritiesVersion(Long userId) {
+        return authoritiesVersions.get(stripe(userId));
+    }
+
+    /**
+     * 清理已过期的令牌族
+     */
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        try {
+            families.values().removeIf(family -> family.expiration <= now);
+            if (logPath != null && logRecords > Math.max(10_000L, families.size() * 4L)) {
+                compact();
+            }
+        } catch (RuntimeException e) {
+            log.warn("清理过期令牌族失败", e);
+        }
+    }
+
+    /**
+     * 获取统计信息
+     *
+     * @return 统计信息
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("families", families.size());
+        stats.put("rotations", rotations.sum());
+        stats.put("reuseDetections", reuseDetections.sum());
+        stats.put("revokedFamilies", revokedFamilies.sum());
+        stats.put("logPath", logPath != null ? logPath.toString() : null);
+        stats.put("logRecords", logRecords);
+        return stats;
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        logLock.lock();
+        try {
+            closeLog();
+        } finally {
+            logLock.unlock();
+        }
+    }
+
+    /**
+     * 追加一条日志记录
+     */
+    private void append(byte type, Family family) {
+        if (logPath == null) {
+            return;
+        }
+        logLock.lock();
+        try {
+            if (logOutput == null) {
+                logOutput = openLog(StandardOpenOption.APPEND);
+            }
+            writeRecord(logOutput, type, family);
+            logOutput.flush();
+            logRecords++;
+        } catch (IOException e) {
+            log.warn("写入令牌族日志失败: {}", logPath, e);
+            closeLog();
+        } finally {
+            logLock.unlock();
+        }
+    }
+
+    private static void writeRecord(DataOutputStream out, byte type, Family family) throws IOException {
+        out.writeByte(type);
+        out.writeUTF(family.familyId);
+        switch (type) {
+            case RECORD_CREATE:
+                out.writeLong(family.userId != null ? family.userId : 0L);
+                out.writeUTF(family.username != null ? family.username : "");
+                out.writeUTF(family.authorities != null ? family.authorities : "");
+                out.writeUTF(family.permissions != null ? family.permissions : "");
+                out.writeUTF(family.currentTokenId);
+                out.writeLong(family.expiration);
+                break;
+            case RECORD_ROTATE:
+                out.writeUTF(family.currentTokenId);
+                out.writeLong(family.expiration);
+                break;
+            case RECORD_AUTHORITIES:
+                out.writeUTF(family.username != null ? family.username : "");
+                out.writeUTF(family.authorities != null ? family.authorities : "");
+                out.writeUTF(family.permissions != null ? family.permissions : "");
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * 回放日志；末尾不完整的记录（崩溃时写了一半）被忽略
+     */
+    private void replay() {
+        if (!Files.isRegularFile(logPath)) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        try (InputStream file = Files.newInputStream(logPath);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(file))) {
+            while (true) {
+                byte type;
+                try {
+                    type = in.readByte();
+                } catch (EOFException e) {
+                    break;
+                }
+                String familyId = in.readUTF();
+                switch (type) {
+                    case RECORD_CREATE: {
+                        long userId = in.readLong();
+                        String username = in.readUTF();
+                        String authorities = in.readUTF();
+                        String permissions = emptyToNull(in.readUTF());
+                        String tokenId = in.readUTF();
+                        long expiration = in.readLong();
+                        families.put(familyId, new Family(familyId, userId, username, authorities, permissions,
+                                UNKNOWN_VERSION, tokenId, expiration));
+                        break;
+                    }
+                    case RECORD_ROTATE: {
+                        String tokenId = in.readUTF();
+                        long expiration = in.readLong();
+                        families.computeIfPresent(familyId, (key, family) -> family.withToken(tokenId, expiration));
+                        break;
+                    }
+                    case RECORD_AUTHORITIES: {
+                        String username = in.readUTF();
+                        String authorities = in.readUTF();
+                        String permissions = emptyToNull(in.readUTF());
+                        families.computeIfPresent(familyId, (key, family) ->
+                                family.withAuthorities(username, authorities, permissions, UNKNOWN_VERSION));
+                        break;
+                    }
+                    case RECORD_REVOKE:
+                        families.remove(familyId);
+                        break;
+                    default:
+                        throw new IOException("未知的日志记录类型: " + type);
+                }
+            }
+        } catch (EOFException e) {
+            log.warn("令牌族日志末尾记录不完整，已忽略");
+        } catch (IOException e) {
+            log.warn("回放令牌族日志失败: {}", logPath, e);
+        }
+        families.values().removeIf(family -> family.expiration <= now);
+        log.info("已从日志恢复 {} 个刷新令牌族", families.size());
+    }
+
+    /**
+     * 以当前存活的令牌族重写日志
+     */
+    private void compact() {
+        logLock.lock();
+        try {
+            closeLog();
+            Path parent = logPath.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            Path temp = logPath.resolveSibling(logPath.getFileName() + ".tmp");
+            long records = 0;
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                for (Family family : families.values()) {
+                    writeRecord(out, RECORD_CREATE, family);
+                    records++;
+                }
+            }
+            Files.move(temp, logPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            logRecords = records;
+        } catch (IOException e) {
+            log.warn("压缩令牌族日志失败: {}", logPath, e);
+        } finally {
+            logLock.unlock();
+        }
+    }
+
+    private DataOutputStream openLog(StandardOpenOption mode) throws IOException {
+        return new DataOutputStream(new BufferedOutputStream(
+                Files.newOutputStream(logPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE, mode)));
+    }
+
+    private void closeLog() {
+        if (logOutput != null) {
+            try {
+                logOutput.close();
+            } catch (IOException e) {
+                log.warn("关闭令牌族日志失败: {}", logPath, e);
+            }
+            logOutput = null;
+        }
+    }
+
+    private static String emptyToNull(String value) {
+        return value.isEmpty() ? null : value;
+    }
+
+    private static int stripe(Long userId) {
+        long id = userId != null ? userId : 0L;
+        return (int) ((id ^ (id >>> 32)) & (VERSION_STRIPES - 1));
+    }
+
+    /**
+     * 令牌族（不可变）
+     */
+    public static final class Family {
+
+        private final String familyId;
+
+        private final Long userId;
+
+        private final String username;
+
+        private final String authorities;
+
+        private final String permissions;
+
+        private final long authoritiesVersion;
+
+        private final String currentTokenId;
+
+        private final long expiration;
+
+        private Family(String familyId, Long userId, String username, String authorities, String permissions,
+                       long authoritiesVersion, String currentTokenId, long expiration) {
+            this.familyId = familyId;
+            this.userId = userId;
+            this.username = username;
+            this.authorities = authorities;
+            this.permissions = permissions;
+            this.authoritiesVersion = authoritiesVersion;
+            this.currentTokenId = currentTokenId;
+            this.expiration = expiration;
+        }
+
+        private Family withToken(String tokenId, long newExpiration) {
+            return new Family(familyId, userId, username, authorities, permissions, authoritiesVersion,
+                    tokenId, newExpiration);
+        }
+
+        private Family withAuthorities(String newUsername, String newAuthorities, String newPermissions,
+                                       long version) {
+            return new Family(familyId, userId, newUsername, newAuthorities, newPermissions, version,
+                    currentTokenId, expiration);
+        }
+
+        public String getFamilyId() {
+            return familyId;
+        }
+
+        public Long getUserId() {
+            return userId;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public String getAuthorities() {
+            return authorities;
+        }
+
+        public String getPermissions() {
+            return permissions;
+        }
+
+        public long getAuthoritiesVersion() {
+            return authoritiesVersion;
+        }
+
+        public String getCurrentTokenId() {
+            return currentTokenId;
+        }
+
+        public long getExpiration() {
+            return expiration;
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.ruoyi.framework.security;
+
+import java.util.Arrays;
+
+/**
+ * 请求路径分类器
+ * 把安全配置中的路径模式预编译成按路径段组织的字典树，一次遍历即可判断请求
+ * 是否属于公开路径，不必逐个匹配模式列表。
+ * 支持精确路径（/auth/login）和前缀通配（/public/**，同时匹配 /public 本身），
+ * 多个模式命中时取最具体的一个；未命中任何模式的请求视为需认证。
+ * 分类结果只用于跳过不必要的令牌处理，访问控制仍由安全过滤器链负责
+ *
+ * @author ruoyi
+ */
+public class RequestPathClassifier {
+
+    /**
+     * 路径类别
+     */
+    public enum Category {
+        /**
+         * 公开接口，无需解析令牌
+         */
+        PUBLIC,
+        /**
+         * 需要认证的接口
+         */
+        AUTHENTICATED
+    }
+
+    private static final String DOUBLE_WILDCARD = "/**";
+
+    private final Node root = new Node("");
+
+    /**
+     * 添加一组路径模式
+     *
+     * @param category 类别
+     * @param patterns 路径模式
+     * @return 当前分类器
+     */
+    public RequestPathClassifier add(Category category, String... patterns) {
+        for (String pattern : patterns) {
+            boolean prefix = pattern.endsWith(DOUBLE_WILDCARD);
+            String path = prefix ? pattern.substring(0, pattern.length() - DOUBLE_WILDCARD.length()) : pattern;
+            if (path.indexOf('*') >= 0) {
+                throw new IllegalArgumentException("仅支持精确路径或以 /** 结尾的路径模式: " + pattern);
+            }
+            Node node = root;
+            for (String segment : path.split("/")) {
+                if (!segment.isEmpty()) {
+                    node = node.childOrCreate(segment);
+                }
+            }
+            if (prefix) {
+                node.prefixCategory = category;
+            } else {
+                node.exactCategory = category;
+            }
+        }
+        return this;
+    }
+
+    /**
+     * 对请求路径分类
+     * 含有编码字符、路径参数或相对段的路径无法可靠比对，一律视为需认证
+     *
+     * @param path 不含上下文路径的请求路径
+     * @return 类别
+     */
+    public Category classify(String path) {
+        if (path == null || path.indexOf('%') >= 0 || path.indexOf(';') >= 0 || path.indexOf('\\') >= 0) {
+            return Category.AUTHENTICATED;
+        }
+        Node node = root;
+        Category matched = root.prefixCategory;
+        int length = path.length();
+        int start = 0;
+        while (start < length) {
+            int end = path.indexOf('/', start);
+            if (end < 0) {
+                end = length;
+            }
+            if (end > start) {
+                if (isRelativeSegment(path, start, end)) {
+                    return Category.AUTHENTICATED;
+                }
+                node = node.child(path, start, end - start);
+                if (node == null) {
+                    return matched != null ? matched : Category.AUTHENTICATED;
+                }
+                if (node.prefixCategory != null) {
+                    matched = node.prefixCategory;
+                }
+            }
+            start = end + 1;
+        }
+        if (node.exactCategory != null) {
+            return node.exactCategory;
+        }
+        return matched != null ? matched : Category.AUTHENTICATED;
+    }
+
+    private static boolean isRelativeSegment(String path, int start, int end) {
+        int length = end - start;
+        return path.charAt(start) == '.' && (length == 1 || (length == 2 && path.charAt(start + 1) == '.'));
+    }
+
+    /**
+     * 字典树节点，子节点数量很少，线性比较路径段避免为每个段创建字符串
+     */
+    private static final class Node {
+
+        private final String segment;
+
+        private Node[] children = new Node[0];
+
+        /**
+         * 路径恰好到此为止时的类别
+         */
+        private Category exactCategory;
+
+        /**
+         * 以此为前缀（/**）时的类别
+         */
+        private Category prefixCategory;
+
+        private Node(String segment) {
+            this.segment = segment;
+        }
+
+        private Node child(String path, int offset, int length) {
+            for (Node child : children) {
+                if (child.segment.length() == length && path.regionMatches(offset, child.segment, 0, length)) {
+                    return child;
+                }
+            }
+            return null;
+        }
+
+        private Node childOrCreate(String segment) {
+            Node child = child(segment, 0, segment.length());
+            if (child == null) {
+                child = new Node(segment);
+                children = Arrays.copyOf(children, children.length + 1);
+                children[children.length - 1] = child;
+            }
+            return child;
+        }
+    }
+}
@@ -0,0 +1,305 @@
+package com.ruoyi.framework.security;
+
+import com.ruoyi.framework.utils.BloomFilter;
+import com.ruoyi.framework.utils.JwtClaims;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 令牌吊销存储
+ * 以 jti 为键记录已登出的令牌：布隆过滤器在前快速排除绝大多数未吊销令牌，
+ * 精确集合按令牌过期分钟分桶，令牌过期后整桶丢弃，内存只与仍未过期的吊销数量相关。
+ * 吊销记录定期快照到本地文件，重启后直接恢复
+ *
+ * @author ruoyi
+ */
+public class TokenRevocationStore implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenRevocationStore.class);
+
+    /**
+     * 快照文件魔数
+     */
+    private static final int SNAPSHOT_MAGIC = 0x52564B31;
+
+    /**
+     * 分桶粒度（毫秒）
+     */
+    private static final long BUCKET_MILLIS = 60_000L;
+
+    /**
+     * 过期分钟 -> 该分钟内过期的已吊销令牌ID
+     */
+    private final ConcurrentSkipListMap<Long, Set<String>> buckets = new ConcurrentSkipListMap<>();
+
+    /**
+     * 保护布隆过滤器重建，吊销（写）持读锁，重建持写锁
+     */
+    private final ReentrantReadWriteLock rebuildLock = new ReentrantReadWriteLock();
+
+    private final long expectedInsertions;
+
+    private final double falsePositiveRate;
+
+    private final Path snapshotPath;
+
+    private final ScheduledExecutorService scheduler;
+
+    private volatile BloomFilter bloomFilter;
+
+    /**
+     * 当前未过期的吊销数量
+     */
+    private final AtomicLong size = new AtomicLong();
+
+    /**
+     * 自上次重建以来被丢弃的数量
+     */
+    private final AtomicLong purgedSinceRebuild = new AtomicLong();
+
+    private final LongAdder revocations = new LongAdder();
+
+    private final LongAdder checks = new LongAdder();
+
+    private final LongAdder bloomRejections = new LongAdder();
+
+    private final LongAdder purged = new LongAdder();
+
+    private volatile boolean dirty;
+
+    /**
+     * 构造函数
+     *
+     * @param expectedInsertions 预期同时存在的吊销数量
+     * @param falsePositiveRate 布隆过滤器误判率
+     * @param snapshotPath 快照文件路径，为空时不持久化
+     * @param snapshotIntervalSeconds 快照间隔（秒）
+     */
+    public TokenRevocationStore(long expectedInsertions, double falsePositiveRate,
+                                String snapshotPath, long snapshotIntervalSeconds) {
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+        this.snapshotPath = snapshotPath == null || snapshotPath.isBlank() ? null : Paths.get(snapshotPath);
+        this.bloomFilter = new BloomFilter(expectedInsertions, falsePositiveRate);
+
+        restore();
+
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "token-revocation");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(this::purgeExpired, 1, 1, TimeUnit.MINUTES);
+        if (this.snapshotPath != null) {
+            scheduler.scheduleWithFixedDelay(this::snapshotIfDirty,
+                    snapshotIntervalSeconds, snapshotIntervalSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * 吊销令牌
+     *
+     * @param tokenId 令牌ID（jti）
+     * @param expiration 令牌过期时间（毫秒）
+     */
+    public void revoke(String tokenId, long expiration) {
+        if (tokenId == null || expiration <= System.currentTimeMillis()) {
+            return;
+        }
+        rebuildLock.readLock().lock();
+        try {
+            Set<String> bucket = buckets.computeIfAbsent(bucketOf(expiration), key -> ConcurrentHashMap.newKeySet());
+            if (bucket.add(tokenId)) {
+                bloomFilter.put(tokenId);
+                size.incrementAndGet();
+                revocations.increment();
+                dirty = true;
+            }
+        } finally {
+            rebuildLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 判断令牌是否已吊销
+     *
+     * @param claims 令牌声明
+     * @return 是否已吊销
+     */
+    public boolean isRevoked(JwtClaims claims) {
+        String tokenId = claims.getTokenId();
+        if (tokenId == null) {
+            return false;
+        }
+        checks.increment();
+        if (!bloomFilter.mightContain(tokenId)) {
+            bloomRejections.increment();
+            return false;
+        }
+        Set<String> bucket = buckets.get(bucketOf(claims.getExpiration()));
+        return bucket != null && bucket.contains(tokenId);
+    }
+
+    /**
+     * 丢弃已过期的分桶；被丢弃数量超过一半时按当前规模重建布隆过滤器
+     */
+    public void purgeExpired() {
+        try {
+            long current = System.currentTimeMillis() / BUCKET_MILLIS;
+            ConcurrentNavigableMap<Long, Set<String>> expired = buckets.headMap(current, false);
+            Map.Entry<Long, Set<String>> entry;
+            while ((entry = expired.pollFirstEntry()) != null) {
+                int count = entry.getValue().size();
+                size.addAndGet(-count);
+                purged.add(count);
+                purgedSinceRebuild.addAndGet(count);
+                dirty = true;
+            }
+
+            long live = size.get();
+            BloomFilter filter = bloomFilter;
+            if (purgedSinceRebuild.get() > filter.getInsertions() / 2 || live > filter.getExpectedInsertions()) {
+                rebuildBloomFilter();
+            }
+        } catch (RuntimeException e) {
+            log.warn("清理过期吊销记录失败", e);
+        }
+    }
+
+    /**
+     * 获取统计信息
+     *
+     * @return 统计信息
+     */
+    public Map<String, Object> stats() {
+        BloomFilter filter = bloomFilter;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", size.get());
+        stats.put("buckets", buckets.size());
+        stats.put("revocations", revocations.sum());
+        stats.put("checks", checks.sum());
+        stats.put("bloomRejections", bloomRejections.sum());
+        stats.put("purged", purged.sum());
+        stats.put("bloomBits", filter.getBitSize());
+        stats.put("bloomFalsePositiveRate", filter.expectedFalsePositiveRate());
+        stats.put("snapshotPath", snapshotPath != null ? snapshotPath.toString() : null);
+        return stats;
+    }
+
+    /**
+     * 写入快照并停止后台任务
+     */
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        snapshotIfDirty();
+    }
+
+    private void rebuildBloomFilter() {
+        rebuildLock.writeLock().lock();
+        try {
+            long capacity = Math.max(expectedInsertions, size.get() * 2);
+            BloomFilter rebuilt = new BloomFilter(capacity, falsePositiveRate);
+            for (Set<String> bucket : buckets.values()) {
+                bucket.forEach(rebuilt::put);
+            }
+            bloomFilter = rebuilt;
+            purgedSinceRebuild.set(0);
+        } finally {
+            rebuildLock.writeLock().unlock();
+        }
+    }
+
+    private synchronized void snapshotIfDirty() {
+        if (snapshotPath == null || !dirty) {
+            return;
+        }
+        dirty = false;
+        try {
+            Path parent = snapshotPath.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            Path temp = snapshotPath.resolveSibling(snapshotPath.getFileName() + ".tmp");
+            try (OutputStream file = Files.newOutputStream(temp);
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file))) {
+                out.writeInt(SNAPSHOT_MAGIC);
+                out.writeInt(buckets.size());
+                for (Map.Entry<Long, Set<String>> entry : buckets.entrySet()) {
+                    Set<String> tokenIds = Set.copyOf(entry.getValue());
+                    out.writeLong(entry.getKey());
+                    out.writeInt(tokenIds.size());
+                    for (String tokenId : tokenIds) {
+                        out.writeUTF(tokenId);
+                    }
+                }
+            }
+            Files.move(temp, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            dirty = true;
+            log.warn("写入吊销快照失败: {}", snapshotPath, e);
+        }
+    }
+
+    private void restore() {
+        if (snapshotPath == null || !Files.isRegularFile(snapshotPath)) {
+            return;
+        }
+        long current = System.currentTimeMillis() / BUCKET_MILLIS;
+        try (InputStream file = Files.newInputStream(snapshotPath);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(file))) {
+            if (in.readInt() != SNAPSHOT_MAGIC) {
+                log.warn("吊销快照格式不正确，已忽略: {}", snapshotPath);
+                return;
+            }
+            int bucketCount = in.readInt();
+            for (int i = 0; i < bucketCount; i++) {
+                long minute = in.readLong();
+                int count = in.readInt();
+                Set<String> bucket = ConcurrentHashMap.newKeySet(count);
+                for (int j = 0; j < count; j++) {
+                    bucket.add(in.readUTF());
+                }
+                if (minute >= current) {
+                    buckets.put(minute, bucket);
+                    size.addAndGet(bucket.size());
+                }
+            }
+            rebuildBloomFilter();
+            log.info("已从快照恢复 {} 条吊销记录", size.get());
+        } catch (IOException e) {
+            log.warn("读取吊销快照失败，已忽略: {}", snapshotPath, e);
+        }
+    }
+
+    /**
+     * 过期时间向上取整到分钟：令牌在该分钟开始前一定已过期
+     */
+    private static long bucketOf(long expiration) {
+        return (expiration + BUCKET_MILLIS - 1) / BUCKET_MILLIS;
+    }
+}
@@ -0,0 +1,414 @@
+package com.ruoyi.framework.utils;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * 压缩位图（Roaring 格式）
+ * 按整数高 16 位分块，每块根据基数选择容器：不超过 4096 个值时用有序 char 数组（每个值 2 字节），
+ * 超过时用 8KB 定长位图，稀疏和稠密的集合都只占用与基数相当的内存；查找为两次二分或一次位运算。
+ * 值按无符号整数排序。非线程安全，并发读写由调用方控制（例如写时复制后整体替换）
+ *
+ * @author ruoyi
+ */
+public class CompressedBitmap {
+
+    /**
+     * 数组容器的最大基数，超过后转为位图容器（两者此时占用相同内存）
+     */
+    static final int ARRAY_MAX_SIZE = 4096;
+
+    private char[] keys;
+
+    private Container[] containers;
+
+    private int size;
+
+    private int cardinality;
+
+    public CompressedBitmap() {
+        this.keys = new char[1];
+        this.containers = new Container[1];
+    }
+
+    private CompressedBitmap(CompressedBitmap source) {
+        this.keys = Arrays.copyOf(source.keys, Math.max(1, source.size));
+        this.containers = new Container[keys.length];
+        for (int i = 0; i < source.size; i++) {
+            containers[i] = source.containers[i].copy();
+        }
+        this.size = source.size;
+        this.cardinality = source.cardinality;
+    }
+
+    /**
+     * 添加值
+     *
+     * @param value 值
+     * @return 是否新增（原来不存在）
+     */
+    public boolean add(int value) {
+        char high = (char) (value >>> 16);
+        int index = indexOf(high);
+        if (index < 0) {
+            index = -index - 1;
+            insertContainer(index, high, new ArrayContainer());
+        }
+        Container container = containers[index];
+        int before = container.cardinality();
+        container = container.add((char) value);
+        containers[index] = container;
+        if (container.cardinality() == before) {
+            return false;
+        }
+        cardinality++;
+        return true;
+    }
+
+    /**
+     * 移除值
+     *
+     * @param value 值
+     * @return 是否移除（原来存在）
+     */
+    public boolean remove(int value) {
+        int index = indexOf((char) (value >>> 16));
+        if (index < 0) {
+            return false;
+        }
+        Container container = containers[index];
+        int before = container.cardinality();
+        container = container.remove((char) value);
+        if (container.cardinality() == before) {
+            return false;
+        }
+        cardinality--;
+        if (container.cardinality() == 0) {
+            removeContainer(index);
+        } else {
+            containers[index] = container;
+        }
+        return true;
+    }
+
+    /**
+     * 是否包含值
+     *
+     * @param value 值
+     * @return 是否包含
+     */
+    public boolean contains(int value) {
+        int index = indexOf((char) (value >>> 16));
+        return index >= 0 && containers[index].contains((char) value);
+    }
+
+    /**
+     * 值的个数
+     */
+    public int getCardinality() {
+        return cardinality;
+    }
+
+    public boolean isEmpty() {
+        return cardinality == 0;
+    }
+
+    /**
+     * 按无符号升序遍历
+     *
+     * @param consumer 处理函数
+     */
+    public void forEach(IntConsumer consumer) {
+        for (int i = 0; i < size; i++) {
+            containers[i].forEach(keys[i] << 16, consumer);
+        }
+    }
+
+    /**
+     * 按无符号升序返回全部值
+     */
+    public int[] toArray() {
+        int[] values = new int[cardinality];
+        int[] position = new int[1];
+        forEach(value -> values[position[0]++] = value);
+        return values;
+    }
+
+    /**
+     * 深拷贝
+     */
+    public CompressedBitmap copy() {
+        return new CompressedBitmap(this);
+    }
+
+    /**
+     * 估算占用的堆内存字节数（含对象头与数组）
+     */
+    public long sizeInBytes() {
+        long bytes = 32 + 16 + 2L * keys.length + 16 + 4L * containers.length;
+        for (int i = 0; i < size; i++) {
+            bytes += containers[i].sizeInBytes();
+        }
+        return bytes;
+    }
+
+    /**
+     * 收缩数组容量，批量构建完成后调用以减少内存占用
+     */
+    public void trim() {
+        if (keys.length > size) {
+            keys = Arrays.copyOf(keys, Math.max(1, size));
+            containers = Arrays.copyOf(containers, keys.length);
+        }
+        for (int i = 0; i < size; i++) {
+            containers[i].trim();
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CompressedBitmap)) {
+            return false;
+        }
+        CompressedBitmap other = (CompressedBitmap) o;
+        return cardinality == other.cardinality && Arrays.equals(toArray(), other.toArray());
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(toArray());
+    }
+
+    private int indexOf(char high) {
+        int low = 0;
+        int highIndex = size - 1;
+        while (low <= highIndex) {
+            int mid = (low + highIndex) >>> 1;
+            char key = keys[mid];
+            if (key < high) {
+                low = mid + 1;
+            } else if (key > high) {
+                highIndex = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    private void insertContainer(int index, char high, Container container) {
+        if (size == keys.length) {
+            int capacity = size < 4 ? size + 1 : size + (size >> 1);
+            keys = Arrays.copyOf(keys, capacity);
+            containers = Arrays.copyOf(containers, capacity);
+        }
+        System.arraycopy(keys, index, keys, index + 1, size - index);
+        System.arraycopy(containers, index, containers, index + 1, size - index);
+        keys[index] = high;
+        containers[index] = container;
+        size++;
+    }
+
+    private void removeContainer(int index) {
+        System.arraycopy(keys, index + 1, keys, index, size - index - 1);
+        System.arraycopy(containers, index + 1, containers, index, size - index - 1);
+        size--;
+        containers[size] = null;
+    }
+
+    /**
+     * 容器：存放高 16 位相同的值的低 16 位；add/remove 可能转换容器类型，返回值为转换后的容器
+     */
+    private abstract static class Container {
+
+        abstract Container add(char value);
+
+        abstract Container remove(char value);
+
+        abstract boolean contains(char value);
+
+        abstract int cardinality();
+
+        abstract void forEach(int high, IntConsumer consumer);
+
+        abstract Container copy();
+
+        abstract long sizeInBytes();
+
+        void trim() {
+        }
+    }
+
+    /**
+     * 有序 char 数组容器
+     */
+    private static final class ArrayContainer extends Container {
+
+        private char[] values;
+
+        private int size;
+
+        ArrayContainer() {
+            this.values = new char[4];
+        }
+
+        ArrayContainer(char[] values, int size) {
+            this.values = values;
+            this.size = size;
+        }
+
+        @Override
+        Container add(char value) {
+            int index = Arrays.binarySearch(values, 0, size, value);
+            if (index >= 0) {
+                return this;
+            }
+            if (size == ARRAY_MAX_SIZE) {
+                return toBitmap().add(value);
+            }
+            index = -index - 1;
+            if (size == values.length) {
+                values = Arrays.copyOf(values, Math.min(ARRAY_MAX_SIZE, size + Math.max(4, size >> 1)));
+            }
+            System.arraycopy(values, index, values, index + 1, size - index);
+            values[index] = value;
+            size++;
+            return this;
+        }
+
+        @Override
+        Container remove(char value) {
+            int index = Arrays.binarySearch(values, 0, size, value);
+            if (index >= 0) {
+                System.arraycopy(values, index + 1, values, index, size - index - 1);
+                size--;
+            }
+            return this;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return Arrays.binarySearch(values, 0, size, value) >= 0;
+        }
+
+        @Override
+        int cardinality() {
+            return size;
+        }
+
+        @Override
+        void forEach(int high, IntConsumer consumer) {
+            for (int i = 0; i < size; i++) {
+                consumer.accept(high | values[i]);
+            }
+        }
+
+        @Override
+        Container copy() {
+            return new ArrayContainer(Arrays.copyOf(values, Math.max(1, size)), size);
+        }
+
+        @Override
+        long sizeInBytes() {
+            return 24 + 16 + 2L * values.length;
+        }
+
+        @Override
+        void trim() {
+            if (values.length > size) {
+                values = Arrays.copyOf(values, Math.max(1, size));
+            }
+        }
+
+        private BitmapContainer toBitmap() {
+            BitmapContainer bitmap = new BitmapContainer();
+            for (int i = 0; i < size; i++) {
+                bitmap.add(values[i]);
+            }
+            return bitmap;
+        }
+    }
+
+    /**
+     * 65536 位定长位图容器
+     */
+    private static final class BitmapContainer extends Container {
+
+        private final long[] words;
+
+        private int cardinality;
+
+        BitmapContainer() {
+            this.words = new long[1024];
+        }
+
+        BitmapContainer(long[] words, int cardinality) {
+            this.words = words;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        Container add(char value) {
+            long bit = 1L << value;
+            long word = words[value >>> 6];
+            if ((word & bit) == 0) {
+                words[value >>> 6] = word | bit;
+                cardinality++;
+            }
+            return this;
+        }
+
+        @Override
+        Container remove(char value) {
+            long bit = 1L << value;
+            long word = words[value >>> 6];
+            if ((word & bit) == 0) {
+                return this;
+            }
+            words[value >>> 6] = word & ~bit;
+            cardinality--;
+            return cardinality <= ARRAY_MAX_SIZE ? toArrayContainer() : this;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return (words[value >>> 6] & (1L << value)) != 0;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        void forEach(int high, IntConsumer consumer) {
+            for (int i = 0; i < words.length; i++) {
+                long word = words[i];
+                while (word != 0) {
+                    consumer.accept(high | (i << 6) + Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+        }
+
+        @Override
+        Container copy() {
+            return new BitmapContainer(words.clone(), cardinality);
+        }
+
+        @Override
+        long sizeInBytes() {
+            return 24 + 16 + 8L * words.length;
+        }
+
+        private ArrayContainer toArrayContainer() {
+            char[] values = new char[cardinality];
+            int[] position = new int[1];
+            forEach(0, value -> values[position[0]++] = (char) value);
+            return new ArrayContainer(values, cardinality);
+        }
+    }
+}
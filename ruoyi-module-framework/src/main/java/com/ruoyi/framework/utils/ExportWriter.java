@@ -0,0 +1,295 @@
+package com.ruoyi.framework.utils;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 流式导出写出器
+ * 逐行写出 NDJSON 或 CSV，可选 gzip 压缩；每行直接写入输出流，不在内存中保留已写出的数据，
+ * 每 flushRows 行或 flushInterval 时间刷新一次，保证慢速客户端也能持续收到数据。
+ * 只导出显式声明的列，避免把密码等敏感字段带出
+ *
+ * @param <T> 行类型
+ * @author ruoyi
+ */
+public class ExportWriter<T> implements Closeable {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    /**
+     * 导出格式
+     */
+    public enum Format {
+
+        NDJSON("application/x-ndjson", "ndjson"),
+
+        CSV("text/csv;charset=UTF-8", "csv");
+
+        private final String contentType;
+
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        /**
+         * 下载文件名
+         *
+         * @param baseName 不含扩展名的文件名
+         * @param gzip 是否 gzip 压缩
+         * @return 文件名
+         */
+        public String fileName(String baseName, boolean gzip) {
+            return baseName + "." + extension + (gzip ? ".gz" : "");
+        }
+
+        /**
+         * 按名称解析格式，忽略大小写
+         *
+         * @param name 格式名称
+         * @return 导出格式
+         * @throws IllegalArgumentException 不支持的格式
+         */
+        public static Format of(String name) {
+            for (Format format : values()) {
+                if (format.name().equalsIgnoreCase(name)) {
+                    return format;
+                }
+            }
+            throw new IllegalArgumentException("不支持的导出格式: " + name);
+        }
+    }
+
+    private final Format format;
+
+    private final List<String> names = new ArrayList<>();
+
+    private final List<Function<T, Object>> getters = new ArrayList<>();
+
+    private OutputStream stream;
+
+    private JsonGenerator json;
+
+    private Writer csv;
+
+    private final int flushRows;
+
+    private final long flushIntervalNanos;
+
+    private long rows;
+
+    private int rowsSinceFlush;
+
+    private long lastFlush;
+
+    /**
+     * 构造函数
+     *
+     * @param format 导出格式
+     * @param flushRows 每写出多少行刷新一次
+     * @param flushIntervalMillis 距上次刷新超过该时间（毫秒）时刷新
+     */
+    public ExportWriter(Format format, int flushRows, long flushIntervalMillis) {
+        this.format = format;
+        this.flushRows = Math.max(1, flushRows);
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, flushIntervalMillis));
+    }
+
+    /**
+     * 声明导出列，按声明顺序写出
+     *
+     * @param name 列名（CSV 表头 / JSON 字段名）
+     * @param getter 取值函数，值为 Number、Boolean 或按 toString 写出
+     * @return this
+     */
+    public ExportWriter<T> column(String name, Function<T, Object> getter) {
+        names.add(name);
+        getters.add(getter);
+        return this;
+    }
+
+    public Format getFormat() {
+        return format;
+    }
+
+    public List<String> getColumns() {
+        return Collections.unmodifiableList(names);
+    }
+
+    /**
+     * 开始写出，CSV 格式先写表头
+     *
+     * @param out 输出流
+     * @param gzip 是否 gzip 压缩
+     */
+    public void open(OutputStream out, boolean gzip) throws IOException {
+        // syncFlush：每次刷新都把已压缩的数据推给客户端
+        stream = gzip ? new GZIPOutputStream(out, 8192, true) : new BufferedOutputStream(out, 8192);
+        lastFlush = System.nanoTime();
+        if (format == Format.NDJSON) {
+            json = JSON_FACTORY.createGenerator(stream, JsonEncoding.UTF8);
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            json.setRootValueSeparator(null);
+        } else {
+            csv = new OutputStreamWriter(stream, StandardCharsets.UTF_8);
+            // UTF-8 BOM，Excel 打开时能正确识别中文
+            csv.write('\uFEFF');
+            for (int i = 0; i < names.size(); i++) {
+                if (i > 0) {
+                    csv.write(',');
+                }
+                writeCsvField(names.get(i));
+            }
+            csv.write("\r\n");
+        }
+    }
+
+    /**
+     * 写出一行
+     *
+     * @param row 行数据
+     */
+    public void write(T row) throws IOException {
+        if (json != null) {
+            json.writeStartObject();
+            for (int i = 0; i < names.size(); i++) {
+                json.writeFieldName(names.get(i));
+                writeJsonValue(getters.get(i).apply(row));
+            }
+            json.writeEndObject();
+            json.writeRaw('\n');
+        } else {
+            for (int i = 0; i < names.size(); i++) {
+                if (i > 0) {
+                    csv.write(',');
+                }
+                Object value = getters.get(i).apply(row);
+                if (value != null) {
+                    writeCsvField(value.toString());
+                }
+            }
+            csv.write("\r\n");
+        }
+        rows++;
+        if (++rowsSinceFlush >= flushRows
+                || (flushIntervalNanos > 0 && System.nanoTime() - lastFlush >= flushIntervalNanos)) {
+            flush();
+        }
+    }
+
+    /**
+     * 把缓冲区中的数据推给客户端
+     */
+    public void flush() throws IOException {
+        if (json != null) {
+            json.flush();
+        } else if (csv != null) {
+            csv.flush();
+        }
+        rowsSinceFlush = 0;
+        lastFlush = System.nanoTime();
+    }
+
+    /**
+     * 已写出行数
+     */
+    public long getRows() {
+        return rows;
+    }
+
+    /**
+     * 结束写出（写出 gzip 尾部），不关闭底层输出流
+     */
+    @Override
+    public void close() throws IOException {
+        flush();
+        if (json != null) {
+            json.close();
+        }
+        if (stream instanceof GZIPOutputStream) {
+            ((GZIPOutputStream) stream).finish();
+        }
+        stream.flush();
+    }
+
+    private void writeJsonValue(Object value) throws IOException {
+        if (value == null) {
+            json.writeNull();
+        } else if (value instanceof Long || value instanceof Integer) {
+            json.writeNumber(((Number) value).longValue());
+        } else if (value instanceof Number) {
+            json.writeNumber(value.toString());
+        } else if (value instanceof Boolean) {
+            json.writeBoolean((Boolean) value);
+        } else {
+            json.writeString(value.toString());
+        }
+    }
+
+    /**
+     * 写出 CSV 字段：含分隔符、引号或换行时加引号；以 = + - @ 开头的文本加单引号前缀，
+     * 防止在表格软件中被当作公式执行
+     */
+    private void writeCsvField(String value) throws IOException {
+        boolean formula = !value.isEmpty() && "=+-@\t\r".indexOf(value.charAt(0)) >= 0
+                && !isNumber(value);
+        boolean quote = formula;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            csv.write(value);
+            return;
+        }
+        csv.write('"');
+        if (formula) {
+            csv.write('\'');
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                csv.write('"');
+            }
+            csv.write(c);
+        }
+        csv.write('"');
+    }
+
+    private static boolean isNumber(String value) {
+        if (value.length() < 2 || value.charAt(0) != '-') {
+            return false;
+        }
+        for (int i = 1; i < value.length(); i++) {
+            if (!Character.isDigit(value.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
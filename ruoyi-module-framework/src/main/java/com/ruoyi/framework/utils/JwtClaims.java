@@ -0,0 +1,138 @@
+package com.ruoyi.framework.utils;
+
+/**
+ * 已验签的 JWT 声明
+ * 一次解析得到的不可变声明快照，供过滤器、缓存等复用
+ *
+ * @author ruoyi
+ */
+public final class JwtClaims {
+
+    /**
+     * 用户名（sub）
+     */
+    private final String username;
+
+    /**
+     * 用户ID
+     */
+    private final Long userId;
+
+    /**
+     * 权限信息（逗号分隔）
+     */
+    private final String authorities;
+
+    /**
+     * 权限位图（perms，base64url）
+     */
+    private final String permissions;
+
+    /**
+     * 令牌类型（刷新令牌为 refresh，访问令牌为 null）
+     */
+    private final String type;
+
+    /**
+     * 令牌ID（jti），用于吊销
+     */
+    private final String tokenId;
+
+    /**
+     * 刷新令牌族ID（fid）
+     */
+    private final String familyId;
+
+    /**
+     * 签发时间（毫秒）
+     */
+    private final long issuedAt;
+
+    /**
+     * 过期时间（毫秒）
+     */
+    private final long expiration;
+
+    public JwtClaims(String username, Long userId, String authorities, String permissions, String type,
+                     String tokenId, String familyId, long issuedAt, long expiration) {
+        this.username = username;
+        this.userId = userId;
+        this.authorities = authorities;
+        this.permissions = permissions;
+        this.type = type;
+        this.tokenId = tokenId;
+        this.familyId = familyId;
+        this.issuedAt = issuedAt;
+        this.expiration = expiration;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getAuthorities() {
+        return authorities;
+    }
+
+    public String getPermissions() {
+        return permissions;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public String getTokenId() {
+        return tokenId;
+    }
+
+    public String getFamilyId() {
+        return familyId;
+    }
+
+    public long getIssuedAt() {
+        return issuedAt;
+    }
+
+    public long getExpiration() {
+        return expiration;
+    }
+
+    /**
+     * 是否为刷新令牌
+     *
+     * @return 是否为刷新令牌
+     */
+    public boolean isRefreshToken() {
+        return "refresh".equals(type);
+    }
+
+    /**
+     * 在指定时刻是否已过期
+     *
+     * @param nowMillis 当前时间（毫秒）
+     * @return 是否过期
+     */
+    public boolean isExpired(long nowMillis) {
+        return expiration <= nowMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "JwtClaims{" +
+                "username='" + username + '\'' +
+                ", userId=" + userId +
+                ", authorities='" + authorities + '\'' +
+                ", permissions='" + permissions + '\'' +
+                ", type='" + type + '\'' +
+                ", tokenId='" + tokenId + '\'' +
+                ", familyId='" + familyId + '\'' +
+                ", issuedAt=" + issuedAt +
+                ", expiration=" + expiration +
+                '}';
+    }
+}
@@ -1,14 +1,13 @@
 package com.ruoyi.framework.utils;
 
 import io.jsonwebtoken.*;
-import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.stereotype.Component;
 
-import javax.crypto.SecretKey;
+import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 
 /**
  * JWT 工具类
@@ -18,14 +17,29 @@ import java.util.Map;
 public class JwtUtils {
 
     /**
-     * JWT 密钥（仅用于日志或调试，实际密钥由安全API生成）
+     * 刷新令牌类型
      */
-    private String secret = "SECURELY_GENERATED_VIA_KEYS_API";
-    
+    private static final String REFRESH_TYPE = "refresh";
+
+    /**
+     * JWT 签名密钥环，签名使用当前签名密钥，验签按令牌头部的 kid 选择密钥
+     */
+    private final SigningKeyRing keyRing;
+
+    /**
+     * JWT 解析器（线程安全，构建一次后复用，用于读取任意声明）
+     */
+    private final JwtParser parser;
+
+    /**
+     * 本系统签发令牌的专用验签器（认证热路径）
+     */
+    private final JwtVerifier verifier;
+
     /**
-     * JWT 签名密钥（静态密钥确保签名一致性）
+     * HS512 令牌签发器
      */
-    private static final SecretKey SIGNING_KEY = Keys.secretKeyFor(SignatureAlgorithm.HS512);
+    private final TokenMinter minter = new TokenMinter();
 
     /**
      * JWT 过期时间（毫秒）
@@ -39,6 +53,37 @@ public class JwtUtils {
     @Value("${jwt.refresh-expiration:604800000}")
     private Long refreshExpiration;
 
+    /**
+     * 使用临时密钥创建，签发的令牌仅在本进程内有效
+     */
+    public JwtUtils() {
+        this(SigningKeyRing.ephemeral());
+    }
+
+    /**
+     * 使用指定密钥环创建
+     *
+     * @param keyRing 签名密钥环
+     */
+    public JwtUtils(SigningKeyRing keyRing) {
+        this.keyRing = keyRing;
+        this.parser = Jwts.parserBuilder()
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    @Override
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        Key key = keyRing.getVerificationKey(header.getKeyId());
+                        if (key == null) {
+                            throw new UnsupportedJwtException("未知的签名密钥: " + header.getKeyId());
+                        }
+                        return key;
+                    }
+                })
+                .build();
+        this.verifier = new JwtVerifier(keyRing.getVerificationKeysByHeader());
+        // 密钥库重新加载后同步验签密钥
+        keyRing.addListener(ring -> verifier.setKeys(ring.getVerificationKeysByHeader()));
+    }
+
     /**
      * 生成 JWT Token
      * 
@@ -47,10 +92,7 @@ public class JwtUtils {
      * @return JWT Token
      */
     public String generateToken(String username, Long userId) {
-        Map<String, Object> claims = new HashMap<>();
-        claims.put("userId", userId);
-        claims.put("username", username);
-        return createToken(claims, username);
+        return createToken(username, userId, null, null, null);
     }
 
     /**
@@ -62,11 +104,35 @@ public class JwtUtils {
      * @return JWT Token
      */
     public String generateToken(String username, Long userId, String authorities) {
-        Map<String, Object> claims = new HashMap<>();
-        claims.put("userId", userId);
-        claims.put("username", username);
-        claims.put("authorities", authorities);
-        return createToken(claims, username);
+        return createToken(username, userId, authorities, null, null);
+    }
+
+    /**
+     * 生成 JWT Token（带权限信息与刷新令牌族）
+     *
+     * @param username 用户名
+     * @param userId 用户ID
+     * @param authorities 权限列表
+     * @param familyId 刷新令牌族ID
+     * @return JWT Token
+     */
+    public String generateToken(String username, Long userId, String authorities, String familyId) {
+        return generateToken(username, userId, authorities, null, familyId);
+    }
+
+    /**
+     * 生成 JWT Token（带权限信息、权限位图与刷新令牌族）
+     *
+     * @param username 用户名
+     * @param userId 用户ID
+     * @param authorities 权限列表
+     * @param permissions base64url 权限位图，为 null 时不写入
+     * @param familyId 刷新令牌族ID
+     * @return JWT Token
+     */
+    public String generateToken(String username, Long userId, String authorities, String permissions,
+                                String familyId) {
+        return createToken(username, userId, authorities, permissions, familyId);
     }
 
     /**
@@ -76,51 +142,98 @@ public class JwtUtils {
      * @return 刷新令牌
      */
     public String generateRefreshToken(String username) {
-        Map<String, Object> claims = new HashMap<>();
-        claims.put("type", "refresh");
-        return createRefreshToken(claims, username);
+        return createRefreshToken(username, null, null);
     }
 
     /**
-     * 创建 Token
-     * 
-     * @param claims 声明
-     * @param subject 主题
+     * 生成属于指定令牌族的刷新令牌
+     *
+     * @param username 用户名
+     * @param familyId 刷新令牌族ID
+     * @param tokenId 令牌ID（jti），由令牌族存储分配
+     * @return 刷新令牌
+     */
+    public String generateRefreshToken(String username, String familyId, String tokenId) {
+        return createRefreshToken(username, familyId, tokenId);
+    }
+
+    /**
+     * 创建访问令牌
+     * HS512 走专用签发器，ES256 走 jjwt
+     *
+     * @param username 用户名（同时作为主题）
+     * @param userId 用户ID
+     * @param authorities 权限列表，为 null 时不写入
+     * @param permissions 权限位图，为 null 时不写入
+     * @param familyId 刷新令牌族ID，为 null 时不写入
      * @return Token
      */
-    private String createToken(Map<String, Object> claims, String subject) {
-        Date now = new Date();
-        Date expiryDate = new Date(now.getTime() + expiration);
+    private String createToken(String username, Long userId, String authorities, String permissions,
+                               String familyId) {
+        long now = System.currentTimeMillis();
+        SigningKeyRing.SigningKey signingKey = keyRing.getSigningKey();
+        if (signingKey.getAlgorithm() == SignatureAlgorithm.HS512) {
+            return minter.mint(signingKey, username, userId, username, authorities, permissions, null, familyId,
+                    null, now, now + expiration);
+        }
 
-        return Jwts.builder()
-                .setClaims(claims)
-                .setSubject(subject)
-                .setIssuedAt(now)
-                .setExpiration(expiryDate)
-                .signWith(getSigningKey(), SignatureAlgorithm.HS512)
-                .compact();
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("userId", userId);
+        claims.put("username", username);
+        claims.put("authorities", authorities);
+        claims.put("perms", permissions);
+        claims.put("fid", familyId);
+        return buildToken(signingKey, claims, username, newTokenId(), now, now + expiration);
     }
 
     /**
      * 创建刷新令牌
-     * 
-     * @param claims 声明
-     * @param subject 主题
+     *
+     * @param username 用户名（作为主题）
+     * @param familyId 刷新令牌族ID，为 null 时不写入
+     * @param tokenId 令牌ID，为 null 时随机生成
      * @return 刷新令牌
      */
-    private String createRefreshToken(Map<String, Object> claims, String subject) {
-        Date now = new Date();
-        Date expiryDate = new Date(now.getTime() + refreshExpiration);
+    private String createRefreshToken(String username, String familyId, String tokenId) {
+        long now = System.currentTimeMillis();
+        SigningKeyRing.SigningKey signingKey = keyRing.getSigningKey();
+        if (signingKey.getAlgorithm() == SignatureAlgorithm.HS512) {
+            return minter.mint(signingKey, username, null, null, null, null, REFRESH_TYPE, familyId, tokenId,
+                    now, now + refreshExpiration);
+        }
+
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("type", REFRESH_TYPE);
+        claims.put("fid", familyId);
+        return buildToken(signingKey, claims, username, tokenId != null ? tokenId : newTokenId(), now,
+                now + refreshExpiration);
+    }
 
+    /**
+     * 使用 jjwt 构建令牌（值为 null 的声明不会写入）
+     */
+    private static String buildToken(SigningKeyRing.SigningKey signingKey, Map<String, Object> claims,
+                                     String subject, String tokenId, long issuedAt, long expiresAt) {
         return Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, signingKey.getKeyId())
                 .setClaims(claims)
                 .setSubject(subject)
-                .setIssuedAt(now)
-                .setExpiration(expiryDate)
-                .signWith(getSigningKey(), SignatureAlgorithm.HS512)
+                .setId(tokenId)
+                .setIssuedAt(new Date(issuedAt))
+                .setExpiration(new Date(expiresAt))
+                .signWith(signingKey.getSigningKey(), signingKey.getAlgorithm())
                 .compact();
     }
 
+    /**
+     * 生成令牌ID（jti）
+     *
+     * @return 令牌ID
+     */
+    private static String newTokenId() {
+        return UUID.randomUUID().toString();
+    }
+
     /**
      * 从 Token 中获取用户名
      * 
@@ -182,11 +295,17 @@ public class JwtUtils {
      * @return 所有声明
      */
     private Claims getAllClaimsFromToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return parser.parseClaimsJws(token).getBody();
+    }
+
+    /**
+     * 解析并验证 Token，一次验签得到全部声明
+     *
+     * @param token JWT Token
+     * @return 声明快照，Token 无效或已过期时返回 null
+     */
+    public JwtClaims parseToken(String token) {
+        return verifier.verify(token);
     }
 
     /**
@@ -219,25 +338,17 @@ public class JwtUtils {
      * @return 是否有效
      */
     public Boolean validateToken(String token) {
-        try {
-            Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token);
-            return !isTokenExpired(token);
-        } catch (JwtException | IllegalArgumentException e) {
-            e.printStackTrace();
-            return false;
-        }
+        // 解析时已校验签名与过期时间，无需再次解析
+        return parseToken(token) != null;
     }
 
     /**
-     * 获取签名密钥
-     * 
-     * @return 签名密钥
+     * 获取签名密钥环
+     *
+     * @return 签名密钥环
      */
-    private SecretKey getSigningKey() {
-        return SIGNING_KEY;
+    public SigningKeyRing getKeyRing() {
+        return keyRing;
     }
 
     /**
@@ -0,0 +1,517 @@
+package com.ruoyi.framework.utils;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.MessageDigest;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * HS512 / ES256 JWT 验签器
+ * 仅处理 {@link JwtUtils} 自身签发的令牌：原地切分紧凑格式、按字节区间复用每线程 Mac 验签，
+ * 只解码固定的声明集合（sub、userId、authorities、exp、iat、type、jti、fid、perms），不构建通用的 Map 声明。
+ * 每个验签密钥对应唯一的头部段（含 kid），按头部字节哈希一次查表即可选出密钥，无需解析头部 JSON
+ * <p>
+ * 不符合以下任一条件的令牌一律拒绝：头部必须与某个密钥签发时完全一致、签名为规范的 64 字节 base64url（HS512 的 HMAC 与 ES256 的 R||S 恰好都是 64 字节）、
+ * 载荷为 JSON 对象且已知声明类型正确、exp 必须存在且未过期、nbf（如有）已生效
+ *
+ * @author ruoyi
+ */
+public class JwtVerifier {
+
+    /**
+     * HS512 签名算法
+     */
+    private static final String MAC_ALGORITHM = "HmacSHA512";
+
+    /**
+     * ES256 验签算法，签名为 JWS 规定的 R||S 定长格式
+     */
+    private static final String ECDSA_ALGORITHM = "SHA256withECDSAinP1363Format";
+
+    /**
+     * 签名字节数：HS512 与 ES256 均为 64
+     */
+    private static final int SIGNATURE_LENGTH = 64;
+
+    /**
+     * 签名段 base64url 字符数（无填充）
+     */
+    private static final int SIGNATURE_SEGMENT_LENGTH = 86;
+
+    /**
+     * 允许的最大令牌长度
+     */
+    private static final int MAX_TOKEN_LENGTH = 8192;
+
+    /**
+     * base64url 字符解码表，非法字符为 -1
+     */
+    private static final byte[] DECODE_TABLE = new byte[128];
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    /**
+     * 不带 kid 的头部：{"alg":"HS512"}
+     */
+    private static final String HS512_HEADER = Base64.getUrlEncoder().withoutPadding()
+            .encodeToString("{\"alg\":\"HS512\"}".getBytes(StandardCharsets.UTF_8));
+
+    static {
+        Arrays.fill(DECODE_TABLE, (byte) -1);
+        String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+        for (int i = 0; i < alphabet.length(); i++) {
+            DECODE_TABLE[alphabet.charAt(i)] = (byte) i;
+        }
+    }
+
+    /**
+     * 每线程复用的验签上下文
+     */
+    private final ThreadLocal<Context> context = ThreadLocal.withInitial(Context::new);
+
+    /**
+     * 头部段 -> 验签密钥，密钥轮换时整体替换
+     */
+    private volatile KeyTable keys;
+
+    /**
+     * 使用单个密钥验证不带 kid 的令牌
+     *
+     * @param key 密钥
+     */
+    public JwtVerifier(SecretKey key) {
+        this(Collections.singletonMap(HS512_HEADER, key));
+    }
+
+    /**
+     * 使用一组密钥验证令牌
+     *
+     * @param keysByHeader 签发时的头部段（base64url）-> 密钥
+     */
+    public JwtVerifier(Map<String, ? extends Key> keysByHeader) {
+        setKeys(keysByHeader);
+    }
+
+    /**
+     * 替换验签密钥
+     *
+     * @param keysByHeader 签发时的头部段（base64url）-> 密钥
+     */
+    public void setKeys(Map<String, ? extends Key> keysByHeader) {
+        this.keys = new KeyTable(keysByHeader);
+    }
+
+    /**
+     * 验证令牌并解码声明
+     *
+     * @param token JWT Token
+     * @return 声明快照，无效、过期或无法处理时返回 null
+     */
+    public JwtClaims verify(String token) {
+        return verify(token, System.currentTimeMillis());
+    }
+
+    /**
+     * 验证令牌并解码声明
+     *
+     * @param token JWT Token
+     * @param nowMillis 当前时间（毫秒）
+     * @return 声明快照，无效、过期或无法处理时返回 null
+     */
+    public JwtClaims verify(String token, long nowMillis) {
+        if (token == null) {
+            return null;
+        }
+        int length = token.length();
+        if (length == 0 || length > MAX_TOKEN_LENGTH) {
+            return null;
+        }
+
+        Context ctx = context.get();
+        byte[] buf = ctx.tokenBuffer(length);
+
+        // 1. 复制为 ASCII 字节并定位两个分隔点，同时校验字符集
+        int firstDot = -1;
+        int secondDot = -1;
+        for (int i = 0; i < length; i++) {
+            char c = token.charAt(i);
+            if (c == '.') {
+                if (firstDot < 0) {
+                    firstDot = i;
+                } else if (secondDot < 0) {
+                    secondDot = i;
+                } else {
+                    return null;
+                }
+            } else if (c >= 128 || DECODE_TABLE[c] < 0) {
+                return null;
+            }
+            buf[i] = (byte) c;
+        }
+        if (secondDot < 0 || firstDot == 0 || secondDot == firstDot + 1
+                || length - secondDot - 1 != SIGNATURE_SEGMENT_LENGTH) {
+            return null;
+        }
+
+        // 2. 头部必须与某个密钥签发时完全一致，同时确定验签密钥
+        KeyTable table = keys;
+        int keyIndex = table.find(buf, firstDot);
+        if (keyIndex < 0) {
+            return null;
+        }
+
+        // 3. 按字节区间验签：HMAC 与签名做常量时间比较，ECDSA 用公钥验证
+        if (decode(buf, secondDot + 1, length, ctx.signature) != SIGNATURE_LENGTH) {
+            return null;
+        }
+        if (!ctx.verifySignature(table, keyIndex, buf, secondDot)) {
+            return null;
+        }
+
+        // 4. 解码载荷并读取固定声明
+        int payloadLength = decodedLength(secondDot - firstDot - 1);
+        if (payloadLength < 0) {
+            return null;
+        }
+        byte[] payload = ctx.payloadBuffer(payloadLength);
+        if (decode(buf, firstDot + 1, secondDot, payload) != payloadLength) {
+            return null;
+        }
+        return readClaims(payload, payloadLength, nowMillis);
+    }
+
+    /**
+     * 读取载荷中的固定声明
+     */
+    private static JwtClaims readClaims(byte[] payload, int length, long nowMillis) {
+        String subject = null;
+        Long userId = null;
+        String authorities = null;
+        String permissions = null;
+        String type = null;
+        String tokenId = null;
+        String familyId = null;
+        long issuedAt = 0L;
+        long expiration = -1L;
+        long notBefore = -1L;
+        int seen = 0;
+
+        try (JsonParser parser = JSON_FACTORY.createParser(payload, 0, length)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            JsonToken token;
+            while ((token = parser.nextToken()) == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                JsonToken value = parser.nextToken();
+                int bit;
+                switch (name) {
+                    case "sub":
+                        bit = 1;
+                        if (value != JsonToken.VALUE_STRING) {
+                            return null;
+                        }
+                        subject = parser.getText();
+                        break;
+                    case "userId":
+                        bit = 2;
+                        if (value == JsonToken.VALUE_NULL) {
+                            break;
+                        }
+                        if (value != JsonToken.VALUE_NUMBER_INT || !fitsLong(parser)) {
+                            return null;
+                        }
+                        userId = parser.getLongValue();
+                        break;
+                    case "authorities":
+                        bit = 4;
+                        if (value == JsonToken.VALUE_NULL) {
+                            break;
+                        }
+                        if (value != JsonToken.VALUE_STRING) {
+                            return null;
+                        }
+                        authorities = parser.getText();
+                        break;
+                    case "perms":
+                        bit = 512;
+                        if (value != JsonToken.VALUE_STRING) {
+                            return null;
+                        }
+                        permissions = parser.getText();
+                        break;
+                    case "type":
+                        bit = 8;
+                        if (value != JsonToken.VALUE_STRING) {
+                            return null;
+                        }
+                        type = parser.getText();
+                        break;
+                    case "jti":
+                        bit = 128;
+                        if (value != JsonToken.VALUE_STRING) {
+                            return null;
+                        }
+                        tokenId = parser.getText();
+                        break;
+                    case "fid":
+                        bit = 256;
+                        if (value != JsonToken.VALUE_STRING) {
+                            return null;
+                        }
+                        familyId = parser.getText();
+                        break;
+                    case "exp":
+                        bit = 16;
+                        if (value != JsonToken.VALUE_NUMBER_INT || !fitsLong(parser)) {
+                            return null;
+                        }
+                        expiration = parser.getLongValue() * 1000L;
+                        break;
+                    case "iat":
+                        bit = 32;
+                        if (value != JsonToken.VALUE_NUMBER_INT || !fitsLong(parser)) {
+                            return null;
+                        }
+                        issuedAt = parser.getLongValue() * 1000L;
+                        break;
+                    case "nbf":
+                        bit = 64;
+                        if (value != JsonToken.VALUE_NUMBER_INT || !fitsLong(parser)) {
+                            return null;
+                        }
+                        notBefore = parser.getLongValue() * 1000L;
+                        break;
+                    default:
+                        bit = 0;
+                        parser.skipChildren();
+                        break;
+                }
+                // 重复的已知声明视为无法处理
+                if ((seen & bit) != 0) {
+                    return null;
+                }
+                seen |= bit;
+            }
+            if (token != JsonToken.END_OBJECT || parser.nextToken() != null) {
+                return null;
+            }
+        } catch (IOException e) {
+            return null;
+        }
+
+        if (expiration < 0 || nowMillis > expiration || (notBefore >= 0 && nowMillis < notBefore)) {
+            return null;
+        }
+        return new JwtClaims(subject, userId, authorities, permissions, type, tokenId, familyId, issuedAt, expiration);
+    }
+
+    private static boolean fitsLong(JsonParser parser) throws IOException {
+        JsonParser.NumberType numberType = parser.getNumberType();
+        return numberType == JsonParser.NumberType.INT || numberType == JsonParser.NumberType.LONG;
+    }
+
+    /**
+     * 计算无填充 base64url 段解码后的字节数，长度非法时返回 -1
+     */
+    private static int decodedLength(int encodedLength) {
+        int remainder = encodedLength & 3;
+        if (remainder == 1) {
+            return -1;
+        }
+        return (encodedLength >> 2) * 3 + (remainder == 0 ? 0 : remainder - 1);
+    }
+
+    /**
+     * 将 src[from, to) 的无填充 base64url 解码到 dst，要求末尾多余位为 0
+     *
+     * @return 解码字节数，非法输入或目标空间不足时返回 -1
+     */
+    private static int decode(byte[] src, int from, int to, byte[] dst) {
+        int out = decodedLength(to - from);
+        if (out < 0 || out > dst.length) {
+            return -1;
+        }
+        int d = 0;
+        int i = from;
+        int fullEnd = from + ((to - from) & ~3);
+        while (i < fullEnd) {
+            int bits = DECODE_TABLE[src[i++]] << 18 | DECODE_TABLE[src[i++]] << 12
+                    | DECODE_TABLE[src[i++]] << 6 | DECODE_TABLE[src[i++]];
+            dst[d++] = (byte) (bits >> 16);
+            dst[d++] = (byte) (bits >> 8);
+            dst[d++] = (byte) bits;
+        }
+        int remainder = to - i;
+        if (remainder == 2) {
+            int bits = DECODE_TABLE[src[i]] << 6 | DECODE_TABLE[src[i + 1]];
+            if ((bits & 0x0F) != 0) {
+                return -1;
+            }
+            dst[d++] = (byte) (bits >> 4);
+        } else if (remainder == 3) {
+            int bits = DECODE_TABLE[src[i]] << 12 | DECODE_TABLE[src[i + 1]] << 6 | DECODE_TABLE[src[i + 2]];
+            if ((bits & 0x03) != 0) {
+                return -1;
+            }
+            dst[d++] = (byte) (bits >> 10);
+            dst[d++] = (byte) (bits >> 2);
+        }
+        return d;
+    }
+
+    /**
+     * 头部段到密钥的开放寻址表，按头部字节哈希查找
+     */
+    private static final class KeyTable {
+
+        private final byte[][] headers;
+
+        private final Key[] keys;
+
+        /**
+         * 槽位 -> 密钥下标 + 1，0 表示空槽
+         */
+        private final int[] slots;
+
+        private final int mask;
+
+        private KeyTable(Map<String, ? extends Key> keysByHeader) {
+            int size = keysByHeader.size();
+            this.headers = new byte[size][];
+            this.keys = new Key[size];
+            int capacity = Integer.highestOneBit(Math.max(2, size * 2 - 1)) << 1;
+            this.slots = new int[capacity];
+            this.mask = capacity - 1;
+            int index = 0;
+            for (Map.Entry<String, ? extends Key> entry : keysByHeader.entrySet()) {
+                byte[] header = entry.getKey().getBytes(StandardCharsets.US_ASCII);
+                headers[index] = header;
+                keys[index] = entry.getValue();
+                int slot = hash(header, header.length) & mask;
+                while (slots[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                slots[slot] = ++index;
+            }
+        }
+
+        /**
+         * 查找与 buf[0, length) 完全相同的头部
+         *
+         * @return 密钥下标，不存在时返回 -1
+         */
+        private int find(byte[] buf, int length) {
+            int slot = hash(buf, length) & mask;
+            int entry;
+            while ((entry = slots[slot]) != 0) {
+                byte[] header = headers[entry - 1];
+                if (Arrays.equals(buf, 0, length, header, 0, header.length)) {
+                    return entry - 1;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return -1;
+        }
+
+        private static int hash(byte[] bytes, int length) {
+            int hash = 0x811C9DC5;
+            for (int i = 0; i < length; i++) {
+                hash = (hash ^ bytes[i]) * 0x01000193;
+            }
+            return hash ^ (hash >>> 16);
+        }
+    }
+
+    /**
+     * 每线程验签上下文
+     */
+    private static final class Context {
+
+        private final byte[] expected = new byte[SIGNATURE_LENGTH];
+
+        private final byte[] signature = new byte[SIGNATURE_LENGTH];
+
+        private byte[] token = new byte[512];
+
+        private byte[] payload = new byte[512];
+
+        /**
+         * 与 engines 对应的密钥表，密钥轮换后整体丢弃
+         */
+        private KeyTable table;
+
+        /**
+         * 每个密钥已初始化的 Mac 或 Signature
+         */
+        private Object[] engines;
+
+        /**
+         * 验证 buf[0, signedLength) 的签名是否等于 signature
+         */
+        private boolean verifySignature(KeyTable current, int index, byte[] buf, int signedLength) {
+            if (table != current) {
+                table = current;
+                engines = new Object[current.keys.length];
+            }
+            try {
+                Object engine = engines[index];
+                if (engine == null) {
+                    engine = newEngine(current.keys[index]);
+                    engines[index] = engine;
+                }
+                if (engine instanceof Mac) {
+                    Mac mac = (Mac) engine;
+                    mac.update(buf, 0, signedLength);
+                    mac.doFinal(expected, 0);
+                    return MessageDigest.isEqual(expected, signature);
+                }
+                Signature verifier = (Signature) engine;
+                verifier.update(buf, 0, signedLength);
+                return verifier.verify(signature);
+            } catch (GeneralSecurityException e) {
+                // 状态可能不完整，下次重新初始化
+                engines[index] = null;
+                return false;
+            }
+        }
+
+        private static Object newEngine(Key key) throws GeneralSecurityException {
+            if (key instanceof PublicKey) {
+                Signature verifier = Signature.getInstance(ECDSA_ALGORITHM);
+                verifier.initVerify((PublicKey) key);
+                return verifier;
+            }
+            Mac mac = Mac.getInstance(MAC_ALGORITHM);
+            mac.init(key);
+            return mac;
+        }
+
+        private byte[] tokenBuffer(int length) {
+            if (token.length < length) {
+                token = new byte[Math.max(length, token.length * 2)];
+            }
+            return token;
+        }
+
+        private byte[] payloadBuffer(int length) {
+            if (payload.length < length) {
+                payload = new byte[Math.max(length, payload.length * 2)];
+            }
+            return payload;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.ruoyi.framework.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/**
+ * 键集分页游标
+ * 列表按主键倒序排列，游标记录上一页最后一行的主键，下一页以 {@code id < lastId} 继续读取，
+ * 无论翻到多深都只扫描一页数据。游标对调用方不透明，格式可以在不影响客户端的情况下调整
+ *
+ * @author ruoyi
+ */
+public final class PageCursor {
+
+    private static final String PREFIX = "k1:";
+
+    private PageCursor() {
+    }
+
+    /**
+     * 编码游标
+     *
+     * @param lastId 上一页最后一行的主键
+     * @return 游标
+     */
+    public static String encode(long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((PREFIX + lastId).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * 解码游标
+     *
+     * @param cursor 游标
+     * @return 上一页最后一行的主键，游标为空时返回 null
+     * @throws IllegalArgumentException 游标无效
+     */
+    public static Long decode(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII);
+            if (value.startsWith(PREFIX)) {
+                return Long.parseLong(value.substring(PREFIX.length()));
+            }
+        } catch (IllegalArgumentException e) {
+            // 统一按无效游标处理
+        }
+        throw new IllegalArgumentException("无效的翻页游标");
+    }
+
+    /**
+     * 组装键集分页结果
+     * rows 应按 pageSize + 1 查询，多出的一行只用于判断是否还有下一页
+     *
+     * @param rows 查询结果，按主键倒序
+     * @param pageSize 每页数量
+     * @param total 总记录数，未统计时为 null
+     * @param idOf 主键读取函数
+     * @param <T> 数据类型
+     * @return 分页结果
+     */
+    public static <T> PageResult<T> page(List<T> rows, int pageSize, Long total, ToLongFunction<T> idOf) {
+        if (rows.size() <= pageSize) {
+            return new PageResult<>(rows, total, null);
+        }
+        List<T> page = rows.subList(0, pageSize);
+        return new PageResult<>(page, total, encode(idOf.applyAsLong(page.get(pageSize - 1))));
+    }
+}
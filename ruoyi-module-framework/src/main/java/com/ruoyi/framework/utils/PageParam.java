@@ -1,6 +1,7 @@
 package com.ruoyi.framework.utils;
 
 import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 import lombok.Data;
@@ -18,6 +19,11 @@ public class PageParam implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
+    /**
+     * 允许的最大偏移量，更深的页只能通过 cursor 翻页
+     */
+    public static final int MAX_OFFSET = 10000;
+
     /**
      * 当前页码
      */
@@ -31,15 +37,48 @@ public class PageParam implements Serializable {
      */
     @NotNull(message = "每页数量不能为空")
     @Min(value = 1, message = "每页数量必须大于0")
+    @Max(value = 500, message = "每页数量不能超过500")
     @Schema(description = "每页显示数量", example = "10")
     private Integer pageSize = 10;
 
+    /**
+     * 翻页游标，取上一页结果的 nextCursor；传入时忽略页码
+     */
+    @Schema(description = "翻页游标，取上一页结果的 nextCursor，传入时忽略页码")
+    private String cursor;
+
+    /**
+     * 是否统计总记录数
+     */
+    @Schema(description = "是否统计总记录数", example = "false")
+    private Boolean searchCount = false;
+
     /**
      * 获取偏移量
+     * 按 long 计算，超出 int 范围时取 Integer.MAX_VALUE，避免溢出成负数绕过 {@link #MAX_OFFSET} 校验
      * 
      * @return 偏移量
      */
     public int getOffset() {
-        return (pageNum - 1) * pageSize;
+        long offset = (long) (pageNum - 1) * pageSize;
+        return (int) Math.min(offset, Integer.MAX_VALUE);
+    }
+
+    /**
+     * 是否按游标翻页
+     *
+     * @return 是否按游标翻页
+     */
+    public boolean hasCursor() {
+        return cursor != null && !cursor.isEmpty();
+    }
+
+    /**
+     * 是否需要统计总记录数
+     *
+     * @return 是否统计
+     */
+    public boolean shouldCount() {
+        return Boolean.TRUE.equals(searchCount);
     }
-}
\ No newline at end of file
+}
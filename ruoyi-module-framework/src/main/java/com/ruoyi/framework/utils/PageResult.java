@@ -27,9 +27,15 @@ public class PageResult<T> implements Serializable {
     /**
      * 总记录数
      */
-    @Schema(description = "总记录数")
+    @Schema(description = "总记录数，未统计时为 null")
     private Long total = 0L;
 
+    /**
+     * 下一页游标，没有更多数据时为 null
+     */
+    @Schema(description = "下一页游标，没有更多数据时为 null")
+    private String nextCursor;
+
     /**
      * 构造函数
      */
@@ -47,6 +53,19 @@ public class PageResult<T> implements Serializable {
         this.total = total != null ? total : 0L;
     }
 
+    /**
+     * 构造函数
+     *
+     * @param list 数据列表
+     * @param total 总记录数，未统计时为 null
+     * @param nextCursor 下一页游标，没有更多数据时为 null
+     */
+    public PageResult(List<T> list, Long total, String nextCursor) {
+        this.list = list != null ? list : Collections.emptyList();
+        this.total = total;
+        this.nextCursor = nextCursor;
+    }
+
     /**
      * 创建空的分页结果
      * 
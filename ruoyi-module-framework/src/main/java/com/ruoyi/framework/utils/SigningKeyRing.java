@@ -0,0 +1,517 @@
+package com.ruoyi.framework.utils;
+
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.KeyStore;
+import java.security.cert.Certificate;
+import java.security.interfaces.ECPrivateKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * JWT 签名密钥环
+ * 从本地 PKCS12 密钥库加载签名密钥，别名即 kid。集群内各节点使用同一份密钥库，
+ * 任一节点签发的令牌都能在其他节点验证，重启也不会使已签发的令牌失效。
+ * HS512 模式使用 HmacSHA512 对称密钥；ES256 模式使用 P-256 密钥对，公钥可以对外发布，
+ * 下游服务无需回调本服务即可在本地验证令牌。
+ * <p>
+ * 密钥库中的全部密钥都可用于验签；签名使用创建时间已超过激活延迟的最新密钥，
+ * 新密钥先分发到所有节点、延迟到期后才开始签名，避免尚未加载新密钥的节点拒绝新令牌。
+ * 后台定期检查密钥库文件，变化后重新加载，无需重启。未配置密钥库时生成仅本进程有效的临时密钥
+ *
+ * @author ruoyi
+ */
+public class SigningKeyRing implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(SigningKeyRing.class);
+
+    private static final String HMAC_ALGORITHM = "HmacSHA512";
+
+    /**
+     * HS512 要求密钥至少 512 位
+     */
+    private static final int MIN_HMAC_KEY_BYTES = 64;
+
+    /**
+     * ES256 使用的曲线
+     */
+    private static final String EC_CURVE = "secp256r1";
+
+    private static final int EC_FIELD_SIZE = 256;
+
+    /**
+     * kid 会原样写入令牌头部，限制为不需要 JSON 转义的字符
+     */
+    private static final Pattern KEY_ID_PATTERN = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+
+    private final Path keystorePath;
+
+    private final SignatureAlgorithm algorithm;
+
+    private final char[] password;
+
+    private final long activationDelayMillis;
+
+    private final ScheduledExecutorService scheduler;
+
+    private final List<Consumer<SigningKeyRing>> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * 当前密钥集合，整体替换
+     */
+    private volatile Snapshot snapshot;
+
+    /**
+     * 上次加载时密钥库文件的修改时间与大小
+     */
+    private long loadedModified = -1L;
+
+    private long loadedSize = -1L;
+
+    private volatile long reloads;
+
+    /**
+     * 构造 HS512 密钥环
+     *
+     * @param keystorePath PKCS12 密钥库路径，为空时使用临时密钥
+     * @param password 密钥库与密钥的密码
+     * @param activationDelaySeconds 新密钥创建后多久开始用于签名（秒）
+     * @param reloadIntervalSeconds 检查密钥库变化的间隔（秒）
+     */
+    public SigningKeyRing(String keystorePath, String password, long activationDelaySeconds,
+                          long reloadIntervalSeconds) {
+        this(SignatureAlgorithm.HS512, keystorePath, password, activationDelaySeconds, reloadIntervalSeconds);
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param algorithm 签名算法，支持 HS512 与 ES256
+     * @param keystorePath PKCS12 密钥库路径，为空时使用临时密钥
+     * @param password 密钥库与密钥的密码
+     * @param activationDelaySeconds 新密钥创建后多久开始用于签名（秒）
+     * @param reloadIntervalSeconds 检查密钥库变化的间隔（秒）
+     */
+    public SigningKeyRing(SignatureAlgorithm algorithm, String keystorePath, String password,
+                          long activationDelaySeconds, long reloadIntervalSeconds) {
+        if (algorithm != SignatureAlgorithm.HS512 && algorithm != SignatureAlgorithm.ES256) {
+            throw new IllegalArgumentException("不支持的签名算法: " + algorithm);
+        }
+        this.algorithm = algorithm;
+        this.keystorePath = keystorePath == null || keystorePath.isBlank() ? null : Paths.get(keystorePath);
+        this.password = password == null ? new char[0] : password.toCharArray();
+        this.activationDelayMillis = TimeUnit.SECONDS.toMillis(Math.max(0, activationDelaySeconds));
+
+        if (this.keystorePath == null) {
+            this.snapshot = Snapshot.of(Collections.singletonList(generateEphemeralKey(algorithm)), 0L);
+            this.scheduler = null;
+            log.warn("未配置 JWT 密钥库，使用临时密钥 kid={}，令牌仅在本进程内有效", snapshot.signingKey.keyId);
+            return;
+        }
+
+        reloadIfChanged();
+        if (snapshot == null) {
+            throw new IllegalStateException("无法加载 JWT 密钥库: " + this.keystorePath);
+        }
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "signing-key-ring");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = Math.max(1, reloadIntervalSeconds);
+        scheduler.scheduleWithFixedDelay(this::refresh, interval, interval, TimeUnit.SECONDS);
+    }
+
+    /**
+     * 创建只含一个临时 HS512 密钥的密钥环
+     */
+    public static SigningKeyRing ephemeral() {
+        return ephemeral(SignatureAlgorithm.HS512);
+    }
+
+    /**
+     * 创建只含一个临时密钥的密钥环
+     *
+     * @param algorithm 签名算法
+     */
+    public static SigningKeyRing ephemeral(SignatureAlgorithm algorithm) {
+        return new SigningKeyRing(algorithm, null, null, 0, 0);
+    }
+
+    public SignatureAlgorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    /**
+     * 获取当前签名密钥
+     */
+    public SigningKey getSigningKey() {
+        return snapshot.signingKey;
+    }
+
+    /**
+     * 按 kid 获取验签密钥
+     *
+     * @param keyId kid
+     * @return 验签密钥（HS512 为对称密钥，ES256 为公钥），不存在时返回 null
+     */
+    public Key getVerificationKey(String keyId) {
+        SigningKey key = keyId == null ? null : snapshot.keysById.get(keyId);
+        return key == null ? null : key.verificationKey;
+    }
+
+    /**
+     * 获取全部验签密钥，键为签发时使用的头部段（base64url）
+     */
+    public Map<String, Key> getVerificationKeysByHeader() {
+        return snapshot.keysByHeader;
+    }
+
+    /**
+     * 获取可公开发布的 JWK 集合（RFC 7517），HS512 模式下为空
+     *
+     * @return JWK 列表
+     */
+    public List<Map<String, Object>> getPublicJwks() {
+        return snapshot.publicJwks;
+    }
+
+    /**
+     * 注册密钥变化监听器，注册时立即回调一次
+     *
+     * @param listener 监听器
+     */
+    public void addListener(Consumer<SigningKeyRing> listener) {
+        listeners.add(listener);
+        listener.accept(this);
+    }
+
+    /**
+     * 定时任务：重新加载变化的密钥库，并按激活时间重新选择签名密钥
+     */
+    private void refresh() {
+        try {
+            if (!reloadIfChanged()) {
+                Snapshot current = snapshot;
+                Snapshot next = Snapshot.of(current.keys, activationDelayMillis);
+                if (next.signingKey != current.signingKey) {
+                    publish(next);
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("刷新 JWT 密钥环失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 密钥库文件变化时重新加载
+     *
+     * @return 是否重新加载
+     */
+    private synchronized boolean reloadIfChanged() {
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(keystorePath, BasicFileAttributes.class);
+        } catch (IOException e) {
+            log.warn("读取 JWT 密钥库失败: {}", e.getMessage());
+            return false;
+        }
+        long modified = attributes.lastModifiedTime().toMillis();
+        if (modified == loadedModified && attributes.size() == loadedSize) {
+            return false;
+        }
+        List<SigningKey> keys = load();
+        if (keys.isEmpty()) {
+            // 文件写到一半或内容有误时保留原有密钥，下次检查再试
+            return false;
+        }
+        loadedModified = modified;
+        loadedSize = attributes.size();
+        publish(Snapshot.of(keys, activationDelayMillis));
+        return true;
+    }
+
+    private void publish(Snapshot next) {
+        Snapshot previous = snapshot;
+        snapshot = next;
+        reloads++;
+        log.info("JWT 密钥环已更新: 签名密钥 kid={}, 验签密钥 {} 个",
+                next.signingKey.keyId, next.keysById.size());
+        if (previous != null) {
+            for (Consumer<SigningKeyRing> listener : listeners) {
+                listener.accept(this);
+            }
+        }
+    }
+
+    private List<SigningKey> load() {
+        List<SigningKey> keys = new ArrayList<>();
+        try (InputStream in = Files.newInputStream(keystorePath)) {
+            KeyStore keyStore = KeyStore.getInstance("PKCS12");
+            keyStore.load(in, password);
+            Enumeration<String> aliases = keyStore.aliases();
+            while (aliases.hasMoreElements()) {
+                String alias = aliases.nextElement();
+                if (!KEY_ID_PATTERN.matcher(alias).matches()) {
+                    log.warn("忽略 JWT 密钥 {}: 别名只能包含字母、数字和 ._-", alias);
+                    continue;
+                }
+                Date created = keyStore.getCreationDate(alias);
+                long createdAt = created != null ? created.getTime() : 0L;
+                SigningKey key = algorithm == SignatureAlgorithm.HS512
+                        ? loadHmacKey(keyStore, alias, createdAt) : loadEcKey(keyStore, alias, createdAt);
+                if (key != null) {
+                    keys.add(key);
+                }
+            }
+        } catch (IOException | GeneralSecurityException e) {
+            log.warn("加载 JWT 密钥库失败: {}", e.getMessage());
+            return Collections.emptyList();
+        }
+        return keys;
+    }
+
+    private SigningKey loadHmacKey(KeyStore keyStore, String alias, long createdAt) throws GeneralSecurityException {
+        if (!keyStore.entryInstanceOf(alias, KeyStore.SecretKeyEntry.class)) {
+            return null;
+        }
+        Key key = keyStore.getKey(alias, password);
+        if (!(key instanceof SecretKey) || !HMAC_ALGORITHM.equalsIgnoreCase(key.getAlgorithm())
+                || key.getEncoded() == null || key.getEncoded().length < MIN_HMAC_KEY_BYTES) {
+            log.warn("忽略 JWT 密钥 {}: 需要至少 512 位的 {} 密钥", alias, HMAC_ALGORITHM);
+            return null;
+        }
+        return new SigningKey(alias, SignatureAlgorithm.HS512, key, key, createdAt);
+    }
+
+    private SigningKey loadEcKey(KeyStore keyStore, String alias, long createdAt) throws GeneralSecurityException {
+        if (!keyStore.entryInstanceOf(alias, KeyStore.PrivateKeyEntry.class)) {
+            return null;
+        }
+        Key key = keyStore.getKey(alias, password);
+        Certificate certificate = keyStore.getCertificate(alias);
+        if (!(key instanceof ECPrivateKey) || certificate == null
+                || !(certificate.getPublicKey() instanceof ECPublicKey)
+                || ((ECPrivateKey) key).getParams().getCurve().getField().getFieldSize() != EC_FIELD_SIZE) {
+            log.warn("忽略 JWT 密钥 {}: 需要 P-256 椭圆曲线密钥对", alias);
+            return null;
+        }
+        return new SigningKey(alias, SignatureAlgorithm.ES256, key, certificate.getPublicKey(), createdAt);
+    }
+
+    private static SigningKey generateEphemeralKey(SignatureAlgorithm algorithm) {
+        String keyId = "ephemeral-" + UUID.randomUUID().toString().substring(0, 8);
+        try {
+            if (algorithm == SignatureAlgorithm.ES256) {
+                KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+                generator.initialize(new ECGenParameterSpec(EC_CURVE));
+                KeyPair keyPair = generator.generateKeyPair();
+                return new SigningKey(keyId, algorithm, keyPair.getPrivate(), keyPair.getPublic(), 0L);
+            }
+            KeyGenerator generator = KeyGenerator.getInstance(HMAC_ALGORITHM);
+            generator.init(512);
+            SecretKey key = generator.generateKey();
+            return new SigningKey(keyId, algorithm, key, key, 0L);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("无法生成 " + algorithm + " 密钥", e);
+        }
+    }
+
+    /**
+     * 获取运行指标
+     */
+    public Map<String, Object> stats() {
+        Snapshot current = snapshot;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("algorithm", algorithm.getValue());
+        stats.put("keystorePath", keystorePath != null ? keystorePath.toString() : null);
+        stats.put("signingKeyId", current.signingKey.keyId);
+        stats.put("verificationKeyIds", new ArrayList<>(current.keysById.keySet()));
+        stats.put("reloads", reloads);
+        return stats;
+    }
+
+    @Override
+    public void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * 签名密钥
+     */
+    public static final class SigningKey {
+
+        private final String keyId;
+
+        private final SignatureAlgorithm algorithm;
+
+        /**
+         * 签名用密钥：HS512 为对称密钥，ES256 为私钥
+         */
+        private final Key signingKey;
+
+        /**
+         * 验签用密钥：HS512 为对称密钥，ES256 为公钥
+         */
+        private final Key verificationKey;
+
+        private final long createdAt;
+
+        /**
+         * 签发时的头部段：base64url({"kid":"...","alg":"..."})，与 jjwt 的输出逐字节一致
+         */
+        private final String headerSegment;
+
+        private SigningKey(String keyId, SignatureAlgorithm algorithm, Key signingKey, Key verificationKey,
+                           long createdAt) {
+            this.keyId = keyId;
+            this.algorithm = algorithm;
+            this.signingKey = signingKey;
+            this.verificationKey = verificationKey;
+            this.createdAt = createdAt;
+            this.headerSegment = Base64.getUrlEncoder().withoutPadding().encodeToString(
+                    ("{\"kid\":\"" + keyId + "\",\"alg\":\"" + algorithm.getValue() + "\"}")
+                            .getBytes(StandardCharsets.UTF_8));
+        }
+
+        public String getKeyId() {
+            return keyId;
+        }
+
+        public SignatureAlgorithm getAlgorithm() {
+            return algorithm;
+        }
+
+        public Key getSigningKey() {
+            return signingKey;
+        }
+
+        public Key getVerificationKey() {
+            return verificationKey;
+        }
+
+        public long getCreatedAt() {
+            return createdAt;
+        }
+
+        public String getHeaderSegment() {
+            return headerSegment;
+        }
+
+        /**
+         * 公钥的 JWK 表示，对称密钥返回 null
+         */
+        private Map<String, Object> toPublicJwk() {
+            if (!(verificationKey instanceof ECPublicKey)) {
+                return null;
+            }
+            ECPublicKey publicKey = (ECPublicKey) verificationKey;
+            Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+            Map<String, Object> jwk = new LinkedHashMap<>();
+            jwk.put("kty", "EC");
+            jwk.put("crv", "P-256");
+            jwk.put("kid", keyId);
+            jwk.put("use", "sig");
+            jwk.put("alg", algorithm.getValue());
+            jwk.put("x", encoder.encodeToString(toFixedLength(publicKey.getW().getAffineX().toByteArray())));
+            jwk.put("y", encoder.encodeToString(toFixedLength(publicKey.getW().getAffineY().toByteArray())));
+            return jwk;
+        }
+
+        /**
+         * 把 BigInteger 的补码字节转为 32 字节无符号定长表示
+         */
+        private static byte[] toFixedLength(byte[] bytes) {
+            int length = EC_FIELD_SIZE / 8;
+            byte[] fixed = new byte[length];
+            int copy = Math.min(bytes.length, length);
+            System.arraycopy(bytes, bytes.length - copy, fixed, length - copy, copy);
+            return fixed;
+        }
+    }
+
+    /**
+     * 不可变的密钥集合
+     */
+    private static final class Snapshot {
+
+        private final List<SigningKey> keys;
+
+        private final SigningKey signingKey;
+
+        private final Map<String, SigningKey> keysById;
+
+        private final Map<String, Key> keysByHeader;
+
+        private final List<Map<String, Object>> publicJwks;
+
+        private Snapshot(List<SigningKey> keys, SigningKey signingKey) {
+            this.keys = keys;
+            this.signingKey = signingKey;
+            Map<String, SigningKey> byId = new HashMap<>();
+            Map<String, Key> byHeader = new HashMap<>();
+            List<Map<String, Object>> jwks = new ArrayList<>();
+            for (SigningKey key : keys) {
+                byId.put(key.keyId, key);
+                byHeader.put(key.headerSegment, key.verificationKey);
+                Map<String, Object> jwk = key.toPublicJwk();
+                if (jwk != null) {
+                    jwks.add(Collections.unmodifiableMap(jwk));
+                }
+            }
+            this.keysById = Collections.unmodifiableMap(byId);
+            this.keysByHeader = Collections.unmodifiableMap(byHeader);
+            this.publicJwks = Collections.unmodifiableList(jwks);
+        }
+
+        /**
+         * 选出已激活的最新密钥作为签名密钥；全部未激活时使用最早的密钥
+         */
+        private static Snapshot of(List<SigningKey> keys, long activationDelayMillis) {
+            List<SigningKey> sorted = new ArrayList<>(keys);
+            sorted.sort(Comparator.comparingLong((SigningKey key) -> key.createdAt).thenComparing(key -> key.keyId));
+            long activeBefore = System.currentTimeMillis() - activationDelayMillis;
+            SigningKey signingKey = sorted.get(0);
+            for (SigningKey key : sorted) {
+                if (key.createdAt <= activeBefore) {
+                    signingKey = key;
+                }
+            }
+            return new Snapshot(Collections.unmodifiableList(sorted), signingKey);
+        }
+    }
+}
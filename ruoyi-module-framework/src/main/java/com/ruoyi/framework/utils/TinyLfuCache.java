@@ -0,0 +1,635 @@
+package com.ruoyi.framework.utils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 有界本地缓存，W-TinyLFU 淘汰策略
+ * 新条目先进入约占 1% 容量的 LRU 窗口，移出窗口后进入主区的试用段；主区满时用 4 位 Count-Min 频率草图
+ * 比较刚移入试用段的候选者与试用段最久未访问的条目，只有更常被访问的一方留下，
+ * 试用段中再次被访问的条目晋升到受保护段（约占主区 80%）。频率草图在累计写入 10 倍容量后整体减半，使旧热点逐渐冷却。
+ * <p>
+ * 读取无锁；访问顺序与频率在能立即拿到锁时才更新，竞争时丢弃这次记录，不阻塞读取。
+ * 写入、失效与淘汰在同一把锁下进行。每次失效都会推进失效纪元，
+ * 通过 {@link #load} 加载的值只有在加载期间没有发生失效时才写入缓存，避免把加载开始前读到的旧值放回缓存
+ *
+ * @param <K> 键类型
+ * @param <V> 值类型，应为不可变对象
+ * @author ruoyi
+ */
+public class TinyLfuCache<K, V> {
+
+    private static final int WINDOW = 0;
+
+    private static final int PROBATION = 1;
+
+    private static final int PROTECTED = 2;
+
+    private final int maximumSize;
+
+    private final int windowMaximum;
+
+    private final int protectedMaximum;
+
+    private final long ttlNanos;
+
+    private final ConcurrentHashMap<K, Node<K, V>> data;
+
+    private final FrequencySketch sketch;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final AccessOrder<K, V> window = new AccessOrder<>();
+
+    private final AccessOrder<K, V> probation = new AccessOrder<>();
+
+    private final AccessOrder<K, V> protectedSegment = new AccessOrder<>();
+
+    private int windowSize;
+
+    private int protectedSize;
+
+    private int size;
+
+    /**
+     * 失效纪元，每次失效加一
+     */
+    private final AtomicLong epoch = new AtomicLong();
+
+    /**
+     * 条目被淘汰、过期、失效或替换时回调，在锁内执行
+     */
+    private final BiConsumer<K, V> removalListener;
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder loads = new LongAdder();
+
+    private final LongAdder loadFailures = new LongAdder();
+
+    private final LongAdder totalLoadNanos = new LongAdder();
+
+    private final AtomicLong maxLoadNanos = new AtomicLong();
+
+    private final LongAdder evictions = new LongAdder();
+
+    private final LongAdder expirations = new LongAdder();
+
+    private final LongAdder rejections = new LongAdder();
+
+    private final LongAdder staleLoads = new LongAdder();
+
+    /**
+     * 构造函数
+     *
+     * @param maximumSize 最大条目数
+     * @param ttlMillis 写入后的存活时间（毫秒），小于等于 0 表示不过期
+     * @param removalListener 条目移除回调，可为 null；在锁内执行，不能再访问本缓存
+     */
+    public TinyLfuCache(int maximumSize, long ttlMillis, BiConsumer<K, V> removalListener) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("maximumSize 必须大于0");
+        }
+        this.maximumSize = maximumSize;
+        this.windowMaximum = Math.max(1, maximumSize / 100);
+        this.protectedMaximum = (int) ((maximumSize - windowMaximum) * 80L / 100);
+        this.ttlNanos = ttlMillis > 0 ? TimeUnit.MILLISECONDS.toNanos(ttlMillis) : 0L;
+        this.removalListener = removalListener;
+        this.data = new ConcurrentHashMap<>(Math.min(maximumSize, 1 << 16));
+        this.sketch = new FrequencySketch(maximumSize);
+    }
+
+    /**
+     * 读取缓存
+     *
+     * @param key 键
+     * @return 值，不存在或已过期时返回 null
+     */
+    public V getIfPresent(K key) {
+        Node<K, V> node = data.get(key);
+        if (node == null) {
+            return null;
+        }
+        if (ttlNanos > 0 && System.nanoTime() - node.expiresAt > 0) {
+            lock.lock();
+            try {
+                if (data.remove(key, node)) {
+                    unlink(node);
+                    expirations.increment();
+                    notifyRemoval(node);
+                }
+            } finally {
+                lock.unlock();
+            }
+            return null;
+        }
+        if (lock.tryLock()) {
+            try {
+                onAccess(node);
+            } finally {
+                lock.unlock();
+            }
+        }
+        hits.increment();
+        return node.value;
+    }
+
+    /**
+     * 读取缓存，未命中时加载并写入
+     *
+     * @param key 键
+     * @param loader 加载函数，返回 null 时不缓存
+     * @return 值
+     */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        V value = getIfPresent(key);
+        if (value != null) {
+            return value;
+        }
+        return load(() -> loader.apply(key), ignored -> key);
+    }
+
+    /**
+     * 加载并写入缓存，用于事先不知道键的加载（例如按其它字段查询）。
+     * 加载期间发生过失效时只返回结果，不写入缓存
+     *
+     * @param loader 加载函数，返回 null 时不缓存
+     * @param keyOf 从加载结果中取键
+     * @return 加载结果
+     */
+    public V load(Supplier<? extends V> loader, Function<? super V, ? extends K> keyOf) {
+        long startEpoch = epoch.get();
+        long start = System.nanoTime();
+        V value;
+        try {
+            value = loader.get();
+        } catch (RuntimeException e) {
+            loadFailures.increment();
+            throw e;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            loads.increment();
+            totalLoadNanos.add(elapsed);
+            maxLoadNanos.accumulateAndGet(elapsed, Math::max);
+        }
+        if (value != null && !putIfUnchanged(keyOf.apply(value), value, startEpoch)) {
+            staleLoads.increment();
+        }
+        return value;
+    }
+
+    /**
+     * 批量读取，未命中的键交给一次批量加载，与 {@link #load} 一样只在加载期间没有发生失效时写入缓存
+     *
+     * @param keys 键
+     * @param loader 批量加载函数，参数为未命中的键，返回找到的键值；不存在的键不必返回
+     * @return 找到的键值，按 keys 的遍历顺序
+     */
+    public Map<K, V> getAll(Collection<? extends K> keys, Function<? super List<K>, ? extends Map<K, ? extends V>> loader) {
+        Map<K, V> result = new LinkedHashMap<>();
+        Set<K> missingKeys = new LinkedHashSet<>();
+        for (K key : keys) {
+            if (result.containsKey(key) || missingKeys.contains(key)) {
+                continue;
+            }
+            V value = getIfPresent(key);
+            if (value != null) {
+                result.put(key, value);
+            } else {
+                missingKeys.add(key);
+            }
+        }
+        if (missingKeys.isEmpty()) {
+            return result;
+        }
+        List<K> missing = new ArrayList<>(missingKeys);
+        long startEpoch = epoch.get();
+        long start = System.nanoTime();
+        Map<K, ? extends V> loaded;
+        try {
+            loaded = loader.apply(missing);
+        } catch (RuntimeException e) {
+            loadFailures.increment();
+            throw e;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            loads.add(missing.size());
+            totalLoadNanos.add(elapsed);
+            maxLoadNanos.accumulateAndGet(elapsed, Math::max);
+        }
+        lock.lock();
+        try {
+            boolean unchanged = epoch.get() == startEpoch;
+            for (Map.Entry<K, ? extends V> entry : loaded.entrySet()) {
+                if (entry.getValue() == null) {
+                    continue;
+                }
+                if (unchanged) {
+                    putLocked(entry.getKey(), entry.getValue());
+                } else {
+                    staleLoads.increment();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        // 按调用方给出的顺序返回
+        Map<K, V> ordered = new LinkedHashMap<>();
+        for (K key : keys) {
+            V value = result.containsKey(key) ? result.get(key) : loaded.get(key);
+            if (value != null) {
+                ordered.putIfAbsent(key, value);
+            }
+        }
+        return ordered;
+    }
+
+    /**
+     * 写入缓存
+     *
+     * @param key 键
+     * @param value 值
+     */
+    public void put(K key, V value) {
+        lock.lock();
+        try {
+            putLocked(key, value);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 失效纪元未变化时写入缓存
+     *
+     * @return 是否写入
+     */
+    private boolean putIfUnchanged(K key, V value, long expectedEpoch) {
+        lock.lock();
+        try {
+            if (epoch.get() != expectedEpoch) {
+                return false;
+            }
+            putLocked(key, value);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 使指定键失效，同时推进失效纪元
+     *
+     * @param key 键
+     */
+    public void invalidate(K key) {
+        lock.lock();
+        try {
+            epoch.incrementAndGet();
+            Node<K, V> node = data.remove(key);
+            if (node != null) {
+                unlink(node);
+                notifyRemoval(node);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 只推进失效纪元，使正在进行的加载不写入缓存
+     */
+    public void advanceEpoch() {
+        lock.lock();
+        try {
+            epoch.incrementAndGet();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 清空缓存，不回调移除监听器
+     */
+    public void invalidateAll() {
+        lock.lock();
+        try {
+            epoch.incrementAndGet();
+            data.clear();
+            window.clear();
+            probation.clear();
+            protectedSegment.clear();
+            windowSize = 0;
+            protectedSize = 0;
+            size = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        return data.size();
+    }
+
+    /**
+     * 获取统计信息，未命中次数按加载次数计
+     *
+     * @return 统计信息
+     */
+    public Map<String, Object> stats() {
+        long hitCount = hits.sum();
+        long loadCount = loads.sum();
+        long total = hitCount + loadCount;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", data.size());
+        stats.put("maximumSize", maximumSize);
+        stats.put("ttlSeconds", TimeUnit.NANOSECONDS.toSeconds(ttlNanos));
+        stats.put("hitCount", hitCount);
+        stats.put("missCount", loadCount);
+        stats.put("hitRate", total == 0 ? 0.0 : (double) hitCount / total);
+        stats.put("loadFailureCount", loadFailures.sum());
+        stats.put("avgLoadMillis", loadCount == 0 ? 0.0 : totalLoadNanos.sum() / 1_000_000.0 / loadCount);
+        stats.put("maxLoadMillis", maxLoadNanos.get() / 1_000_000.0);
+        stats.put("staleLoadCount", staleLoads.sum());
+        stats.put("evictionCount", evictions.sum());
+        stats.put("admissionRejectedCount", rejections.sum());
+        stats.put("expirationCount", expirations.sum());
+        return stats;
+    }
+
+    private void putLocked(K key, V value) {
+        Node<K, V> node = new Node<>(key, value, ttlNanos > 0 ? System.nanoTime() + ttlNanos : 0L);
+        Node<K, V> old = data.put(key, node);
+        if (old != null) {
+            unlink(old);
+            notifyRemoval(old);
+        }
+        sketch.increment(key.hashCode());
+        node.segment = WINDOW;
+        window.addLast(node);
+        windowSize++;
+        size++;
+        evict();
+    }
+
+    /**
+     * 记录一次访问并调整所在段，调用方持有锁
+     */
+    private void onAccess(Node<K, V> node) {
+        if (node.removed) {
+            return;
+        }
+        sketch.increment(node.key.hashCode());
+        if (node.segment == WINDOW) {
+            window.moveToLast(node);
+        } else if (node.segment == PROBATION) {
+            probation.remove(node);
+            node.segment = PROTECTED;
+            protectedSegment.addLast(node);
+            protectedSize++;
+            // 受保护段超出配额时，最久未访问的条目降回试用段
+            while (protectedSize > protectedMaximum) {
+                Node<K, V> demoted = protectedSegment.first();
+                protectedSegment.remove(demoted);
+                protectedSize--;
+                demoted.segment = PROBATION;
+                probation.addLast(demoted);
+            }
+        } else {
+            protectedSegment.moveToLast(node);
+        }
+    }
+
+    /**
+     * 窗口溢出的条目移入试用段，总数超出时在候选者与受害者之间按频率淘汰一个
+     */
+    private void evict() {
+        while (windowSize > windowMaximum) {
+            Node<K, V> node = window.first();
+            window.remove(node);
+            windowSize--;
+            node.segment = PROBATION;
+            probation.addLast(node);
+        }
+        while (size > maximumSize) {
+            Node<K, V> victim = probation.first();
+            Node<K, V> candidate = probation.last();
+            Node<K, V> evicted;
+            if (victim == null) {
+                // 试用段为空（容量极小），淘汰受保护段或窗口中最久未访问的条目
+                evicted = protectedSegment.first() != null ? protectedSegment.first() : window.first();
+            } else if (victim == candidate) {
+                evicted = victim;
+            } else if (sketch.frequency(candidate.key.hashCode()) > sketch.frequency(victim.key.hashCode())) {
+                evicted = victim;
+            } else {
+                evicted = candidate;
+                rejections.increment();
+            }
+            data.remove(evicted.key, evicted);
+            unlink(evicted);
+            evictions.increment();
+            notifyRemoval(evicted);
+        }
+    }
+
+    /**
+     * 从所在段中摘除，调用方持有锁
+     */
+    private void unlink(Node<K, V> node) {
+        if (node.removed) {
+            return;
+        }
+        node.removed = true;
+        size--;
+        if (node.segment == WINDOW) {
+            window.remove(node);
+            windowSize--;
+        } else if (node.segment == PROBATION) {
+            probation.remove(node);
+        } else {
+            protectedSegment.remove(node);
+            protectedSize--;
+        }
+    }
+
+    private void notifyRemoval(Node<K, V> node) {
+        if (removalListener != null) {
+            removalListener.accept(node.key, node.value);
+        }
+    }
+
+    /**
+     * 缓存条目，值与过期时间不可变，替换时创建新条目
+     */
+    private static final class Node<K, V> {
+
+        private final K key;
+
+        private final V value;
+
+        private final long expiresAt;
+
+        private int segment;
+
+        private boolean removed;
+
+        private Node<K, V> prev;
+
+        private Node<K, V> next;
+
+        private Node(K key, V value, long expiresAt) {
+            this.key = key;
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    /**
+     * 侵入式双向链表，头部为最久未访问的条目
+     */
+    private static final class AccessOrder<K, V> {
+
+        private Node<K, V> head;
+
+        private Node<K, V> tail;
+
+        private Node<K, V> first() {
+            return head;
+        }
+
+        private Node<K, V> last() {
+            return tail;
+        }
+
+        private void addLast(Node<K, V> node) {
+            node.prev = tail;
+            node.next = null;
+            if (tail == null) {
+                head = node;
+            } else {
+                tail.next = node;
+            }
+            tail = node;
+        }
+
+        private void remove(Node<K, V> node) {
+            if (node.prev == null) {
+                head = node.next;
+            } else {
+                node.prev.next = node.next;
+            }
+            if (node.next == null) {
+                tail = node.prev;
+            } else {
+                node.next.prev = node.prev;
+            }
+            node.prev = null;
+            node.next = null;
+        }
+
+        private void moveToLast(Node<K, V> node) {
+            if (node != tail) {
+                remove(node);
+                addLast(node);
+            }
+        }
+
+        private void clear() {
+            head = null;
+            tail = null;
+        }
+    }
+
+    /**
+     * 4 位计数器的 Count-Min 频率草图，每个 long 存 16 个计数器，每个键对应 4 个计数器，取最小值
+     */
+    static final class FrequencySketch {
+
+        private static final long[] SEEDS = {
+                0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+
+        private static final long RESET_MASK = 0x7777777777777777L;
+
+        private final long[] table;
+
+        private final int tableMask;
+
+        private final int sampleSize;
+
+        private int additions;
+
+        FrequencySketch(int maximumSize) {
+            int capacity = Math.max(16, maximumSize);
+            int length = Integer.highestOneBit(capacity - 1) << 1;
+            this.table = new long[length];
+            this.tableMask = length - 1;
+            this.sampleSize = (int) Math.min(Integer.MAX_VALUE, 10L * capacity);
+        }
+
+        int frequency(int hashCode) {
+            int hash = spread(hashCode);
+            int frequency = 15;
+            for (int i = 0; i < SEEDS.length; i++) {
+                long h = mix(hash, i);
+                int shift = ((int) h & 15) << 2;
+                frequency = Math.min(frequency, (int) ((table[index(h)] >>> shift) & 0xF));
+            }
+            return frequency;
+        }
+
+        void increment(int hashCode) {
+            int hash = spread(hashCode);
+            boolean added = false;
+            for (int i = 0; i < SEEDS.length; i++) {
+                long h = mix(hash, i);
+                int index = index(h);
+                int shift = ((int) h & 15) << 2;
+                if (((table[index] >>> shift) & 0xF) < 15) {
+                    table[index] += 1L << shift;
+                    added = true;
+                }
+            }
+            if (added && ++additions >= sampleSize) {
+                reset();
+            }
+        }
+
+        /**
+         * 所有计数器减半
+         */
+        private void reset() {
+            for (int i = 0; i < table.length; i++) {
+                table[i] = (table[i] >>> 1) & RESET_MASK;
+            }
+            additions >>>= 1;
+        }
+
+        private int index(long h) {
+            return (int) (h >>> 32) & tableMask;
+        }
+
+        private static long mix(int hash, int i) {
+            long h = (hash + SEEDS[i]) * SEEDS[i];
+            return h ^ (h >>> 29);
+        }
+
+        private static int spread(int hashCode) {
+            int h = hashCode * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+    }
+}
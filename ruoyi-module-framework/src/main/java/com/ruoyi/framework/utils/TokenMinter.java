@@ -0,0 +1,344 @@
+package com.ruoyi.framework.utils;
+
+import javax.crypto.Mac;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.SecureRandom;
+
+/**
+ * HS512 JWT 签发器
+ * 头部段取自签名密钥预先计算的 base64url 结果，声明直接写入每线程复用的字节缓冲区，
+ * 使用每线程复用的 Mac 签名，除最终的令牌字符串外不产生其它对象。
+ * 输出与 jjwt 签发的令牌结构一致（头部逐字节相同，声明相同，值为 null 的声明省略），
+ * 可被 {@link JwtVerifier} 与 jjwt 解析器验证
+ *
+ * @author ruoyi
+ */
+final class TokenMinter {
+
+    private static final String MAC_ALGORITHM = "HmacSHA512";
+
+    private static final int SIGNATURE_LENGTH = 64;
+
+    private static final byte[] BASE64URL =
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_".getBytes(StandardCharsets.US_ASCII);
+
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * 每线程复用的签发上下文
+     */
+    private final ThreadLocal<Context> context = ThreadLocal.withInitial(Context::new);
+
+    /**
+     * 签发令牌
+     *
+     * @param signingKey HS512 签名密钥
+     * @param subject 主题（sub）
+     * @param userId 用户ID，为 null 时不写入
+     * @param username 用户名声明，为 null 时不写入
+     * @param authorities 权限列表，为 null 时不写入
+     * @param permissions 权限位图，为 null 时不写入
+     * @param type 令牌类型，为 null 时不写入
+     * @param familyId 刷新令牌族ID，为 null 时不写入
+     * @param tokenId 令牌ID（jti），为 null 时生成随机 UUID
+     * @param issuedAtMillis 签发时间（毫秒）
+     * @param expirationMillis 过期时间（毫秒）
+     * @return 紧凑格式的 JWT
+     */
+    String mint(SigningKeyRing.SigningKey signingKey, String subject, Long userId, String username,
+                String authorities, String permissions, String type, String familyId, String tokenId,
+                long issuedAtMillis, long expirationMillis) {
+        Context ctx = context.get();
+
+        // 1. 载荷 JSON，声明顺序与语义同 jjwt 的输出
+        ctx.length = 0;
+        ctx.put((byte) '{');
+        ctx.putStringField("sub", subject, true);
+        if (userId != null) {
+            ctx.putName("userId");
+            ctx.putLong(userId);
+        }
+        ctx.putStringField("username", username, false);
+        ctx.putStringField("authorities", authorities, false);
+        ctx.putStringField("perms", permissions, false);
+        ctx.putStringField("type", type, false);
+        ctx.putStringField("fid", familyId, false);
+        ctx.putName("jti");
+        if (tokenId != null) {
+            ctx.putString(tokenId);
+        } else {
+            ctx.putRandomUuid();
+        }
+        ctx.putName("iat");
+        ctx.putLong(issuedAtMillis / 1000L);
+        ctx.putName("exp");
+        ctx.putLong(expirationMillis / 1000L);
+        ctx.put((byte) '}');
+
+        // 2. 头部段.载荷段
+        byte[] header = ctx.header(signingKey);
+        int payloadSegment = encodedLength(ctx.length);
+        int signedLength = header.length + 1 + payloadSegment;
+        byte[] out = ctx.outBuffer(signedLength + 1 + encodedLength(SIGNATURE_LENGTH));
+        System.arraycopy(header, 0, out, 0, header.length);
+        out[header.length] = '.';
+        encode(ctx.json, ctx.length, out, header.length + 1);
+
+        // 3. 签名段
+        Mac mac = ctx.mac(signingKey.getSigningKey());
+        try {
+            mac.update(out, 0, signedLength);
+            mac.doFinal(ctx.signature, 0);
+        } catch (GeneralSecurityException e) {
+            ctx.macKey = null;
+            throw new IllegalStateException("JWT 签名失败", e);
+        }
+        out[signedLength] = '.';
+        int total = encode(ctx.signature, SIGNATURE_LENGTH, out, signedLength + 1);
+        return new String(out, 0, total, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * 无填充 base64url 编码后的字符数
+     */
+    private static int encodedLength(int length) {
+        return (length / 3) * 4 + (length % 3 == 0 ? 0 : length % 3 + 1);
+    }
+
+    /**
+     * 将 src[0, length) 无填充 base64url 编码到 dst[offset...]
+     *
+     * @return 编码结束位置
+     */
+    private static int encode(byte[] src, int length, byte[] dst, int offset) {
+        int d = offset;
+        int i = 0;
+        int fullEnd = length - length % 3;
+        while (i < fullEnd) {
+            int bits = (src[i++] & 0xFF) << 16 | (src[i++] & 0xFF) << 8 | (src[i++] & 0xFF);
+            dst[d++] = BASE64URL[bits >>> 18];
+            dst[d++] = BASE64URL[(bits >>> 12) & 0x3F];
+            dst[d++] = BASE64URL[(bits >>> 6) & 0x3F];
+            dst[d++] = BASE64URL[bits & 0x3F];
+        }
+        int remainder = length - i;
+        if (remainder == 1) {
+            int bits = (src[i] & 0xFF) << 4;
+            dst[d++] = BASE64URL[bits >>> 6];
+            dst[d++] = BASE64URL[bits & 0x3F];
+        } else if (remainder == 2) {
+            int bits = ((src[i] & 0xFF) << 8 | (src[i + 1] & 0xFF)) << 2;
+            dst[d++] = BASE64URL[bits >>> 12];
+            dst[d++] = BASE64URL[(bits >>> 6) & 0x3F];
+            dst[d++] = BASE64URL[bits & 0x3F];
+        }
+        return d;
+    }
+
+    /**
+     * 每线程签发上下文
+     */
+    private static final class Context {
+
+        private final byte[] signature = new byte[SIGNATURE_LENGTH];
+
+        private final byte[] uuid = new byte[16];
+
+        private final byte[] digits = new byte[20];
+
+        private byte[] json = new byte[512];
+
+        private int length;
+
+        private byte[] out = new byte[1024];
+
+        private Mac mac;
+
+        /**
+         * mac 当前初始化使用的密钥
+         */
+        private Key macKey;
+
+        /**
+         * header 对应的签名密钥
+         */
+        private SigningKeyRing.SigningKey headerKey;
+
+        private byte[] header;
+
+        private SecureRandom random;
+
+        private byte[] header(SigningKeyRing.SigningKey signingKey) {
+            if (headerKey != signingKey) {
+                header = signingKey.getHeaderSegment().getBytes(StandardCharsets.US_ASCII);
+                headerKey = signingKey;
+            }
+            return header;
+        }
+
+        private Mac mac(Key key) {
+            if (macKey != key) {
+                try {
+                    if (mac == null) {
+                        mac = Mac.getInstance(MAC_ALGORITHM);
+                    }
+                    mac.init(key);
+                } catch (GeneralSecurityException e) {
+                    throw new IllegalStateException("无法初始化 " + MAC_ALGORITHM, e);
+                }
+                macKey = key;
+            }
+            return mac;
+        }
+
+        private byte[] outBuffer(int size) {
+            if (out.length < size) {
+                out = new byte[Math.max(size, out.length * 2)];
+            }
+            return out;
+        }
+
+        private void ensure(int extra) {
+            if (length + extra > json.length) {
+                byte[] grown = new byte[Math.max(length + extra, json.length * 2)];
+                System.arraycopy(json, 0, grown, 0, length);
+                json = grown;
+            }
+        }
+
+        private void put(byte b) {
+            ensure(1);
+            json[length++] = b;
+        }
+
+        /**
+         * 写入 "name": ，必要时先写逗号（字段名均为 ASCII 且无需转义）
+         */
+        private void putName(String name) {
+            ensure(name.length() + 4);
+            if (json[length - 1] != '{') {
+                json[length++] = ',';
+            }
+            json[length++] = '"';
+            for (int i = 0; i < name.length(); i++) {
+                json[length++] = (byte) name.charAt(i);
+            }
+            json[length++] = '"';
+            json[length++] = ':';
+        }
+
+        /**
+         * 写入字符串字段；值为 null 时按 required 写入 null 或省略
+         */
+        private void putStringField(String name, String value, boolean required) {
+            if (value == null && !required) {
+                return;
+            }
+            putName(name);
+            if (value == null) {
+                ensure(4);
+                json[length++] = 'n';
+                json[length++] = 'u';
+                json[length++] = 'l';
+                json[length++] = 'l';
+            } else {
+                putString(value);
+            }
+        }
+
+        /**
+         * 写入 JSON 字符串，按 UTF-8 编码并转义引号、反斜杠与控制字符
+         */
+        private void putString(String value) {
+            int n = value.length();
+            // 每个字符最多占 6 字节（\\u00XX）
+            ensure(n * 6 + 2);
+            byte[] buf = json;
+            int p = length;
+            buf[p++] = '"';
+            for (int i = 0; i < n; i++) {
+                char c = value.charAt(i);
+                if (c < 0x80) {
+                    if (c == '"' || c == '\\') {
+                        buf[p++] = '\\';
+                        buf[p++] = (byte) c;
+                    } else if (c < 0x20) {
+                        buf[p++] = '\\';
+                        buf[p++] = 'u';
+                        buf[p++] = '0';
+                        buf[p++] = '0';
+                        buf[p++] = HEX[c >> 4];
+                        buf[p++] = HEX[c & 0xF];
+                    } else {
+                        buf[p++] = (byte) c;
+                    }
+                } else if (c < 0x800) {
+                    buf[p++] = (byte) (0xC0 | (c >> 6));
+                    buf[p++] = (byte) (0x80 | (c & 0x3F));
+                } else if (Character.isHighSurrogate(c) && i + 1 < n
+                        && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                    buf[p++] = (byte) (0xF0 | (codePoint >> 18));
+                    buf[p++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                    buf[p++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                    buf[p++] = (byte) (0x80 | (codePoint & 0x3F));
+                } else if (Character.isSurrogate(c)) {
+                    // 不成对的代理字符与 String.getBytes(UTF_8) 一样替换为 '?'
+                    buf[p++] = '?';
+                } else {
+                    buf[p++] = (byte) (0xE0 | (c >> 12));
+                    buf[p++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                    buf[p++] = (byte) (0x80 | (c & 0x3F));
+                }
+            }
+            buf[p++] = '"';
+            length = p;
+        }
+
+        private void putLong(long value) {
+            ensure(20);
+            if (value == Long.MIN_VALUE) {
+                byte[] min = Long.toString(value).getBytes(StandardCharsets.US_ASCII);
+                System.arraycopy(min, 0, json, length, min.length);
+                length += min.length;
+                return;
+            }
+            if (value < 0) {
+                json[length++] = '-';
+                value = -value;
+            }
+            int count = 0;
+            do {
+                digits[count++] = (byte) ('0' + value % 10);
+                value /= 10;
+            } while (value != 0);
+            while (count > 0) {
+                json[length++] = digits[--count];
+            }
+        }
+
+        /**
+         * 写入随机 UUID（版本 4），格式与 UUID.randomUUID().toString() 相同
+         */
+        private void putRandomUuid() {
+            if (random == null) {
+                random = new SecureRandom();
+            }
+            random.nextBytes(uuid);
+            uuid[6] = (byte) ((uuid[6] & 0x0F) | 0x40);
+            uuid[8] = (byte) ((uuid[8] & 0x3F) | 0x80);
+            ensure(38);
+            json[length++] = '"';
+            for (int i = 0; i < 16; i++) {
+                if (i == 4 || i == 6 || i == 8 || i == 10) {
+                    json[length++] = '-';
+                }
+                json[length++] = HEX[(uuid[i] >> 4) & 0xF];
+                json[length++] = HEX[uuid[i] & 0xF];
+            }
+            json[length++] = '"';
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.ruoyi.framework.concurrent;
+
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * DbPermitDataSource 测试类
+ *
+ * @author ruoyi
+ */
+public class DbPermitDataSourceTest {
+
+    @Test
+    public void testPermitIsHeldUntilConnectionCloses() throws Exception {
+        DataSource pool = mock(DataSource.class);
+        when(pool.getConnection()).thenAnswer(invocation -> mock(Connection.class));
+        DbPermitDataSource dataSource = new DbPermitDataSource(pool, 1, 50);
+
+        Connection connection = dataSource.getConnection();
+        // 同一线程再次获取不等待自己持有的许可
+        Connection nested = dataSource.getConnection();
+        nested.close();
+
+        ExecutionException e = assertThrows(ExecutionException.class,
+                () -> CompletableFuture.supplyAsync(() -> connect(dataSource)).get());
+        assertInstanceOf(SQLTransientConnectionException.class, e.getCause().getCause());
+
+        connection.close();
+        connection.close();
+        assertEquals(0, dataSource.stats().get("inUse"));
+        CompletableFuture.supplyAsync(() -> connect(dataSource)).get().close();
+        assertEquals(0, dataSource.stats().get("inUse"));
+    }
+
+    private static Connection connect(DataSource dataSource) {
+        try {
+            return dataSource.getConnection();
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.ruoyi.framework.concurrent;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SingleFlight 测试类
+ *
+ * @author ruoyi
+ */
+public class SingleFlightTest {
+
+    @Test
+    public void testConcurrentCallersShareOneLoad() throws Exception {
+        SingleFlight<Long, String> flight = new SingleFlight<>(5000);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> flight.execute(1L, () -> {
+                    loads.incrementAndGet();
+                    await(release);
+                    return "user-1";
+                })));
+            }
+            // 等所有调用方都加入后再放行加载
+            while ((long) flight.stats().get("sharedCount") < 7) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+            for (Future<String> result : results) {
+                assertEquals("user-1", result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, loads.get());
+        assertEquals(0, flight.stats().get("inFlight"));
+    }
+
+    @Test
+    public void testWaitersShareExceptionAndTimeout() throws Exception {
+        SingleFlight<Long, String> flight = new SingleFlight<>(50);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> leader = executor.submit(() -> flight.execute(1L, () -> {
+                started.countDown();
+                await(release);
+                throw new IllegalStateException("数据库不可用");
+            }));
+            started.await();
+
+            assertThrows(QueryTimeoutException.class, () -> flight.execute(1L, () -> "unused"));
+
+            Thread waiter = new Thread(() -> assertThrows(IllegalStateException.class,
+                    () -> flight.execute(1L, 5000, () -> "unused")));
+            waiter.start();
+            while ((long) flight.stats().get("sharedCount") < 2) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+            waiter.join(5000);
+            assertThrows(Exception.class, () -> leader.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1L, flight.stats().get("failureCount"));
+        assertEquals(1L, flight.stats().get("timeoutCount"));
+        // 失败后不保留，下一次重新加载
+        assertEquals("ok", flight.execute(1L, () -> "ok"));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
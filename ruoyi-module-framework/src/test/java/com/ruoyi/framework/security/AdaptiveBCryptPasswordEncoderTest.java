@@ -0,0 +1,41 @@
+package com.ruoyi.framework.security;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * AdaptiveBCryptPasswordEncoder 测试类
+ *
+ * @author ruoyi
+ */
+public class AdaptiveBCryptPasswordEncoderTest {
+
+    private static final String SALT_AND_HASH = "abcdefghijklmnopqrstuuS3Yd0ZyQn4uW5y5Lw6F5cIf3M1ZbNy";
+
+    @Test
+    public void testCalibratedStrengthOnlyDowngradesBeyondSlack() {
+        AdaptiveBCryptPasswordEncoder encoder = AdaptiveBCryptPasswordEncoder.calibrate(0, 5, 5);
+        assertEquals(5, encoder.getStrength());
+
+        assertTrue(encoder.upgradeEncoding(hash(4)));
+        assertFalse(encoder.upgradeEncoding(hash(5)));
+        // 其他节点校准高一级的哈希保留，避免来回重算
+        assertFalse(encoder.upgradeEncoding(hash(6)));
+        assertTrue(encoder.upgradeEncoding(hash(7)));
+        assertFalse(encoder.upgradeEncoding("plain"));
+    }
+
+    @Test
+    public void testFixedStrengthRehashesBothWays() {
+        AdaptiveBCryptPasswordEncoder encoder = AdaptiveBCryptPasswordEncoder.withStrength(5);
+
+        assertTrue(encoder.upgradeEncoding(hash(4)));
+        assertFalse(encoder.upgradeEncoding(hash(5)));
+        assertTrue(encoder.upgradeEncoding(hash(6)));
+    }
+
+    private static String hash(int cost) {
+        return String.format("$2a$%02d$%s", cost, SALT_AND_HASH);
+    }
+}
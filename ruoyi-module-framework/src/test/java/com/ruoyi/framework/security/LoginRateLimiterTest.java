@@ -0,0 +1,27 @@
+package com.ruoyi.framework.security;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * LoginRateLimiter 测试类
+ *
+ * @author ruoyi
+ */
+public class LoginRateLimiterTest {
+
+    @Test
+    public void testFullTableEvictsLeastRecentlyUsedInsteadOfSharingBucket() {
+        try (LoginRateLimiter limiter = new LoginRateLimiter(true, 1, 1, 1000, 1, 64, 600)) {
+            // 攻击者构造大量新用户名填满桶表
+            for (int i = 0; i < 10000; i++) {
+                assertEquals(LoginRateLimiter.Result.ALLOWED, limiter.tryAcquire("attacker-" + i, "10.0.0." + (i % 32)));
+            }
+            // 新用户不受攻击流量影响
+            assertEquals(LoginRateLimiter.Result.ALLOWED, limiter.tryAcquire("alice", "10.0.0.2"));
+            assertEquals(LoginRateLimiter.Result.THROTTLED_USERNAME, limiter.tryAcquire("alice", "10.0.0.2"));
+            assertTrue(((Number) limiter.stats().get("usernameBuckets")).intValue() <= 64);
+        }
+    }
+}
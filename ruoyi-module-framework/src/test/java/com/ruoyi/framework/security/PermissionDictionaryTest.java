@@ -0,0 +1,97 @@
+package com.ruoyi.framework.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * PermissionDictionary 测试类
+ *
+ * @author ruoyi
+ */
+public class PermissionDictionaryTest {
+
+    @Test
+    public void testLargeResourceIdStaysCompact() {
+        PermissionDictionary dictionary = new PermissionDictionary(2048);
+        dictionary.register(40000L, "user:export");
+        dictionary.register(3L, "user:list");
+
+        String permissions = dictionary.encode(List.of(40000L, 3L));
+        assertNotNull(permissions);
+        assertTrue(permissions.length() < 10, permissions);
+        assertEquals(List.of("user:list", "user:export"), names(dictionary.resolve(null, permissions)));
+    }
+
+    @Test
+    public void testDenseLowIdsUseBitmap() {
+        PermissionDictionary dictionary = new PermissionDictionary(2048);
+        List<Long> resourceIds = LongStream.range(0, 300).boxed().collect(Collectors.toList());
+        resourceIds.forEach(id -> dictionary.register(id, "r" + id));
+
+        String permissions = dictionary.encode(resourceIds);
+        assertNotNull(permissions);
+        assertNotEquals('~', permissions.charAt(0));
+        assertEquals(300, dictionary.resolve("ROLE_USER", permissions).size() - 1);
+    }
+
+    @Test
+    public void testOversizedEncodingFallsBack() {
+        PermissionDictionary dictionary = new PermissionDictionary(64);
+        List<Long> resourceIds = new ArrayList<>();
+        for (long id = 0; id < 200; id++) {
+            resourceIds.add(id * 100000);
+        }
+        assertNull(dictionary.encode(resourceIds));
+        assertNull(dictionary.encode(List.of()));
+    }
+
+    @Test
+    public void testUnknownResourceTriggersReload() {
+        Map<Long, String> database = new HashMap<>();
+        database.put(1L, "user:list");
+        AtomicInteger loads = new AtomicInteger();
+        PermissionDictionary issuer = new PermissionDictionary(2048);
+        PermissionDictionary other = new PermissionDictionary(2048);
+        other.setLoader(() -> {
+            loads.incrementAndGet();
+            return new HashMap<>(database);
+        });
+
+        // 资源在签发节点新增，其他节点尚未登记
+        database.put(2L, "user:export");
+        issuer.register(2L, "user:export");
+        String permissions = issuer.encode(List.of(1L, 2L));
+
+        assertEquals(List.of("user:list", "user:export"), names(other.resolve(null, permissions)));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void testDeletedResourceGrantsNothing() {
+        PermissionDictionary dictionary = new PermissionDictionary(2048);
+        dictionary.register(1L, "user:list");
+        dictionary.register(2L, "user:export");
+        String permissions = dictionary.encode(List.of(1L, 2L));
+
+        dictionary.unregister(2L);
+        assertEquals(List.of("user:list"), names(dictionary.resolve(null, permissions)));
+
+        // 没有加载器时未知资源不授予权限
+        PermissionDictionary empty = new PermissionDictionary(2048);
+        assertTrue(empty.resolve(null, permissions).isEmpty());
+    }
+
+    private static List<String> names(List<GrantedAuthority> authorities) {
+        return authorities.stream().map(GrantedAuthority::getAuthority).collect(Collectors.toList());
+    }
+}
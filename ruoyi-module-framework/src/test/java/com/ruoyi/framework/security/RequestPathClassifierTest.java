@@ -0,0 +1,64 @@
+package com.ruoyi.framework.security;
+
+import com.ruoyi.framework.config.SecurityConfig;
+import com.ruoyi.framework.security.RequestPathClassifier.Category;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * RequestPathClassifier 测试类
+ *
+ * @author ruoyi
+ */
+public class RequestPathClassifierTest {
+
+    private final RequestPathClassifier classifier = new RequestPathClassifier()
+            .add(Category.PUBLIC, SecurityConfig.ANONYMOUS_PATHS);
+
+    @Test
+    public void testPublicPaths() {
+        assertEquals(Category.PUBLIC, classifier.classify("/auth/login"));
+        assertEquals(Category.PUBLIC, classifier.classify("/auth/refresh"));
+        assertEquals(Category.PUBLIC, classifier.classify("/actuator/health"));
+        assertEquals(Category.PUBLIC, classifier.classify("/actuator"));
+        assertEquals(Category.PUBLIC, classifier.classify("/swagger-ui/index.html"));
+        assertEquals(Category.PUBLIC, classifier.classify("/v3/api-docs/swagger-config"));
+        assertEquals(Category.PUBLIC, classifier.classify("//public//a/b/"));
+    }
+
+    @Test
+    public void testAuthEndpointsThatNeedTokenAreNotPublic() {
+        assertEquals(Category.AUTHENTICATED, classifier.classify("/auth/me"));
+        assertEquals(Category.AUTHENTICATED, classifier.classify("/auth/validate"));
+        assertEquals(Category.AUTHENTICATED, classifier.classify("/auth/logout"));
+        assertEquals(Category.AUTHENTICATED, classifier.classify("/auth/admin/info"));
+        assertEquals(Category.AUTHENTICATED, classifier.classify("/auth/login/extra"));
+        assertEquals(Category.AUTHENTICATED, classifier.classify("/auth"));
+    }
+
+    @Test
+    public void testDefaultPaths() {
+        assertEquals(Category.AUTHENTICATED, classifier.classify("/admin/monitor/metrics"));
+        assertEquals(Category.AUTHENTICATED, classifier.classify("/admin"));
+        assertEquals(Category.AUTHENTICATED, classifier.classify("/user/list"));
+        assertEquals(Category.AUTHENTICATED, classifier.classify("/"));
+        assertEquals(Category.AUTHENTICATED, classifier.classify("/publicity"));
+    }
+
+    @Test
+    public void testSkippedPathsArePermitted() {
+        assertTrue(Arrays.asList(SecurityConfig.PERMIT_ALL_PATHS).containsAll(Arrays.asList(SecurityConfig.ANONYMOUS_PATHS)));
+        assertTrue(Arrays.asList(SecurityConfig.PERMIT_ALL_PATHS).contains("/auth/**"));
+    }
+
+    @Test
+    public void testAmbiguousPathsAreNeverPublic() {
+        assertEquals(Category.AUTHENTICATED, classifier.classify("/public/../user/list"));
+        assertEquals(Category.AUTHENTICATED, classifier.classify("/public/%2e%2e/user/list"));
+        assertEquals(Category.AUTHENTICATED, classifier.classify("/public;x=1/a"));
+        assertEquals(Category.AUTHENTICATED, classifier.classify(null));
+    }
+}
@@ -0,0 +1,68 @@
+package com.ruoyi.framework.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * CompressedBitmap 测试类
+ *
+ * @author ruoyi
+ */
+public class CompressedBitmapTest {
+
+    @Test
+    public void testMatchesTreeSetUnderRandomOperations() {
+        Random random = new Random(42);
+        CompressedBitmap bitmap = new CompressedBitmap();
+        TreeSet<Integer> expected = new TreeSet<>();
+        for (int i = 0; i < 200_000; i++) {
+            // 集中在少数几个块内，使容器在数组与位图之间来回转换
+            int value = random.nextInt(4) * 65536 + random.nextInt(12_000);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(value), bitmap.remove(value));
+            } else {
+                assertEquals(expected.add(value), bitmap.add(value));
+            }
+        }
+        assertEquals(expected.size(), bitmap.getCardinality());
+        assertArrayEquals(expected.stream().mapToInt(Integer::intValue).toArray(), bitmap.toArray());
+        for (int value = 0; value < 4 * 65536; value += 7) {
+            assertEquals(expected.contains(value), bitmap.contains(value));
+        }
+    }
+
+    @Test
+    public void testContainerConversionAndCopy() {
+        CompressedBitmap bitmap = new CompressedBitmap();
+        for (int i = 0; i < 10_000; i++) {
+            bitmap.add(i * 2);
+        }
+        long dense = bitmap.sizeInBytes();
+        CompressedBitmap copy = bitmap.copy();
+        for (int i = 0; i < 10_000; i++) {
+            bitmap.remove(i * 2);
+        }
+        assertTrue(bitmap.isEmpty());
+        assertTrue(bitmap.sizeInBytes() < dense);
+        assertEquals(10_000, copy.getCardinality());
+        assertTrue(copy.contains(19_998));
+        assertFalse(copy.contains(19_999));
+        assertNotEquals(copy, bitmap);
+    }
+
+    @Test
+    public void testSparseValuesStayCompact() {
+        CompressedBitmap bitmap = new CompressedBitmap();
+        bitmap.add(Integer.MAX_VALUE);
+        bitmap.add(-1);
+        bitmap.add(0);
+        bitmap.trim();
+        // 按无符号排序
+        assertArrayEquals(new int[]{0, Integer.MAX_VALUE, -1}, bitmap.toArray());
+        assertTrue(bitmap.sizeInBytes() < 300);
+    }
+}
@@ -0,0 +1,65 @@
+package com.ruoyi.framework.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ExportWriter 测试类
+ *
+ * @author ruoyi
+ */
+public class ExportWriterTest {
+
+    private static ExportWriter<String[]> writer(ExportWriter.Format format) {
+        return new ExportWriter<String[]>(format, 1, 0)
+                .column("id", row -> Long.valueOf(row[0]))
+                .column("name", row -> row[1]);
+    }
+
+    @Test
+    public void testNdjson() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ExportWriter<String[]> writer = writer(ExportWriter.Format.NDJSON);
+        writer.open(out, false);
+        writer.write(new String[]{"1", "张三"});
+        writer.write(new String[]{"2", null});
+        writer.close();
+
+        assertEquals("{\"id\":1,\"name\":\"张三\"}\n{\"id\":2,\"name\":null}\n", out.toString(StandardCharsets.UTF_8));
+        assertEquals(2, writer.getRows());
+    }
+
+    @Test
+    public void testCsvQuotingAndFormulaPrefix() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ExportWriter<String[]> writer = writer(ExportWriter.Format.CSV);
+        writer.open(out, false);
+        writer.write(new String[]{"1", "a,\"b\""});
+        writer.write(new String[]{"-2", "=SUM(A1)"});
+        writer.close();
+
+        assertEquals("\uFEFFid,name\r\n1,\"a,\"\"b\"\"\"\r\n-2,\"'=SUM(A1)\"\r\n",
+                out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testGzipIsFlushedIncrementally() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ExportWriter<String[]> writer = writer(ExportWriter.Format.NDJSON);
+        writer.open(out, true);
+        writer.write(new String[]{"1", "a"});
+        // 每行刷新一次，关闭前客户端已能收到数据
+        assertTrue(out.size() > 10);
+        writer.close();
+
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            assertEquals("{\"id\":1,\"name\":\"a\"}\n", new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+}
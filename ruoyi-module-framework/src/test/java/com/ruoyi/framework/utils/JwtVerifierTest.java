@@ -0,0 +1,173 @@
+package com.ruoyi.framework.utils;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JwtVerifier 测试类
+ * 与 jjwt 解析结果逐一对比，确保专用验签器不会比 jjwt 更宽松
+ *
+ * @author ruoyi
+ */
+public class JwtVerifierTest {
+
+    private static final SecretKey KEY = Keys.secretKeyFor(SignatureAlgorithm.HS512);
+
+    private static final SecretKey OTHER_KEY = Keys.secretKeyFor(SignatureAlgorithm.HS512);
+
+    private final JwtVerifier verifier = new JwtVerifier(KEY);
+
+    private final JwtParser parser = Jwts.parserBuilder().setSigningKey(KEY).build();
+
+    @Test
+    public void testAccessTokenMatchesJjwt() {
+        String token = accessToken(KEY, 60_000L);
+        JwtClaims expected = parseWithJjwt(token);
+        JwtClaims actual = verifier.verify(token);
+
+        assertNotNull(expected);
+        assertNotNull(actual);
+        assertEquals(expected.getUsername(), actual.getUsername());
+        assertEquals(expected.getUserId(), actual.getUserId());
+        assertEquals(expected.getAuthorities(), actual.getAuthorities());
+        assertEquals(expected.getPermissions(), actual.getPermissions());
+        assertEquals(expected.getType(), actual.getType());
+        assertEquals(expected.getTokenId(), actual.getTokenId());
+        assertEquals(expected.getIssuedAt(), actual.getIssuedAt());
+        assertEquals(expected.getExpiration(), actual.getExpiration());
+    }
+
+    @Test
+    public void testRefreshTokenMatchesJjwt() {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("type", "refresh");
+        claims.put("fid", "family-1");
+        String token = sign(claims, "admin", KEY, 60_000L);
+
+        JwtClaims actual = verifier.verify(token);
+        assertNotNull(actual);
+        assertTrue(actual.isRefreshToken());
+        assertEquals("family-1", actual.getFamilyId());
+        assertNull(actual.getUserId());
+        assertEquals(parseWithJjwt(token).getUsername(), actual.getUsername());
+    }
+
+    @Test
+    public void testNeverAcceptsWhatJjwtRejects() {
+        String valid = accessToken(KEY, 60_000L);
+        String[] parts = valid.split("\\.");
+
+        List<String> tokens = new ArrayList<>();
+        tokens.add("");
+        tokens.add("abc");
+        tokens.add(parts[0] + "." + parts[1]);
+        tokens.add(valid + ".");
+        tokens.add(" " + valid);
+        tokens.add(valid + "=");
+        tokens.add(accessToken(OTHER_KEY, 60_000L));
+        tokens.add(accessToken(KEY, -1_000L));
+        tokens.add(parts[0] + "." + parts[1] + "." + flipLastChar(parts[2]));
+        tokens.add(parts[0] + "." + flipLastChar(parts[1]) + "." + parts[2]);
+        tokens.add(encode("{\"alg\":\"none\"}") + "." + parts[1] + ".");
+        tokens.add(Jwts.builder().setSubject("admin")
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000L))
+                .signWith(Keys.secretKeyFor(SignatureAlgorithm.HS256), SignatureAlgorithm.HS256).compact());
+        tokens.add(parts[0] + "." + encode("{\"sub\":\"admin\",\"exp\":9999999999}") + "." + parts[2]);
+        tokens.add(parts[0] + "." + encode("not json") + "." + parts[2]);
+
+        for (String token : tokens) {
+            if (parseWithJjwt(token) == null) {
+                assertNull(verifier.verify(token), "验签器接受了 jjwt 拒绝的令牌: " + token);
+            }
+        }
+    }
+
+    @Test
+    public void testRejectsMalformedClaimTypes() {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("userId", "not-a-number");
+        assertNull(parseWithJjwt(sign(claims, "admin", KEY, 60_000L)));
+        assertNull(verifier.verify(sign(claims, "admin", KEY, 60_000L)));
+
+        claims.clear();
+        claims.put("authorities", 42);
+        assertNull(verifier.verify(sign(claims, "admin", KEY, 60_000L)));
+    }
+
+    @Test
+    public void testRejectsTokenWithoutExpiration() {
+        String token = Jwts.builder().setSubject("admin")
+                .signWith(KEY, SignatureAlgorithm.HS512).compact();
+        assertNull(verifier.verify(token));
+    }
+
+    private String accessToken(SecretKey key, long ttlMillis) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("userId", 1L);
+        claims.put("username", "admin");
+        claims.put("authorities", "ROLE_USER,ROLE_ADMIN");
+        claims.put("perms", "Bg");
+        return sign(claims, "admin", key, ttlMillis);
+    }
+
+    private String sign(Map<String, Object> claims, String subject, SecretKey key, long ttlMillis) {
+        Date now = new Date();
+        return Jwts.builder()
+                .setClaims(claims)
+                .setSubject(subject)
+                .setId(UUID.randomUUID().toString())
+                .setIssuedAt(now)
+                .setExpiration(new Date(now.getTime() + ttlMillis))
+                .signWith(key, SignatureAlgorithm.HS512)
+                .compact();
+    }
+
+    /**
+     * 旧的 jjwt 解析路径，作为对照
+     */
+    private JwtClaims parseWithJjwt(String token) {
+        try {
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            if (claims.getExpiration() == null) {
+                return null;
+            }
+            return new JwtClaims(claims.getSubject(),
+                    claims.get("userId", Long.class),
+                    claims.get("authorities", String.class),
+                    claims.get("perms", String.class),
+                    claims.get("type", String.class),
+                    claims.getId(),
+                    claims.get("fid", String.class),
+                    claims.getIssuedAt() != null ? claims.getIssuedAt().getTime() : 0L,
+                    claims.getExpiration().getTime());
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static String encode(String json) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String flipLastChar(String segment) {
+        char last = segment.charAt(segment.length() - 1);
+        return segment.substring(0, segment.length() - 1) + (last == 'A' ? 'B' : 'A');
+    }
+}
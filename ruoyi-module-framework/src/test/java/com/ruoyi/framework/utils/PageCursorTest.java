@@ -0,0 +1,52 @@
+package com.ruoyi.framework.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * PageCursor 测试类
+ *
+ * @author ruoyi
+ */
+public class PageCursorTest {
+
+    @Test
+    public void testRoundTrip() {
+        assertEquals(12345L, PageCursor.decode(PageCursor.encode(12345L)));
+        assertNull(PageCursor.decode(null));
+        assertNull(PageCursor.decode(""));
+        assertThrows(IllegalArgumentException.class, () -> PageCursor.decode("12345"));
+        assertThrows(IllegalArgumentException.class, () -> PageCursor.decode("!!"));
+    }
+
+    @Test
+    public void testPageUsesExtraRowOnlyToDetectNextPage() {
+        List<Long> rows = Arrays.asList(9L, 8L, 7L);
+
+        PageResult<Long> page = PageCursor.page(rows, 2, null, Long::longValue);
+        assertEquals(Arrays.asList(9L, 8L), page.getList());
+        assertNull(page.getTotal());
+        assertEquals(8L, PageCursor.decode(page.getNextCursor()));
+
+        PageResult<Long> last = PageCursor.page(rows, 3, 3L, Long::longValue);
+        assertEquals(3, last.getList().size());
+        assertEquals(3L, last.getTotal());
+        assertNull(last.getNextCursor());
+    }
+
+    @Test
+    public void testHugePageNumberDoesNotOverflowOffset() {
+        PageParam pageParam = new PageParam();
+        pageParam.setPageNum(10_000_000);
+        pageParam.setPageSize(500);
+        assertEquals(Integer.MAX_VALUE, pageParam.getOffset());
+        assertTrue(pageParam.getOffset() > PageParam.MAX_OFFSET);
+
+        pageParam.setPageNum(3);
+        assertEquals(1000, pageParam.getOffset());
+    }
+}
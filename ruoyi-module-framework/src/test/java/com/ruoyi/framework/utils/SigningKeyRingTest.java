@@ -0,0 +1,125 @@
+package com.ruoyi.framework.utils;
+
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyStore;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SigningKeyRing 测试类
+ * 模拟集群内两个节点加载同一份密钥库
+ *
+ * @author ruoyi
+ */
+public class SigningKeyRingTest {
+
+    private static final String PASSWORD = "changeit";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testTokensValidateAcrossNodesSharingKeystore() throws Exception {
+        Path keystore = writeKeystore("k1", "k2");
+
+        try (SigningKeyRing nodeA = new SigningKeyRing(keystore.toString(), PASSWORD, 0, 60);
+             SigningKeyRing nodeB = new SigningKeyRing(keystore.toString(), PASSWORD, 0, 60)) {
+            JwtUtils issuer = newJwtUtils(nodeA);
+            JwtUtils verifier = newJwtUtils(nodeB);
+
+            String token = issuer.generateToken("admin", 1L, "ROLE_USER");
+            String header = new String(Base64.getUrlDecoder().decode(token.substring(0, token.indexOf('.'))),
+                    StandardCharsets.UTF_8);
+            assertTrue(header.contains("\"kid\":\"" + nodeA.getSigningKey().getKeyId() + "\""));
+
+            JwtClaims claims = verifier.parseToken(token);
+            assertNotNull(claims);
+            assertEquals("admin", claims.getUsername());
+            // jjwt 解析同样按 kid 选择密钥
+            assertEquals("admin", verifier.getUsernameFromToken(token));
+        }
+    }
+
+    @Test
+    public void testUnknownKeyIsRejected() throws Exception {
+        Path keystore = writeKeystore("k1");
+        try (SigningKeyRing ring = new SigningKeyRing(keystore.toString(), PASSWORD, 0, 60)) {
+            JwtUtils issuer = newJwtUtils(SigningKeyRing.ephemeral());
+            JwtUtils verifier = newJwtUtils(ring);
+
+            assertNull(verifier.parseToken(issuer.generateToken("admin", 1L, "ROLE_USER")));
+            assertNotNull(ring.getVerificationKey("k1"));
+            assertNull(ring.getVerificationKey("k2"));
+        }
+    }
+
+    @Test
+    public void testKeysWaitForActivationDelay() throws Exception {
+        Path keystore = writeKeystore("k1", "k2");
+        try (SigningKeyRing ring = new SigningKeyRing(keystore.toString(), PASSWORD, 3600, 60)) {
+            // 全部未激活时使用最早的密钥签名，其余密钥仍可验签
+            assertNotNull(ring.getSigningKey());
+            assertEquals(2, ring.getVerificationKeysByHeader().size());
+        }
+    }
+
+    @Test
+    public void testEs256TokensAndPublicJwks() {
+        try (SigningKeyRing ring = SigningKeyRing.ephemeral(SignatureAlgorithm.ES256)) {
+            JwtUtils jwtUtils = newJwtUtils(ring);
+            String token = jwtUtils.generateToken("admin", 1L, "ROLE_USER");
+
+            JwtClaims claims = jwtUtils.parseToken(token);
+            assertNotNull(claims);
+            assertEquals("admin", claims.getUsername());
+            assertEquals("admin", jwtUtils.getUsernameFromToken(token));
+            assertNull(newJwtUtils(SigningKeyRing.ephemeral(SignatureAlgorithm.ES256)).parseToken(token));
+
+            List<Map<String, Object>> jwks = ring.getPublicJwks();
+            assertEquals(1, jwks.size());
+            assertEquals(ring.getSigningKey().getKeyId(), jwks.get(0).get("kid"));
+            assertFalse(jwks.get(0).containsKey("d"));
+        }
+        // 对称密钥绝不发布
+        try (SigningKeyRing ring = SigningKeyRing.ephemeral()) {
+            assertTrue(ring.getPublicJwks().isEmpty());
+        }
+    }
+
+    private Path writeKeystore(String... aliases) throws Exception {
+        KeyStore keyStore = KeyStore.getInstance("PKCS12");
+        keyStore.load(null, PASSWORD.toCharArray());
+        KeyGenerator generator = KeyGenerator.getInstance("HmacSHA512");
+        generator.init(512);
+        for (String alias : aliases) {
+            SecretKey key = generator.generateKey();
+            keyStore.setEntry(alias, new KeyStore.SecretKeyEntry(key),
+                    new KeyStore.PasswordProtection(PASSWORD.toCharArray()));
+        }
+        Path path = tempDir.resolve("jwt-keys.p12");
+        try (OutputStream out = Files.newOutputStream(path)) {
+            keyStore.store(out, PASSWORD.toCharArray());
+        }
+        return path;
+    }
+
+    private static JwtUtils newJwtUtils(SigningKeyRing keyRing) {
+        JwtUtils jwtUtils = new JwtUtils(keyRing);
+        ReflectionTestUtils.setField(jwtUtils, "expiration", 60_000L);
+        ReflectionTestUtils.setField(jwtUtils, "refreshExpiration", 120_000L);
+        return jwtUtils;
+    }
+}
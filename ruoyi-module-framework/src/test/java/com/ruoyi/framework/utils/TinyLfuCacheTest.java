@@ -0,0 +1,89 @@
+package com.ruoyi.framework.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * TinyLfuCache 测试类
+ *
+ * @author ruoyi
+ */
+public class TinyLfuCacheTest {
+
+    @Test
+    public void testFrequentKeysSurviveScan() {
+        List<Integer> removed = new ArrayList<>();
+        TinyLfuCache<Integer, String> cache = new TinyLfuCache<>(100, 0, (key, value) -> removed.add(key));
+        // 热点持续被访问的同时扫描大量只访问一次的冷数据，冷数据不应冲掉热点
+        for (int key = 1000; key < 11000; key++) {
+            cache.get(key % 50, String::valueOf);
+            cache.get(key, String::valueOf);
+        }
+
+        assertEquals(100, cache.size());
+        for (int key = 0; key < 50; key++) {
+            assertEquals(String.valueOf(key), cache.getIfPresent(key), "热点被淘汰: " + key);
+        }
+        assertEquals(10000 + 50 - 100, removed.size());
+    }
+
+    @Test
+    public void testLoadDiscardedAfterConcurrentInvalidation() {
+        TinyLfuCache<Long, String> cache = new TinyLfuCache<>(10, 0, null);
+
+        // 加载期间发生失效：返回加载结果，但不写入缓存
+        String value = cache.load(() -> {
+            cache.invalidate(1L);
+            return "old";
+        }, ignored -> 1L);
+        assertEquals("old", value);
+        assertNull(cache.getIfPresent(1L));
+
+        assertEquals("new", cache.get(1L, key -> "new"));
+        assertEquals("new", cache.getIfPresent(1L));
+        assertEquals(1L, cache.stats().get("staleLoadCount"));
+    }
+
+    @Test
+    public void testGetAllLoadsOnlyMissingKeys() {
+        TinyLfuCache<Long, String> cache = new TinyLfuCache<>(10, 0, null);
+        cache.put(2L, "cached-2");
+        List<List<Long>> batches = new ArrayList<>();
+
+        Map<Long, String> result = cache.getAll(List.of(3L, 2L, 1L, 3L, 9L), missing -> {
+            batches.add(missing);
+            Map<Long, String> loaded = new HashMap<>();
+            for (Long key : missing) {
+                if (key != 9L) {
+                    loaded.put(key, "loaded-" + key);
+                }
+            }
+            return loaded;
+        });
+
+        // 只加载一次，重复的键只加载一次，不存在的键不返回
+        assertEquals(List.of(List.of(3L, 1L, 9L)), batches);
+        assertEquals(List.of(3L, 2L, 1L), new ArrayList<>(result.keySet()));
+        assertEquals("cached-2", result.get(2L));
+        assertEquals("loaded-1", cache.getIfPresent(1L));
+        assertNull(cache.getIfPresent(9L));
+    }
+
+    @Test
+    public void testExpiration() throws Exception {
+        List<String> removed = new ArrayList<>();
+        TinyLfuCache<String, String> cache = new TinyLfuCache<>(10, 20, (key, value) -> removed.add(key));
+        cache.put("a", "1");
+        assertEquals("1", cache.getIfPresent("a"));
+        Thread.sleep(40);
+        assertNull(cache.getIfPresent("a"));
+        assertEquals(List.of("a"), removed);
+        assertEquals(0, cache.size());
+    }
+}
@@ -0,0 +1,118 @@
+package com.ruoyi.framework.utils;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * TokenMinter 测试类
+ * 与 jjwt 签发的令牌逐项对比，并确认两种解析路径都能接受
+ *
+ * @author ruoyi
+ */
+public class TokenMinterTest {
+
+    private final SigningKeyRing keyRing = SigningKeyRing.ephemeral();
+
+    private final SigningKeyRing.SigningKey signingKey = keyRing.getSigningKey();
+
+    private final TokenMinter minter = new TokenMinter();
+
+    private final JwtVerifier verifier = new JwtVerifier(keyRing.getVerificationKeysByHeader());
+
+    @AfterEach
+    public void tearDown() {
+        keyRing.close();
+    }
+
+    @Test
+    public void testAccessTokenMatchesJjwt() {
+        long now = 1_700_000_000_123L;
+        long exp = now + 3_600_000L;
+        String minted = minter.mint(signingKey, "admin", 1L, "admin", "ROLE_USER,ROLE_ADMIN", "AQI", null,
+                "f-1", "t-1", now, exp);
+
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("userId", 1L);
+        claims.put("username", "admin");
+        claims.put("authorities", "ROLE_USER,ROLE_ADMIN");
+        claims.put("perms", "AQI");
+        claims.put("fid", "f-1");
+        String expected = Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, signingKey.getKeyId())
+                .setClaims(claims)
+                .setSubject("admin")
+                .setId("t-1")
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(exp))
+                .signWith(signingKey.getSigningKey(), signingKey.getAlgorithm())
+                .compact();
+
+        // 头部逐字节一致，声明集合一致
+        assertEquals(expected.substring(0, expected.indexOf('.')), minted.substring(0, minted.indexOf('.')));
+        assertEquals(parseWithJjwt(expected), parseWithJjwt(minted));
+
+        JwtClaims verified = verifier.verify(minted, now);
+        assertNotNull(verified);
+        assertEquals("admin", verified.getUsername());
+        assertEquals(1L, verified.getUserId());
+        assertEquals("ROLE_USER,ROLE_ADMIN", verified.getAuthorities());
+        assertEquals("AQI", verified.getPermissions());
+        assertEquals("f-1", verified.getFamilyId());
+        assertEquals("t-1", verified.getTokenId());
+        assertEquals(exp / 1000 * 1000, verified.getExpiration());
+        assertNull(verifier.verify(minted, exp + 1000));
+    }
+
+    @Test
+    public void testRefreshTokenAndGeneratedTokenId() {
+        long now = System.currentTimeMillis();
+        String minted = minter.mint(signingKey, "admin", null, null, null, null, "refresh", null, null,
+                now, now + 60_000L);
+
+        JwtClaims verified = verifier.verify(minted);
+        assertNotNull(verified);
+        assertTrue(verified.isRefreshToken());
+        assertNull(verified.getUserId());
+        assertNull(verified.getFamilyId());
+        assertTrue(verified.getTokenId().matches("[0-9a-f]{8}-[0-9a-f]{4}-4[0-9a-f]{3}-[89ab][0-9a-f]{3}-[0-9a-f]{12}"));
+
+        Claims claims = parseWithJjwt(minted);
+        assertEquals("refresh", claims.get("type"));
+        assertFalse(claims.containsKey("userId"));
+    }
+
+    @Test
+    public void testStringsAreEscaped() {
+        String username = "a\"b\\c\n\t\u0001中文😀";
+        long now = System.currentTimeMillis();
+        String minted = minter.mint(signingKey, username, 2L, username, "ROLE_USER", null, null, null, null,
+                now, now + 60_000L);
+
+        assertEquals(username, verifier.verify(minted).getUsername());
+        assertEquals(username, parseWithJjwt(minted).getSubject());
+
+        String payload = new String(Base64.getUrlDecoder().decode(minted.split("\\.")[1]), StandardCharsets.UTF_8);
+        assertTrue(payload.contains("\\u0001"));
+    }
+
+    private Claims parseWithJjwt(String token) {
+        Claims claims = Jwts.parserBuilder()
+                .setSigningKey(signingKey.getVerificationKey())
+                .setClock(() -> new Date(1_700_000_000_000L))
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+        return claims;
+    }
+}
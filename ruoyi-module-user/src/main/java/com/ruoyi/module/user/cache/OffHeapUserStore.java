@@ -0,0 +1,538 @@
+package com.ruoyi.module.user.cache;
+
+import com.ruoyi.module.user.domain.User;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * 堆外用户记录存储
+ * 用户记录以定长槽位编码在若干块直接内存（slab）中，ID 索引与用户名索引都是只存槽位号的 int 开放寻址表，
+ * 堆上没有逐条用户的对象，千万级记录也不会增加 GC 扫描与停顿；只在返回给调用方时解码为 {@link User}。
+ * 容量固定，满后按 CLOCK 算法淘汰最近未被访问的记录，已过期的记录不论是否被访问都优先淘汰；
+ * 编码后超过槽位大小的记录不存储。记录头保存写入时间，超过存活时间的记录读取时视为未命中，
+ * 与堆上快照的 TTL 一致，兜底其它途径直接修改数据库的情况。
+ * 写入时同时淘汰同一用户名的其他记录，用户删除后以新ID重建同名用户不会留下两个槽位。
+ * <p>
+ * 读取先以乐观读方式进行，期间有写入则改为加读锁重读；写入、删除与淘汰在写锁下进行。
+ * 每次删除都会推进失效纪元，{@link #put(User, long)} 只有在纪元未变化时才写入，避免并发加载把旧值放回。
+ * <p>
+ * 槽位布局：id(8) | age(4，null 为 Integer.MIN_VALUE) | 用户名哈希(4) | 用户名字节数(2) | 密码字节数(2，null 为 -1)
+ * | 写入时间(8，毫秒) | 用户名 UTF-8 | 密码 UTF-8
+ *
+ * @author ruoyi
+ */
+public class OffHeapUserStore {
+
+    private static final int ID_OFFSET = 0;
+
+    private static final int AGE_OFFSET = 8;
+
+    private static final int HASH_OFFSET = 12;
+
+    private static final int USERNAME_LENGTH_OFFSET = 16;
+
+    private static final int PASSWORD_LENGTH_OFFSET = 18;
+
+    private static final int WRITTEN_AT_OFFSET = 20;
+
+    private static final int HEADER_SIZE = 28;
+
+    private static final int NULL_AGE = Integer.MIN_VALUE;
+
+    private final ByteBuffer[] slabs;
+
+    private final int slotsPerSlab;
+
+    private final int recordSize;
+
+    private final int capacity;
+
+    /**
+     * 记录存活时间（毫秒），不大于0时不过期
+     */
+    private final long ttlMillis;
+
+    /**
+     * ID 索引：槽位号加一，0 表示空位
+     */
+    private final int[] idIndex;
+
+    /**
+     * 用户名索引：槽位号加一，0 表示空位
+     */
+    private final int[] usernameIndex;
+
+    private final int indexMask;
+
+    /**
+     * CLOCK 访问位，读取时置位，淘汰指针经过时清零
+     */
+    private final byte[] referenced;
+
+    /**
+     * 空闲槽位栈
+     */
+    private final int[] freeSlots;
+
+    private int freeCount;
+
+    private int clockHand;
+
+    private int size;
+
+    private long epoch;
+
+    private final StampedLock lock = new StampedLock();
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder evictions = new LongAdder();
+
+    private final LongAdder oversized = new LongAdder();
+
+    private final LongAdder staleWrites = new LongAdder();
+
+    private final LongAdder expired = new LongAdder();
+
+    /**
+     * 构造函数，记录不过期
+     *
+     * @param capacity 最多存储的记录数
+     * @param slabCount 直接内存块数，单块不能超过 2GB
+     * @param recordSize 每条记录的槽位字节数
+     */
+    public OffHeapUserStore(int capacity, int slabCount, int recordSize) {
+        this(capacity, slabCount, recordSize, 0);
+    }
+
+    /**
+     * 构造函数，立即分配全部直接内存
+     *
+     * @param capacity 最多存储的记录数
+     * @param slabCount 直接内存块数，单块不能超过 2GB
+     * @param recordSize 每条记录的槽位字节数
+     * @param ttlMillis 记录存活时间（毫秒），不大于0时不过期
+     */
+    public OffHeapUserStore(int capacity, int slabCount, int recordSize, long ttlMillis) {
+        if (capacity <= 0 || slabCount <= 0) {
+            throw new IllegalArgumentException("capacity 与 slabCount 必须大于0");
+        }
+        if (recordSize <= HEADER_SIZE) {
+            throw new IllegalArgumentException("recordSize 必须大于 " + HEADER_SIZE);
+        }
+        this.recordSize = recordSize;
+        this.slotsPerSlab = (int) ((capacity + (long) slabCount - 1) / slabCount);
+        if ((long) slotsPerSlab * recordSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("单块直接内存超过 2GB，请增加 slabCount");
+        }
+        this.capacity = capacity;
+        this.ttlMillis = ttlMillis;
+        this.slabs = new ByteBuffer[slabCount];
+        for (int i = 0; i < slabCount; i++) {
+            int slots = Math.min(slotsPerSlab, capacity - i * slotsPerSlab);
+            slabs[i] = ByteBuffer.allocateDirect(Math.max(0, slots) * recordSize);
+        }
+        // 装载因子不超过 0.5，线性探测链保持很短
+        int indexSize = Integer.highestOneBit(Math.max(2, capacity) - 1) << 2;
+        this.idIndex = new int[indexSize];
+        this.usernameIndex = new int[indexSize];
+        this.indexMask = indexSize - 1;
+        this.referenced = new byte[capacity];
+        this.freeSlots = new int[capacity];
+        for (int i = 0; i < capacity; i++) {
+            freeSlots[i] = capacity - 1 - i;
+        }
+        this.freeCount = capacity;
+    }
+
+    /**
+     * 按用户ID读取
+     *
+     * @param id 用户ID
+     * @return 解码后的用户，不存在时返回 null
+     */
+    public User get(long id) {
+        long now = System.currentTimeMillis();
+        long stamp = lock.tryOptimisticRead();
+        int slot = findById(id);
+        User user = slot < 0 ? null : decode(slot, now);
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                slot = findById(id);
+                user = slot < 0 ? null : decode(slot, now);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return found(slot, user);
+    }
+
+    /**
+     * 按用户名读取，忽略大小写与末尾空格
+     *
+     * @param username 用户名
+     * @return 解码后的用户，不存在时返回 null
+     */
+    public User getByUsername(String username) {
+        String key = UsernameKeys.key(username);
+        long now = System.currentTimeMillis();
+        long stamp = lock.tryOptimisticRead();
+        int slot = findByUsername(key);
+        User user = slot < 0 ? null : decode(slot, now);
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                slot = findByUsername(key);
+                user = slot < 0 ? null : decode(slot, now);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return found(slot, user);
+    }
+
+    private User found(int slot, User user) {
+        if (user == null) {
+            misses.increment();
+            return null;
+        }
+        referenced[slot] = 1;
+        hits.increment();
+        return user;
+    }
+
+    /**
+     * 当前失效纪元，在开始从数据库加载前读取
+     *
+     * @return 失效纪元
+     */
+    public long epoch() {
+        long stamp = lock.readLock();
+        try {
+            return epoch;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * 失效纪元未变化时写入或覆盖记录
+     *
+     * @param user 用户
+     * @param expectedEpoch 加载开始前读取的失效纪元
+     * @return 是否写入
+     */
+    public boolean put(User user, long expectedEpoch) {
+        if (user == null || user.getId() == null || user.getUsername() == null) {
+            return false;
+        }
+        byte[] username = user.getUsername().getBytes(StandardCharsets.UTF_8);
+        byte[] password = user.getPassword() == null ? null : user.getPassword().getBytes(StandardCharsets.UTF_8);
+        if (HEADER_SIZE + username.length + (password == null ? 0 : password.length) > recordSize) {
+            oversized.increment();
+            return false;
+        }
+        long id = user.getId();
+        String key = UsernameKeys.key(user.getUsername());
+        int hash = hash(key);
+
+        long stamp = lock.writeLock();
+        try {
+            if (epoch != expectedEpoch) {
+                staleWrites.increment();
+                return false;
+            }
+            int slot = findById(id);
+            int sameName = findByUsername(key);
+            if (sameName >= 0 && sameName != slot) {
+                // 同名的旧记录属于已删除的用户
+                release(sameName);
+            }
+            if (slot >= 0) {
+                removeFromIndex(usernameIndex, usernamePosition(slot));
+            } else {
+                slot = allocate();
+                insertIndex(idIndex, mix(id), slot);
+                size++;
+            }
+            write(slot, id, user.getAge(), hash, username, password, System.currentTimeMillis());
+            insertIndex(usernameIndex, hash, slot);
+            referenced[slot] = 0;
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * 删除记录并推进失效纪元
+     *
+     * @param id 用户ID
+     */
+    public void remove(long id) {
+        long stamp = lock.writeLock();
+        try {
+            epoch++;
+            int slot = findById(id);
+            if (slot >= 0) {
+                release(slot);
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * 按用户名删除记录并推进失效纪元
+     *
+     * @param username 用户名
+     */
+    public void removeByUsername(String username) {
+        String key = UsernameKeys.key(username);
+        long stamp = lock.writeLock();
+        try {
+            epoch++;
+            int slot = findByUsername(key);
+            if (slot >= 0) {
+                release(slot);
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * 获取统计信息
+     *
+     * @return 统计信息
+     */
+    public Map<String, Object> stats() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", size);
+        stats.put("capacity", capacity);
+        stats.put("slabCount", slabs.length);
+        stats.put("recordSize", recordSize);
+        stats.put("offHeapBytes", (long) capacity * recordSize);
+        stats.put("hitCount", hitCount);
+        stats.put("hitRate", total == 0 ? 0.0 : (double) hitCount / total);
+        stats.put("evictionCount", evictions.sum());
+        stats.put("oversizedCount", oversized.sum());
+        stats.put("staleWriteCount", staleWrites.sum());
+        stats.put("expiredCount", expired.sum());
+        stats.put("ttlMillis", ttlMillis);
+        return stats;
+    }
+
+    // ---------------------------------------------------------------- 槽位
+
+    private ByteBuffer slab(int slot) {
+        return slabs[slot / slotsPerSlab];
+    }
+
+    private int offset(int slot) {
+        return (slot % slotsPerSlab) * recordSize;
+    }
+
+    private void write(int slot, long id, Integer age, int hash, byte[] username, byte[] password, long writtenAt) {
+        ByteBuffer slab = slab(slot);
+        int base = offset(slot);
+        slab.putLong(base + ID_OFFSET, id);
+        slab.putInt(base + AGE_OFFSET, age == null ? NULL_AGE : age);
+        slab.putInt(base + HASH_OFFSET, hash);
+        slab.putShort(base + USERNAME_LENGTH_OFFSET, (short) username.length);
+        slab.putShort(base + PASSWORD_LENGTH_OFFSET, (short) (password == null ? -1 : password.length));
+        slab.putLong(base + WRITTEN_AT_OFFSET, writtenAt);
+        slab.put(base + HEADER_SIZE, username);
+        if (password != null) {
+            slab.put(base + HEADER_SIZE + username.length, password);
+        }
+    }
+
+    /**
+     * 解码槽位，已过期时返回 null；乐观读期间槽位可能正被改写，长度越界时返回 null，由调用方校验后重读
+     */
+    private User decode(int slot, long now) {
+        if (isExpired(slot, now)) {
+            expired.increment();
+            return null;
+        }
+        ByteBuffer slab = slab(slot);
+        int base = offset(slot);
+        int usernameLength = slab.getShort(base + USERNAME_LENGTH_OFFSET);
+        int passwordLength = slab.getShort(base + PASSWORD_LENGTH_OFFSET);
+        int payload = recordSize - HEADER_SIZE;
+        if (usernameLength < 0 || passwordLength < -1 || usernameLength + Math.max(0, passwordLength) > payload) {
+            return null;
+        }
+        byte[] bytes = new byte[usernameLength + Math.max(0, passwordLength)];
+        slab.get(base + HEADER_SIZE, bytes);
+        int age = slab.getInt(base + AGE_OFFSET);
+        User user = new User(slab.getLong(base + ID_OFFSET));
+        user.setUsername(new String(bytes, 0, usernameLength, StandardCharsets.UTF_8));
+        user.setAge(age == NULL_AGE ? null : age);
+        if (passwordLength >= 0) {
+            user.setPassword(new String(bytes, usernameLength, passwordLength, StandardCharsets.UTF_8));
+        }
+        return user;
+    }
+
+    private boolean isExpired(int slot, long now) {
+        return ttlMillis > 0 && now - slab(slot).getLong(offset(slot) + WRITTEN_AT_OFFSET) > ttlMillis;
+    }
+
+    private long idAt(int slot) {
+        return slab(slot).getLong(offset(slot) + ID_OFFSET);
+    }
+
+    private int hashAt(int slot) {
+        return slab(slot).getInt(offset(slot) + HASH_OFFSET);
+    }
+
+    /**
+     * 比较槽位中的用户名与规整后的用户名，只在用户名哈希相同时调用
+     */
+    private boolean usernameMatches(int slot, String key) {
+        ByteBuffer slab = slab(slot);
+        int base = offset(slot);
+        int length = slab.getShort(base + USERNAME_LENGTH_OFFSET);
+        if (length < 0 || length > recordSize - HEADER_SIZE) {
+            return false;
+        }
+        byte[] bytes = new byte[length];
+        slab.get(base + HEADER_SIZE, bytes);
+        return UsernameKeys.key(new String(bytes, StandardCharsets.UTF_8)).equals(key);
+    }
+
+    /**
+     * 取空闲槽位，没有时按 CLOCK 淘汰一条记录
+     */
+    private int allocate() {
+        if (freeCount > 0) {
+            return freeSlots[--freeCount];
+        }
+        long now = System.currentTimeMillis();
+        while (true) {
+            int slot = clockHand;
+            clockHand = clockHand + 1 == capacity ? 0 : clockHand + 1;
+            if (referenced[slot] != 0 && !isExpired(slot, now)) {
+                referenced[slot] = 0;
+                continue;
+            }
+            release(slot);
+            evictions.increment();
+            return freeSlots[--freeCount];
+        }
+    }
+
+    private void release(int slot) {
+        removeFromIndex(idIndex, idPosition(slot));
+        removeFromIndex(usernameIndex, usernamePosition(slot));
+        referenced[slot] = 0;
+        freeSlots[freeCount++] = slot;
+        size--;
+    }
+
+    // ---------------------------------------------------------------- 索引
+
+    private int findById(long id) {
+        for (int i = mix(id) & indexMask, probes = 0; probes <= indexMask; i = (i + 1) & indexMask, probes++) {
+            int entry = idIndex[i];
+            if (entry == 0) {
+                return -1;
+            }
+            if (entry <= capacity && idAt(entry - 1) == id) {
+                return entry - 1;
+            }
+        }
+        return -1;
+    }
+
+    private int findByUsername(String key) {
+        int hash = hash(key);
+        for (int i = hash & indexMask, probes = 0; probes <= indexMask; i = (i + 1) & indexMask, probes++) {
+            int entry = usernameIndex[i];
+            if (entry == 0) {
+                return -1;
+            }
+            if (entry <= capacity && hashAt(entry - 1) == hash && usernameMatches(entry - 1, key)) {
+                return entry - 1;
+            }
+        }
+        return -1;
+    }
+
+    private int idPosition(int slot) {
+        return position(idIndex, mix(idAt(slot)), slot);
+    }
+
+    private int usernamePosition(int slot) {
+        return position(usernameIndex, hashAt(slot), slot);
+    }
+
+    /**
+     * 槽位在索引中的位置，不存在时返回 -1
+     */
+    private int position(int[] index, int hash, int slot) {
+        for (int i = hash & indexMask; index[i] != 0; i = (i + 1) & indexMask) {
+            if (index[i] == slot + 1) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void insertIndex(int[] index, int hash, int slot) {
+        int i = hash & indexMask;
+        while (index[i] != 0) {
+            i = (i + 1) & indexMask;
+        }
+        index[i] = slot + 1;
+    }
+
+    /**
+     * 线性探测表的删除：把后续同链条目前移填补空位，不留墓碑
+     */
+    private void removeFromIndex(int[] index, int position) {
+        if (position < 0) {
+            return;
+        }
+        boolean byId = index == idIndex;
+        int hole = position;
+        int i = position;
+        while (true) {
+            i = (i + 1) & indexMask;
+            int entry = index[i];
+            if (entry == 0) {
+                break;
+            }
+            int home = (byId ? mix(idAt(entry - 1)) : hashAt(entry - 1)) & indexMask;
+            // 条目的理想位置不在 (hole, i] 区间内时才能前移到 hole
+            boolean movable = hole <= i ? (home <= hole || home > i) : (home <= hole && home > i);
+            if (movable) {
+                index[hole] = entry;
+                hole = i;
+            }
+        }
+        index[hole] = 0;
+    }
+
+    private static int mix(long id) {
+        long h = id * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private static int hash(String key) {
+        int h = key.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,93 @@
+package com.ruoyi.module.user.cache;
+
+import com.ruoyi.module.user.domain.User;
+import com.ruoyi.module.user.service.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.annotation.RequestScope;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 请求级用户批量加载器（DataLoader 模式）
+ * 一个请求内各处代替 selectUserById 调用 {@link #load} 登记需要的用户，得到尚未完成的结果；
+ * 全部登记后调用一次 {@link #dispatch}，把登记的用户ID合并为一次批量查询
+ * （经过用户缓存，未命中的部分才查询数据库），避免逐个查询用户的 N+1 问题；
+ * 同一请求内相同ID只查询一次，之后登记的相同ID直接得到已加载的结果。
+ * 请求内修改了用户后调用 {@link #clear} 丢弃已加载的结果
+ *
+ * @author ruoyi
+ */
+@Component
+@RequestScope
+public class UserBatchLoader {
+
+    @Autowired
+    private UserService userService;
+
+    /**
+     * 本请求内已登记的用户ID及其结果
+     */
+    private final Map<Long, CompletableFuture<User>> loaded = new HashMap<>();
+
+    /**
+     * 已登记尚未查询的用户ID
+     */
+    private final Map<Long, CompletableFuture<User>> pending = new LinkedHashMap<>();
+
+    /**
+     * 登记需要加载的用户，在 {@link #dispatch} 后完成
+     *
+     * @param id 用户ID
+     * @return 用户，不存在时结果为 null
+     */
+    public synchronized CompletableFuture<User> load(Long id) {
+        CompletableFuture<User> future = loaded.get(id);
+        if (future == null) {
+            future = new CompletableFuture<>();
+            loaded.put(id, future);
+            pending.put(id, future);
+        }
+        return future;
+    }
+
+    /**
+     * 把已登记的用户ID合并为一次批量查询
+     */
+    public void dispatch() {
+        Map<Long, CompletableFuture<User>> batch;
+        synchronized (this) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = new LinkedHashMap<>(pending);
+            pending.clear();
+        }
+        Map<Long, User> users;
+        try {
+            users = userService.selectUserByIds(batch.keySet());
+        } catch (RuntimeException e) {
+            // 查询失败不保留，之后可重新登记
+            synchronized (this) {
+                batch.keySet().forEach(loaded::remove);
+            }
+            batch.values().forEach(future -> future.completeExceptionally(e));
+            throw e;
+        }
+        batch.forEach((id, future) -> future.complete(users.get(id)));
+    }
+
+    /**
+     * 丢弃已加载的用户，之后重新查询
+     *
+     * @param id 用户ID
+     */
+    public synchronized void clear(Long id) {
+        if (!pending.containsKey(id)) {
+            loaded.remove(id);
+        }
+    }
+}
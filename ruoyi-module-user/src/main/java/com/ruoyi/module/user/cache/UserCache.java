@@ -0,0 +1,284 @@
+package com.ruoyi.module.user.cache;
+
+import com.ruoyi.framework.utils.TinyLfuCache;
+import com.ruoyi.module.user.domain.User;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * 用户读穿缓存
+ * 以用户ID为键存放不可变的用户快照，另有用户名到ID的索引，两种查询命中同一份快照；
+ * 快照被淘汰、过期或失效时一并删除其用户名索引。返回给调用方的是快照的副本，修改不会影响缓存。
+ * 用户写入后按ID与用户名失效，改名时旧用户名随旧快照一起删除；
+ * 失效会使正在进行的加载结果不再写入缓存，避免读到写入前旧值的并发加载把它放回缓存。
+ * 开启堆外存储时作为第二级：堆上只保留最热的少量快照，大量记录存放在 {@link OffHeapUserStore} 中，
+ * 两级未命中才查询数据库，失效同时作用于两级
+ *
+ * @author ruoyi
+ */
+@Component
+public class UserCache {
+
+    private final boolean enabled;
+
+    private final int maximumSize;
+
+    private final TinyLfuCache<Long, CachedUser> cache;
+
+    /**
+     * 堆外第二级存储，未开启时为 null
+     */
+    private final OffHeapUserStore offHeapStore;
+
+    /**
+     * 用户名（规整后）到用户ID的索引
+     */
+    private final ConcurrentHashMap<String, Long> usernameIndex = new ConcurrentHashMap<>();
+
+    public UserCache(@Value("${user.cache.enabled:true}") boolean enabled,
+                     @Value("${user.cache.maximum-size:10000}") int maximumSize,
+                     @Value("${user.cache.ttl-seconds:300}") long ttlSeconds,
+                     @Value("${user.cache.off-heap.enabled:false}") boolean offHeapEnabled,
+                     @Value("${user.cache.off-heap.capacity:1000000}") int offHeapCapacity,
+                     @Value("${user.cache.off-heap.slab-count:16}") int offHeapSlabCount,
+                     @Value("${user.cache.off-heap.record-size:128}") int offHeapRecordSize) {
+        this.enabled = enabled;
+        this.maximumSize = maximumSize;
+        this.cache = new TinyLfuCache<>(maximumSize, ttlSeconds * 1000L,
+                (id, user) -> usernameIndex.remove(user.key, id));
+        this.offHeapStore = enabled && offHeapEnabled
+                ? new OffHeapUserStore(offHeapCapacity, offHeapSlabCount, offHeapRecordSize, ttlSeconds * 1000L) : null;
+    }
+
+    /**
+     * 按用户ID读取，未命中时加载
+     *
+     * @param id 用户ID
+     * @param loader 数据库查询
+     * @return 用户副本，不存在时返回 null
+     */
+    public User getById(Long id, Function<Long, User> loader) {
+        if (!enabled || id == null) {
+            return loader.apply(id);
+        }
+        CachedUser cached = cache.getIfPresent(id);
+        if (cached == null) {
+            cached = cache.load(() -> CachedUser.of(loadById(id, loader)), user -> user.id);
+            index(cached);
+        }
+        return cached == null ? null : cached.toUser();
+    }
+
+    /**
+     * 按用户ID批量读取，各级都未命中的ID交给一次批量查询
+     *
+     * @param ids 用户ID
+     * @param loader 批量数据库查询，参数为未命中的用户ID
+     * @return 用户ID到用户副本，按 ids 的顺序，不存在的用户不返回
+     */
+    public Map<Long, User> getAllById(Collection<Long> ids, Function<List<Long>, List<User>> loader) {
+        Map<Long, User> users = new LinkedHashMap<>();
+        if (!enabled) {
+            for (User user : loader.apply(new ArrayList<>(ids))) {
+                users.put(user.getId(), user);
+            }
+            return users;
+        }
+        Map<Long, CachedUser> cached = cache.getAll(ids, missing -> loadAllById(missing, loader));
+        for (CachedUser user : cached.values()) {
+            index(user);
+            users.put(user.id, user.toUser());
+        }
+        return users;
+    }
+
+    /**
+     * 按用户名读取，未命中时加载
+     *
+     * @param username 用户名
+     * @param loader 数据库查询
+     * @return 用户副本，不存在时返回 null
+     */
+    public User getByUsername(String username, Function<String, User> loader) {
+        if (!enabled || username == null) {
+            return loader.apply(username);
+        }
+        String key = UsernameKeys.key(username);
+        Long id = usernameIndex.get(key);
+        if (id != null) {
+            CachedUser cached = cache.getIfPresent(id);
+            if (cached != null && cached.key.equals(key)) {
+                return cached.toUser();
+            }
+            // 快照已不存在或已改名，索引过时
+            usernameIndex.remove(key, id);
+        }
+        CachedUser cached = cache.load(() -> CachedUser.of(loadByUsername(username, loader)), user -> user.id);
+        index(cached);
+        return cached == null ? null : cached.toUser();
+    }
+
+    /**
+     * 用户修改、删除后按ID失效，旧用户名索引随快照一起删除
+     *
+     * @param id 用户ID
+     */
+    public void invalidate(Long id) {
+        if (id != null) {
+            cache.invalidate(id);
+            if (offHeapStore != null) {
+                offHeapStore.remove(id);
+            }
+        }
+    }
+
+    /**
+     * 新增用户或改名后按用户名失效
+     *
+     * @param username 用户名
+     */
+    public void invalidateUsername(String username) {
+        if (username == null) {
+            return;
+        }
+        if (offHeapStore != null) {
+            offHeapStore.removeByUsername(username);
+        }
+        Long id = usernameIndex.remove(UsernameKeys.key(username));
+        if (id != null) {
+            cache.invalidate(id);
+        } else {
+            cache.advanceEpoch();
+        }
+    }
+
+    /**
+     * 获取统计信息
+     *
+     * @return 统计信息
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = cache.stats();
+        stats.put("enabled", enabled);
+        stats.put("usernameIndexSize", usernameIndex.size());
+        if (offHeapStore != null) {
+            stats.put("offHeap", offHeapStore.stats());
+        }
+        return stats;
+    }
+
+    /**
+     * 堆上未命中：先查堆外存储，再查数据库并写入堆外存储
+     */
+    private User loadById(Long id, Function<Long, User> loader) {
+        if (offHeapStore == null) {
+            return loader.apply(id);
+        }
+        User user = offHeapStore.get(id);
+        if (user == null) {
+            long epoch = offHeapStore.epoch();
+            user = loader.apply(id);
+            offHeapStore.put(user, epoch);
+        }
+        return user;
+    }
+
+    private Map<Long, CachedUser> loadAllById(List<Long> ids, Function<List<Long>, List<User>> loader) {
+        Map<Long, CachedUser> loaded = new HashMap<>();
+        List<Long> missing = ids;
+        if (offHeapStore != null) {
+            missing = new ArrayList<>();
+            for (Long id : ids) {
+                CachedUser user = CachedUser.of(offHeapStore.get(id));
+                if (user != null) {
+                    loaded.put(id, user);
+                } else {
+                    missing.add(id);
+                }
+            }
+        }
+        if (missing.isEmpty()) {
+            return loaded;
+        }
+        long epoch = offHeapStore == null ? 0L : offHeapStore.epoch();
+        for (User user : loader.apply(missing)) {
+            CachedUser cachedUser = CachedUser.of(user);
+            if (cachedUser != null) {
+                loaded.put(cachedUser.id, cachedUser);
+                if (offHeapStore != null) {
+                    offHeapStore.put(user, epoch);
+                }
+            }
+        }
+        return loaded;
+    }
+
+    private User loadByUsername(String username, Function<String, User> loader) {
+        if (offHeapStore == null) {
+            return loader.apply(username);
+        }
+        User user = offHeapStore.getByUsername(username);
+        if (user == null) {
+            long epoch = offHeapStore.epoch();
+            user = loader.apply(username);
+            offHeapStore.put(user, epoch);
+        }
+        return user;
+    }
+
+    private void index(CachedUser cached) {
+        if (cached == null) {
+            return;
+        }
+        // 加载结果因并发失效未写入缓存时，这里的索引会在下次按用户名查询时被发现过时并删除；
+        // 极端情况下积累过多则整体清空，索引只是快捷方式，清空不影响正确性
+        if (usernameIndex.size() > 2 * maximumSize) {
+            usernameIndex.clear();
+        }
+        usernameIndex.put(cached.key, cached.id);
+    }
+
+    /**
+     * 不可变的用户快照
+     */
+    private static final class CachedUser {
+
+        private final Long id;
+
+        private final String username;
+
+        private final Integer age;
+
+        private final String password;
+
+        /**
+         * 规整后的用户名
+         */
+        private final String key;
+
+        private CachedUser(User user) {
+            this.id = user.getId();
+            this.username = user.getUsername();
+            this.age = user.getAge();
+            this.password = user.getPassword();
+            this.key = username == null ? "" : UsernameKeys.key(username);
+        }
+
+        private static CachedUser of(User user) {
+            return user == null || user.getId() == null ? null : new CachedUser(user);
+        }
+
+        private User toUser() {
+            return new User(id, username, age, password);
+        }
+    }
+}
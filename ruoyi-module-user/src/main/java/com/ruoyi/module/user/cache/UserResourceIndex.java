@@ -0,0 +1,706 @@
+package com.ruoyi.module.user.cache;
+
+import com.ruoyi.framework.utils.CompressedBitmap;
+import com.ruoyi.module.user.domain.UserResource;
+import com.ruoyi.module.user.mapper.UserResourceMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+
+/**
+ * 用户资源授权索引
+ * 启动后在后台流式读取 user_resource，按用户（用户 -> 资源）和按资源（资源 -> 用户）各建一组压缩位图，
+ * 权限判断与计数直接在内存中完成，不再查询数据库。位图发布后不再修改：写入时复制受影响的位图再整体替换，
+ * 读取无锁；写入在同一把锁下进行，构建期间的写入同时作用于正在构建的索引。
+ * <p>
+ * 构建完成前、关闭或出现超出 int 范围的ID时不可用，查询方法返回 null，由调用方回退到数据库查询。
+ * 只反映本实例的写入，多实例部署或直接修改数据库时依靠定期校验修复；
+ * 同一关联重复插入的多行视为一条，计数为去重后的关联数
+ *
+ * @author ruoyi
+ */
+@Component
+public class UserResourceIndex implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(UserResourceIndex.class);
+
+    /**
+     * 构建时每次持锁写入的行数
+     */
+    private static final int BUILD_BATCH = 1024;
+
+    @Autowired
+    private UserResourceMapper userResourceMapper;
+
+    @Value("${user.resource-index.enabled:true}")
+    private boolean enabled;
+
+    /**
+     * 定期校验并修复的间隔（分钟），0 表示不定期校验
+     */
+    @Value("${user.resource-index.verify-interval-minutes:0}")
+    private long verifyIntervalMinutes;
+
+    /**
+     * 当前生效的索引，不可用时为 null
+     */
+    private volatile Matrix matrix;
+
+    /**
+     * 正在构建的索引，构建期间的写入同时进入两者
+     */
+    private Matrix building;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    /**
+     * 出现超出 int 范围的ID后不再使用索引
+     */
+    private volatile boolean overflow;
+
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "user-resource-index");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final LongAdder lookups = new LongAdder();
+
+    private final LongAdder fallbacks = new LongAdder();
+
+    private final LongAdder builds = new LongAdder();
+
+    private volatile long lastBuildMillis;
+
+    private volatile Map<String, Object> lastVerify;
+
+    /**
+     * 启动完成后在后台构建，并按配置定期校验
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!enabled) {
+            return;
+        }
+        rebuildAsync();
+        if (verifyIntervalMinutes > 0) {
+            executor.scheduleWithFixedDelay(() -> {
+                try {
+                    doVerify(true);
+                } catch (RuntimeException e) {
+                    log.warn("用户资源索引校验失败: {}", e.getMessage());
+                }
+            }, verifyIntervalMinutes, verifyIntervalMinutes, TimeUnit.MINUTES);
+        }
+    }
+
+    /**
+     * 索引是否可用
+     */
+    public boolean isReady() {
+        return matrix != null;
+    }
+
+    /**
+     * 判断用户是否拥有资源
+     *
+     * @param userId 用户ID
+     * @param resourceId 资源ID
+     * @return 是否拥有，索引不可用时返回 null
+     */
+    public Boolean hasResource(Long userId, Long resourceId) {
+        Matrix current = available();
+        if (current == null) {
+            return null;
+        }
+        if (!inRange(userId) || !inRange(resourceId)) {
+            return Boolean.FALSE;
+        }
+        CompressedBitmap resources = current.byUser.get(userId.intValue());
+        return resources != null && resources.contains(resourceId.intValue());
+    }
+
+    /**
+     * 用户拥有的资源数
+     *
+     * @param userId 用户ID
+     * @return 资源数，索引不可用时返回 null
+     */
+    public Integer countResourcesByUserId(Long userId) {
+        Matrix current = available();
+        if (current == null) {
+            return null;
+        }
+        return cardinality(current.byUser, userId);
+    }
+
+    /**
+     * 拥有资源的用户数
+     *
+     * @param resourceId 资源ID
+     * @return 用户数，索引不可用时返回 null
+     */
+    public Integer countUsersByResourceId(Long resourceId) {
+        Matrix current = available();
+        if (current == null) {
+            return null;
+        }
+        return cardinality(current.byResource, resourceId);
+    }
+
+    /**
+     * 关联总数（去重后）
+     *
+     * @return 关联数，索引不可用时返回 null
+     */
+    public Long countLinks() {
+        Matrix current = available();
+        return current == null ? null : current.links;
+    }
+
+    /**
+     * 用户拥有的资源ID，升序
+     *
+     * @param userId 用户ID
+     * @return 资源ID，索引不可用时返回 null
+     */
+    public List<Long> getResourceIds(Long userId) {
+        Matrix current = available();
+        if (current == null) {
+            return null;
+        }
+        List<Long> resourceIds = new ArrayList<>();
+        CompressedBitmap resources = inRange(userId) ? current.byUser.get(userId.intValue()) : null;
+        if (resources != null) {
+            resources.forEach(resourceId -> resourceIds.add((long) resourceId));
+        }
+        return resourceIds;
+    }
+
+    /**
+     * 记录新增的关联，应在数据库写入成功（事务提交）后调用
+     *
+     * @param userId 用户ID
+     * @param resourceId 资源ID
+     */
+    public void add(Long userId, Long resourceId) {
+        update(userId, resourceId, true);
+    }
+
+    /**
+     * 记录删除的关联，应在数据库写入成功（事务提交）后调用
+     *
+     * @param userId 用户ID
+     * @param resourceId 资源ID
+     */
+    public void remove(Long userId, Long resourceId) {
+        update(userId, resourceId, false);
+    }
+
+    /**
+     * 记录删除用户的全部关联
+     *
+     * @param userId 用户ID
+     */
+    public void removeUser(Long userId) {
+        if (userId == null || !inRange(userId)) {
+            return;
+        }
+        lock.lock();
+        try {
+            for (Matrix target : targets()) {
+                target.removeAll(target.byUser, target.byResource, userId.intValue());
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 记录删除资源的全部关联
+     *
+     * @param resourceId 资源ID
+     */
+    public void removeResource(Long resourceId) {
+        if (resourceId == null || !inRange(resourceId)) {
+            return;
+        }
+        lock.lock();
+        try {
+            for (Matrix target : targets()) {
+                target.removeAll(target.byResource, target.byUser, resourceId.intValue());
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 在后台重新构建，已在构建时忽略
+     */
+    public void rebuildAsync() {
+        if (enabled && rebuilding.compareAndSet(false, true)) {
+            executor.execute(() -> {
+                try {
+                    finish(build(), true);
+                } catch (RuntimeException e) {
+                    // 构建失败时保持原状，最坏情况只是回退到查询数据库
+                    log.warn("用户资源索引构建失败: {}", e.getMessage());
+                } finally {
+                    rebuilding.set(false);
+                }
+            });
+        }
+    }
+
+    /**
+     * 与数据库逐条比对，可选用数据库中的数据替换索引
+     *
+     * @param repair 存在差异时是否替换
+     * @return 比对结果
+     */
+    public Map<String, Object> verify(boolean repair) {
+        if (!enabled) {
+            throw new IllegalStateException("用户资源索引未开启");
+        }
+        try {
+            return executor.submit(() -> doVerify(repair)).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("用户资源索引校验被中断", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("用户资源索引校验失败: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    /**
+     * 获取统计信息
+     *
+     * @return 统计信息
+     */
+    public Map<String, Object> stats() {
+        Matrix current = matrix;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("ready", current != null);
+        stats.put("overflow", overflow);
+        stats.put("lookups", lookups.sum());
+        stats.put("fallbacks", fallbacks.sum());
+        stats.put("builds", builds.sum());
+        stats.put("lastBuildMillis", lastBuildMillis);
+        if (current != null) {
+            stats.put("users", current.byUser.size());
+            stats.put("resources", current.byResource.size());
+            stats.put("links", current.links);
+            stats.put("memoryBytes", current.sizeInBytes());
+        }
+        if (lastVerify != null) {
+            stats.put("lastVerify", lastVerify);
+        }
+        return stats;
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private Map<String, Object> doVerify(boolean repair) {
+        long start = System.currentTimeMillis();
+        Matrix fresh = build();
+        Map<String, Object> result = new LinkedHashMap<>();
+        if (fresh == null) {
+            result.put("ready", false);
+            return result;
+        }
+        boolean repaired;
+        long missing;
+        long extra;
+        try {
+            // 比对期间的写入同时作用于两者，不会被计为差异
+            Matrix current = matrix;
+            missing = current == null ? fresh.links : countMissing(fresh, current);
+            extra = current == null ? 0 : countMissing(current, fresh);
+            repaired = repair && (current == null || missing + extra > 0);
+        } catch (RuntimeException e) {
+            finish(fresh, false);
+            throw e;
+        }
+        finish(fresh, repaired);
+        result.put("links", fresh.links);
+        result.put("missingInIndex", missing);
+        result.put("extraInIndex", extra);
+        result.put("repaired", repaired);
+        result.put("elapsedMillis", System.currentTimeMillis() - start);
+        if (missing + extra > 0) {
+            log.warn("用户资源索引与数据库不一致: 缺少 {} 条, 多出 {} 条, 已修复: {}", missing, extra, repaired);
+        }
+        lastVerify = result;
+        return result;
+    }
+
+    /**
+     * 从数据库流式构建；构建期间及返回后直到 {@link #finish} 为止的写入同时作用于构建中的索引
+     *
+     * @return 新索引，出现超出范围的ID时返回 null
+     */
+    private Matrix build() {
+        long start = System.currentTimeMillis();
+        Matrix next = new Matrix(false);
+        lock.lock();
+        try {
+            building = next;
+        } finally {
+            lock.unlock();
+        }
+        boolean built = false;
+        try {
+            List<UserResource> batch = new ArrayList<>(BUILD_BATCH);
+            userResourceMapper.selectAllUserResourceLinks(context -> {
+                batch.add(context.getResultObject());
+                if (batch.size() == BUILD_BATCH) {
+                    addAll(next, batch);
+                    batch.clear();
+                }
+            });
+            addAll(next, batch);
+            if (overflow) {
+                return null;
+            }
+            lock.lock();
+            try {
+                // 之后的修改按写时复制进行，可以安全地发布
+                next.publish();
+            } finally {
+                lock.unlock();
+            }
+            built = true;
+            builds.increment();
+            lastBuildMillis = System.currentTimeMillis() - start;
+            log.info("用户资源索引构建完成: {} 条关联, {} 个用户, {} 个资源, 约 {} KB, 耗时 {} ms",
+                    next.links, next.byUser.size(), next.byResource.size(), next.sizeInBytes() / 1024, lastBuildMillis);
+            return next;
+        } finally {
+            if (!built) {
+                finish(next, false);
+            }
+        }
+    }
+
+    /**
+     * 结束构建，停止向构建结果同步写入；与写入在同一把锁下进行，替换时不会丢失写入
+     *
+     * @param next 构建结果，可为 null
+     * @param install 是否替换当前索引
+     */
+    private void finish(Matrix next, boolean install) {
+        lock.lock();
+        try {
+            if (building == next) {
+                building = null;
+            }
+            if (install && next != null && !overflow) {
+                matrix = next;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void addAll(Matrix target, List<UserResource> rows) {
+        lock.lock();
+        try {
+            for (UserResource row : rows) {
+                if (!inRange(row.getUserId()) || !inRange(row.getResourceId())) {
+                    disable(row.getUserId(), row.getResourceId());
+                    return;
+                }
+                target.add(row.getUserId().intValue(), row.getResourceId().intValue());
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void update(Long userId, Long resourceId, boolean add) {
+        if (userId == null || resourceId == null) {
+            return;
+        }
+        lock.lock();
+        try {
+            if (!inRange(userId) || !inRange(resourceId)) {
+                if (add) {
+                    disable(userId, resourceId);
+                }
+                return;
+            }
+            for (Matrix target : targets()) {
+                if (add) {
+                    target.add(userId.intValue(), resourceId.intValue());
+                } else {
+                    target.remove(userId.intValue(), resourceId.intValue());
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 需要同步写入的索引：已发布的与正在构建的，须持锁调用
+     */
+    private List<Matrix> targets() {
+        List<Matrix> targets = new ArrayList<>(2);
+        if (matrix != null) {
+            targets.add(matrix);
+        }
+        if (building != null) {
+            targets.add(building);
+        }
+        return targets;
+    }
+
+    private void disable(Long userId, Long resourceId) {
+        if (!overflow) {
+            log.warn("用户资源索引停用，ID超出 int 范围: userId={}, resourceId={}", userId, resourceId);
+        }
+        overflow = true;
+        matrix = null;
+    }
+
+    private Matrix available() {
+        Matrix current = matrix;
+        if (current == null) {
+            fallbacks.increment();
+        } else {
+            lookups.increment();
+        }
+        return current;
+    }
+
+    private static Integer cardinality(BitmapTable bitmaps, Long id) {
+        CompressedBitmap bitmap = inRange(id) ? bitmaps.get(id.intValue()) : null;
+        return bitmap == null ? 0 : bitmap.getCardinality();
+    }
+
+    /**
+     * source 中有而 target 中没有的关联数
+     */
+    private static long countMissing(Matrix source, Matrix target) {
+        long[] missing = new long[1];
+        source.byUser.forEach((userId, resources) -> {
+            CompressedBitmap other = target.byUser.get(userId);
+            if (other == null) {
+                missing[0] += resources.getCardinality();
+            } else if (other != resources) {
+                resources.forEach(resourceId -> {
+                    if (!other.contains(resourceId)) {
+                        missing[0]++;
+                    }
+                });
+            }
+        });
+        return missing[0];
+    }
+
+    private static boolean inRange(Long id) {
+        return id != null && id >= 0 && id <= Integer.MAX_VALUE;
+    }
+
+    /**
+     * 双向位图，修改须持锁；发布前原地修改，发布后写时复制
+     */
+    private static final class Matrix {
+
+        private final BitmapTable byUser = new BitmapTable();
+
+        private final BitmapTable byResource = new BitmapTable();
+
+        private volatile long links;
+
+        private boolean copyOnWrite;
+
+        private Matrix(boolean copyOnWrite) {
+            this.copyOnWrite = copyOnWrite;
+        }
+
+        private void add(int userId, int resourceId) {
+            if (set(byUser, userId, resourceId, true)) {
+                set(byResource, resourceId, userId, true);
+                links++;
+            }
+        }
+
+        private void remove(int userId, int resourceId) {
+            if (set(byUser, userId, resourceId, false)) {
+                set(byResource, resourceId, userId, false);
+                links--;
+            }
+        }
+
+        /**
+         * 删除一个用户（或资源）的全部关联
+         *
+         * @param rows 该键所在方向的位图
+         * @param columns 反方向的位图
+         * @param key 用户ID（或资源ID）
+         */
+        private void removeAll(BitmapTable rows, BitmapTable columns, int key) {
+            CompressedBitmap values = rows.remove(key);
+            if (values != null) {
+                values.forEach(value -> set(columns, value, key, false));
+                links -= values.getCardinality();
+            }
+        }
+
+        private boolean set(BitmapTable bitmaps, int key, int value, boolean add) {
+            CompressedBitmap bitmap = bitmaps.get(key);
+            if (bitmap == null) {
+                if (!add) {
+                    return false;
+                }
+                bitmap = new CompressedBitmap();
+                bitmap.add(value);
+                bitmaps.put(key, bitmap);
+                return true;
+            }
+            if (add == bitmap.contains(value)) {
+                return false;
+            }
+            CompressedBitmap next = copyOnWrite ? bitmap.copy() : bitmap;
+            if (add) {
+                next.add(value);
+            } else {
+                next.remove(value);
+            }
+            if (next.isEmpty()) {
+                bitmaps.remove(key);
+            } else if (next != bitmap) {
+                bitmaps.put(key, next);
+            }
+            return true;
+        }
+
+        /**
+         * 构建完成：收缩内存，之后的修改改为写时复制
+         */
+        private void publish() {
+            byUser.forEach((key, bitmap) -> bitmap.trim());
+            byResource.forEach((key, bitmap) -> bitmap.trim());
+            copyOnWrite = true;
+        }
+
+        private long sizeInBytes() {
+            long[] bytes = {byUser.sizeInBytes() + byResource.sizeInBytes()};
+            byUser.forEach((key, bitmap) -> bytes[0] += bitmap.sizeInBytes());
+            byResource.forEach((key, bitmap) -> bytes[0] += bitmap.sizeInBytes());
+            return bytes[0];
+        }
+    }
+
+    /**
+     * ID到位图的表，修改须持锁，读取无锁。
+     * 自增ID基本连续，小于 DENSE_LIMIT 的ID直接作为数组下标，查询不经过哈希表与装箱的键，
+     * 减少一次随机访问中的缓存未命中；更大的ID放在哈希表中
+     */
+    private static final class BitmapTable {
+
+        private static final int DENSE_LIMIT = 1 << 24;
+
+        private volatile AtomicReferenceArray<CompressedBitmap> dense = new AtomicReferenceArray<>(64);
+
+        private final ConcurrentHashMap<Integer, CompressedBitmap> sparse = new ConcurrentHashMap<>();
+
+        private volatile int size;
+
+        private CompressedBitmap get(int key) {
+            if (key < DENSE_LIMIT) {
+                AtomicReferenceArray<CompressedBitmap> array = dense;
+                return key < array.length() ? array.get(key) : null;
+            }
+            return sparse.get(key);
+        }
+
+        private void put(int key, CompressedBitmap bitmap) {
+            CompressedBitmap old;
+            if (key < DENSE_LIMIT) {
+                AtomicReferenceArray<CompressedBitmap> array = dense;
+                if (key >= array.length()) {
+                    array = grow(array, key);
+                }
+                old = array.getAndSet(key, bitmap);
+            } else {
+                old = sparse.put(key, bitmap);
+            }
+            if (old == null) {
+                size++;
+            }
+        }
+
+        private CompressedBitmap remove(int key) {
+            CompressedBitmap old;
+            if (key < DENSE_LIMIT) {
+                AtomicReferenceArray<CompressedBitmap> array = dense;
+                old = key < array.length() ? array.getAndSet(key, null) : null;
+            } else {
+                old = sparse.remove(key);
+            }
+            if (old != null) {
+                size--;
+            }
+            return old;
+        }
+
+        private int size() {
+            return size;
+        }
+
+        private void forEach(BiConsumer<Integer, CompressedBitmap> consumer) {
+            AtomicReferenceArray<CompressedBitmap> array = dense;
+            for (int key = 0; key < array.length(); key++) {
+                CompressedBitmap bitmap = array.get(key);
+                if (bitmap != null) {
+                    consumer.accept(key, bitmap);
+                }
+            }
+            sparse.forEach(consumer);
+        }
+
+        private long sizeInBytes() {
+            // 哈希表每个条目约 48 字节（节点、Integer 键与表槽位）
+            return 16 + 4L * dense.length() + 48L * sparse.size();
+        }
+
+        private AtomicReferenceArray<CompressedBitmap> grow(AtomicReferenceArray<CompressedBitmap> array, int key) {
+            int length = (int) Math.min(DENSE_LIMIT, Math.max(key + 1L, array.length() + (array.length() >> 1)));
+            AtomicReferenceArray<CompressedBitmap> next = new AtomicReferenceArray<>(length);
+            for (int i = 0; i < array.length(); i++) {
+                next.set(i, array.get(i));
+            }
+            dense = next;
+            return next;
+        }
+    }
+}
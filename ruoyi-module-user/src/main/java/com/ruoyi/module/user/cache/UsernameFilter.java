@@ -0,0 +1,261 @@
+package com.ruoyi.module.user.cache;
+
+import com.ruoyi.framework.utils.BloomFilter;
+import com.ruoyi.module.user.mapper.UserMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 用户名过滤器
+ * 用布隆过滤器记录已存在的用户名，判定为不存在时无需查询数据库，用于挡住不存在用户的登录和唯一性校验。
+ * 启动后在后台流式读取用户表构建；新增、修改前先写入，删除和改名留下的旧用户名只会造成误判，
+ * 误判累积到一定比例后在后台重建。其他节点或直接在数据库中新增的用户名不会经过本节点写入，
+ * 按 {@code user.username-filter.rebuild-interval-seconds} 定期重建，新用户最迟在一个周期后可被查到。
+ * 构建期间以及开始前不久写入的用户名记在日志中，新过滤器交换前重新写入，不会因读取用户表时尚未提交而丢失。
+ * 构建完成前一律视为可能存在
+ *
+ * @author ruoyi
+ */
+@Component
+public class UsernameFilter implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(UsernameFilter.class);
+
+    @Autowired
+    private UserMapper userMapper;
+
+    @Value("${user.username-filter.enabled:true}")
+    private boolean enabled;
+
+    @Value("${user.username-filter.expected-insertions:1000000}")
+    private long expectedInsertions;
+
+    @Value("${user.username-filter.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    /**
+     * 定期重建的间隔（秒），不大于0时只在误判累积或容量不足时重建
+     */
+    @Value("${user.username-filter.rebuild-interval-seconds:300}")
+    private long rebuildIntervalSeconds;
+
+    /**
+     * 写入日志的保留时间：用户名在写入数据库之前记录，构建开始前这段时间内记录的用户名也在交换前重新写入
+     */
+    private static final long JOURNAL_GRACE_NANOS = TimeUnit.SECONDS.toNanos(60);
+
+    /**
+     * 当前生效的过滤器，构建完成前为 null
+     */
+    private volatile BloomFilter filter;
+
+    /**
+     * 最近写入的用户名与写入时间，由自身加锁；构建期间不清理
+     */
+    private final ArrayDeque<JournalEntry> journal = new ArrayDeque<>();
+
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    /**
+     * 自上次构建以来删除或改名的次数，对应过滤器中失效的用户名
+     */
+    private final AtomicLong staleSinceBuild = new AtomicLong();
+
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "username-filter");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final LongAdder checks = new LongAdder();
+
+    private final LongAdder definitelyAbsent = new LongAdder();
+
+    private final LongAdder rebuilds = new LongAdder();
+
+    /**
+     * 启动完成后在后台构建，并按间隔定期重建
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!enabled) {
+            return;
+        }
+        rebuildAsync();
+        if (rebuildIntervalSeconds > 0) {
+            executor.scheduleWithFixedDelay(this::rebuildAsync,
+                    rebuildIntervalSeconds, rebuildIntervalSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * 判断用户名是否可能存在
+     *
+     * @param username 用户名
+     * @return false 表示一定不存在
+     */
+    public boolean mightExist(String username) {
+        BloomFilter current = filter;
+        String key = UsernameKeys.normalize(username);
+        if (current == null || key == null) {
+            return true;
+        }
+        checks.increment();
+        if (current.mightContain(key)) {
+            return true;
+        }
+        definitelyAbsent.increment();
+        return false;
+    }
+
+    /**
+     * 记录用户名，应在写入数据库之前调用，避免提交后短暂地误判为不存在
+     *
+     * @param username 用户名
+     */
+    public void put(String username) {
+        String key = UsernameKeys.normalize(username);
+        if (!enabled || key == null) {
+            return;
+        }
+        BloomFilter current;
+        // 与交换过滤器互斥：写入要么进入日志后被重放，要么直接写入新过滤器
+        synchronized (journal) {
+            long now = System.nanoTime();
+            if (!rebuilding.get()) {
+                trimJournal(now);
+            }
+            journal.addLast(new JournalEntry(key, now));
+            current = filter;
+            if (current != null) {
+                current.put(key);
+            }
+        }
+        if (current != null && current.getInsertions() > current.getExpectedInsertions()) {
+            rebuildAsync();
+        }
+    }
+
+    /**
+     * 记录删除或改名，旧用户名留在过滤器中，失效比例过高时重建
+     *
+     * @param count 数量
+     */
+    public void markStale(int count) {
+        BloomFilter current = filter;
+        if (!enabled || current == null || count <= 0) {
+            return;
+        }
+        if (staleSinceBuild.addAndGet(count) > current.getInsertions() / 2) {
+            rebuildAsync();
+        }
+    }
+
+    /**
+     * 在后台重新构建，已在构建时忽略
+     */
+    public void rebuildAsync() {
+        if (rebuilding.compareAndSet(false, true)) {
+            executor.execute(this::rebuild);
+        }
+    }
+
+    private void rebuild() {
+        long start = System.currentTimeMillis();
+        long windowStartNanos = System.nanoTime();
+        try {
+            long count = userMapper.countUsers();
+            BloomFilter next = new BloomFilter(Math.max(expectedInsertions, count * 2), falsePositiveRate);
+            staleSinceBuild.set(0);
+            userMapper.selectAllUsernames(context -> {
+                String key = UsernameKeys.normalize(context.getResultObject());
+                if (key != null) {
+                    next.put(key);
+                }
+            });
+            synchronized (journal) {
+                // 读取用户表时尚未提交的写入在这里补上
+                for (JournalEntry entry : journal) {
+                    if (entry.nanos - (windowStartNanos - JOURNAL_GRACE_NANOS) >= 0) {
+                        next.put(entry.key);
+                    }
+                }
+                filter = next;
+            }
+            rebuilds.increment();
+            log.info("用户名过滤器构建完成: {} 个用户名, 耗时 {} ms",
+                    next.getInsertions(), System.currentTimeMillis() - start);
+        } catch (RuntimeException e) {
+            // 构建失败时保持原状，最坏情况只是回退到查询数据库
+            log.warn("用户名过滤器构建失败: {}", e.getMessage());
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+
+    /**
+     * 清理超过保留时间的日志，调用方持有日志锁
+     */
+    private void trimJournal(long now) {
+        while (!journal.isEmpty() && now - journal.peekFirst().nanos > JOURNAL_GRACE_NANOS) {
+            journal.pollFirst();
+        }
+    }
+
+    /**
+     * 获取运行指标
+     */
+    public Map<String, Object> stats() {
+        BloomFilter current = filter;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("ready", current != null);
+        stats.put("checks", checks.sum());
+        stats.put("definitelyAbsent", definitelyAbsent.sum());
+        stats.put("rebuilds", rebuilds.sum());
+        stats.put("staleSinceBuild", staleSinceBuild.get());
+        stats.put("rebuildIntervalSeconds", rebuildIntervalSeconds);
+        if (current != null) {
+            stats.put("insertions", current.getInsertions());
+            stats.put("bitSize", current.getBitSize());
+            stats.put("expectedFalsePositiveRate", current.expectedFalsePositiveRate());
+        }
+        return stats;
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 日志中的一次写入
+     */
+    private static final class JournalEntry {
+
+        private final String key;
+
+        private final long nanos;
+
+        private JournalEntry(String key, long nanos) {
+            this.key = key;
+            this.nanos = nanos;
+        }
+    }
+}
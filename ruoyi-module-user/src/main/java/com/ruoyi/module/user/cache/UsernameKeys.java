@@ -0,0 +1,53 @@
+package com.ruoyi.module.user.cache;
+
+/**
+ * 用户名比较键
+ * 用户名缓存、堆外存储、用户名过滤器与批量导入共用同一套规则，保证本地判定为相同的用户名在数据库中也相同。
+ * 过滤器需要判定"一定不存在"，只能使用 {@link #normalize(String)}；缓存与去重只需要"判定相同时一定相同"，
+ * 使用 {@link #key(String)}，无法按排序规则比较的用户名退回原样精确比较，未命中时交给数据库
+ *
+ * @author ruoyi
+ */
+public final class UsernameKeys {
+
+    private UsernameKeys() {
+    }
+
+    /**
+     * 按数据库排序规则（utf8mb4_unicode_ci）归一化：ASCII 用户名转小写并去掉末尾空格；
+     * 非 ASCII 用户名的比较规则无法在本地精确复现，返回 null 交由数据库判断
+     *
+     * @param username 用户名
+     * @return 比较键，无法在本地比较时返回 null
+     */
+    public static String normalize(String username) {
+        if (username == null) {
+            return null;
+        }
+        int end = username.length();
+        while (end > 0 && username.charAt(end - 1) == ' ') {
+            end--;
+        }
+        char[] chars = new char[end];
+        for (int i = 0; i < end; i++) {
+            char c = username.charAt(i);
+            if (c >= 0x80) {
+                return null;
+            }
+            chars[i] = c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+        }
+        return new String(chars);
+    }
+
+    /**
+     * 缓存与去重使用的键：能按排序规则归一化时取归一化结果，否则取原始用户名。
+     * 非 ASCII 用户名的键总含有非 ASCII 字符，不会与归一化结果混淆
+     *
+     * @param username 用户名，不能为 null
+     * @return 键
+     */
+    public static String key(String username) {
+        String normalized = normalize(username);
+        return normalized != null ? normalized : username;
+    }
+}
@@ -1,24 +1,39 @@
 package com.ruoyi.module.user.controller;
 
 import com.ruoyi.framework.security.JwtAuthenticationFilter;
+import com.ruoyi.framework.security.LoginRateLimiter;
 import com.ruoyi.framework.utils.CommonResult;
+import com.ruoyi.framework.utils.SigningKeyRing;
+import com.ruoyi.module.user.cache.UsernameKeys;
 import com.ruoyi.module.user.dto.LoginRequest;
 import com.ruoyi.module.user.dto.LoginResponse;
+import com.ruoyi.module.user.dto.TokenIntrospection;
+import com.ruoyi.module.user.dto.TokenIntrospectionRequest;
 import com.ruoyi.module.user.service.AuthService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
 
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 
 /**
  * 登录认证控制器
@@ -33,22 +48,76 @@ public class LoginController {
     @Autowired
     private AuthService authService;
 
+    @Autowired
+    private LoginRateLimiter loginRateLimiter;
+
+    @Autowired
+    private SigningKeyRing signingKeyRing;
+
+    /**
+     * JWKS 响应缓存时间（秒），应小于密钥激活延迟，保证下游在新密钥开始签名前已拿到公钥
+     */
+    @Value("${jwt.jwks.max-age-seconds:300}")
+    private Long jwksMaxAgeSeconds;
+
+    /**
+     * 批量校验单次最多令牌数
+     */
+    @Value("${jwt.introspection.max-batch-size:1000}")
+    private Integer introspectionMaxBatchSize;
+
+    /**
+     * 登录请求最长等待时间（毫秒）
+     */
+    @Value("${login.password-verification.timeout-millis:10000}")
+    private Long loginTimeoutMillis;
+
     /**
      * 用户登录
      */
     @PostMapping("/login")
     @Operation(summary = "用户登录", description = "用户名密码登录，返回 JWT 令牌")
-    public CommonResult<LoginResponse> login(@Valid @RequestBody LoginRequest loginRequest) {
+    public DeferredResult<CommonResult<LoginResponse>> login(@Valid @RequestBody LoginRequest loginRequest,
+                                                             HttpServletRequest request,
+                                                             HttpServletResponse response) {
+        System.out.println("收到登录请求: " + loginRequest.getUsername());
+        DeferredResult<CommonResult<LoginResponse>> result = new DeferredResult<>(loginTimeoutMillis,
+                () -> CommonResult.error(503, "登录超时，请稍后重试"));
+
+        // 限流在查询数据库和校验密码之前执行，用户名按与缓存相同的规则归一化
+        String usernameKey = loginRequest.getUsername() == null ? null : UsernameKeys.key(loginRequest.getUsername());
+        if (loginRateLimiter.tryAcquire(usernameKey, request.getRemoteAddr())
+                != LoginRateLimiter.Result.ALLOWED) {
+            response.setStatus(429);
+            result.setResult(CommonResult.error(429, "登录尝试过于频繁，请稍后重试"));
+            return result;
+        }
         try {
-            System.out.println("收到登录请求: " + loginRequest.getUsername());
-            LoginResponse loginResponse = authService.login(loginRequest);
-            System.out.println("登录响应: " + loginResponse);
-            return CommonResult.success(loginResponse, "登录成功");
+            // 密码校验在校验执行器中完成，Tomcat 工作线程立即释放
+            authService.loginAsync(loginRequest).whenComplete((loginResponse, e) -> {
+                if (e == null) {
+                    System.out.println("登录响应: " + loginResponse);
+                    result.setResult(CommonResult.success(loginResponse, "登录成功"));
+                } else {
+                    result.setResult(loginFailure(e));
+                }
+            });
         } catch (Exception e) {
-            System.out.println("登录异常: " + e.getMessage());
-            e.printStackTrace();
-            return CommonResult.error(400, "登录失败: " + e.getMessage());
+            result.setResult(loginFailure(e));
+        }
+        return result;
+    }
+
+    /**
+     * 登录失败响应，校验执行器繁忙时返回 429
+     */
+    private CommonResult<LoginResponse> loginFailure(Throwable e) {
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        if (cause instanceof RejectedExecutionException) {
+            return CommonResult.error(429, "登录请求过多，请稍后重试");
         }
+        System.out.println("登录异常: " + cause.getMessage());
+        return CommonResult.error(400, "登录失败: " + cause.getMessage());
     }
 
     /**
@@ -120,6 +189,33 @@ public class LoginController {
         }
     }
 
+    /**
+     * 批量验证令牌
+     */
+    @PostMapping("/validate/batch")
+    @Operation(summary = "批量验证令牌", description = "供网关一次校验多个访问令牌，按输入顺序返回有效性、用户信息、权限与剩余有效时间")
+    public CommonResult<List<TokenIntrospection>> validateTokens(
+            @Valid @RequestBody TokenIntrospectionRequest introspectionRequest) {
+        List<String> tokens = introspectionRequest.getTokens();
+        if (tokens.size() > introspectionMaxBatchSize) {
+            return CommonResult.error(400, "单次最多校验 " + introspectionMaxBatchSize + " 个令牌");
+        }
+        return CommonResult.success(authService.introspectTokens(tokens), "令牌验证完成");
+    }
+
+    /**
+     * 发布验签公钥
+     */
+    @GetMapping("/jwks")
+    @Operation(summary = "验签公钥", description = "以 JWKS 格式发布 ES256 验签公钥，供下游服务本地验证令牌；HS512 模式下为空集合")
+    public ResponseEntity<Map<String, Object>> jwks() {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("keys", signingKeyRing.getPublicJwks());
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(jwksMaxAgeSeconds, TimeUnit.SECONDS).cachePublic())
+                .body(body);
+    }
+
     /**
      * 获取当前用户信息
      */
@@ -0,0 +1,159 @@
+package com.ruoyi.module.user.controller;
+
+import com.ruoyi.framework.concurrent.DbPermitDataSource;
+import com.ruoyi.framework.concurrent.VirtualThreadPinningMonitor;
+import com.ruoyi.framework.security.AdaptiveBCryptPasswordEncoder;
+import com.ruoyi.framework.security.JwtClaimsCache;
+import com.ruoyi.framework.security.LoginRateLimiter;
+import com.ruoyi.framework.security.PasswordVerificationExecutor;
+import com.ruoyi.framework.security.PermissionDictionary;
+import com.ruoyi.framework.security.RefreshTokenFamilyStore;
+import com.ruoyi.framework.security.TokenRevocationStore;
+import com.ruoyi.framework.utils.CommonResult;
+import com.ruoyi.module.user.cache.UserCache;
+import com.ruoyi.module.user.cache.UserResourceIndex;
+import com.ruoyi.module.user.cache.UsernameFilter;
+import com.ruoyi.module.user.service.ExportService;
+import com.ruoyi.module.user.service.ResourceService;
+import com.ruoyi.module.user.service.UserImportService;
+import com.ruoyi.module.user.service.UserService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.sql.DataSource;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 系统监控控制器
+ * 汇总各类缓存、执行器的运行指标，仅管理员可访问
+ *
+ * @author ruoyi
+ */
+@Tag(name = "系统监控", description = "缓存命中率、执行器队列等运行指标")
+@RestController
+@RequestMapping("/admin/monitor")
+public class MonitorController {
+
+    @Autowired
+    private JwtClaimsCache jwtClaimsCache;
+
+    @Autowired
+    private TokenRevocationStore tokenRevocationStore;
+
+    @Autowired
+    private RefreshTokenFamilyStore refreshTokenFamilyStore;
+
+    @Autowired
+    private PermissionDictionary permissionDictionary;
+
+    @Autowired
+    private PasswordVerificationExecutor passwordVerificationExecutor;
+
+    @Autowired
+    private AdaptiveBCryptPasswordEncoder passwordEncoder;
+
+    @Autowired
+    private LoginRateLimiter loginRateLimiter;
+
+    @Autowired
+    private UsernameFilter usernameFilter;
+
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ResourceService resourceService;
+
+    @Autowired
+    private UserResourceIndex userResourceIndex;
+
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private UserImportService userImportService;
+
+    /**
+     * 开启数据库并发许可时为 {@link DbPermitDataSource}
+     */
+    @Autowired
+    private DataSource dataSource;
+
+    /**
+     * 仅在虚拟线程模式下存在
+     */
+    @Autowired
+    private ObjectProvider<VirtualThreadPinningMonitor> pinningMonitor;
+
+    /**
+     * 获取运行指标
+     */
+    @GetMapping("/metrics")
+    @Operation(summary = "获取运行指标")
+    public CommonResult<Map<String, Object>> metrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("jwtClaimsCache", jwtClaimsCache.stats());
+        metrics.put("tokenRevocation", tokenRevocationStore.stats());
+        metrics.put("refreshTokenFamilies", refreshTokenFamilyStore.stats());
+        metrics.put("permissionDictionary", permissionDictionary.stats());
+        metrics.put("passwordVerification", passwordVerificationExecutor.stats());
+        metrics.put("passwordEncoder", passwordEncoder.stats());
+        metrics.put("loginRateLimiter", loginRateLimiter.stats());
+        metrics.put("usernameFilter", usernameFilter.stats());
+        metrics.put("userCache", userCache.stats());
+        Map<String, Object> singleFlight = new LinkedHashMap<>(userService.singleFlightStats());
+        singleFlight.putAll(resourceService.singleFlightStats());
+        metrics.put("singleFlight", singleFlight);
+        metrics.put("userResourceIndex", userResourceIndex.stats());
+        metrics.put("export", exportService.stats());
+        metrics.put("userImport", userImportService.stats());
+        if (dataSource instanceof DbPermitDataSource permitDataSource) {
+            metrics.put("dbPermits", permitDataSource.stats());
+        }
+        pinningMonitor.ifAvailable(monitor -> metrics.put("virtualThreadPinning", monitor.stats()));
+        metrics.put("runtime", runtimeStats());
+        return CommonResult.success(metrics, "查询成功");
+    }
+
+    /**
+     * 校验用户资源授权索引
+     */
+    @PostMapping("/user-resource-index/verify")
+    @Operation(summary = "校验用户资源授权索引", description = "从数据库重新读取全部关联与索引逐条比对，repair=true 时存在差异则用数据库中的数据替换索引")
+    public CommonResult<Map<String, Object>> verifyUserResourceIndex(@RequestParam(defaultValue = "false") boolean repair) {
+        try {
+            return CommonResult.success(userResourceIndex.verify(repair), "校验完成");
+        } catch (IllegalStateException e) {
+            return CommonResult.error(500, e.getMessage());
+        }
+    }
+
+    /**
+     * JVM 内存与线程指标，用于对比平台线程与虚拟线程模式
+     */
+    private static Map<String, Object> runtimeStats() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("heapUsedBytes", memory.getHeapMemoryUsage().getUsed());
+        stats.put("heapCommittedBytes", memory.getHeapMemoryUsage().getCommitted());
+        stats.put("nonHeapUsedBytes", memory.getNonHeapMemoryUsage().getUsed());
+        stats.put("platformThreadCount", threads.getThreadCount());
+        stats.put("peakPlatformThreadCount", threads.getPeakThreadCount());
+        return stats;
+    }
+}
@@ -0,0 +1,154 @@
+package com.ruoyi.module.user.controller;
+
+import com.ruoyi.framework.utils.CommonResult;
+import com.ruoyi.framework.utils.PageParam;
+import com.ruoyi.framework.utils.PageResult;
+import com.ruoyi.module.user.domain.Resource;
+import com.ruoyi.module.user.service.ResourceService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+
+/**
+ * 资源管理控制器
+ * 资源是权限的载体，新增、修改、删除仅管理员可操作
+ *
+ * @author ruoyi
+ */
+@Tag(name = "资源管理", description = "资源管理相关接口")
+@RestController
+@RequestMapping("/resource")
+@Valid
+public class ResourceController {
+
+    @Autowired
+    private ResourceService resourceService;
+
+    /**
+     * 获取资源列表
+     */
+    @GetMapping("/list")
+    @Operation(summary = "获取资源列表", description = "分页查询，按ID倒序；翻页时传入上一页的 nextCursor，searchCount=true 时返回总数")
+    public CommonResult<PageResult<Resource>> list(Resource resource, @Valid PageParam pageParam) {
+        try {
+            return CommonResult.success(resourceService.selectResourcePage(resource, pageParam), "查询成功");
+        } catch (IllegalArgumentException e) {
+            return CommonResult.error(400, e.getMessage());
+        }
+    }
+
+    /**
+     * 获取用户拥有的资源
+     */
+    @GetMapping("/user/{userId}")
+    @Operation(summary = "获取用户拥有的资源")
+    public CommonResult<List<Resource>> listByUser(@Parameter(description = "用户ID") @PathVariable Long userId) {
+        return CommonResult.success(resourceService.selectResourcesByUserId(userId), "查询成功");
+    }
+
+    /**
+     * 统计资源总数
+     */
+    @GetMapping("/count")
+    @Operation(summary = "统计资源总数")
+    public CommonResult<Integer> count() {
+        return CommonResult.success(resourceService.countResources(), "统计成功");
+    }
+
+    /**
+     * 根据资源编号获取详细信息
+     */
+    @GetMapping(value = "/{resourceId}")
+    @Operation(summary = "根据资源编号获取详细信息")
+    public CommonResult<Resource> getInfo(@Parameter(description = "资源ID")
+                                          @PathVariable
+                                          @NotNull(message = "资源ID不能为空")
+                                          @Min(value = 1, message = "资源ID必须大于0") Long resourceId) {
+        Resource resource = resourceService.selectResourceById(resourceId);
+        if (resource != null) {
+            return CommonResult.success(resource, "查询成功");
+        } else {
+            return CommonResult.error(404, "资源不存在");
+        }
+    }
+
+    /**
+     * 新增资源
+     */
+    @PostMapping
+    @Operation(summary = "新增资源")
+    @PreAuthorize("hasRole('ADMIN')")
+    public CommonResult<Resource> add(@RequestBody Resource resource) {
+        if (resource.getCode() == null || resource.getCode().trim().isEmpty()) {
+            return CommonResult.error(400, "资源编码不能为空");
+        }
+
+        if (!resourceService.checkCodeUnique(resource.getCode())) {
+            return CommonResult.error(500, "新增资源'" + resource.getCode() + "'失败，资源编码已存在");
+        }
+
+        int rows = resourceService.insertResource(resource);
+        if (rows > 0) {
+            return CommonResult.success(resource, "新增成功");
+        } else {
+            return CommonResult.error("新增失败");
+        }
+    }
+
+    /**
+     * 修改资源
+     */
+    @PutMapping
+    @Operation(summary = "修改资源")
+    @PreAuthorize("hasRole('ADMIN')")
+    public CommonResult<Resource> edit(@RequestBody Resource resource) {
+        if (resource.getResourceId() == null) {
+            return CommonResult.error(400, "资源ID不能为空");
+        }
+
+        Resource existResource = resourceService.selectResourceById(resource.getResourceId());
+        if (existResource == null) {
+            return CommonResult.error(404, "资源不存在");
+        }
+
+        // 如果修改了资源编码，需要检查唯一性
+        if (resource.getCode() != null && !resource.getCode().equals(existResource.getCode())) {
+            if (!resourceService.checkCodeUnique(resource.getCode())) {
+                return CommonResult.error(500, "修改资源失败，资源编码已存在");
+            }
+        }
+
+        int rows = resourceService.updateResource(resource);
+        if (rows > 0) {
+            return CommonResult.success(resource, "修改成功");
+        } else {
+            return CommonResult.error("修改失败");
+        }
+    }
+
+    /**
+     * 删除资源
+     */
+    @DeleteMapping("/{resourceIds}")
+    @Operation(summary = "删除资源")
+    @PreAuthorize("hasRole('ADMIN')")
+    public CommonResult<Void> remove(@Parameter(description = "资源ID数组")
+                                     @PathVariable
+                                     @NotNull(message = "资源ID不能为空") Long[] resourceIds) {
+        int rows = resourceService.deleteResourceByIds(resourceIds);
+        if (rows > 0) {
+            return CommonResult.success(null, "删除成功");
+        } else {
+            return CommonResult.error("删除失败");
+        }
+    }
+}
@@ -1,19 +1,38 @@
 package com.ruoyi.module.user.controller;
 import com.ruoyi.framework.utils.CommonResult;
+import com.ruoyi.framework.utils.ExportWriter;
+import com.ruoyi.framework.utils.PageParam;
+import com.ruoyi.framework.utils.PageResult;
 import com.ruoyi.module.user.domain.User;
+import com.ruoyi.module.user.dto.UserImportResult;
+import com.ruoyi.module.user.service.ExportService;
+import com.ruoyi.module.user.service.UserImportService;
 import com.ruoyi.module.user.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
-
-import java.util.List;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
 /**
  * 用户管理控制器
  *
@@ -28,6 +47,15 @@ public class UserController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private UserImportService userImportService;
+
+    @Value("${user.batch.max-ids:1000}")
+    private int maxBatchIds;
+
     /**
      * 获取用户信息
      */
@@ -41,10 +69,71 @@ public class UserController {
      * 获取用户列表
      */
     @GetMapping("/list")
-    @Operation(summary = "获取用户列表")
-    public CommonResult<List<User>> list(User user) {
-        List<User> list = userService.selectUserList(user);
-        return CommonResult.success(list, "查询成功");
+    @Operation(summary = "获取用户列表", description = "分页查询，按ID倒序；翻页时传入上一页的 nextCursor，searchCount=true 时返回总数")
+    public CommonResult<PageResult<User>> list(User user, @Valid PageParam pageParam) {
+        try {
+            return CommonResult.success(userService.selectUserPage(user, pageParam), "查询成功");
+        } catch (IllegalArgumentException e) {
+            return CommonResult.error(400, e.getMessage());
+        }
+    }
+
+    /**
+     * 导出全部用户
+     */
+    @GetMapping("/export")
+    @Operation(summary = "导出全部用户", description = "按ID升序流式导出（不含密码），format 为 ndjson 或 csv；"
+            + "导出被中断时传入已收到的最后一个ID作为 afterId 续传")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> export(@RequestParam(defaultValue = "ndjson") String format,
+                                    @RequestParam(defaultValue = "false") boolean gzip,
+                                    @RequestParam(required = false) Long afterId) {
+        ExportWriter.Format exportFormat;
+        try {
+            exportFormat = ExportWriter.Format.of(format);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(CommonResult.error(400, e.getMessage()));
+        }
+        StreamingResponseBody body = exportService.exportUsers(exportFormat, gzip, afterId);
+        if (body == null) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .body(CommonResult.error(429, "导出任务过多，请稍后再试"));
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(gzip ? "application/gzip" : exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(exportFormat.fileName("users", gzip)).build().toString())
+                .body(body);
+    }
+
+    /**
+     * 批量导入用户
+     */
+    @PostMapping(value = "/import", consumes = {"application/x-ndjson", MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    @Operation(summary = "批量导入用户", description = "请求体为 NDJSON，每行一个 {\"username\",\"password\",\"age\"} 对象，"
+            + "可用 Content-Encoding: gzip 压缩；边上传边导入，单行失败不影响其它行")
+    @PreAuthorize("hasRole('ADMIN')")
+    public CommonResult<UserImportResult> importUsers(HttpServletRequest request) throws IOException {
+        InputStream in = request.getInputStream();
+        if ("gzip".equalsIgnoreCase(request.getHeader(HttpHeaders.CONTENT_ENCODING))) {
+            in = new GZIPInputStream(in, 64 * 1024);
+        }
+        return CommonResult.success(userImportService.importUsers(in), "导入完成");
+    }
+
+    /**
+     * 根据多个用户编号批量获取
+     */
+    @GetMapping("/batch")
+    @Operation(summary = "根据多个用户编号批量获取", description = "ids 以逗号分隔，按传入顺序返回存在的用户（不含密码）；"
+            + "代替逐个调用 /user/{id}")
+    public CommonResult<List<User>> batch(@Parameter(description = "用户ID列表") @RequestParam List<Long> ids) {
+        if (ids.size() > maxBatchIds) {
+            return CommonResult.error(400, "一次最多查询 " + maxBatchIds + " 个用户");
+        }
+        List<User> users = new ArrayList<>(userService.selectUserByIds(ids).values());
+        users.forEach(user -> user.setPassword(null));
+        return CommonResult.success(users, "查询成功");
     }
 
     /**
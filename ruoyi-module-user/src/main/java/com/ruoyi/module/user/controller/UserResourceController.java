@@ -0,0 +1,223 @@
+package com.ruoyi.module.user.controller;
+
+import com.ruoyi.framework.utils.CommonResult;
+import com.ruoyi.framework.utils.ExportWriter;
+import com.ruoyi.framework.utils.PageParam;
+import com.ruoyi.framework.utils.PageResult;
+import com.ruoyi.module.user.cache.UserBatchLoader;
+import com.ruoyi.module.user.domain.User;
+import com.ruoyi.module.user.domain.UserResource;
+import com.ruoyi.module.user.service.ExportService;
+import com.ruoyi.module.user.service.UserResourceService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 用户资源关联控制器
+ *
+ * @author ruoyi
+ */
+@Tag(name = "用户资源关联", description = "用户资源关联相关接口")
+@RestController
+@RequestMapping("/user-resource")
+public class UserResourceController {
+
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private UserResourceService userResourceService;
+
+    @Autowired
+    private UserBatchLoader userBatchLoader;
+
+    /**
+     * 获取拥有某个资源的用户
+     */
+    @GetMapping("/resource/{resourceId}/users")
+    @Operation(summary = "获取拥有某个资源的用户", description = "关联的用户一次批量查询（不含密码）")
+    public CommonResult<List<User>> resourceUsers(@Parameter(description = "资源ID") @PathVariable Long resourceId) {
+        // 每条关联登记一次，最后一次 dispatch 合并为一次批量查询
+        List<CompletableFuture<User>> futures = new ArrayList<>();
+        for (UserResource userResource : userResourceService.selectUserResourceByResourceId(resourceId)) {
+            futures.add(userBatchLoader.load(userResource.getUserId()));
+        }
+        userBatchLoader.dispatch();
+        Map<Long, User> users = new LinkedHashMap<>();
+        for (CompletableFuture<User> future : futures) {
+            User user = future.join();
+            if (user != null && !users.containsKey(user.getId())) {
+                // 加载器中的对象在请求内共享，返回副本再去掉密码
+                users.put(user.getId(), new User(user.getId(), user.getUsername(), user.getAge(), null));
+            }
+        }
+        return CommonResult.success(new ArrayList<>(users.values()), "查询成功");
+    }
+
+    /**
+     * 获取用户资源关联列表
+     */
+    @GetMapping("/list")
+    @Operation(summary = "获取用户资源关联列表", description = "可按 userId、resourceId 过滤，分页查询，按ID倒序；"
+            + "翻页时传入上一页的 nextCursor，searchCount=true 时返回总数")
+    public CommonResult<PageResult<UserResource>> list(UserResource userResource, @Valid PageParam pageParam) {
+        try {
+            return CommonResult.success(userResourceService.selectUserResourcePage(userResource, pageParam), "查询成功");
+        } catch (IllegalArgumentException e) {
+            return CommonResult.error(400, e.getMessage());
+        }
+    }
+
+    /**
+     * 获取用户的资源关联
+     */
+    @GetMapping("/user/{userId}")
+    @Operation(summary = "获取用户的资源关联")
+    public CommonResult<List<UserResource>> listByUser(@Parameter(description = "用户ID") @PathVariable Long userId) {
+        return CommonResult.success(userResourceService.selectUserResourceByUserId(userId), "查询成功");
+    }
+
+    /**
+     * 查询用户是否拥有资源
+     */
+    @GetMapping("/check")
+    @Operation(summary = "查询用户是否拥有资源")
+    public CommonResult<Boolean> check(@RequestParam Long userId, @RequestParam Long resourceId) {
+        return CommonResult.success(userResourceService.hasResource(userId, resourceId), "查询成功");
+    }
+
+    /**
+     * 统计用户拥有的资源数量
+     */
+    @GetMapping("/user/{userId}/count")
+    @Operation(summary = "统计用户拥有的资源数量")
+    public CommonResult<Integer> countByUser(@Parameter(description = "用户ID") @PathVariable Long userId) {
+        return CommonResult.success(userResourceService.countResourcesByUserId(userId), "统计成功");
+    }
+
+    /**
+     * 统计拥有资源的用户数量
+     */
+    @GetMapping("/resource/{resourceId}/count")
+    @Operation(summary = "统计拥有资源的用户数量")
+    public CommonResult<Integer> countByResource(@Parameter(description = "资源ID") @PathVariable Long resourceId) {
+        return CommonResult.success(userResourceService.countUsersByResourceId(resourceId), "统计成功");
+    }
+
+    /**
+     * 为用户分配资源
+     */
+    @PutMapping("/user/{userId}")
+    @Operation(summary = "为用户分配资源", description = "请求体为资源ID数组，用户最终拥有的资源即为该数组；只写入变化的关联，空数组表示清空")
+    @PreAuthorize("hasRole('ADMIN')")
+    public CommonResult<Integer> assign(@Parameter(description = "用户ID") @PathVariable Long userId,
+                                        @RequestBody Long[] resourceIds) {
+        int changed = userResourceService.assignResourcesToUser(userId, resourceIds);
+        return CommonResult.success(changed, changed > 0 ? "分配成功" : "分配未变化");
+    }
+
+    /**
+     * 新增用户资源关联
+     */
+    @PostMapping
+    @Operation(summary = "新增用户资源关联")
+    @PreAuthorize("hasRole('ADMIN')")
+    public CommonResult<UserResource> add(@RequestBody UserResource userResource) {
+        if (userResource.getUserId() == null || userResource.getResourceId() == null) {
+            return CommonResult.error(400, "用户ID和资源ID不能为空");
+        }
+        if (userResourceService.hasResource(userResource.getUserId(), userResource.getResourceId())) {
+            return CommonResult.error(500, "新增失败，用户已拥有该资源");
+        }
+        int rows = userResourceService.insertUserResource(userResource);
+        if (rows > 0) {
+            return CommonResult.success(userResource, "新增成功");
+        } else {
+            return CommonResult.error("新增失败");
+        }
+    }
+
+    /**
+     * 删除用户的指定资源
+     */
+    @DeleteMapping("/user/{userId}/resource/{resourceId}")
+    @Operation(summary = "删除用户的指定资源")
+    @PreAuthorize("hasRole('ADMIN')")
+    public CommonResult<Void> removeByUserAndResource(@Parameter(description = "用户ID") @PathVariable Long userId,
+                                                      @Parameter(description = "资源ID") @PathVariable Long resourceId) {
+        int rows = userResourceService.deleteUserResourceByUserIdAndResourceId(userId, resourceId);
+        if (rows > 0) {
+            return CommonResult.success(null, "删除成功");
+        } else {
+            return CommonResult.error("删除失败");
+        }
+    }
+
+    /**
+     * 删除用户资源关联
+     */
+    @DeleteMapping("/{ids}")
+    @Operation(summary = "删除用户资源关联")
+    @PreAuthorize("hasRole('ADMIN')")
+    public CommonResult<Void> remove(@Parameter(description = "关联ID数组") @PathVariable Long[] ids) {
+        int rows = userResourceService.deleteUserResourceByIds(ids);
+        if (rows > 0) {
+            return CommonResult.success(null, "删除成功");
+        } else {
+            return CommonResult.error("删除失败");
+        }
+    }
+
+    /**
+     * 导出全部用户资源关联
+     */
+    @GetMapping("/export")
+    @Operation(summary = "导出全部用户资源关联", description = "按ID升序流式导出，format 为 ndjson 或 csv；"
+            + "导出被中断时传入已收到的最后一个ID作为 afterId 续传")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> export(@RequestParam(defaultValue = "ndjson") String format,
+                                    @RequestParam(defaultValue = "false") boolean gzip,
+                                    @RequestParam(required = false) Long afterId) {
+        ExportWriter.Format exportFormat;
+        try {
+            exportFormat = ExportWriter.Format.of(format);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(CommonResult.error(400, e.getMessage()));
+        }
+        StreamingResponseBody body = exportService.exportUserResources(exportFormat, gzip, afterId);
+        if (body == null) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .body(CommonResult.error(429, "导出任务过多，请稍后再试"));
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(gzip ? "application/gzip" : exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(exportFormat.fileName("user-resources", gzip)).build().toString())
+                .body(body);
+    }
+}
@@ -0,0 +1,76 @@
+package com.ruoyi.module.user.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+/**
+ * 令牌校验结果 DTO
+ * 无效令牌只返回 valid=false，不携带其余字段
+ *
+ * @author ruoyi
+ */
+@Schema(description = "令牌校验结果")
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TokenIntrospection {
+
+    /**
+     * 无效令牌的共享结果
+     */
+    public static final TokenIntrospection INVALID = new TokenIntrospection(false, null, null, null, null);
+
+    @Schema(description = "是否有效", example = "true")
+    private final boolean valid;
+
+    @Schema(description = "用户ID", example = "1")
+    private final Long userId;
+
+    @Schema(description = "用户名", example = "admin")
+    private final String username;
+
+    @Schema(description = "权限列表")
+    private final List<String> authorities;
+
+    @Schema(description = "剩余有效时间（秒）", example = "3600")
+    private final Long expiresIn;
+
+    public TokenIntrospection(boolean valid, Long userId, String username, List<String> authorities,
+                              Long expiresIn) {
+        this.valid = valid;
+        this.userId = userId;
+        this.username = username;
+        this.authorities = authorities;
+        this.expiresIn = expiresIn;
+    }
+
+    public boolean isValid() {
+        return valid;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public List<String> getAuthorities() {
+        return authorities;
+    }
+
+    public Long getExpiresIn() {
+        return expiresIn;
+    }
+
+    @Override
+    public String toString() {
+        return "TokenIntrospection{" +
+                "valid=" + valid +
+                ", userId=" + userId +
+                ", username='" + username + '\'' +
+                ", expiresIn=" + expiresIn +
+                '}';
+    }
+}
@@ -0,0 +1,41 @@
+package com.ruoyi.module.user.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import jakarta.validation.constraints.NotEmpty;
+import java.util.List;
+
+/**
+ * 批量令牌校验请求 DTO
+ *
+ * @author ruoyi
+ */
+@Schema(description = "批量令牌校验请求")
+public class TokenIntrospectionRequest {
+
+    @NotEmpty(message = "令牌列表不能为空")
+    @Schema(description = "待校验的访问令牌（不带 Bearer 前缀）")
+    private List<String> tokens;
+
+    public TokenIntrospectionRequest() {
+    }
+
+    public TokenIntrospectionRequest(List<String> tokens) {
+        this.tokens = tokens;
+    }
+
+    public List<String> getTokens() {
+        return tokens;
+    }
+
+    public void setTokens(List<String> tokens) {
+        this.tokens = tokens;
+    }
+
+    @Override
+    public String toString() {
+        return "TokenIntrospectionRequest{" +
+                "tokens=" + (tokens == null ? 0 : tokens.size()) +
+                '}';
+    }
+}
@@ -0,0 +1,139 @@
+package com.ruoyi.module.user.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 用户批量导入结果 DTO
+ * 失败行只保留前 maxErrors 条明细，其余只计数
+ *
+ * @author ruoyi
+ */
+@Schema(description = "用户批量导入结果")
+public class UserImportResult {
+
+    @Schema(description = "读取的数据行数（不含空行）")
+    private long total;
+
+    @Schema(description = "成功导入行数")
+    private long imported;
+
+    @Schema(description = "失败行数")
+    private long failed;
+
+    @Schema(description = "耗时（毫秒）")
+    private long elapsedMillis;
+
+    @Schema(description = "导入速度（行/秒）")
+    private double rowsPerSecond;
+
+    @Schema(description = "失败行明细")
+    private final List<RowError> errors = new ArrayList<>();
+
+    @Schema(description = "失败行明细是否被截断")
+    private boolean errorsTruncated;
+
+    private final transient int maxErrors;
+
+    public UserImportResult(int maxErrors) {
+        this.maxErrors = maxErrors;
+    }
+
+    /**
+     * 记录一行失败
+     *
+     * @param line 行号，从 1 开始
+     * @param username 用户名，无法解析时为 null
+     * @param message 失败原因
+     */
+    public void fail(long line, String username, String message) {
+        failed++;
+        if (errors.size() < maxErrors) {
+            errors.add(new RowError(line, username, message));
+        } else {
+            errorsTruncated = true;
+        }
+    }
+
+    public void addTotal(long rows) {
+        total += rows;
+    }
+
+    public void addImported(long rows) {
+        imported += rows;
+    }
+
+    /**
+     * 结束导入，计算耗时与速度
+     *
+     * @param elapsedNanos 耗时（纳秒）
+     */
+    public void finish(long elapsedNanos) {
+        elapsedMillis = elapsedNanos / 1_000_000;
+        rowsPerSecond = elapsedNanos == 0 ? 0.0 : imported * 1e9 / elapsedNanos;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public double getRowsPerSecond() {
+        return rowsPerSecond;
+    }
+
+    public List<RowError> getErrors() {
+        return errors;
+    }
+
+    public boolean isErrorsTruncated() {
+        return errorsTruncated;
+    }
+
+    /**
+     * 失败行
+     */
+    @Schema(description = "导入失败行")
+    public static class RowError {
+
+        @Schema(description = "行号", example = "3")
+        private final long line;
+
+        @Schema(description = "用户名")
+        private final String username;
+
+        @Schema(description = "失败原因", example = "用户名已存在")
+        private final String message;
+
+        public RowError(long line, String username, String message) {
+            this.line = line;
+            this.username = username;
+            this.message = message;
+        }
+
+        public long getLine() {
+            return line;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+}
@@ -22,6 +22,26 @@ public interface ResourceMapper {
      */
     List<Resource> selectResourceList(Resource resource);
 
+    /**
+     * 分页查询资源列表（按资源ID倒序）
+     *
+     * @param resource 查询条件
+     * @param lastId 上一页最后一个资源ID，为 null 时从头读取
+     * @param offset 偏移量，按游标翻页时为 null
+     * @param limit 最多返回行数
+     * @return 资源信息集合
+     */
+    List<Resource> selectResourcePage(@Param("resource") Resource resource, @Param("lastId") Long lastId,
+                                      @Param("offset") Integer offset, @Param("limit") int limit);
+
+    /**
+     * 统计满足条件的资源数
+     *
+     * @param resource 查询条件
+     * @return 资源数
+     */
+    long countResourceList(@Param("resource") Resource resource);
+
     /**
      * 通过资源ID查询资源
      * 
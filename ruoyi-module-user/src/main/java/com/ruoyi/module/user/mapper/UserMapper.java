@@ -3,7 +3,10 @@ package com.ruoyi.module.user.mapper;
 import com.ruoyi.module.user.domain.User;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.session.ResultHandler;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -22,6 +25,26 @@ public interface UserMapper {
      */
     List<User> selectUserList(User user);
 
+    /**
+     * 分页查询用户列表（按ID倒序，不含密码）
+     *
+     * @param user 查询条件
+     * @param lastId 上一页最后一个用户ID，为 null 时从头读取
+     * @param offset 偏移量，按游标翻页时为 null
+     * @param limit 最多返回行数
+     * @return 用户信息集合
+     */
+    List<User> selectUserPage(@Param("user") User user, @Param("lastId") Long lastId,
+                              @Param("offset") Integer offset, @Param("limit") int limit);
+
+    /**
+     * 统计满足条件的用户数
+     *
+     * @param user 查询条件
+     * @return 用户数
+     */
+    long countUserList(@Param("user") User user);
+
     /**
      * 通过用户名查询用户
      *
@@ -38,6 +61,14 @@ public interface UserMapper {
      */
     User selectUserById(Long id);
 
+    /**
+     * 通过用户ID批量查询用户，调用方须控制每次的ID数量
+     *
+     * @param ids 用户ID
+     * @return 存在的用户，顺序不定
+     */
+    List<User> selectUserByIds(@Param("ids") Collection<Long> ids);
+
     /**
      * 新增用户信息
      *
@@ -46,6 +77,14 @@ public interface UserMapper {
      */
     int insertUser(User user);
 
+    /**
+     * 批量新增用户（含密码），单条多值 insert 语句
+     *
+     * @param users 用户列表，密码须已编码
+     * @return 结果
+     */
+    int batchInsertUsers(@Param("users") List<User> users);
+
     /**
      * 修改用户信息
      *
@@ -54,6 +93,17 @@ public interface UserMapper {
      */
     int updateUser(User user);
 
+    /**
+     * 修改用户密码，仅当密码仍为旧值时生效
+     *
+     * @param id 用户ID
+     * @param oldPassword 旧密码哈希
+     * @param newPassword 新密码哈希
+     * @return 结果
+     */
+    int updateUserPassword(@Param("id") Long id, @Param("oldPassword") String oldPassword,
+                           @Param("newPassword") String newPassword);
+
     /**
      * 通过用户ID删除用户
      *
@@ -78,6 +128,29 @@ public interface UserMapper {
      */
     User checkUsernameUnique(String username);
 
+    /**
+     * 查询已存在的用户名
+     *
+     * @param usernames 待检查的用户名
+     * @return 其中已存在的用户名
+     */
+    List<String> selectExistingUsernames(@Param("usernames") Collection<String> usernames);
+
+    /**
+     * 流式读取全部用户名，逐行交给处理器，不在内存中保留结果集
+     *
+     * @param handler 结果处理器
+     */
+    void selectAllUsernames(ResultHandler<String> handler);
+
+    /**
+     * 按ID升序流式读取用户（不含密码），用于导出；游标须在同一个 SqlSession（事务）内读完
+     *
+     * @param afterId 只读取ID大于该值的用户，为 null 时从头读取
+     * @return 用户游标
+     */
+    Cursor<User> selectUserCursor(@Param("afterId") Long afterId);
+
     /**
      * 统计用户总数
      *
@@ -3,7 +3,10 @@ package com.ruoyi.module.user.mapper;
 import com.ruoyi.module.user.domain.UserResource;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.session.ResultHandler;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -22,6 +25,27 @@ public interface UserResourceMapper {
      */
     List<UserResource> selectUserResourceList(UserResource userResource);
 
+    /**
+     * 分页查询用户资源关联，按ID倒序
+     *
+     * @param userResource 查询条件
+     * @param lastId 上一页最后一条的ID，为空时按 offset 查询
+     * @param offset 偏移量，按游标查询时为空
+     * @param limit 最多返回行数
+     * @return 用户资源关联集合
+     */
+    List<UserResource> selectUserResourcePage(@Param("userResource") UserResource userResource,
+                                              @Param("lastId") Long lastId,
+                                              @Param("offset") Integer offset, @Param("limit") int limit);
+
+    /**
+     * 统计满足条件的用户资源关联数
+     *
+     * @param userResource 查询条件
+     * @return 关联数
+     */
+    long countUserResourceList(@Param("userResource") UserResource userResource);
+
     /**
      * 通过ID查询用户资源关联
      * 
@@ -46,6 +70,37 @@ public interface UserResourceMapper {
      */
     List<UserResource> selectUserResourceByResourceId(Long resourceId);
 
+    /**
+     * 查询用户当前拥有的资源ID并锁定这些关联行，须在事务内调用
+     * 
+     * @param userId 用户ID
+     * @return 资源ID列表
+     */
+    List<Long> selectResourceIdsByUserIdForUpdate(Long userId);
+
+    /**
+     * 通过ID批量查询用户资源关联
+     * 
+     * @param ids 主键ID数组
+     * @return 用户资源关联列表
+     */
+    List<UserResource> selectUserResourceByIds(Long[] ids);
+
+    /**
+     * 流式读取全部关联的用户ID与资源ID，逐行交给处理器，不在内存中保留结果集
+     * 
+     * @param handler 结果处理器
+     */
+    void selectAllUserResourceLinks(ResultHandler<UserResource> handler);
+
+    /**
+     * 按ID升序流式读取用户资源关联，用于导出；游标须在同一个 SqlSession（事务）内读完
+     * 
+     * @param afterId 只读取ID大于该值的关联，为 null 时从头读取
+     * @return 用户资源关联游标
+     */
+    Cursor<UserResource> selectUserResourceCursor(@Param("afterId") Long afterId);
+
     /**
      * 查询用户是否拥有指定资源
      * 
@@ -112,6 +167,16 @@ public interface UserResourceMapper {
      */
     int deleteUserResourceByIds(Long[] ids);
 
+    /**
+     * 删除指定用户的多个资源关联
+     * 
+     * @param userId 用户ID
+     * @param resourceIds 资源ID
+     * @return 结果
+     */
+    int deleteUserResourceByUserIdAndResourceIds(@Param("userId") Long userId,
+                                                 @Param("resourceIds") Collection<Long> resourceIds);
+
     /**
      * 统计用户资源关联总数
      * 
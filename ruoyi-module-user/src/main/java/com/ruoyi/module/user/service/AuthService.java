@@ -2,6 +2,10 @@ package com.ruoyi.module.user.service;
 
 import com.ruoyi.module.user.dto.LoginRequest;
 import com.ruoyi.module.user.dto.LoginResponse;
+import com.ruoyi.module.user.dto.TokenIntrospection;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * 认证服务接口
@@ -18,6 +22,16 @@ public interface AuthService {
      */
     LoginResponse login(LoginRequest loginRequest);
 
+    /**
+     * 异步用户登录
+     * 密码校验在独立的密码校验执行器中完成，执行器繁忙时以
+     * {@link java.util.concurrent.RejectedExecutionException} 失败
+     * 
+     * @param loginRequest 登录请求
+     * @return 登录响应
+     */
+    CompletableFuture<LoginResponse> loginAsync(LoginRequest loginRequest);
+
     /**
      * 用户登出
      * 
@@ -41,4 +55,13 @@ public interface AuthService {
      * @return 是否有效
      */
     boolean validateToken(String token);
+
+    /**
+     * 批量校验令牌
+     * 令牌较多时并行验签；刷新令牌、已吊销或无效的令牌返回 valid=false
+     *
+     * @param tokens JWT Token 列表
+     * @return 与输入顺序一致的校验结果
+     */
+    List<TokenIntrospection> introspectTokens(List<String> tokens);
 }
@@ -0,0 +1,42 @@
+package com.ruoyi.module.user.service;
+
+import com.ruoyi.framework.utils.ExportWriter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.Map;
+
+/**
+ * 数据导出服务接口
+ * 通过数据库游标逐行读取并写出，内存占用与表大小无关
+ *
+ * @author ruoyi
+ */
+public interface ExportService {
+
+    /**
+     * 创建用户导出（不含密码）
+     *
+     * @param format 导出格式
+     * @param gzip 是否 gzip 压缩
+     * @param afterId 只导出ID大于该值的用户，用于续传中断的导出，为 null 时从头导出
+     * @return 响应体；同时进行的导出已达上限时返回 null
+     */
+    StreamingResponseBody exportUsers(ExportWriter.Format format, boolean gzip, Long afterId);
+
+    /**
+     * 创建用户资源关联导出
+     *
+     * @param format 导出格式
+     * @param gzip 是否 gzip 压缩
+     * @param afterId 只导出ID大于该值的关联，用于续传中断的导出，为 null 时从头导出
+     * @return 响应体；同时进行的导出已达上限时返回 null
+     */
+    StreamingResponseBody exportUserResources(ExportWriter.Format format, boolean gzip, Long afterId);
+
+    /**
+     * 获取统计信息
+     *
+     * @return 统计信息
+     */
+    Map<String, Object> stats();
+}
@@ -1,8 +1,11 @@
 package com.ruoyi.module.user.service;
 
+import com.ruoyi.framework.utils.PageParam;
+import com.ruoyi.framework.utils.PageResult;
 import com.ruoyi.module.user.domain.Resource;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * 资源服务接口
@@ -19,6 +22,17 @@ public interface ResourceService {
      */
     List<Resource> selectResourceList(Resource resource);
 
+    /**
+     * 分页查询资源列表
+     * 带游标时按主键范围读取下一页；不带游标时按页码查询，偏移量不能超过 {@link PageParam#MAX_OFFSET}
+     *
+     * @param resource 查询条件
+     * @param pageParam 分页参数
+     * @return 分页结果
+     * @throws IllegalArgumentException 游标无效或页码过大
+     */
+    PageResult<Resource> selectResourcePage(Resource resource, PageParam pageParam);
+
     /**
      * 通过资源ID查询资源
      * 
@@ -89,4 +103,11 @@ public interface ResourceService {
      * @return 资源列表
      */
     List<Resource> selectResourcesByUserId(Long userId);
+
+    /**
+     * 合并查询统计：每个键实际执行的加载次数与共享结果、超时的调用次数
+     *
+     * @return 统计信息
+     */
+    Map<String, Object> singleFlightStats();
 }
@@ -0,0 +1,32 @@
+package com.ruoyi.module.user.service;
+
+import com.ruoyi.module.user.dto.UserImportResult;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+
+/**
+ * 用户批量导入服务接口
+ *
+ * @author ruoyi
+ */
+public interface UserImportService {
+
+    /**
+     * 从 NDJSON 流导入用户，每行一个 {"username":..,"password":..,"age":..} 对象。
+     * 单行失败只记录在结果中，不影响其它行
+     *
+     * @param in NDJSON 输入流，边读边导入
+     * @return 导入结果
+     * @throws IOException 读取输入流失败
+     */
+    UserImportResult importUsers(InputStream in) throws IOException;
+
+    /**
+     * 获取统计信息
+     *
+     * @return 统计信息
+     */
+    Map<String, Object> stats();
+}
@@ -1,5 +1,7 @@
 package com.ruoyi.module.user.service;
 
+import com.ruoyi.framework.utils.PageParam;
+import com.ruoyi.framework.utils.PageResult;
 import com.ruoyi.module.user.domain.UserResource;
 
 import java.util.List;
@@ -19,6 +21,17 @@ public interface UserResourceService {
      */
     List<UserResource> selectUserResourceList(UserResource userResource);
 
+    /**
+     * 分页查询用户资源关联列表
+     * 带游标时按主键范围读取下一页；不带游标时按页码查询，偏移量不能超过 {@link PageParam#MAX_OFFSET}
+     *
+     * @param userResource 查询条件
+     * @param pageParam 分页参数
+     * @return 分页结果
+     * @throws IllegalArgumentException 游标无效或页码过大
+     */
+    PageResult<UserResource> selectUserResourcePage(UserResource userResource, PageParam pageParam);
+
     /**
      * 通过ID查询用户资源关联
      * 
@@ -69,11 +82,11 @@ public interface UserResourceService {
     int batchInsertUserResource(List<UserResource> userResources);
 
     /**
-     * 为用户分配资源
+     * 为用户分配资源，用户最终拥有的资源即为 resourceIds；只新增缺少的、删除多出的关联
      * 
      * @param userId 用户ID
-     * @param resourceIds 资源ID数组
-     * @return 结果
+     * @param resourceIds 资源ID数组，为空时删除用户的全部关联
+     * @return 新增与删除的关联数之和，分配未变化时为 0
      */
     int assignResourcesToUser(Long userId, Long[] resourceIds);
 
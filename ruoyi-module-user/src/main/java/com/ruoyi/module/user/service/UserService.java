@@ -1,8 +1,12 @@
 package com.ruoyi.module.user.service;
 
+import com.ruoyi.framework.utils.PageParam;
+import com.ruoyi.framework.utils.PageResult;
 import com.ruoyi.module.user.domain.User;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 用户服务接口
@@ -26,6 +30,17 @@ public interface UserService {
      */
     List<User> selectUserList(User user);
 
+    /**
+     * 分页查询用户列表
+     * 带游标时按主键范围读取下一页；不带游标时按页码查询，偏移量不能超过 {@link PageParam#MAX_OFFSET}
+     *
+     * @param user 查询条件
+     * @param pageParam 分页参数
+     * @return 分页结果（不含密码）
+     * @throws IllegalArgumentException 游标无效或页码过大
+     */
+    PageResult<User> selectUserPage(User user, PageParam pageParam);
+
     /**
      * 通过用户名查询用户
      *
@@ -42,6 +57,14 @@ public interface UserService {
      */
     User selectUserById(Long id);
 
+    /**
+     * 通过用户ID批量查询用户
+     *
+     * @param ids 用户ID，可重复
+     * @return 用户ID到用户对象，按 ids 中首次出现的顺序，不存在的用户不返回
+     */
+    Map<Long, User> selectUserByIds(Collection<Long> ids);
+
     /**
      * 校验用户名称是否唯一
      *
@@ -66,6 +89,16 @@ public interface UserService {
      */
     int updateUser(User user);
 
+    /**
+     * 修改用户密码，仅当密码仍为旧值时生效
+     *
+     * @param id 用户ID
+     * @param oldPassword 旧密码哈希
+     * @param newPassword 新密码哈希
+     * @return 结果
+     */
+    int updateUserPassword(Long id, String oldPassword, String newPassword);
+
     /**
      * 通过用户ID删除用户
      *
@@ -88,4 +121,11 @@ public interface UserService {
      * @return 用户总数
      */
     int countUsers();
-}
\ No newline at end of file
+
+    /**
+     * 合并查询统计：每个键实际执行的加载次数与共享结果、超时的调用次数
+     *
+     * @return 统计信息
+     */
+    Map<String, Object> singleFlightStats();
+}
@@ -1,16 +1,38 @@
 package com.ruoyi.module.user.service.impl;
 
+import com.ruoyi.framework.security.JwtClaimsCache;
+import com.ruoyi.framework.security.PasswordVerificationExecutor;
+import com.ruoyi.framework.security.PermissionDictionary;
+import com.ruoyi.framework.security.RefreshTokenFamilyStore;
+import com.ruoyi.framework.security.TokenRevocationStore;
+import com.ruoyi.framework.utils.JwtClaims;
 import com.ruoyi.framework.utils.JwtUtils;
+import com.ruoyi.module.user.domain.Resource;
 import com.ruoyi.module.user.domain.User;
 import com.ruoyi.module.user.dto.LoginRequest;
 import com.ruoyi.module.user.dto.LoginResponse;
+import com.ruoyi.module.user.dto.TokenIntrospection;
+import com.ruoyi.module.user.mapper.ResourceMapper;
 import com.ruoyi.module.user.service.AuthService;
 import com.ruoyi.module.user.service.UserService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
 /**
  * 认证服务实现类
  * 
@@ -19,6 +41,23 @@ import org.springframework.stereotype.Service;
 @Service
 public class AuthServiceImpl implements AuthService {
 
+    private static final Logger log = LoggerFactory.getLogger(AuthServiceImpl.class);
+
+    /**
+     * 默认角色
+     */
+    private static final String DEFAULT_ROLE = "ROLE_USER";
+
+    /**
+     * 权限位图模式
+     */
+    private static final String AUTHORITIES_MODE_BITMAP = "bitmap";
+
+    /**
+     * 批量校验达到该数量时并行验签
+     */
+    private static final int PARALLEL_INTROSPECTION_THRESHOLD = 64;
+
     @Autowired
     private UserService userService;
 
@@ -28,9 +67,56 @@ public class AuthServiceImpl implements AuthService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private JwtClaimsCache jwtClaimsCache;
+
+    @Autowired
+    private TokenRevocationStore tokenRevocationStore;
+
+    @Autowired
+    private RefreshTokenFamilyStore refreshTokenFamilyStore;
+
+    @Autowired
+    private PermissionDictionary permissionDictionary;
+
+    @Autowired
+    private ResourceMapper resourceMapper;
+
+    @Autowired
+    private PasswordVerificationExecutor passwordVerificationExecutor;
+
     @Value("${jwt.expiration:86400000}")
     private Long jwtExpiration;
 
+    /**
+     * 令牌中权限的编码方式：string 为逗号分隔字符串，bitmap 为资源位图
+     */
+    @Value("${jwt.authorities-mode:string}")
+    private String authoritiesMode;
+
+    /**
+     * 资源字典是否已加载完成，未完成前即使配置为位图模式也按字符串签发令牌
+     */
+    private volatile boolean permissionDictionaryLoaded;
+
+    /**
+     * 启动完成后加载资源字典，位图模式下过滤器据此把位图还原为权限
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadPermissionDictionary() {
+        if (!AUTHORITIES_MODE_BITMAP.equalsIgnoreCase(authoritiesMode)) {
+            return;
+        }
+        try {
+            // 解码遇到未知资源ID或定期刷新时按同一加载器重新加载，各节点最终一致
+            permissionDictionary.setLoader(this::loadResourceCodes);
+            permissionDictionaryLoaded = true;
+        } catch (RuntimeException e) {
+            // 字典为空时位图无法还原为权限，退回字符串模式签发令牌
+            log.error("加载权限字典失败，令牌权限退回字符串模式", e);
+        }
+    }
+
     @Override
     public LoginResponse login(LoginRequest loginRequest) {
         // 1. 验证用户名和密码
@@ -44,27 +130,83 @@ public class AuthServiceImpl implements AuthService {
         if (!passwordEncoder.matches(loginRequest.getPassword(), user.getPassword())) {
             throw new RuntimeException("用户名或密码错误");
         }
+        rehashIfNecessary(user, loginRequest.getPassword());
 
-        // 2. 获取用户权限（这里简化处理，实际应该从数据库查询）
-        String authorities = getUserAuthorities(user);
+        return createLoginResponse(user);
+    }
 
-        // 3. 生成 JWT Token
-        String accessToken = jwtUtils.generateToken(user.getUsername(), user.getId(), authorities);
-        String refreshToken = jwtUtils.generateRefreshToken(user.getUsername());
+    @Override
+    public CompletableFuture<LoginResponse> loginAsync(LoginRequest loginRequest) {
+        // 1. 查询用户仍在请求线程完成，只有密码校验进入校验执行器
+        User user = userService.selectUserByUsername(loginRequest.getUsername());
+        if (user == null) {
+            return CompletableFuture.failedFuture(new RuntimeException("用户名或密码错误"));
+        }
+
+        return passwordVerificationExecutor.submit(() -> {
+            if (!passwordEncoder.matches(loginRequest.getPassword(), user.getPassword())) {
+                throw new RuntimeException("用户名或密码错误");
+            }
+            rehashIfNecessary(user, loginRequest.getPassword());
+            return createLoginResponse(user);
+        });
+    }
+
+    /**
+     * 密码哈希强度与当前强度不一致时，在后台通道中按当前强度重新编码
+     * 
+     * @param user 已通过密码校验的用户
+     * @param rawPassword 明文密码
+     */
+    private void rehashIfNecessary(User user, String rawPassword) {
+        String oldPassword = user.getPassword();
+        if (!passwordEncoder.upgradeEncoding(oldPassword)) {
+            return;
+        }
+        passwordVerificationExecutor.executeBackground(() -> {
+            String newPassword = passwordEncoder.encode(rawPassword);
+            // 期间密码被修改时不覆盖
+            userService.updateUserPassword(user.getId(), oldPassword, newPassword);
+        });
+    }
+
+    /**
+     * 为已通过密码校验的用户签发令牌
+     * 
+     * @param user 用户
+     * @return 登录响应
+     */
+    private LoginResponse createLoginResponse(User user) {
+        // 2. 获取用户权限
+        TokenAuthorities authorities = getUserAuthorities(user);
+
+        // 3. 创建刷新令牌族并生成 JWT Token
+        RefreshTokenFamilyStore.Family family = refreshTokenFamilyStore.create(user.getId(), user.getUsername(),
+                authorities.authorities, authorities.permissions);
+        String accessToken = jwtUtils.generateToken(user.getUsername(), user.getId(), authorities.authorities,
+                authorities.permissions, family.getFamilyId());
+        String refreshToken = jwtUtils.generateRefreshToken(user.getUsername(), family.getFamilyId(),
+                family.getCurrentTokenId());
 
         // 4. 计算过期时间（秒）
         Long expiresIn = jwtExpiration / 1000;
 
         // 5. 构建响应
-        return new LoginResponse(accessToken, refreshToken, expiresIn, 
-                               user.getId(), user.getUsername(), authorities);
+        return new LoginResponse(accessToken, refreshToken, expiresIn,
+                               user.getId(), user.getUsername(), authorities.authorities);
     }
 
     @Override
     public boolean logout(String token) {
-        // 这里可以实现 Token 黑名单机制
-        // 由于 JWT 是无状态的，简单的做法是在客户端删除 Token
-        // 复杂的做法是维护一个 Token 黑名单
+        JwtClaims claims = jwtClaimsCache.getClaims(token);
+        if (claims == null) {
+            return false;
+        }
+        // 吊销至令牌自然过期，之后记录随分桶一起丢弃
+        tokenRevocationStore.revoke(claims.getTokenId(), claims.getExpiration());
+        jwtClaimsCache.invalidate(token);
+        // 同时吊销本次登录的刷新令牌族
+        refreshTokenFamilyStore.revokeFamily(claims.getFamilyId());
         return true;
     }
 
@@ -72,31 +214,45 @@ public class AuthServiceImpl implements AuthService {
     public LoginResponse refreshToken(String refreshToken) {
         try {
             // 验证刷新令牌
-            if (!jwtUtils.validateToken(refreshToken)) {
+            JwtClaims claims = jwtUtils.parseToken(refreshToken);
+            if (claims == null || !claims.isRefreshToken() || claims.getFamilyId() == null) {
                 throw new RuntimeException("刷新令牌无效");
             }
 
-            // 从刷新令牌中获取用户名
-            String username = jwtUtils.getUsernameFromToken(refreshToken);
-            
-            // 获取用户信息
-            User user = userService.selectUserByUsername(username);
-            if (user == null) {
-                throw new RuntimeException("用户不存在");
+            // 轮换令牌族：旧令牌被重放时整族吊销
+            RefreshTokenFamilyStore.Family family =
+                    refreshTokenFamilyStore.rotate(claims.getFamilyId(), claims.getTokenId());
+            if (family == null) {
+                throw new RuntimeException("刷新令牌已失效，请重新登录");
             }
 
-            // 获取用户权限
-            String authorities = "";
+            // 用户资料或权限变化后才重新查询数据库
+            long version = refreshTokenFamilyStore.currentAuthoritiesVersion(family.getUserId());
+            if (family.getAuthoritiesVersion() != version) {
+                User user = userService.selectUserById(family.getUserId());
+                if (user == null) {
+                    refreshTokenFamilyStore.revokeFamily(family.getFamilyId());
+                    throw new RuntimeException("用户不存在");
+                }
+                TokenAuthorities authorities = getUserAuthorities(user);
+                family = refreshTokenFamilyStore.updateAuthorities(family.getFamilyId(),
+                        user.getUsername(), authorities.authorities, authorities.permissions, version);
+                if (family == null) {
+                    throw new RuntimeException("刷新令牌已失效，请重新登录");
+                }
+            }
 
-            // 生成新的访问令牌
-            String newAccessToken = jwtUtils.generateToken(user.getUsername(), user.getId(), authorities);
-            String newRefreshToken = jwtUtils.generateRefreshToken(user.getUsername());
+            // 生成新的访问令牌与刷新令牌
+            String newAccessToken = jwtUtils.generateToken(family.getUsername(), family.getUserId(),
+                    family.getAuthorities(), family.getPermissions(), family.getFamilyId());
+            String newRefreshToken = jwtUtils.generateRefreshToken(family.getUsername(), family.getFamilyId(),
+                    family.getCurrentTokenId());
 
             // 计算过期时间
             Long expiresIn = jwtExpiration / 1000;
 
             return new LoginResponse(newAccessToken, newRefreshToken, expiresIn,
-                                   user.getId(), user.getUsername(), authorities);
+                                   family.getUserId(), family.getUsername(), family.getAuthorities());
 
         } catch (Exception e) {
             throw new RuntimeException("刷新令牌失败: " + e.getMessage());
@@ -105,17 +261,117 @@ public class AuthServiceImpl implements AuthService {
 
     @Override
     public boolean validateToken(String token) {
-        return jwtUtils.validateToken(token);
+        JwtClaims claims = jwtClaimsCache.getClaims(token);
+        return claims != null && !tokenRevocationStore.isRevoked(claims);
+    }
+
+    @Override
+    public List<TokenIntrospection> introspectTokens(List<String> tokens) {
+        TokenIntrospection[] results = new TokenIntrospection[tokens.size()];
+        long now = System.currentTimeMillis();
+        IntStream indexes = IntStream.range(0, results.length);
+        if (results.length >= PARALLEL_INTROSPECTION_THRESHOLD) {
+            // 验签是纯 CPU 计算，少量令牌串行更快
+            indexes = indexes.parallel();
+        }
+        indexes.forEach(i -> results[i] = introspectToken(tokens.get(i), now));
+        return Arrays.asList(results);
+    }
+
+    /**
+     * 校验单个令牌，与认证过滤器共享声明缓存与权限解析结果
+     */
+    private TokenIntrospection introspectToken(String token, long now) {
+        if (token == null || token.isEmpty()) {
+            return TokenIntrospection.INVALID;
+        }
+        JwtClaims claims = jwtClaimsCache.getClaims(token);
+        if (claims == null || claims.isRefreshToken() || tokenRevocationStore.isRevoked(claims)) {
+            return TokenIntrospection.INVALID;
+        }
+        List<GrantedAuthority> grantedAuthorities =
+                permissionDictionary.resolve(claims.getAuthorities(), claims.getPermissions());
+        List<String> authorities = new ArrayList<>(grantedAuthorities.size());
+        for (GrantedAuthority authority : grantedAuthorities) {
+            authorities.add(authority.getAuthority());
+        }
+        return new TokenIntrospection(true, claims.getUserId(), claims.getUsername(), authorities,
+                Math.max(0L, (claims.getExpiration() - now) / 1000));
     }
 
     /**
      * 获取用户权限
-     * 这里简化处理，实际应该从数据库查询用户的角色和权限
+     * 默认角色加上用户拥有的资源编码；位图模式下资源编码以位图形式单独返回
      * 
      * @param user 用户
-     * @return 权限字符串
+     * @return 令牌权限
      */
-    private String getUserAuthorities(User user) {
-        return "ROLE_USER";
+    private TokenAuthorities getUserAuthorities(User user) {
+        List<Resource> resources = resourceMapper.selectResourcesByUserId(user.getId());
+        StringBuilder authorities = new StringBuilder(DEFAULT_ROLE);
+        if (!isBitmapMode()) {
+            for (Resource resource : resources) {
+                authorities.append(',').append(resource.getCode());
+            }
+            return new TokenAuthorities(authorities.toString(), null);
+        }
+
+        List<Long> resourceIds = new ArrayList<>(resources.size());
+        for (Resource resource : resources) {
+            if (permissionDictionary.supports(resource.getResourceId())) {
+                permissionDictionary.register(resource.getResourceId(), resource.getCode());
+                resourceIds.add(resource.getResourceId());
+            } else {
+                // 无法编码的资源仍以字符串形式携带
+                authorities.append(',').append(resource.getCode());
+            }
+        }
+        String permissions = permissionDictionary.encode(resourceIds);
+        if (permissions == null && !resourceIds.isEmpty()) {
+            // 编码超过长度上限，全部退回字符串形式
+            for (Resource resource : resources) {
+                if (permissionDictionary.supports(resource.getResourceId())) {
+                    authorities.append(',').append(resource.getCode());
+                }
+            }
+        }
+        return new TokenAuthorities(authorities.toString(), permissions);
+    }
+
+    /**
+     * 加载全部资源ID与编码，供权限字典全量重新加载
+     */
+    private Map<Long, String> loadResourceCodes() {
+        List<Resource> resources = resourceMapper.selectResourceList(new Resource());
+        Map<Long, String> codes = new HashMap<>(resources.size() * 2);
+        for (Resource resource : resources) {
+            codes.put(resource.getResourceId(), resource.getCode());
+        }
+        return codes;
+    }
+
+    private boolean isBitmapMode() {
+        return permissionDictionaryLoaded && AUTHORITIES_MODE_BITMAP.equalsIgnoreCase(authoritiesMode);
+    }
+
+    /**
+     * 写入令牌的权限
+     */
+    private static final class TokenAuthorities {
+
+        /**
+         * 逗号分隔的权限字符串
+         */
+        private final String authorities;
+
+        /**
+         * 权限位图，字符串模式下为 null
+         */
+        private final String permissions;
+
+        private TokenAuthorities(String authorities, String permissions) {
+            this.authorities = authorities;
+            this.permissions = permissions;
+        }
     }
 }
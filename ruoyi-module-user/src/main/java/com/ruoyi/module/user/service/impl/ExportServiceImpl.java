@@ -0,0 +1,211 @@
+package com.ruoyi.module.user.service.impl;
+
+import com.ruoyi.framework.utils.ExportWriter;
+import com.ruoyi.module.user.domain.User;
+import com.ruoyi.module.user.domain.UserResource;
+import com.ruoyi.module.user.mapper.UserMapper;
+import com.ruoyi.module.user.mapper.UserResourceMapper;
+import com.ruoyi.module.user.service.ExportService;
+import org.apache.ibatis.cursor.Cursor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 数据导出服务实现类
+ * 游标只在打开它的 SqlSession 内有效，因此读取与写出都在异步写出线程的只读事务中完成，
+ * 数据库连接从开始写出占用到写完为止。为避免慢速客户端长期占用连接：
+ * 同时进行的导出数有上限；每行写出前检查最长导出时间，超时即关闭游标、归还连接并中断响应，
+ * 客户端可按已收到的最后一个ID通过 afterId 续传；事务超时同时作为语句超时，兜底写出阻塞的情况
+ *
+ * @author ruoyi
+ */
+@Service
+public class ExportServiceImpl implements ExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ExportServiceImpl.class);
+
+    /**
+     * 导出名额状态：未开始写出、写出中、已结束（名额已释放）
+     */
+    private static final int PERMIT_PENDING = 0;
+
+    private static final int PERMIT_RUNNING = 1;
+
+    private static final int PERMIT_RELEASED = 2;
+
+    @Autowired
+    private UserMapper userMapper;
+
+    @Autowired
+    private UserResourceMapper userResourceMapper;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final Semaphore permits;
+
+    private final int maxConcurrent;
+
+    private final long maxDurationNanos;
+
+    private final int flushRows;
+
+    private final long flushIntervalMillis;
+
+    private final LongAdder started = new LongAdder();
+
+    private final LongAdder rejected = new LongAdder();
+
+    private final LongAdder completed = new LongAdder();
+
+    private final LongAdder aborted = new LongAdder();
+
+    private final LongAdder exportedRows = new LongAdder();
+
+    public ExportServiceImpl(PlatformTransactionManager transactionManager,
+                             @Value("${export.max-concurrent:2}") int maxConcurrent,
+                             @Value("${export.max-duration-seconds:600}") int maxDurationSeconds,
+                             @Value("${export.flush-rows:1000}") int flushRows,
+                             @Value("${export.flush-interval-millis:1000}") long flushIntervalMillis) {
+        this.maxConcurrent = Math.max(1, maxConcurrent);
+        this.permits = new Semaphore(this.maxConcurrent);
+        this.maxDurationNanos = TimeUnit.SECONDS.toNanos(Math.max(1, maxDurationSeconds));
+        this.flushRows = flushRows;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        // 稍长于最长导出时间，写出阻塞时由数据库驱动终止语句
+        readOnlyTransaction.setTimeout(Math.max(1, maxDurationSeconds) + 30);
+    }
+
+    @Override
+    public StreamingResponseBody exportUsers(ExportWriter.Format format, boolean gzip, Long afterId) {
+        ExportWriter<User> writer = new ExportWriter<User>(format, flushRows, flushIntervalMillis)
+                .column("id", User::getId)
+                .column("username", User::getUsername)
+                .column("age", User::getAge);
+        return export("user", writer, gzip, () -> userMapper.selectUserCursor(afterId), User::getId);
+    }
+
+    @Override
+    public StreamingResponseBody exportUserResources(ExportWriter.Format format, boolean gzip, Long afterId) {
+        ExportWriter<UserResource> writer = new ExportWriter<UserResource>(format, flushRows, flushIntervalMillis)
+                .column("id", UserResource::getId)
+                .column("userId", UserResource::getUserId)
+                .column("resourceId", UserResource::getResourceId);
+        return export("user_resource", writer, gzip,
+                () -> userResourceMapper.selectUserResourceCursor(afterId), UserResource::getId);
+    }
+
+    /**
+     * 在请求线程上占用一个导出名额（满员时调用方返回 429）并返回写出逻辑。
+     * 名额在写出结束（含失败）时释放；写出逻辑始终没有开始（异步任务被拒绝、请求超时或连接断开）时，
+     * 由异步请求结束回调释放，已开始写出的名额只由写出逻辑自己释放
+     */
+    private <T> StreamingResponseBody export(String table, ExportWriter<T> writer, boolean gzip,
+                                             Supplier<Cursor<T>> query, Function<T, Long> idOf) {
+        if (!permits.tryAcquire()) {
+            rejected.increment();
+            return null;
+        }
+        started.increment();
+        AtomicInteger permit = new AtomicInteger(PERMIT_PENDING);
+        releaseIfNeverStarted(permit);
+        return out -> {
+            if (!permit.compareAndSet(PERMIT_PENDING, PERMIT_RUNNING)) {
+                // 请求已结束，名额已由回调释放
+                aborted.increment();
+                return;
+            }
+            long start = System.nanoTime();
+            long deadline = start + maxDurationNanos;
+            try {
+                readOnlyTransaction.executeWithoutResult(status -> {
+                    try (Cursor<T> cursor = query.get()) {
+                        writer.open(out, gzip);
+                        Long lastId = null;
+                        for (T row : cursor) {
+                            if (System.nanoTime() - deadline > 0) {
+                                throw new IOException("导出超过最长时间，已写出 " + writer.getRows()
+                                        + " 行，可使用 afterId=" + lastId + " 续传");
+                            }
+                            writer.write(row);
+                            lastId = idOf.apply(row);
+                        }
+                        writer.close();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                completed.increment();
+                log.info("导出 {} 完成，{} 行，耗时 {}ms", table, writer.getRows(),
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            } catch (RuntimeException e) {
+                // 响应已提交，抛出异常使连接被中断，客户端不会把不完整的文件当作完整结果
+                aborted.increment();
+                log.warn("导出 {} 中断，已写出 {} 行: {}", table, writer.getRows(), e.getMessage());
+                throw e;
+            } finally {
+                exportedRows.add(writer.getRows());
+                permit.set(PERMIT_RELEASED);
+                permits.release();
+            }
+        };
+    }
+
+    /**
+     * 注册异步请求结束回调：写出逻辑尚未开始时释放名额
+     */
+    private void releaseIfNeverStarted(AtomicInteger permit) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes servletAttributes)) {
+            return;
+        }
+        WebAsyncUtils.getAsyncManager(servletAttributes.getRequest()).registerCallableInterceptor(
+                ExportServiceImpl.class.getName(), new CallableProcessingInterceptor() {
+                    @Override
+                    public <R> void afterCompletion(NativeWebRequest request, Callable<R> task) {
+                        if (permit.compareAndSet(PERMIT_PENDING, PERMIT_RELEASED)) {
+                            aborted.increment();
+                            permits.release();
+                        }
+                    }
+                });
+    }
+
+    @Override
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("maxConcurrent", maxConcurrent);
+        stats.put("active", maxConcurrent - permits.availablePermits());
+        stats.put("startedCount", started.sum());
+        stats.put("rejectedCount", rejected.sum());
+        stats.put("completedCount", completed.sum());
+        stats.put("abortedCount", aborted.sum());
+        stats.put("exportedRows", exportedRows.sum());
+        return stats;
+    }
+}
@@ -0,0 +1,241 @@
+package com.ruoyi.module.user.service.impl;
+
+import com.ruoyi.framework.concurrent.SingleFlight;
+import com.ruoyi.framework.security.PermissionDictionary;
+import com.ruoyi.framework.security.RefreshTokenFamilyStore;
+import com.ruoyi.framework.utils.PageCursor;
+import com.ruoyi.framework.utils.PageParam;
+import com.ruoyi.framework.utils.PageResult;
+import com.ruoyi.module.user.domain.Resource;
+import com.ruoyi.module.user.mapper.ResourceMapper;
+import com.ruoyi.module.user.service.ResourceService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 资源服务实现类
+ *
+ * @author ruoyi
+ */
+@Service
+public class ResourceServiceImpl implements ResourceService {
+
+    @Autowired
+    private ResourceMapper resourceMapper;
+
+    @Autowired
+    private RefreshTokenFamilyStore refreshTokenFamilyStore;
+
+    @Autowired
+    private PermissionDictionary permissionDictionary;
+
+    /**
+     * 合并同一资源的并发查询
+     */
+    private final SingleFlight<Long, Resource> resourceByIdFlight;
+
+    private final SingleFlight<String, Resource> resourceByCodeFlight;
+
+    public ResourceServiceImpl(@Value("${user.single-flight.timeout-millis:5000}") long timeoutMillis) {
+        this.resourceByIdFlight = new SingleFlight<>(timeoutMillis);
+        this.resourceByCodeFlight = new SingleFlight<>(timeoutMillis);
+    }
+
+    /**
+     * 查询资源列表
+     *
+     * @param resource 资源信息
+     * @return 资源信息集合
+     */
+    @Override
+    public List<Resource> selectResourceList(Resource resource) {
+        return resourceMapper.selectResourceList(resource);
+    }
+
+    /**
+     * 分页查询资源列表
+     *
+     * @param resource 查询条件
+     * @param pageParam 分页参数
+     * @return 分页结果
+     */
+    @Override
+    public PageResult<Resource> selectResourcePage(Resource resource, PageParam pageParam) {
+        Long lastId = PageCursor.decode(pageParam.getCursor());
+        Integer offset = null;
+        if (lastId == null) {
+            offset = pageParam.getOffset();
+            if (offset > PageParam.MAX_OFFSET) {
+                throw new IllegalArgumentException("页码过大，请使用 nextCursor 继续翻页");
+            }
+        }
+        int pageSize = pageParam.getPageSize();
+        // 多取一行判断是否还有下一页
+        List<Resource> rows = resourceMapper.selectResourcePage(resource, lastId, offset, pageSize + 1);
+        Long total = pageParam.shouldCount() ? resourceMapper.countResourceList(resource) : null;
+        return PageCursor.page(rows, pageSize, total, Resource::getResourceId);
+    }
+
+    /**
+     * 通过资源ID查询资源
+     *
+     * @param resourceId 资源ID
+     * @return 资源对象信息
+     */
+    @Override
+    public Resource selectResourceById(Long resourceId) {
+        if (resourceId == null) {
+            return null;
+        }
+        return copy(resourceByIdFlight.execute(resourceId, () -> resourceMapper.selectResourceById(resourceId)));
+    }
+
+    /**
+     * 通过资源编码查询资源
+     *
+     * @param code 资源编码
+     * @return 资源对象信息
+     */
+    @Override
+    public Resource selectResourceByCode(String code) {
+        if (code == null) {
+            return null;
+        }
+        return copy(resourceByCodeFlight.execute(code, () -> resourceMapper.selectResourceByCode(code)));
+    }
+
+    /**
+     * 校验资源编码是否唯一
+     *
+     * @param code 资源编码
+     * @return 结果
+     */
+    @Override
+    public boolean checkCodeUnique(String code) {
+        return resourceMapper.checkCodeUnique(code) == null;
+    }
+
+    /**
+     * 新增资源信息
+     *
+     * @param resource 资源信息
+     * @return 结果
+     */
+    @Override
+    public int insertResource(Resource resource) {
+        int rows = resourceMapper.insertResource(resource);
+        resourceByCodeFlight.forget(resource.getCode());
+        if (rows > 0) {
+            permissionDictionary.register(resource.getResourceId(), resource.getCode());
+        }
+        return rows;
+    }
+
+    /**
+     * 修改资源信息
+     *
+     * @param resource 资源信息
+     * @return 结果
+     */
+    @Override
+    public int updateResource(Resource resource) {
+        int rows = resourceMapper.updateResource(resource);
+        forget(resource.getResourceId());
+        if (rows > 0) {
+            permissionDictionary.register(resource.getResourceId(), resource.getCode());
+            // 资源编码即权限名，持有该资源的用户下次刷新时按新编码签发
+            refreshTokenFamilyStore.bumpAllAuthoritiesVersions();
+        }
+        return rows;
+    }
+
+    /**
+     * 通过资源ID删除资源
+     *
+     * @param resourceId 资源ID
+     * @return 结果
+     */
+    @Override
+    public int deleteResourceById(Long resourceId) {
+        int rows = resourceMapper.deleteResourceById(resourceId);
+        forget(resourceId);
+        permissionDictionary.unregister(resourceId);
+        if (rows > 0) {
+            refreshTokenFamilyStore.bumpAllAuthoritiesVersions();
+        }
+        return rows;
+    }
+
+    /**
+     * 批量删除资源信息
+     *
+     * @param resourceIds 需要删除的资源ID
+     * @return 结果
+     */
+    @Override
+    public int deleteResourceByIds(Long[] resourceIds) {
+        int rows = resourceMapper.deleteResourceByIds(resourceIds);
+        for (Long resourceId : resourceIds) {
+            forget(resourceId);
+            permissionDictionary.unregister(resourceId);
+        }
+        if (rows > 0) {
+            refreshTokenFamilyStore.bumpAllAuthoritiesVersions();
+        }
+        return rows;
+    }
+
+    /**
+     * 统计资源总数
+     *
+     * @return 资源总数
+     */
+    @Override
+    public int countResources() {
+        return resourceMapper.countResources();
+    }
+
+    /**
+     * 根据用户ID查询用户拥有的资源
+     *
+     * @param userId 用户ID
+     * @return 资源列表
+     */
+    @Override
+    public List<Resource> selectResourcesByUserId(Long userId) {
+        return resourceMapper.selectResourcesByUserId(userId);
+    }
+
+    /**
+     * 合并查询统计
+     *
+     * @return 统计信息
+     */
+    @Override
+    public Map<String, Object> singleFlightStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("resourceById", resourceByIdFlight.stats());
+        stats.put("resourceByCode", resourceByCodeFlight.stats());
+        return stats;
+    }
+
+    /**
+     * 写入后之后的查询不再加入写入前开始的加载；按编码的加载不知道对应哪个资源，全部放弃
+     */
+    private void forget(Long resourceId) {
+        resourceByIdFlight.forget(resourceId);
+        resourceByCodeFlight.forgetAll();
+    }
+
+    /**
+     * 合并查询的调用方共享同一个结果对象，各自返回副本，修改互不影响
+     */
+    private static Resource copy(Resource resource) {
+        return resource == null ? null : new Resource(resource.getResourceId(), resource.getCode());
+    }
+}
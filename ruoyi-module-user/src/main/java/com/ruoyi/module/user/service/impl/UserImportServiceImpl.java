@@ -0,0 +1,307 @@
+package com.ruoyi.module.user.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.ruoyi.module.user.cache.UsernameFilter;
+import com.ruoyi.module.user.cache.UsernameKeys;
+import com.ruoyi.module.user.domain.User;
+import com.ruoyi.module.user.dto.UserImportResult;
+import com.ruoyi.module.user.mapper.UserMapper;
+import com.ruoyi.module.user.service.UserImportService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 用户批量导入服务实现类
+ * 按行解析 NDJSON，每 chunkSize 行为一块依次处理：块内去重，经布隆过滤器筛选后用 IN 查询与数据库去重，
+ * 在有界的 ForkJoinPool 中并行计算密码哈希，最后在一个事务中用多值 insert 分批写入。
+ * 整块写入失败（例如并发导入了相同用户名）时逐行重试，只有出错的行记为失败。
+ * 块与块之间顺序执行，内存占用只与块大小有关
+ *
+ * @author ruoyi
+ */
+@Service
+public class UserImportServiceImpl implements UserImportService, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(UserImportServiceImpl.class);
+
+    /**
+     * 完整的 BCrypt 哈希格式：版本、两位强度、22 位盐与 31 位摘要
+     */
+    private static final Pattern BCRYPT_PATTERN = Pattern.compile("\\$2[aby]?\\$(\\d\\d)\\$[./0-9A-Za-z]{53}");
+
+    @Autowired
+    private UserMapper userMapper;
+
+    @Autowired
+    private UsernameFilter usernameFilter;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private final ObjectReader userReader;
+
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * 密码哈希线程池，线程数有上限，不会占满登录校验所需的核心
+     */
+    private final ForkJoinPool hashPool;
+
+    private final int chunkSize;
+
+    private final int batchSize;
+
+    private final int maxErrors;
+
+    /**
+     * 是否把已是 BCrypt 哈希的密码原样保存，默认关闭，所有密码都重新哈希
+     */
+    private final boolean acceptBcryptHashes;
+
+    /**
+     * 原样保存的 BCrypt 哈希的最低强度
+     */
+    private final int minBcryptCost;
+
+    private final LongAdder imports = new LongAdder();
+
+    private final LongAdder importedRows = new LongAdder();
+
+    private final LongAdder failedRows = new LongAdder();
+
+    private final LongAdder chunkRetries = new LongAdder();
+
+    public UserImportServiceImpl(ObjectMapper objectMapper, PlatformTransactionManager transactionManager,
+                                 @Value("${user.import.hash-threads:0}") int hashThreads,
+                                 @Value("${user.import.chunk-size:2000}") int chunkSize,
+                                 @Value("${user.import.batch-size:500}") int batchSize,
+                                 @Value("${user.import.max-errors:1000}") int maxErrors,
+                                 @Value("${user.import.accept-bcrypt-hashes:false}") boolean acceptBcryptHashes,
+                                 @Value("${user.import.min-bcrypt-cost:${login.bcrypt.min-strength:10}}") int minBcryptCost) {
+        this.userReader = objectMapper.readerFor(User.class);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        int parallelism = hashThreads > 0 ? hashThreads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        this.hashPool = new ForkJoinPool(parallelism, pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("user-import-hash-" + thread.getPoolIndex());
+            thread.setDaemon(true);
+            return thread;
+        }, null, false);
+        this.chunkSize = Math.max(1, chunkSize);
+        this.batchSize = Math.max(1, batchSize);
+        this.maxErrors = Math.max(0, maxErrors);
+        this.acceptBcryptHashes = acceptBcryptHashes;
+        this.minBcryptCost = minBcryptCost;
+    }
+
+    @Override
+    public UserImportResult importUsers(InputStream in) throws IOException {
+        long start = System.nanoTime();
+        imports.increment();
+        UserImportResult result = new UserImportResult(maxErrors);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 64 * 1024);
+        List<Row> chunk = new ArrayList<>(chunkSize);
+        long lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            result.addTotal(1);
+            User user;
+            try {
+                user = userReader.readValue(line);
+            } catch (JsonProcessingException e) {
+                result.fail(lineNumber, null, "格式错误: " + e.getOriginalMessage());
+                continue;
+            }
+            String error = validate(user);
+            if (error != null) {
+                result.fail(lineNumber, user.getUsername(), error);
+                continue;
+            }
+            chunk.add(new Row(lineNumber, user));
+            if (chunk.size() >= chunkSize) {
+                importChunk(chunk, result);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            importChunk(chunk, result);
+        }
+
+        result.finish(System.nanoTime() - start);
+        importedRows.add(result.getImported());
+        failedRows.add(result.getFailed());
+        log.info("用户导入完成，共 {} 行，成功 {} 行，失败 {} 行，耗时 {}ms，{} 行/秒", result.getTotal(),
+                result.getImported(), result.getFailed(), result.getElapsedMillis(),
+                String.format("%.1f", result.getRowsPerSecond()));
+        return result;
+    }
+
+    /**
+     * 校验并规整一行数据
+     *
+     * @return 错误信息，通过时返回 null
+     */
+    private String validate(User user) {
+        user.setId(null);
+        String username = user.getUsername() == null ? null : user.getUsername().trim();
+        if (username == null || username.isEmpty()) {
+            return "用户名不能为空";
+        }
+        user.setUsername(username);
+        if (user.getPassword() == null || user.getPassword().isEmpty()) {
+            return "密码不能为空";
+        }
+        int cost = bcryptCostOf(user.getPassword());
+        if (cost >= 0 && cost < minBcryptCost) {
+            return "密码哈希强度不能低于" + minBcryptCost;
+        }
+        if (user.getAge() != null && (user.getAge() < 0 || user.getAge() > 150)) {
+            return "年龄必须在0到150之间";
+        }
+        return null;
+    }
+
+    private void importChunk(List<Row> chunk, UserImportResult result) {
+        // 1. 块内去重（与数据库默认排序规则一致，忽略大小写与末尾空格）
+        Map<String, Row> unique = new LinkedHashMap<>();
+        for (Row row : chunk) {
+            if (unique.putIfAbsent(key(row.user.getUsername()), row) != null) {
+                result.fail(row.line, row.user.getUsername(), "用户名在导入数据中重复");
+            }
+        }
+
+        // 2. 与数据库去重：布隆过滤器判定一定不存在的用户名不查询
+        List<String> candidates = new ArrayList<>();
+        for (Row row : unique.values()) {
+            if (usernameFilter.mightExist(row.user.getUsername())) {
+                candidates.add(row.user.getUsername());
+            }
+        }
+        for (int from = 0; from < candidates.size(); from += batchSize) {
+            List<String> batch = candidates.subList(from, Math.min(from + batchSize, candidates.size()));
+            for (String existing : userMapper.selectExistingUsernames(batch)) {
+                Row row = unique.remove(key(existing));
+                if (row != null) {
+                    result.fail(row.line, row.user.getUsername(), "用户名已存在");
+                }
+            }
+        }
+        if (unique.isEmpty()) {
+            return;
+        }
+
+        // 3. 并行计算密码哈希；开启 accept-bcrypt-hashes 时，格式完整的 BCrypt 哈希原样保存（强度已在校验时检查）
+        List<Row> rows = new ArrayList<>(unique.values());
+        hashPool.submit(() -> rows.parallelStream().forEach(row -> {
+            String password = row.user.getPassword();
+            if (bcryptCostOf(password) < 0) {
+                row.user.setPassword(passwordEncoder.encode(password));
+            }
+        })).join();
+
+        // 4. 先写入过滤器再写库，避免提交后短暂地误判为不存在
+        List<User> users = new ArrayList<>(rows.size());
+        for (Row row : rows) {
+            usernameFilter.put(row.user.getUsername());
+            users.add(row.user);
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (int from = 0; from < users.size(); from += batchSize) {
+                    userMapper.batchInsertUsers(users.subList(from, Math.min(from + batchSize, users.size())));
+                }
+            });
+            result.addImported(users.size());
+        } catch (DataAccessException e) {
+            // 整块回滚后逐行写入，定位出错的行
+            chunkRetries.increment();
+            log.warn("用户导入块写入失败，逐行重试: {}", e.getMostSpecificCause().getMessage());
+            for (Row row : rows) {
+                try {
+                    userMapper.batchInsertUsers(Collections.singletonList(row.user));
+                    result.addImported(1);
+                } catch (DataAccessException rowError) {
+                    result.fail(row.line, row.user.getUsername(), rowError.getMostSpecificCause().getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * 开启 accept-bcrypt-hashes 时读取可原样保存的 BCrypt 哈希的强度
+     *
+     * @return 强度，未开启或不是完整的 BCrypt 哈希时返回 -1，按明文处理
+     */
+    private int bcryptCostOf(String password) {
+        if (!acceptBcryptHashes) {
+            return -1;
+        }
+        Matcher matcher = BCRYPT_PATTERN.matcher(password);
+        return matcher.matches() ? Integer.parseInt(matcher.group(1)) : -1;
+    }
+
+    private static String key(String username) {
+        return UsernameKeys.key(username);
+    }
+
+    @Override
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("hashThreads", hashPool.getParallelism());
+        stats.put("importCount", imports.sum());
+        stats.put("importedRows", importedRows.sum());
+        stats.put("failedRows", failedRows.sum());
+        stats.put("chunkRetries", chunkRetries.sum());
+        return stats;
+    }
+
+    @Override
+    public void destroy() {
+        hashPool.shutdownNow();
+    }
+
+    /**
+     * 待导入的一行
+     */
+    private static final class Row {
+
+        private final long line;
+
+        private final User user;
+
+        private Row(long line, User user) {
+            this.line = line;
+            this.user = user;
+        }
+    }
+}
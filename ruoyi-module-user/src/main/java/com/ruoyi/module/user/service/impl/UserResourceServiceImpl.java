@@ -0,0 +1,406 @@
+package com.ruoyi.module.user.service.impl;
+
+import com.ruoyi.framework.security.RefreshTokenFamilyStore;
+import com.ruoyi.framework.utils.PageCursor;
+import com.ruoyi.framework.utils.PageParam;
+import com.ruoyi.framework.utils.PageResult;
+import com.ruoyi.module.user.cache.UserResourceIndex;
+import com.ruoyi.module.user.domain.UserResource;
+import com.ruoyi.module.user.mapper.UserResourceMapper;
+import com.ruoyi.module.user.service.UserResourceService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 用户资源关联服务实现类
+ * 权限判断与计数由 {@link UserResourceIndex} 在内存中回答，索引不可用时查询数据库。
+ * 写入串行执行并在数据库写入成功后更新索引，保证索引中的修改顺序与数据库一致；
+ * 同时递增受影响用户的权限版本，令牌族下次刷新时按新权限签发，不会一直沿用旧权限
+ *
+ * @author ruoyi
+ */
+@Service
+public class UserResourceServiceImpl implements UserResourceService {
+
+    /**
+     * 分配资源时每条 insert / delete 语句的最大关联数
+     */
+    private static final int BATCH_SIZE = 500;
+
+    @Autowired
+    private UserResourceMapper userResourceMapper;
+
+    @Autowired
+    private UserResourceIndex userResourceIndex;
+
+    @Autowired
+    private RefreshTokenFamilyStore refreshTokenFamilyStore;
+
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * 串行化关联写入，避免并发的新增与删除在数据库和索引中以不同顺序生效
+     */
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    public UserResourceServiceImpl(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * 查询用户资源关联列表
+     *
+     * @param userResource 用户资源关联信息
+     * @return 用户资源关联集合
+     */
+    @Override
+    public List<UserResource> selectUserResourceList(UserResource userResource) {
+        return userResourceMapper.selectUserResourceList(userResource);
+    }
+
+    /**
+     * 分页查询用户资源关联列表
+     *
+     * @param userResource 查询条件
+     * @param pageParam 分页参数
+     * @return 分页结果
+     */
+    @Override
+    public PageResult<UserResource> selectUserResourcePage(UserResource userResource, PageParam pageParam) {
+        Long lastId = PageCursor.decode(pageParam.getCursor());
+        Integer offset = null;
+        if (lastId == null) {
+            offset = pageParam.getOffset();
+            if (offset > PageParam.MAX_OFFSET) {
+                throw new IllegalArgumentException("页码过大，请使用 nextCursor 继续翻页");
+            }
+        }
+        int pageSize = pageParam.getPageSize();
+        // 多取一行判断是否还有下一页
+        List<UserResource> rows = userResourceMapper.selectUserResourcePage(userResource, lastId, offset, pageSize + 1);
+        Long total = pageParam.shouldCount() ? userResourceMapper.countUserResourceList(userResource) : null;
+        return PageCursor.page(rows, pageSize, total, UserResource::getId);
+    }
+
+    /**
+     * 通过ID查询用户资源关联
+     *
+     * @param id 主键ID
+     * @return 用户资源关联对象
+     */
+    @Override
+    public UserResource selectUserResourceById(Long id) {
+        return userResourceMapper.selectUserResourceById(id);
+    }
+
+    /**
+     * 根据用户ID查询用户资源关联
+     *
+     * @param userId 用户ID
+     * @return 用户资源关联列表
+     */
+    @Override
+    public List<UserResource> selectUserResourceByUserId(Long userId) {
+        return userResourceMapper.selectUserResourceByUserId(userId);
+    }
+
+    /**
+     * 根据资源ID查询用户资源关联
+     *
+     * @param resourceId 资源ID
+     * @return 用户资源关联列表
+     */
+    @Override
+    public List<UserResource> selectUserResourceByResourceId(Long resourceId) {
+        return userResourceMapper.selectUserResourceByResourceId(resourceId);
+    }
+
+    /**
+     * 查询用户是否拥有指定资源
+     *
+     * @param userId 用户ID
+     * @param resourceId 资源ID
+     * @return 是否拥有
+     */
+    @Override
+    public boolean hasResource(Long userId, Long resourceId) {
+        Boolean indexed = userResourceIndex.hasResource(userId, resourceId);
+        if (indexed != null) {
+            return indexed;
+        }
+        return userResourceMapper.selectUserResourceByUserIdAndResourceId(userId, resourceId) != null;
+    }
+
+    /**
+     * 新增用户资源关联
+     *
+     * @param userResource 用户资源关联信息
+     * @return 结果
+     */
+    @Override
+    public int insertUserResource(UserResource userResource) {
+        writeLock.lock();
+        try {
+            int rows = userResourceMapper.insertUserResource(userResource);
+            if (rows > 0) {
+                userResourceIndex.add(userResource.getUserId(), userResource.getResourceId());
+                refreshTokenFamilyStore.bumpAuthoritiesVersion(userResource.getUserId());
+            }
+            return rows;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * 批量新增用户资源关联
+     *
+     * @param userResources 用户资源关联列表
+     * @return 结果
+     */
+    @Override
+    public int batchInsertUserResource(List<UserResource> userResources) {
+        if (userResources == null || userResources.isEmpty()) {
+            return 0;
+        }
+        writeLock.lock();
+        try {
+            int rows = userResourceMapper.batchInsertUserResource(userResources);
+            Set<Long> userIds = new HashSet<>();
+            for (UserResource userResource : userResources) {
+                userResourceIndex.add(userResource.getUserId(), userResource.getResourceId());
+                userIds.add(userResource.getUserId());
+            }
+            bumpAuthoritiesVersions(userIds);
+            return rows;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * 为用户分配资源：在一个事务中与当前分配比较，只新增缺少的关联、删除多出的关联，
+     * 分配未变化时不写入，避免整体删除再插入带来的行锁与索引维护开销
+     *
+     * @param userId 用户ID
+     * @param resourceIds 资源ID数组，为空时删除用户的全部关联
+     * @return 新增与删除的关联数之和
+     */
+    @Override
+    public int assignResourcesToUser(Long userId, Long[] resourceIds) {
+        Set<Long> desired = new LinkedHashSet<>();
+        if (resourceIds != null) {
+            for (Long resourceId : resourceIds) {
+                if (resourceId != null) {
+                    desired.add(resourceId);
+                }
+            }
+        }
+        List<Long> added = new ArrayList<>();
+        List<Long> removed = new ArrayList<>();
+        writeLock.lock();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                // 锁定当前关联，其它实例对同一用户的并发分配在此排队
+                Set<Long> current = new HashSet<>(userResourceMapper.selectResourceIdsByUserIdForUpdate(userId));
+                for (Long resourceId : current) {
+                    if (!desired.contains(resourceId)) {
+                        removed.add(resourceId);
+                    }
+                }
+                for (Long resourceId : desired) {
+                    if (!current.contains(resourceId)) {
+                        added.add(resourceId);
+                    }
+                }
+                for (int from = 0; from < removed.size(); from += BATCH_SIZE) {
+                    userResourceMapper.deleteUserResourceByUserIdAndResourceIds(userId,
+                            removed.subList(from, Math.min(from + BATCH_SIZE, removed.size())));
+                }
+                for (int from = 0; from < added.size(); from += BATCH_SIZE) {
+                    List<UserResource> userResources = new ArrayList<>();
+                    for (Long resourceId : added.subList(from, Math.min(from + BATCH_SIZE, added.size()))) {
+                        userResources.add(new UserResource(userId, resourceId));
+                    }
+                    userResourceMapper.batchInsertUserResource(userResources);
+                }
+            });
+            // 事务提交后再更新索引
+            for (Long resourceId : removed) {
+                userResourceIndex.remove(userId, resourceId);
+            }
+            for (Long resourceId : added) {
+                userResourceIndex.add(userId, resourceId);
+            }
+            if (!added.isEmpty() || !removed.isEmpty()) {
+                refreshTokenFamilyStore.bumpAuthoritiesVersion(userId);
+            }
+            return added.size() + removed.size();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * 删除用户资源关联
+     *
+     * @param id 主键ID
+     * @return 结果
+     */
+    @Override
+    public int deleteUserResourceById(Long id) {
+        writeLock.lock();
+        try {
+            UserResource userResource = userResourceMapper.selectUserResourceById(id);
+            int rows = userResourceMapper.deleteUserResourceById(id);
+            if (rows > 0 && userResource != null) {
+                userResourceIndex.remove(userResource.getUserId(), userResource.getResourceId());
+                refreshTokenFamilyStore.bumpAuthoritiesVersion(userResource.getUserId());
+            }
+            return rows;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * 根据用户ID删除用户资源关联
+     *
+     * @param userId 用户ID
+     * @return 结果
+     */
+    @Override
+    public int deleteUserResourceByUserId(Long userId) {
+        writeLock.lock();
+        try {
+            int rows = userResourceMapper.deleteUserResourceByUserId(userId);
+            userResourceIndex.removeUser(userId);
+            refreshTokenFamilyStore.bumpAuthoritiesVersion(userId);
+            return rows;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * 根据资源ID删除用户资源关联
+     *
+     * @param resourceId 资源ID
+     * @return 结果
+     */
+    @Override
+    public int deleteUserResourceByResourceId(Long resourceId) {
+        writeLock.lock();
+        try {
+            // 删除前取得受影响的用户
+            Set<Long> userIds = new HashSet<>();
+            for (UserResource userResource : userResourceMapper.selectUserResourceByResourceId(resourceId)) {
+                userIds.add(userResource.getUserId());
+            }
+            int rows = userResourceMapper.deleteUserResourceByResourceId(resourceId);
+            userResourceIndex.removeResource(resourceId);
+            bumpAuthoritiesVersions(userIds);
+            return rows;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * 删除指定用户的指定资源关联
+     *
+     * @param userId 用户ID
+     * @param resourceId 资源ID
+     * @return 结果
+     */
+    @Override
+    public int deleteUserResourceByUserIdAndResourceId(Long userId, Long resourceId) {
+        writeLock.lock();
+        try {
+            int rows = userResourceMapper.deleteUserResourceByUserIdAndResourceId(userId, resourceId);
+            userResourceIndex.remove(userId, resourceId);
+            if (rows > 0) {
+                refreshTokenFamilyStore.bumpAuthoritiesVersion(userId);
+            }
+            return rows;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * 批量删除用户资源关联
+     *
+     * @param ids 需要删除的ID数组
+     * @return 结果
+     */
+    @Override
+    public int deleteUserResourceByIds(Long[] ids) {
+        if (ids == null || ids.length == 0) {
+            return 0;
+        }
+        writeLock.lock();
+        try {
+            List<UserResource> userResources = userResourceMapper.selectUserResourceByIds(ids);
+            int rows = userResourceMapper.deleteUserResourceByIds(ids);
+            Set<Long> userIds = new HashSet<>();
+            for (UserResource userResource : userResources) {
+                userResourceIndex.remove(userResource.getUserId(), userResource.getResourceId());
+                userIds.add(userResource.getUserId());
+            }
+            bumpAuthoritiesVersions(userIds);
+            return rows;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * 统计用户资源关联总数
+     *
+     * @return 总数
+     */
+    @Override
+    public int countUserResources() {
+        return userResourceMapper.countUserResources();
+    }
+
+    /**
+     * 统计用户拥有的资源数量
+     *
+     * @param userId 用户ID
+     * @return 资源数量
+     */
+    @Override
+    public int countResourcesByUserId(Long userId) {
+        Integer indexed = userResourceIndex.countResourcesByUserId(userId);
+        return indexed != null ? indexed : userResourceMapper.countResourcesByUserId(userId);
+    }
+
+    /**
+     * 统计拥有指定资源的用户数量
+     *
+     * @param resourceId 资源ID
+     * @return 用户数量
+     */
+    @Override
+    public int countUsersByResourceId(Long resourceId) {
+        Integer indexed = userResourceIndex.countUsersByResourceId(resourceId);
+        return indexed != null ? indexed : userResourceMapper.countUsersByResourceId(resourceId);
+    }
+
+    private void bumpAuthoritiesVersions(Set<Long> userIds) {
+        for (Long userId : userIds) {
+            refreshTokenFamilyStore.bumpAuthoritiesVersion(userId);
+        }
+    }
+}
@@ -1,12 +1,28 @@
 package com.ruoyi.module.user.service.impl;
 
+import com.ruoyi.framework.concurrent.SingleFlight;
+import com.ruoyi.framework.security.RefreshTokenFamilyStore;
+import com.ruoyi.framework.utils.PageCursor;
+import com.ruoyi.framework.utils.PageParam;
+import com.ruoyi.framework.utils.PageResult;
+import com.ruoyi.module.user.cache.UserCache;
+import com.ruoyi.module.user.cache.UsernameFilter;
+import com.ruoyi.module.user.cache.UsernameKeys;
 import com.ruoyi.module.user.domain.User;
 import com.ruoyi.module.user.mapper.UserMapper;
 import com.ruoyi.module.user.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * 用户服务实现类
@@ -19,6 +35,37 @@ public class UserServiceImpl implements UserService {
     @Autowired
     private UserMapper userMapper;
 
+    @Autowired
+    private RefreshTokenFamilyStore refreshTokenFamilyStore;
+
+    @Autowired
+    private UsernameFilter usernameFilter;
+
+    @Autowired
+    private UserCache userCache;
+
+    /**
+     * 缓存未命中时合并同一用户的并发查询
+     */
+    private final SingleFlight<Long, User> userByIdFlight;
+
+    /**
+     * 按 {@link UsernameKeys#key(String)} 合并，大小写或末尾空格不同的同一用户名共享一次查询
+     */
+    private final SingleFlight<String, User> userByUsernameFlight;
+
+    /**
+     * 批量查询时每条 IN 语句的ID数量
+     */
+    private final int batchSize;
+
+    public UserServiceImpl(@Value("${user.single-flight.timeout-millis:5000}") long timeoutMillis,
+                           @Value("${user.batch.chunk-size:500}") int batchSize) {
+        this.userByIdFlight = new SingleFlight<>(timeoutMillis);
+        this.userByUsernameFlight = new SingleFlight<>(timeoutMillis);
+        this.batchSize = Math.max(1, batchSize);
+    }
+
     @Override
     public String getUserInfo() {
         return "用户模块服务运行正常";
@@ -35,6 +82,30 @@ public class UserServiceImpl implements UserService {
         return userMapper.selectUserList(user);
     }
 
+    /**
+     * 分页查询用户列表
+     *
+     * @param user 查询条件
+     * @param pageParam 分页参数
+     * @return 分页结果
+     */
+    @Override
+    public PageResult<User> selectUserPage(User user, PageParam pageParam) {
+        Long lastId = PageCursor.decode(pageParam.getCursor());
+        Integer offset = null;
+        if (lastId == null) {
+            offset = pageParam.getOffset();
+            if (offset > PageParam.MAX_OFFSET) {
+                throw new IllegalArgumentException("页码过大，请使用 nextCursor 继续翻页");
+            }
+        }
+        int pageSize = pageParam.getPageSize();
+        // 多取一行判断是否还有下一页
+        List<User> rows = userMapper.selectUserPage(user, lastId, offset, pageSize + 1);
+        Long total = pageParam.shouldCount() ? userMapper.countUserList(user) : null;
+        return PageCursor.page(rows, pageSize, total, User::getId);
+    }
+
     /**
      * 通过用户名查询用户
      *
@@ -43,8 +114,12 @@ public class UserServiceImpl implements UserService {
      */
     @Override
     public User selectUserByUsername(String username) {
-        User user = userMapper.selectUserByUsername(username);
-        return user;
+        // 一定不存在的用户名无需查询数据库
+        if (!usernameFilter.mightExist(username)) {
+            return null;
+        }
+        return userCache.getByUsername(username, name -> userByUsernameFlight.execute(UsernameKeys.key(name),
+                () -> userMapper.selectUserByUsername(name)));
     }
 
     /**
@@ -55,7 +130,41 @@ public class UserServiceImpl implements UserService {
      */
     @Override
     public User selectUserById(Long id) {
-        return userMapper.selectUserById(id);
+        return userCache.getById(id, key -> userByIdFlight.execute(key, () -> userMapper.selectUserById(key)));
+    }
+
+    /**
+     * 通过用户ID批量查询用户
+     *
+     * @param ids 用户ID，可重复
+     * @return 用户ID到用户对象，按 ids 中首次出现的顺序，不存在的用户不返回
+     */
+    @Override
+    public Map<Long, User> selectUserByIds(Collection<Long> ids) {
+        Set<Long> distinct = new LinkedHashSet<>();
+        for (Long id : ids) {
+            if (id != null) {
+                distinct.add(id);
+            }
+        }
+        if (distinct.isEmpty()) {
+            return new LinkedHashMap<>();
+        }
+        return userCache.getAllById(distinct, this::loadUsersByIds);
+    }
+
+    /**
+     * 缓存未命中的ID按 batchSize 分块查询，避免超长的 IN 列表
+     */
+    private List<User> loadUsersByIds(List<Long> ids) {
+        if (ids.size() <= batchSize) {
+            return userMapper.selectUserByIds(ids);
+        }
+        List<User> users = new ArrayList<>(ids.size());
+        for (int from = 0; from < ids.size(); from += batchSize) {
+            users.addAll(userMapper.selectUserByIds(ids.subList(from, Math.min(from + batchSize, ids.size()))));
+        }
+        return users;
     }
 
     /**
@@ -66,6 +175,9 @@ public class UserServiceImpl implements UserService {
      */
     @Override
     public boolean checkUsernameUnique(String username) {
+        if (!usernameFilter.mightExist(username)) {
+            return true;
+        }
         User user = userMapper.checkUsernameUnique(username);
         return user == null;
     }
@@ -78,7 +190,11 @@ public class UserServiceImpl implements UserService {
      */
     @Override
     public int insertUser(User user) {
-        return userMapper.insertUser(user);
+        usernameFilter.put(user.getUsername());
+        int rows = userMapper.insertUser(user);
+        forgetUsername(user.getUsername());
+        userCache.invalidateUsername(user.getUsername());
+        return rows;
     }
 
     /**
@@ -89,7 +205,35 @@ public class UserServiceImpl implements UserService {
      */
     @Override
     public int updateUser(User user) {
-        return userMapper.updateUser(user);
+        if (user.getUsername() != null) {
+            // 可能改名，旧用户名留在过滤器中
+            usernameFilter.put(user.getUsername());
+            usernameFilter.markStale(1);
+        }
+        int rows = userMapper.updateUser(user);
+        forget(user.getId());
+        // 旧快照连同旧用户名索引一起失效，改名时再清理新用户名上可能过时的索引
+        userCache.invalidate(user.getId());
+        userCache.invalidateUsername(user.getUsername());
+        // 资料变化后，令牌族下次刷新时重新加载用户信息
+        refreshTokenFamilyStore.bumpAuthoritiesVersion(user.getId());
+        return rows;
+    }
+
+    /**
+     * 修改用户密码，仅当密码仍为旧值时生效
+     *
+     * @param id 用户ID
+     * @param oldPassword 旧密码哈希
+     * @param newPassword 新密码哈希
+     * @return 结果
+     */
+    @Override
+    public int updateUserPassword(Long id, String oldPassword, String newPassword) {
+        int rows = userMapper.updateUserPassword(id, oldPassword, newPassword);
+        forget(id);
+        userCache.invalidate(id);
+        return rows;
     }
 
     /**
@@ -100,7 +244,12 @@ public class UserServiceImpl implements UserService {
      */
     @Override
     public int deleteUserById(Long id) {
-        return userMapper.deleteUserById(id);
+        int rows = userMapper.deleteUserById(id);
+        forget(id);
+        userCache.invalidate(id);
+        usernameFilter.markStale(rows);
+        refreshTokenFamilyStore.revokeUser(id);
+        return rows;
     }
 
     /**
@@ -111,7 +260,14 @@ public class UserServiceImpl implements UserService {
      */
     @Override
     public int deleteUserByIds(Long[] ids) {
-        return userMapper.deleteUserByIds(ids);
+        int rows = userMapper.deleteUserByIds(ids);
+        for (Long id : ids) {
+            forget(id);
+            userCache.invalidate(id);
+        }
+        usernameFilter.markStale(rows);
+        refreshTokenFamilyStore.revokeUsers(Arrays.asList(ids));
+        return rows;
     }
 
     /**
@@ -123,4 +279,37 @@ public class UserServiceImpl implements UserService {
     public int countUsers() {
         return userMapper.countUsers();
     }
-}
\ No newline at end of file
+
+    /**
+     * 合并查询统计
+     *
+     * @return 统计信息
+     */
+    @Override
+    public Map<String, Object> singleFlightStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("userById", userByIdFlight.stats());
+        stats.put("userByUsername", userByUsernameFlight.stats());
+        return stats;
+    }
+
+    /**
+     * 写入之后的查询不再加入写入前开始的加载。须在失效缓存之前调用：
+     * 失效后未命中的查询只会发起新的加载，不会加入写入前开始、结果已过时的加载
+     *
+     * @param id 用户ID
+     */
+    private void forget(Long id) {
+        if (id != null) {
+            userByIdFlight.forget(id);
+        }
+        // 不知道写入前的用户名，按用户名的加载全部放弃
+        userByUsernameFlight.forgetAll();
+    }
+
+    private void forgetUsername(String username) {
+        if (username != null) {
+            userByUsernameFlight.forget(UsernameKeys.key(username));
+        }
+    }
+}
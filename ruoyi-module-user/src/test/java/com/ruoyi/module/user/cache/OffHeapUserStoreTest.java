@@ -0,0 +1,109 @@
+package com.ruoyi.module.user.cache;
+
+import com.ruoyi.module.user.domain.User;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * OffHeapUserStore 测试类
+ *
+ * @author ruoyi
+ */
+public class OffHeapUserStoreTest {
+
+    private static User user(long id, String username, Integer age) {
+        return new User(id, username, age, "$2a$10$" + username);
+    }
+
+    @Test
+    public void testPutGetAndRename() {
+        OffHeapUserStore store = new OffHeapUserStore(100, 4, 128);
+        assertTrue(store.put(user(1, "Alice", 20), store.epoch()));
+        assertTrue(store.put(user(2, "张三", null), store.epoch()));
+
+        User alice = store.get(1);
+        assertEquals("Alice", alice.getUsername());
+        assertEquals(20, alice.getAge());
+        assertEquals("$2a$10$Alice", alice.getPassword());
+        assertEquals(1L, store.getByUsername("alice  ").getId());
+        assertNull(store.get(2).getAge());
+        assertEquals(2L, store.getByUsername("张三").getId());
+
+        // 覆盖写入时旧用户名索引随之删除
+        assertTrue(store.put(user(1, "Bob", 21), store.epoch()));
+        assertNull(store.getByUsername("alice"));
+        assertEquals(21, store.getByUsername("bob").getAge());
+
+        store.removeByUsername("BOB");
+        assertNull(store.get(1));
+        assertEquals(2L, store.get(2).getId());
+    }
+
+    @Test
+    public void testStaleAndOversizedWritesAreRejected() {
+        OffHeapUserStore store = new OffHeapUserStore(10, 1, 64);
+        long epoch = store.epoch();
+        store.remove(1);
+        assertFalse(store.put(user(1, "alice", 1), epoch));
+        assertNull(store.get(1));
+
+        assertFalse(store.put(user(2, "a".repeat(64), 1), store.epoch()));
+        assertEquals(1L, store.stats().get("oversizedCount"));
+    }
+
+    @Test
+    public void testExpiredRecordsAndRecreatedUsernames() throws Exception {
+        OffHeapUserStore store = new OffHeapUserStore(10, 1, 96, 50);
+        assertTrue(store.put(user(1, "alice", 1), store.epoch()));
+        // 同名用户以新ID重建时旧记录被淘汰
+        assertTrue(store.put(user(2, "Alice", 2), store.epoch()));
+        assertNull(store.get(1));
+        assertEquals(2L, store.getByUsername("alice").getId());
+        assertEquals(1, store.stats().get("size"));
+
+        Thread.sleep(100);
+        assertNull(store.get(2));
+        assertNull(store.getByUsername("alice"));
+        assertEquals(2L, store.stats().get("expiredCount"));
+
+        // 重新加载后可再次命中
+        assertTrue(store.put(user(2, "Alice", 2), store.epoch()));
+        assertEquals(2, store.get(2).getAge());
+        assertEquals(1, store.stats().get("size"));
+    }
+
+    @Test
+    public void testClockEvictionKeepsIndexesConsistent() {
+        int capacity = 1000;
+        OffHeapUserStore store = new OffHeapUserStore(capacity, 3, 96);
+        for (long id = 1; id <= capacity; id++) {
+            store.put(user(id, "user" + id, (int) (id % 100)), store.epoch());
+        }
+        // 前 100 条被访问过，淘汰时优先保留
+        for (long id = 1; id <= 100; id++) {
+            assertNotNull(store.get(id));
+        }
+        for (long id = capacity + 1; id <= capacity + 500; id++) {
+            store.put(user(id, "user" + id, 1), store.epoch());
+        }
+
+        assertEquals(capacity, store.stats().get("size"));
+        assertEquals(500L, store.stats().get("evictionCount"));
+        for (long id = 1; id <= 100; id++) {
+            assertEquals("user" + id, store.getByUsername("USER" + id).getUsername());
+        }
+        int present = 0;
+        for (long id = 1; id <= capacity + 500; id++) {
+            User user = store.get(id);
+            if (user != null) {
+                present++;
+                assertEquals(id, user.getId());
+                assertEquals(id, store.getByUsername("user" + id).getId());
+            } else {
+                assertNull(store.getByUsername("user" + id));
+            }
+        }
+        assertEquals(capacity, present);
+    }
+}
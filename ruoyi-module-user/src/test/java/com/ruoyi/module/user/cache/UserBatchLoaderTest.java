@@ -0,0 +1,94 @@
+package com.ruoyi.module.user.cache;
+
+import com.ruoyi.module.user.domain.User;
+import com.ruoyi.module.user.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * UserBatchLoader 测试类
+ *
+ * @author ruoyi
+ */
+public class UserBatchLoaderTest {
+
+    private UserService userService;
+
+    private UserBatchLoader loader;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        userService = mock(UserService.class);
+        when(userService.selectUserByIds(anyCollection())).thenAnswer(invocation -> {
+            Map<Long, User> users = new LinkedHashMap<>();
+            for (Long id : (Collection<Long>) invocation.getArgument(0)) {
+                if (id % 2 == 0) {
+                    users.put(id, new User(id, "user" + id, 20, "x"));
+                }
+            }
+            return users;
+        });
+        loader = new UserBatchLoader();
+        ReflectionTestUtils.setField(loader, "userService", userService);
+    }
+
+    @Test
+    public void testLoadsAreDispatchedAsOneQuery() {
+        List<CompletableFuture<User>> futures = new ArrayList<>();
+        for (long id = 1; id <= 10; id++) {
+            futures.add(loader.load(id));
+            futures.add(loader.load(id));
+        }
+        assertTrue(futures.stream().noneMatch(CompletableFuture::isDone));
+        verifyNoInteractions(userService);
+
+        loader.dispatch();
+
+        verify(userService, times(1)).selectUserByIds(ids(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L));
+        assertNull(futures.get(0).join());
+        assertEquals("user2", futures.get(2).join().getUsername());
+        assertSame(futures.get(2).join(), futures.get(3).join());
+    }
+
+    @Test
+    public void testLoadedIdsAreNotQueriedAgain() {
+        loader.load(2L);
+        loader.dispatch();
+
+        CompletableFuture<User> again = loader.load(2L);
+        CompletableFuture<User> other = loader.load(4L);
+        loader.dispatch();
+
+        assertEquals(2L, again.join().getId());
+        assertEquals(4L, other.join().getId());
+        verify(userService).selectUserByIds(ids(2L));
+        verify(userService).selectUserByIds(ids(4L));
+        verifyNoMoreInteractions(userService);
+
+        loader.clear(2L);
+        loader.load(2L);
+        loader.dispatch();
+        verify(userService, times(2)).selectUserByIds(ids(2L));
+    }
+
+    /**
+     * 按顺序比较批量查询的ID
+     */
+    private static Collection<Long> ids(Long... ids) {
+        return argThat(actual -> new ArrayList<>(actual).equals(List.of(ids)));
+    }
+}
@@ -0,0 +1,118 @@
+package com.ruoyi.module.user.cache;
+
+import com.ruoyi.module.user.domain.UserResource;
+import com.ruoyi.module.user.mapper.UserResourceMapper;
+import org.apache.ibatis.executor.result.DefaultResultContext;
+import org.apache.ibatis.session.ResultHandler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+/**
+ * UserResourceIndex 测试类
+ *
+ * @author ruoyi
+ */
+public class UserResourceIndexTest {
+
+    private final List<UserResource> rows = new ArrayList<>();
+
+    private UserResourceIndex index;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        UserResourceMapper mapper = mock(UserResourceMapper.class);
+        doAnswer(invocation -> {
+            ResultHandler<UserResource> handler = invocation.getArgument(0);
+            DefaultResultContext<UserResource> context = new DefaultResultContext<>();
+            for (UserResource row : rows) {
+                context.nextResultObject(row);
+                handler.handleResult(context);
+            }
+            return null;
+        }).when(mapper).selectAllUserResourceLinks(any());
+        index = new UserResourceIndex();
+        ReflectionTestUtils.setField(index, "userResourceMapper", mapper);
+        ReflectionTestUtils.setField(index, "enabled", true);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        index.destroy();
+    }
+
+    @Test
+    public void testLookupsAndIncrementalUpdates() {
+        assertNull(index.hasResource(1L, 10L));
+        for (long userId = 1; userId <= 3; userId++) {
+            for (long resourceId = 10; resourceId < 10 + userId; resourceId++) {
+                rows.add(new UserResource(userId, resourceId));
+            }
+        }
+        // 重复行视为一条关联
+        rows.add(new UserResource(3L, 10L));
+        assertEquals(true, index.verify(true).get("repaired"));
+
+        assertTrue(index.hasResource(2L, 11L));
+        assertFalse(index.hasResource(2L, 12L));
+        assertEquals(3, index.countResourcesByUserId(3L));
+        assertEquals(3, index.countUsersByResourceId(10L));
+        assertEquals(6L, index.countLinks());
+
+        index.add(2L, 12L);
+        index.remove(3L, 10L);
+        assertTrue(index.hasResource(2L, 12L));
+        assertEquals(2, index.countUsersByResourceId(10L));
+        assertEquals(List.of(11L, 12L), index.getResourceIds(3L));
+
+        index.removeResource(11L);
+        assertEquals(List.of(10L, 12L), index.getResourceIds(2L));
+        index.removeUser(2L);
+        assertEquals(0, index.countResourcesByUserId(2L));
+        assertEquals(1, index.countUsersByResourceId(12L));
+        assertEquals(2L, index.countLinks());
+    }
+
+    @Test
+    public void testVerifyDetectsAndRepairsDrift() {
+        rows.add(new UserResource(1L, 10L));
+        rows.add(new UserResource(1L, 11L));
+        index.verify(true);
+
+        // 其它途径修改了数据库
+        rows.remove(0);
+        rows.add(new UserResource(2L, 10L));
+        Map<String, Object> result = index.verify(false);
+        assertEquals(1L, result.get("missingInIndex"));
+        assertEquals(1L, result.get("extraInIndex"));
+        assertEquals(false, result.get("repaired"));
+        assertTrue(index.hasResource(1L, 10L));
+
+        assertEquals(true, index.verify(true).get("repaired"));
+        assertFalse(index.hasResource(1L, 10L));
+        assertTrue(index.hasResource(2L, 10L));
+        assertEquals(0L, index.verify(false).get("missingInIndex"));
+    }
+
+    @Test
+    public void testIdsOutOfIntRangeDisableIndex() {
+        rows.add(new UserResource(1L, 10L));
+        index.verify(true);
+        assertTrue(index.isReady());
+
+        index.add(1L + Integer.MAX_VALUE, 10L);
+        assertFalse(index.isReady());
+        assertNull(index.hasResource(1L, 10L));
+    }
+}
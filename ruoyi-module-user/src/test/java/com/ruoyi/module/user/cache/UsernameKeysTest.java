@@ -0,0 +1,35 @@
+package com.ruoyi.module.user.cache;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * UsernameKeys 测试类
+ *
+ * @author ruoyi
+ */
+public class UsernameKeysTest {
+
+    @Test
+    public void testAsciiNamesIgnoreCaseAndTrailingSpaces() {
+        assertEquals("admin", UsernameKeys.normalize("Admin  "));
+        assertEquals(UsernameKeys.normalize("ADMIN"), UsernameKeys.normalize("admin "));
+        assertNotEquals(UsernameKeys.normalize(" admin"), UsernameKeys.normalize("admin"));
+        assertEquals("", UsernameKeys.normalize("   "));
+    }
+
+    @Test
+    public void testNamesThatCannotBeComparedLocally() {
+        assertNull(UsernameKeys.normalize(null));
+        assertNull(UsernameKeys.normalize("张三"));
+        assertNull(UsernameKeys.normalize("ADMİN"));
+    }
+
+    @Test
+    public void testCacheKeysFallBackToExactComparison() {
+        assertEquals("admin", UsernameKeys.key("ADMIN "));
+        assertEquals("张三", UsernameKeys.key("张三"));
+        assertNotEquals(UsernameKeys.key("张三"), UsernameKeys.key("张三 "));
+    }
+}
@@ -0,0 +1,57 @@
+package com.ruoyi.module.user.service.impl;
+
+import com.ruoyi.framework.utils.ExportWriter;
+import com.ruoyi.module.user.mapper.UserMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * ExportServiceImpl 测试类
+ *
+ * @author ruoyi
+ */
+public class ExportServiceImplTest {
+
+    @AfterEach
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    public void testPermitIsReleasedWhenStreamingNeverStarts() throws Exception {
+        UserMapper userMapper = mock(UserMapper.class);
+        ExportServiceImpl exportService = new ExportServiceImpl(mock(PlatformTransactionManager.class), 1, 60, 1000, 1000);
+        ReflectionTestUtils.setField(exportService, "userMapper", userMapper);
+
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        StreamingResponseBody body = exportService.exportUsers(ExportWriter.Format.NDJSON, false, null);
+        assertNotNull(body);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        assertNull(exportService.exportUsers(ExportWriter.Format.NDJSON, false, null));
+
+        // 异步请求超时结束，写出逻辑始终没有运行
+        WebAsyncUtils.getAsyncManager(request)
+                .getCallableInterceptor(ExportServiceImpl.class.getName())
+                .afterCompletion(null, null);
+        assertEquals(0, exportService.stats().get("active"));
+
+        // 迟到的写出不再查询数据库，也不重复释放名额
+        body.writeTo(new ByteArrayOutputStream());
+        verifyNoInteractions(userMapper);
+        assertEquals(0, exportService.stats().get("active"));
+        assertNotNull(exportService.exportUsers(ExportWriter.Format.NDJSON, false, null));
+    }
+}
@@ -0,0 +1,99 @@
+package com.ruoyi.module.user.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ruoyi.module.user.cache.UsernameFilter;
+import com.ruoyi.module.user.domain.User;
+import com.ruoyi.module.user.dto.UserImportResult;
+import com.ruoyi.module.user.mapper.UserMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * UserImportServiceImpl 测试类
+ *
+ * @author ruoyi
+ */
+public class UserImportServiceImplTest {
+
+    private static final BCryptPasswordEncoder ENCODER = new BCryptPasswordEncoder(4);
+
+    private final UserMapper mapper = mock(UserMapper.class);
+
+    private UserImportServiceImpl service;
+
+    @AfterEach
+    public void tearDown() {
+        service.destroy();
+    }
+
+    @Test
+    public void testHashLikePasswordsAreHashedByDefault() throws Exception {
+        String strongHash = ENCODER.encode("secret").replaceFirst("\\$04\\$", "\\$12\\$");
+        service = createService(false);
+
+        UserImportResult result = importLines(line("alice", strongHash));
+
+        assertEquals(1, result.getImported());
+        String stored = insertedUsers().get(0).getPassword();
+        assertNotEquals(strongHash, stored);
+        assertTrue(ENCODER.matches(strongHash, stored));
+    }
+
+    @Test
+    public void testAcceptedHashesMustBeWellFormedAndStrongEnough() throws Exception {
+        String weakHash = ENCODER.encode("secret");
+        String strongHash = weakHash.replaceFirst("\\$04\\$", "\\$12\\$");
+        String malformed = "$2a$12$" + "!".repeat(53);
+        service = createService(true);
+
+        UserImportResult result = importLines(line("alice", strongHash), line("bob", weakHash), line("carol", malformed));
+
+        assertEquals(2, result.getImported());
+        assertEquals(1, result.getFailed());
+        assertEquals("bob", result.getErrors().get(0).getUsername());
+        List<User> users = insertedUsers();
+        assertEquals(strongHash, users.get(0).getPassword());
+        assertTrue(ENCODER.matches(malformed, users.get(1).getPassword()));
+    }
+
+    private UserImportServiceImpl createService(boolean acceptBcryptHashes) {
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        UsernameFilter usernameFilter = mock(UsernameFilter.class);
+        UserImportServiceImpl importService = new UserImportServiceImpl(new ObjectMapper(), transactionManager,
+                1, 100, 100, 100, acceptBcryptHashes, 10);
+        ReflectionTestUtils.setField(importService, "userMapper", mapper);
+        ReflectionTestUtils.setField(importService, "usernameFilter", usernameFilter);
+        ReflectionTestUtils.setField(importService, "passwordEncoder", ENCODER);
+        return importService;
+    }
+
+    private UserImportResult importLines(String... lines) throws Exception {
+        byte[] body = String.join("\n", lines).getBytes(StandardCharsets.UTF_8);
+        return service.importUsers(new ByteArrayInputStream(body));
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<User> insertedUsers() {
+        ArgumentCaptor<List<User>> captor = ArgumentCaptor.forClass(List.class);
+        verify(mapper).batchInsertUsers(captor.capture());
+        return captor.getValue();
+    }
+
+    private static String line(String username, String password) {
+        return "{\"username\":\"" + username + "\",\"password\":\"" + password + "\"}";
+    }
+}
@@ -0,0 +1,146 @@
+package com.ruoyi.module.user.service.impl;
+
+import com.ruoyi.framework.security.RefreshTokenFamilyStore;
+import com.ruoyi.framework.utils.JwtUtils;
+import com.ruoyi.module.user.cache.UserResourceIndex;
+import com.ruoyi.module.user.domain.Resource;
+import com.ruoyi.module.user.domain.User;
+import com.ruoyi.module.user.domain.UserResource;
+import com.ruoyi.module.user.dto.LoginResponse;
+import com.ruoyi.module.user.mapper.ResourceMapper;
+import com.ruoyi.module.user.mapper.UserResourceMapper;
+import com.ruoyi.module.user.service.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * UserResourceServiceImpl 测试类
+ *
+ * @author ruoyi
+ */
+public class UserResourceServiceImplTest {
+
+    private UserResourceMapper mapper;
+
+    private UserResourceIndex index;
+
+    private PlatformTransactionManager transactionManager;
+
+    private RefreshTokenFamilyStore familyStore;
+
+    private UserResourceServiceImpl service;
+
+    @BeforeEach
+    public void setUp() {
+        mapper = mock(UserResourceMapper.class);
+        index = mock(UserResourceIndex.class);
+        transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        familyStore = new RefreshTokenFamilyStore(7 * 24 * 3600 * 1000L, null);
+        service = new UserResourceServiceImpl(transactionManager);
+        ReflectionTestUtils.setField(service, "userResourceMapper", mapper);
+        ReflectionTestUtils.setField(service, "userResourceIndex", index);
+        ReflectionTestUtils.setField(service, "refreshTokenFamilyStore", familyStore);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        familyStore.close();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testAssignWritesOnlyTheDifference() {
+        when(mapper.selectResourceIdsByUserIdForUpdate(7L)).thenReturn(List.of(1L, 2L, 3L));
+
+        long version = familyStore.currentAuthoritiesVersion(7L);
+        assertEquals(3, service.assignResourcesToUser(7L, new Long[]{2L, 3L, 4L, 5L, 4L, null}));
+        assertNotEquals(version, familyStore.currentAuthoritiesVersion(7L));
+
+        ArgumentCaptor<Collection<Long>> deleted = ArgumentCaptor.forClass(Collection.class);
+        verify(mapper).deleteUserResourceByUserIdAndResourceIds(eq(7L), deleted.capture());
+        assertEquals(List.of(1L), new ArrayList<>(deleted.getValue()));
+        ArgumentCaptor<List<UserResource>> inserted = ArgumentCaptor.forClass(List.class);
+        verify(mapper).batchInsertUserResource(inserted.capture());
+        assertEquals(List.of(4L, 5L), inserted.getValue().stream().map(UserResource::getResourceId).toList());
+        verify(mapper, never()).deleteUserResourceByUserId(any());
+        verify(transactionManager).commit(any());
+
+        verify(index).remove(7L, 1L);
+        verify(index).add(7L, 4L);
+        verify(index).add(7L, 5L);
+    }
+
+    @Test
+    public void testUnchangedAssignmentWritesNothing() {
+        when(mapper.selectResourceIdsByUserIdForUpdate(7L)).thenReturn(List.of(1L, 2L));
+        long version = familyStore.currentAuthoritiesVersion(7L);
+
+        assertEquals(0, service.assignResourcesToUser(7L, new Long[]{2L, 1L}));
+        assertEquals(version, familyStore.currentAuthoritiesVersion(7L));
+
+        verify(mapper, never()).deleteUserResourceByUserIdAndResourceIds(any(), anyCollection());
+        verify(mapper, never()).batchInsertUserResource(anyList());
+        verifyNoInteractions(index);
+    }
+
+    @Test
+    public void testFailedTransactionLeavesIndexUntouched() {
+        when(mapper.selectResourceIdsByUserIdForUpdate(7L)).thenReturn(List.of(1L));
+        when(mapper.batchInsertUserResource(anyList())).thenThrow(new IllegalStateException("写入失败"));
+
+        assertThrows(IllegalStateException.class, () -> service.assignResourcesToUser(7L, new Long[]{2L}));
+
+        verify(transactionManager).rollback(any());
+        verifyNoInteractions(index);
+    }
+
+    @Test
+    public void testRevokedResourceIsDroppedOnNextRefresh() {
+        ResourceMapper resourceMapper = mock(ResourceMapper.class);
+        // 撤销 user:edit 之后数据库中的权限
+        when(resourceMapper.selectResourcesByUserId(7L)).thenReturn(List.of(new Resource(2L, "user:view")));
+        UserService userService = mock(UserService.class);
+        when(userService.selectUserById(7L)).thenReturn(new User(7L, "alice", 20, null));
+        JwtUtils jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "expiration", 3600000L);
+        ReflectionTestUtils.setField(jwtUtils, "refreshExpiration", 7 * 24 * 3600 * 1000L);
+        AuthServiceImpl authService = new AuthServiceImpl();
+        ReflectionTestUtils.setField(authService, "userService", userService);
+        ReflectionTestUtils.setField(authService, "jwtUtils", jwtUtils);
+        ReflectionTestUtils.setField(authService, "resourceMapper", resourceMapper);
+        ReflectionTestUtils.setField(authService, "refreshTokenFamilyStore", familyStore);
+        ReflectionTestUtils.setField(authService, "jwtExpiration", 3600000L);
+        ReflectionTestUtils.setField(authService, "authoritiesMode", "string");
+
+        // 登录时的权限快照
+        RefreshTokenFamilyStore.Family family = familyStore.create(7L, "alice", "ROLE_USER,user:edit,user:view", null);
+        String refreshToken = jwtUtils.generateRefreshToken("alice", family.getFamilyId(), family.getCurrentTokenId());
+        LoginResponse refreshed = authService.refreshToken(refreshToken);
+        assertEquals("ROLE_USER,user:edit,user:view", refreshed.getAuthorities());
+        verifyNoInteractions(userService, resourceMapper);
+
+        when(mapper.deleteUserResourceByUserIdAndResourceId(7L, 1L)).thenReturn(1);
+        service.deleteUserResourceByUserIdAndResourceId(7L, 1L);
+
+        refreshed = authService.refreshToken(refreshed.getRefreshToken());
+        assertEquals("ROLE_USER,user:view", refreshed.getAuthorities());
+        assertEquals("ROLE_USER,user:view", jwtUtils.parseToken(refreshed.getAccessToken()).getAuthorities());
+    }
+}
@@ -0,0 +1,57 @@
+package com.ruoyi.server.config;
+
+import com.ruoyi.framework.concurrent.DbPermitDataSource;
+import com.ruoyi.framework.concurrent.VirtualThreadPinningMonitor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * 虚拟线程模式配置
+ * 以 virtual profile 启动（需要 JDK 21+）时 Tomcat 与 Spring 异步执行器运行在虚拟线程上，
+ * 此时启用数据库并发许可与钉住监控；密码校验执行器仍使用固定数量的平台线程，BCrypt 是纯 CPU 计算，
+ * 放到虚拟线程上只会让哈希计算占满所有载体线程
+ *
+ * @author ruoyi
+ */
+@Configuration
+public class VirtualThreadConfig {
+
+    /**
+     * 数据库并发许可：把连接池包装为获取连接前先获取许可的数据源，许可随连接关闭释放
+     */
+    @Bean
+    @ConditionalOnProperty(name = "db.permits.enabled", havingValue = "true")
+    public static BeanPostProcessor dbPermitDataSourcePostProcessor(
+            @Value("${db.permits.max-concurrent:${spring.datasource.hikari.maximum-pool-size:10}}") int maxConcurrent,
+            @Value("${db.permits.acquire-timeout-millis:3000}") long acquireTimeoutMillis) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof DbPermitDataSource)) {
+                    return new DbPermitDataSource(dataSource, maxConcurrent, acquireTimeoutMillis);
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * 虚拟线程钉住监控
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    @ConditionalOnProperty(name = "virtual-threads.pinning-monitor.enabled", havingValue = "true",
+            matchIfMissing = true)
+    public VirtualThreadPinningMonitor virtualThreadPinningMonitor(
+            @Value("${virtual-threads.pinning-monitor.threshold-millis:20}") long thresholdMillis,
+            @Value("${virtual-threads.pinning-monitor.stack-depth:8}") int stackDepth) {
+        return new VirtualThreadPinningMonitor(thresholdMillis, stackDepth);
+    }
+}
@@ -0,0 +1,394 @@
+package com.ruoyi.verifier;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.AlgorithmParameters;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.Signature;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.ECParameterSpec;
+import java.security.spec.ECPoint;
+import java.security.spec.ECPublicKeySpec;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 基于 JWKS 的本地令牌验证器
+ * 从认证服务的 /auth/jwks 拉取 ES256 公钥并按 kid 缓存，下游服务无需再调用 /auth/validate。
+ * 公钥按缓存时间（响应的 Cache-Control max-age，缺省为 refreshInterval）定期刷新；
+ * 遇到未知 kid 时立即刷新一次，但两次刷新间隔不小于 minRefreshInterval，防止伪造 kid 的请求压垮认证服务。
+ * 刷新失败时继续使用已缓存的公钥。
+ * 注意：本地验证无法感知登出吊销，访问令牌在过期前始终有效，需要即时吊销的接口仍应调用认证服务。
+ * 线程安全，整个应用共享一个实例即可。
+ *
+ * @author ruoyi
+ */
+public final class JwksTokenVerifier {
+
+    private static final String ALGORITHM = "ES256";
+
+    private static final int SIGNATURE_LENGTH = 64;
+
+    private static final int COORDINATE_LENGTH = 32;
+
+    private static final Pattern MAX_AGE = Pattern.compile("max-age=(\\d+)");
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final TypeReference<Map<String, Object>> CLAIMS_TYPE = new TypeReference<>() {
+    };
+
+    private static final ThreadLocal<Signature> SIGNATURE = ThreadLocal.withInitial(() -> {
+        try {
+            return Signature.getInstance("SHA256withECDSAinP1363Format");
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("当前 JDK 不支持 ES256", e);
+        }
+    });
+
+    private final URI jwksUri;
+
+    private final HttpClient httpClient;
+
+    private final Duration requestTimeout;
+
+    private final long refreshIntervalMillis;
+
+    private final long minRefreshIntervalMillis;
+
+    private final long clockSkewSeconds;
+
+    private final Clock clock;
+
+    /**
+     * 当前公钥，键为 kid，整体替换
+     */
+    private volatile Map<String, ECPublicKey> keys = Collections.emptyMap();
+
+    /**
+     * 公钥缓存过期时间（毫秒时间戳）
+     */
+    private volatile long keysExpireAt;
+
+    /**
+     * 上次尝试刷新的时间（毫秒时间戳）
+     */
+    private volatile long lastRefreshAttempt;
+
+    private JwksTokenVerifier(Builder builder) {
+        this.jwksUri = builder.jwksUri;
+        this.httpClient = builder.httpClient != null ? builder.httpClient
+                : HttpClient.newBuilder().connectTimeout(builder.requestTimeout).build();
+        this.requestTimeout = builder.requestTimeout;
+        this.refreshIntervalMillis = builder.refreshInterval.toMillis();
+        this.minRefreshIntervalMillis = builder.minRefreshInterval.toMillis();
+        this.clockSkewSeconds = builder.clockSkew.getSeconds();
+        this.clock = builder.clock;
+    }
+
+    /**
+     * 创建构建器
+     *
+     * @param jwksUri 认证服务的 JWKS 地址，例如 https://auth.example.com/auth/jwks
+     */
+    public static Builder builder(URI jwksUri) {
+        return new Builder(jwksUri);
+    }
+
+    /**
+     * 验证令牌
+     *
+     * @param token JWT（不带 Bearer 前缀）
+     * @return 已验证的声明
+     * @throws TokenVerificationException 令牌格式错误、签名无效、已过期或为刷新令牌
+     */
+    public VerifiedToken verify(String token) {
+        if (token == null) {
+            throw new TokenVerificationException("令牌为空");
+        }
+        int firstDot = token.indexOf('.');
+        int secondDot = firstDot < 0 ? -1 : token.indexOf('.', firstDot + 1);
+        if (firstDot <= 0 || secondDot < 0 || secondDot == firstDot + 1 || secondDot == token.length() - 1
+                || token.indexOf('.', secondDot + 1) >= 0) {
+            throw new TokenVerificationException("令牌格式错误");
+        }
+
+        JsonNode header = readTree(decode(token, 0, firstDot));
+        if (!ALGORITHM.equals(header.path("alg").asText(null))) {
+            throw new TokenVerificationException("不支持的签名算法: " + header.path("alg").asText(null));
+        }
+        if (header.has("crit")) {
+            throw new TokenVerificationException("不支持的头部参数: crit");
+        }
+        String keyId = header.path("kid").asText(null);
+        if (keyId == null) {
+            throw new TokenVerificationException("令牌缺少 kid");
+        }
+
+        byte[] signature = decode(token, secondDot + 1, token.length());
+        if (signature.length != SIGNATURE_LENGTH) {
+            throw new TokenVerificationException("签名长度错误");
+        }
+        ECPublicKey key = resolveKey(keyId);
+        if (!verifySignature(key, token.substring(0, secondDot).getBytes(StandardCharsets.US_ASCII), signature)) {
+            throw new TokenVerificationException("签名无效");
+        }
+
+        Map<String, Object> claims;
+        try {
+            claims = MAPPER.readValue(decode(token, firstDot + 1, secondDot), CLAIMS_TYPE);
+        } catch (IOException e) {
+            throw new TokenVerificationException("令牌声明格式错误", e);
+        }
+        checkTimes(claims);
+        if ("refresh".equals(claims.get("type"))) {
+            throw new TokenVerificationException("刷新令牌不能用于访问");
+        }
+        return new VerifiedToken(keyId, claims);
+    }
+
+    /**
+     * 当前缓存的公钥数量
+     */
+    public int getKeyCount() {
+        return keys.size();
+    }
+
+    /**
+     * 按 kid 获取公钥，缓存过期或 kid 未知时刷新
+     */
+    private ECPublicKey resolveKey(String keyId) {
+        long now = clock.millis();
+        if (now >= keysExpireAt) {
+            refresh(now);
+        }
+        ECPublicKey key = keys.get(keyId);
+        if (key == null && now - lastRefreshAttempt >= minRefreshIntervalMillis) {
+            refresh(now);
+            key = keys.get(keyId);
+        }
+        if (key == null) {
+            throw new TokenVerificationException("未知的签名密钥: " + keyId);
+        }
+        return key;
+    }
+
+    /**
+     * 拉取 JWKS，同一时刻只有一个线程刷新，其余线程等待后直接使用新结果
+     */
+    private synchronized void refresh(long requestedAt) {
+        if (lastRefreshAttempt >= requestedAt) {
+            // 等待锁期间其他线程已完成刷新
+            return;
+        }
+        long now = clock.millis();
+        lastRefreshAttempt = now;
+        try {
+            HttpResponse<String> response = httpClient.send(
+                    HttpRequest.newBuilder(jwksUri).timeout(requestTimeout).GET().build(),
+                    HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+            if (response.statusCode() != 200) {
+                throw new IOException("HTTP " + response.statusCode());
+            }
+            keys = parseJwks(response.body());
+            keysExpireAt = now + maxAgeMillis(response.headers().firstValue("Cache-Control").orElse(null));
+        } catch (IOException | RuntimeException e) {
+            // 保留旧公钥，最短刷新间隔后再试
+            keysExpireAt = now + minRefreshIntervalMillis;
+            System.getLogger(JwksTokenVerifier.class.getName()).log(System.Logger.Level.WARNING,
+                    "拉取 JWKS 失败: " + jwksUri + ": " + e.getMessage());
+        } catch (InterruptedException e) {
+            keysExpireAt = now + minRefreshIntervalMillis;
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private long maxAgeMillis(String cacheControl) {
+        if (cacheControl != null) {
+            Matcher matcher = MAX_AGE.matcher(cacheControl);
+            if (matcher.find()) {
+                try {
+                    return Math.max(minRefreshIntervalMillis, Long.parseLong(matcher.group(1)) * 1000L);
+                } catch (NumberFormatException ignored) {
+                    // 使用默认刷新间隔
+                }
+            }
+        }
+        return refreshIntervalMillis;
+    }
+
+    private void checkTimes(Map<String, Object> claims) {
+        long now = clock.millis() / 1000L;
+        Object exp = claims.get("exp");
+        if (!(exp instanceof Number)) {
+            throw new TokenVerificationException("令牌缺少过期时间");
+        }
+        if (now - clockSkewSeconds >= ((Number) exp).longValue()) {
+            throw new TokenVerificationException("令牌已过期");
+        }
+        Object nbf = claims.get("nbf");
+        if (nbf instanceof Number && now + clockSkewSeconds < ((Number) nbf).longValue()) {
+            throw new TokenVerificationException("令牌尚未生效");
+        }
+    }
+
+    private static boolean verifySignature(ECPublicKey key, byte[] signingInput, byte[] signature) {
+        Signature engine = SIGNATURE.get();
+        try {
+            engine.initVerify(key);
+            engine.update(signingInput);
+            return engine.verify(signature);
+        } catch (GeneralSecurityException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 解析 JWK 集合，只保留 P-256 的 ES256 签名公钥，其余条目忽略
+     *
+     * @param json JWKS 文档
+     * @return kid 到公钥的映射
+     */
+    static Map<String, ECPublicKey> parseJwks(String json) throws IOException {
+        JsonNode keysNode = MAPPER.readTree(json).path("keys");
+        if (!keysNode.isArray()) {
+            throw new IOException("JWKS 缺少 keys 数组");
+        }
+        Map<String, ECPublicKey> result = new HashMap<>();
+        for (JsonNode jwk : keysNode) {
+            if (!"EC".equals(jwk.path("kty").asText()) || !"P-256".equals(jwk.path("crv").asText())
+                    || !jwk.path("kid").isTextual()
+                    || (jwk.has("use") && !"sig".equals(jwk.path("use").asText()))
+                    || (jwk.has("alg") && !ALGORITHM.equals(jwk.path("alg").asText()))) {
+                continue;
+            }
+            try {
+                result.put(jwk.path("kid").asText(), toPublicKey(jwk.path("x").asText(), jwk.path("y").asText()));
+            } catch (GeneralSecurityException | IllegalArgumentException e) {
+                System.getLogger(JwksTokenVerifier.class.getName()).log(System.Logger.Level.WARNING,
+                        "忽略无效的 JWK kid=" + jwk.path("kid").asText() + ": " + e.getMessage());
+            }
+        }
+        return Collections.unmodifiableMap(result);
+    }
+
+    private static ECPublicKey toPublicKey(String x, String y) throws GeneralSecurityException {
+        byte[] xBytes = Base64.getUrlDecoder().decode(x);
+        byte[] yBytes = Base64.getUrlDecoder().decode(y);
+        if (xBytes.length != COORDINATE_LENGTH || yBytes.length != COORDINATE_LENGTH) {
+            throw new IllegalArgumentException("坐标长度错误");
+        }
+        AlgorithmParameters parameters = AlgorithmParameters.getInstance("EC");
+        parameters.init(new ECGenParameterSpec("secp256r1"));
+        ECParameterSpec spec = parameters.getParameterSpec(ECParameterSpec.class);
+        ECPoint point = new ECPoint(new BigInteger(1, xBytes), new BigInteger(1, yBytes));
+        return (ECPublicKey) KeyFactory.getInstance("EC").generatePublic(new ECPublicKeySpec(point, spec));
+    }
+
+    private static byte[] decode(String token, int start, int end) {
+        try {
+            return Base64.getUrlDecoder().decode(token.substring(start, end));
+        } catch (IllegalArgumentException e) {
+            throw new TokenVerificationException("令牌编码错误", e);
+        }
+    }
+
+    private static JsonNode readTree(byte[] json) {
+        try {
+            return MAPPER.readTree(json);
+        } catch (IOException e) {
+            throw new TokenVerificationException("令牌头部格式错误", e);
+        }
+    }
+
+    /**
+     * 构建器
+     */
+    public static final class Builder {
+
+        private final URI jwksUri;
+
+        private HttpClient httpClient;
+
+        private Duration requestTimeout = Duration.ofSeconds(5);
+
+        private Duration refreshInterval = Duration.ofMinutes(5);
+
+        private Duration minRefreshInterval = Duration.ofSeconds(30);
+
+        private Duration clockSkew = Duration.ofSeconds(30);
+
+        private Clock clock = Clock.systemUTC();
+
+        private Builder(URI jwksUri) {
+            this.jwksUri = Objects.requireNonNull(jwksUri, "jwksUri");
+        }
+
+        /**
+         * 自定义 HttpClient（代理、TLS 等）
+         */
+        public Builder httpClient(HttpClient httpClient) {
+            this.httpClient = httpClient;
+            return this;
+        }
+
+        /**
+         * 拉取 JWKS 的超时时间，默认 5 秒
+         */
+        public Builder requestTimeout(Duration requestTimeout) {
+            this.requestTimeout = requestTimeout;
+            return this;
+        }
+
+        /**
+         * 响应未携带 max-age 时的公钥缓存时间，默认 5 分钟
+         */
+        public Builder refreshInterval(Duration refreshInterval) {
+            this.refreshInterval = refreshInterval;
+            return this;
+        }
+
+        /**
+         * 两次刷新的最小间隔，默认 30 秒
+         */
+        public Builder minRefreshInterval(Duration minRefreshInterval) {
+            this.minRefreshInterval = minRefreshInterval;
+            return this;
+        }
+
+        /**
+         * 校验 exp/nbf 时允许的时钟偏差，默认 30 秒
+         */
+        public Builder clockSkew(Duration clockSkew) {
+            this.clockSkew = clockSkew;
+            return this;
+        }
+
+        public Builder clock(Clock clock) {
+            this.clock = clock;
+            return this;
+        }
+
+        public JwksTokenVerifier build() {
+            return new JwksTokenVerifier(this);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.ruoyi.verifier;
+
+/**
+ * 令牌验证失败异常
+ *
+ * @author ruoyi
+ */
+public class TokenVerificationException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public TokenVerificationException(String message) {
+        super(message);
+    }
+
+    public TokenVerificationException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,90 @@
+package com.ruoyi.verifier;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * 已验证令牌的声明
+ *
+ * @author ruoyi
+ */
+public final class VerifiedToken {
+
+    private final String keyId;
+
+    private final Map<String, Object> claims;
+
+    VerifiedToken(String keyId, Map<String, Object> claims) {
+        this.keyId = keyId;
+        this.claims = Collections.unmodifiableMap(claims);
+    }
+
+    /**
+     * 签名密钥的 kid
+     */
+    public String getKeyId() {
+        return keyId;
+    }
+
+    /**
+     * 用户名（sub）
+     */
+    public String getSubject() {
+        return getString("sub");
+    }
+
+    public Long getUserId() {
+        Object value = claims.get("userId");
+        return value instanceof Number ? ((Number) value).longValue() : null;
+    }
+
+    public String getUsername() {
+        return getString("username");
+    }
+
+    /**
+     * 逗号分隔的权限列表
+     */
+    public String getAuthorities() {
+        return getString("authorities");
+    }
+
+    /**
+     * 令牌ID（jti）
+     */
+    public String getTokenId() {
+        return getString("jti");
+    }
+
+    public Instant getIssuedAt() {
+        return getInstant("iat");
+    }
+
+    public Instant getExpiresAt() {
+        return getInstant("exp");
+    }
+
+    /**
+     * 全部声明（只读）
+     */
+    public Map<String, Object> getClaims() {
+        return claims;
+    }
+
+    private String getString(String name) {
+        Object value = claims.get(name);
+        return value instanceof String ? (String) value : null;
+    }
+
+    private Instant getInstant(String name) {
+        Object value = claims.get(name);
+        return value instanceof Number ? Instant.ofEpochSecond(((Number) value).longValue()) : null;
+    }
+
+    @Override
+    public String toString() {
+        return "VerifiedToken{kid=" + keyId + ", sub=" + getSubject() + ", jti=" + getTokenId()
+                + ", exp=" + getExpiresAt() + "}";
+    }
+}
@@ -0,0 +1,116 @@
+package com.ruoyi.verifier;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ruoyi.framework.utils.JwtUtils;
+import com.ruoyi.framework.utils.SigningKeyRing;
+import com.sun.net.httpserver.HttpServer;
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JwksTokenVerifier 测试类
+ * 使用框架模块签发 ES256 令牌，通过本地 HTTP 服务发布 JWKS
+ *
+ * @author ruoyi
+ */
+public class JwksTokenVerifierTest {
+
+    private final SigningKeyRing keyRing = SigningKeyRing.ephemeral(SignatureAlgorithm.ES256);
+
+    private final JwtUtils jwtUtils = new JwtUtils(keyRing);
+
+    private final AtomicInteger fetches = new AtomicInteger();
+
+    private HttpServer server;
+
+    private JwksTokenVerifier verifier;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        ReflectionTestUtils.setField(jwtUtils, "expiration", 60_000L);
+        ReflectionTestUtils.setField(jwtUtils, "refreshExpiration", 120_000L);
+
+        byte[] body = new ObjectMapper().writeValueAsBytes(
+                Collections.singletonMap("keys", keyRing.getPublicJwks()));
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/auth/jwks", exchange -> {
+            fetches.incrementAndGet();
+            exchange.getResponseHeaders().add("Cache-Control", "public, max-age=300");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        verifier = JwksTokenVerifier.builder(
+                URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/auth/jwks")).build();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.stop(0);
+        keyRing.close();
+    }
+
+    @Test
+    public void testVerifiesTokenIssuedByAuthService() {
+        VerifiedToken token = verifier.verify(jwtUtils.generateToken("admin", 1L, "ROLE_USER,ROLE_ADMIN"));
+        assertEquals("admin", token.getSubject());
+        assertEquals(1L, token.getUserId());
+        assertEquals("ROLE_USER,ROLE_ADMIN", token.getAuthorities());
+        assertEquals(keyRing.getSigningKey().getKeyId(), token.getKeyId());
+        assertNotNull(token.getTokenId());
+
+        // 公钥已缓存，不再重复拉取
+        verifier.verify(jwtUtils.generateToken("user", 2L, "ROLE_USER"));
+        assertEquals(1, fetches.get());
+    }
+
+    @Test
+    public void testRejectsInvalidTokens() {
+        String token = jwtUtils.generateToken("admin", 1L, "ROLE_USER");
+        String payload = new String(Base64.getUrlEncoder().withoutPadding().encode(
+                "{\"sub\":\"root\",\"exp\":9999999999}".getBytes(StandardCharsets.UTF_8)), StandardCharsets.US_ASCII);
+        String[] parts = token.split("\\.");
+
+        assertThrows(TokenVerificationException.class, () -> verifier.verify(parts[0] + "." + payload + "." + parts[2]));
+        assertThrows(TokenVerificationException.class, () -> verifier.verify(parts[0] + "." + parts[1]));
+        assertThrows(TokenVerificationException.class, () -> verifier.verify(token + "x"));
+        assertThrows(TokenVerificationException.class, () -> verifier.verify(jwtUtils.generateRefreshToken("admin")));
+        // HS512 令牌不能通过公钥验证
+        JwtUtils hmac = new JwtUtils();
+        ReflectionTestUtils.setField(hmac, "expiration", 60_000L);
+        String hmacToken = hmac.generateToken("admin", 1L, "ROLE_USER");
+        assertThrows(TokenVerificationException.class, () -> verifier.verify(hmacToken));
+    }
+
+    @Test
+    public void testUnknownKeyRefreshIsRateLimited() {
+        SigningKeyRing otherRing = SigningKeyRing.ephemeral(SignatureAlgorithm.ES256);
+        JwtUtils other = new JwtUtils(otherRing);
+        ReflectionTestUtils.setField(other, "expiration", 60_000L);
+        try {
+            verifier.verify(jwtUtils.generateToken("admin", 1L, "ROLE_USER"));
+            for (int i = 0; i < 10; i++) {
+                assertThrows(TokenVerificationException.class,
+                        () -> verifier.verify(other.generateToken("admin", 1L, "ROLE_USER")));
+            }
+            assertEquals(1, fetches.get());
+        } finally {
+            otherRing.close();
+        }
+    }
+}